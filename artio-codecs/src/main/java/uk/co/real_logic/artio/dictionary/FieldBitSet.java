@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+/**
+ * Set of fields used by generated decoders to validate messages. Each field of a decoder is given a dense index
+ * by the code generator, with required fields first, so that the set can be backed by a few words rather than
+ * hashing each tag.
+ */
+public final class FieldBitSet
+{
+    public static final int NO_FIELD_INDEX = -1;
+
+    private final long[] words;
+
+    public FieldBitSet(final int fieldCount)
+    {
+        words = new long[Math.max(1, (fieldCount + Long.SIZE - 1) >>> 6)];
+    }
+
+    /**
+     * Add a field to the set.
+     *
+     * @param fieldIndex the index of the field.
+     * @return true if the field wasn't already in the set, false otherwise.
+     */
+    public boolean add(final int fieldIndex)
+    {
+        final long[] words = this.words;
+        final int wordIndex = fieldIndex >>> 6;
+        final long word = words[wordIndex];
+        final long bit = 1L << fieldIndex;
+        words[wordIndex] = word | bit;
+        return (word & bit) == 0;
+    }
+
+    public void remove(final int fieldIndex)
+    {
+        words[fieldIndex >>> 6] &= ~(1L << fieldIndex);
+    }
+
+    /**
+     * Set the set to contain the fields from index 0 until fieldCount, removing any other fields.
+     *
+     * @param fieldCount the number of fields to add.
+     */
+    public void copyFirst(final int fieldCount)
+    {
+        final long[] words = this.words;
+        final int fullWords = fieldCount >>> 6;
+        for (int i = 0; i < words.length; i++)
+        {
+            if (i < fullWords)
+            {
+                words[i] = -1L;
+            }
+            else if (i == fullWords)
+            {
+                // The shift is modulo 64, so this is empty when fieldCount is a multiple of 64.
+                words[i] = (1L << fieldCount) - 1L;
+            }
+            else
+            {
+                words[i] = 0;
+            }
+        }
+    }
+
+    public void clear()
+    {
+        final long[] words = this.words;
+        for (int i = 0; i < words.length; i++)
+        {
+            words[i] = 0;
+        }
+    }
+
+    /**
+     * Get the lowest field index within the set.
+     *
+     * @return the lowest field index within the set or {@link #NO_FIELD_INDEX} if the set is empty.
+     */
+    public int first()
+    {
+        final long[] words = this.words;
+        for (int i = 0; i < words.length; i++)
+        {
+            final long word = words[i];
+            if (word != 0)
+            {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return NO_FIELD_INDEX;
+    }
+}
@@ -18,7 +18,10 @@ package uk.co.real_logic.artio.dictionary.generation;
 import org.agrona.generation.OutputManager;
 import org.agrona.generation.PackageOutputManager;
 
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.*;
 import java.util.function.BiFunction;
 
 public final class CodecConfiguration
@@ -54,6 +57,19 @@ public final class CodecConfiguration
     public static final String WRAP_EMPTY_BUFFER = "fix.codecs.wrap_empty_buffer";
     public static final String PARENT_PACKAGE_PROPERTY = "fix.codecs.parent_package";
     public static final String FLYWEIGHTS_ENABLED_PROPERTY = "fix.codecs.flyweight";
+    public static final String LAZY_GROUPS_PROPERTY = "fix.codecs.lazy_groups";
+
+    /**
+     * String system property that is the path of a file containing projections of messages to generate decoders for,
+     * see {@link #projectionFile(String)} for details.
+     */
+    public static final String PROJECTION_FILE_PROPERTY = "fix.codecs.projection_file";
+
+    /**
+     * Boolean system property to turn on or off header templates in generated encoders, see
+     * {@link #headerTemplates(boolean)} for details. Defaults to false.
+     */
+    public static final String HEADER_TEMPLATES_PROPERTY = "fix.codecs.header_templates";
     public static final String REJECT_UNKNOWN_ENUM_VALUE_PROPERTY = "reject.unknown.enum.value";
     public static final String FIX_TAGS_IN_JAVADOC = "fix.codecs.tags_in_javadoc";
 
@@ -63,6 +79,10 @@ public final class CodecConfiguration
     private String parentPackage = System.getProperty(PARENT_PACKAGE_PROPERTY, DEFAULT_PARENT_PACKAGE);
     private boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
     private boolean wrapEmptyBuffer = Boolean.getBoolean(WRAP_EMPTY_BUFFER);
+    private boolean lazyGroups = Boolean.getBoolean(LAZY_GROUPS_PROPERTY);
+    private String projectionFile = System.getProperty(PROJECTION_FILE_PROPERTY);
+    private boolean headerTemplates = Boolean.getBoolean(HEADER_TEMPLATES_PROPERTY);
+    private final Map<String, Set<String>> projections = new HashMap<>();
     private boolean fixTagsInJavadoc = Boolean.parseBoolean(System.getProperty(
         FIX_TAGS_IN_JAVADOC, DEFAULT_FIX_TAGS_IN_JAVADOC));
     private SharedCodecConfiguration sharedCodecConfiguration;
@@ -129,6 +149,90 @@ public final class CodecConfiguration
         return this;
     }
 
+    /**
+     * Decode repeating groups lazily. When enabled the generated decoders only record where a repeating group is
+     * within the message when it is decoded. Each entry of the group is then decoded when it is iterated over, into a
+     * single group decoder instance that is reused for every entry of the group. This saves decoding work and objects
+     * for large groups that are only partially read, or not read at all, by the application.
+     *
+     * This means that the group decoder returned from a group's getter method or iterator is only valid until the
+     * next entry is iterated over, or the message is printed or copied to an encoder. Its <code>next()</code> method
+     * always returns null, so the iterator should be used in order to access every entry. Groups that contain data
+     * fields are always decoded eagerly.
+     *
+     * Defaults to the value of {@link #LAZY_GROUPS_PROPERTY} system property. This option isn't supported in
+     * combination with shared codecs.
+     *
+     * @param lazyGroups true to decode repeating groups lazily, false to decode them eagerly (default)
+     * @return this
+     */
+    public CodecConfiguration lazyGroups(final boolean lazyGroups)
+    {
+        this.lazyGroups = lazyGroups;
+        return this;
+    }
+
+    /**
+     * Generate a decoder for a projection of a message, in addition to the normal decoders. A projected decoder only
+     * decodes and stores the named fields of the message, skipping over other fields, and stops decoding the message
+     * once every projected field has been seen. This means that the trailer of the message isn't decoded either, so
+     * a projected decoder doesn't validate the checksum of the message.
+     * Projected decoders implement the same <code>Decoder</code> and <code>MessageDecoder</code> interfaces as the
+     * normal decoders and are generated into the <code>decoder_projection</code> package under the parent package.
+     *
+     * Fields, repeating groups and components can be named in a projection. Groups and components that are named are
+     * decoded whole, fields within groups can't be projected individually. Fields of the message that aren't in the
+     * projection are still known fields, so they're skipped rather than rejected when unknown fields are rejected.
+     * Session messages can't be projected.
+     *
+     * @param messageName the name of the message within the dictionary, for example <code>ExecutionReport</code>.
+     * @param fieldNames the names of the fields, groups and components to decode.
+     * @return this
+     */
+    public CodecConfiguration projection(final String messageName, final String... fieldNames)
+    {
+        projections.computeIfAbsent(messageName, (name) -> new HashSet<>()).addAll(Arrays.asList(fieldNames));
+        return this;
+    }
+
+    /**
+     * Sets a file containing projections of messages to generate decoders for, in addition to those configured via
+     * {@link #projection(String, String...)}. The file is in a properties format, where each key is the name of a
+     * message and its value is a comma separated list of the names of the fields to project, for example
+     * <code>ExecutionReport=OrderID,ExecID,OrdStatus,LastQty,LastPx</code>.
+     *
+     * Defaults to the value of {@link #PROJECTION_FILE_PROPERTY} system property.
+     *
+     * @param projectionFile the path of the projection file
+     * @return this
+     */
+    public CodecConfiguration projectionFile(final String projectionFile)
+    {
+        this.projectionFile = projectionFile;
+        return this;
+    }
+
+    /**
+     * Generate header encoders that render the session identification fields, for example the SenderCompID and
+     * TargetCompID, into a template the first time that they're encoded. Subsequent messages copy the template and
+     * reuse its checksum rather than encoding each of these fields, only the fields that change between messages such
+     * as the MsgSeqNum, SendingTime and BodyLength are encoded for every message. The template covers the contiguous
+     * run of identification fields starting at the SenderCompID in the header's field order.
+     *
+     * The template is re-rendered when one of its fields is set or reset on the header encoder, so changes to these
+     * fields must be made through their setters rather than by modifying a buffer that a field wraps.
+     *
+     * Defaults to the value of {@link #HEADER_TEMPLATES_PROPERTY} system property.
+     *
+     * @param headerTemplates true to generate header templates, false otherwise
+     * @return this
+     */
+    public CodecConfiguration headerTemplates(final boolean headerTemplates)
+    {
+        this.headerTemplates = headerTemplates;
+        return this;
+    }
+
     /**
      * Allow duplicate fields. Executable documentation can be found in the test "DuplicateFieldsTest".
      *
@@ -248,6 +352,21 @@ public final class CodecConfiguration
         return wrapEmptyBuffer;
     }
 
+    boolean lazyGroups()
+    {
+        return lazyGroups;
+    }
+
+    Map<String, Set<String>> projections()
+    {
+        return projections;
+    }
+
+    boolean headerTemplates()
+    {
+        return headerTemplates;
+    }
+
     String codecRejectUnknownEnumValueEnabled()
     {
         return codecRejectUnknownEnumValueEnabled;
@@ -280,6 +399,11 @@ public final class CodecConfiguration
             throw new IllegalArgumentException("Missing outputPath() configuration property");
         }
 
+        if (projectionFile != null)
+        {
+            loadProjectionFile();
+        }
+
         if (codecRejectUnknownEnumValueEnabled == null)
         {
             final String rejectUnknownEnumPropertyValue = System.getProperty(REJECT_UNKNOWN_ENUM_VALUE_PROPERTY);
@@ -296,6 +420,16 @@ public final class CodecConfiguration
                         "configuration option. If you want to provide dictionaries for sharing then use " +
                         "SharedCodecConfiguration.withDictionary().");
             }
+
+            if (lazyGroups)
+            {
+                throw new IllegalArgumentException("Lazy groups are not supported in combination with shared codecs");
+            }
+
+            if (projectionFile != null || !projections.isEmpty())
+            {
+                throw new IllegalArgumentException("Projections are not supported in combination with shared codecs");
+            }
         }
         else
         {
@@ -306,4 +440,26 @@ public final class CodecConfiguration
             }
         }
     }
+
+    private void loadProjectionFile()
+    {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(projectionFile))
+        {
+            properties.load(inputStream);
+        }
+        catch (final IOException e)
+        {
+            throw new IllegalArgumentException("Unable to read projection file: " + projectionFile, e);
+        }
+
+        for (final String messageName : properties.stringPropertyNames())
+        {
+            final String[] fieldNames = Arrays.stream(properties.getProperty(messageName).split(","))
+                .map(String::trim)
+                .filter((name) -> !name.isEmpty())
+                .toArray(String[]::new);
+            projection(messageName.trim(), fieldNames);
+        }
+    }
 }
@@ -166,7 +166,8 @@ public final class CodecGenerator
             RejectUnknownField.class,
             RejectUnknownEnumValue.class,
             codecRejectUnknownEnumValueEnabled,
-            configuration.fixTagsInJavadoc()).generate();
+            configuration.fixTagsInJavadoc(),
+            configuration.headerTemplates()).generate();
 
         new DecoderGenerator(
             dictionary,
@@ -181,7 +182,9 @@ public final class CodecGenerator
             false,
             configuration.wrapEmptyBuffer(),
             codecRejectUnknownEnumValueEnabled,
-            configuration.fixTagsInJavadoc()).generate();
+            configuration.fixTagsInJavadoc(),
+            configuration.lazyGroups(),
+            null).generate();
 
         new PrinterGenerator(dictionary, decoderPackage, decoderOutput).generate();
         new AcceptorGenerator(dictionary, decoderPackage, decoderOutput).generate();
@@ -203,7 +206,33 @@ public final class CodecGenerator
                 true,
                 configuration.wrapEmptyBuffer(),
                 codecRejectUnknownEnumValueEnabled,
-                configuration.fixTagsInJavadoc()).generate();
+                configuration.fixTagsInJavadoc(),
+                configuration.lazyGroups(),
+                null).generate();
+        }
+
+        if (!configuration.projections().isEmpty())
+        {
+            final String decoderProjectionPackage = parentPackage + ".decoder_projection";
+            final Dictionary projectedDictionary =
+                new DictionaryProjector(dictionary, configuration.projections()).project();
+
+            new DecoderGenerator(
+                projectedDictionary,
+                1,
+                decoderProjectionPackage,
+                parentPackage,
+                encoderPackage,
+                outputManagerFactory.apply(outputPath, decoderProjectionPackage),
+                Validation.class,
+                RejectUnknownField.class,
+                RejectUnknownEnumValue.class,
+                false,
+                configuration.wrapEmptyBuffer(),
+                codecRejectUnknownEnumValueEnabled,
+                configuration.fixTagsInJavadoc(),
+                configuration.lazyGroups(),
+                dictionary).generate();
         }
     }
 }
@@ -59,7 +59,7 @@ import static uk.co.real_logic.sbe.generation.java.JavaUtil.formatPropertyName;
 
 class DecoderGenerator extends Generator
 {
-    private static final Set<String> REQUIRED_SESSION_CODECS = new HashSet<>(Arrays.asList(
+    static final Set<String> REQUIRED_SESSION_CODECS = new HashSet<>(Arrays.asList(
         "LogonDecoder",
         "LogoutDecoder",
         "RejectDecoder",
@@ -70,6 +70,8 @@ class DecoderGenerator extends Generator
         "UserRequestDecoder"));
 
     public static final String REQUIRED_FIELDS = "REQUIRED_FIELDS";
+    private static final String VALIDATED_FIELD_TAGS = "VALIDATED_FIELD_TAGS";
+    private static final String REQUIRED_FIELD_COUNT = "REQUIRED_FIELD_COUNT";
     private static final String GROUP_FIELDS = "GROUP_FIELDS";
     private static final String ALL_GROUP_FIELDS = "ALL_GROUP_FIELDS";
 
@@ -119,6 +121,25 @@ class DecoderGenerator extends Generator
      * Wrap empty buffer instead of throwing an exception if an optional string is unset.
      */
     private final boolean wrapEmptyBuffer;
+    /**
+     * Record the location of repeating groups when decoding and decode their entries as they're iterated over.
+     */
+    private final boolean lazyGroups;
+    /**
+     * Generating decoders for a projection of the dictionary, which stop decoding a message once every field in the
+     * projection has been seen. The rest of the message, including its trailer and checksum, isn't decoded or
+     * validated.
+     */
+    private final boolean projected;
+    /**
+     * The messages of the dictionary that the projection was made from by name, their fields that aren't in the
+     * projection are skipped as known fields rather than treated as unknown.
+     */
+    private final Map<String, Message> unprojectedMessages = new HashMap<>();
+
+    // Inner group classes can only declare static constant variables on older Java versions, so their validation
+    // tables are declared in the closest enclosing class that can declare static members.
+    private final Deque<StringBuilder> staticMemberBlocks = new ArrayDeque<>();
 
     DecoderGenerator(
         final Dictionary dictionary,
@@ -134,12 +155,40 @@ class DecoderGenerator extends Generator
         final boolean wrapEmptyBuffer,
         final String codecRejectUnknownEnumValueEnabled,
         final boolean fixTagsInJavadoc)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled, wrapEmptyBuffer,
+            codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc, false, null);
+    }
+
+    DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final boolean wrapEmptyBuffer,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean lazyGroups,
+        final Dictionary projectedFrom)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc);
         this.initialBufferSize = initialBufferSize;
         this.encoderPackage = encoderPackage;
         this.wrapEmptyBuffer = wrapEmptyBuffer;
+        this.lazyGroups = lazyGroups;
+        this.projected = projectedFrom != null;
+        if (projected)
+        {
+            projectedFrom.messages().forEach((message) -> unprojectedMessages.put(message.name(), message));
+        }
     }
 
     public void generate()
@@ -254,6 +303,12 @@ class DecoderGenerator extends Generator
             interfaces.add(SessionHeaderDecoder.class.getSimpleName());
         }
 
+        final boolean declaresStaticMembers = !isGroup || isStaticNestedGroup();
+        if (declaresStaticMembers)
+        {
+            staticMemberBlocks.addLast(new StringBuilder());
+        }
+
         out.append(classDeclaration(className, interfaces, false, aggregate.isInParent(), isGroup));
         generateValidation(out, aggregate, type);
         if (isMessage)
@@ -280,10 +335,49 @@ class DecoderGenerator extends Generator
             isMessage, aggregate.entries(), additionalReset(isGroup), aggregate.isInParent()));
         out.append(generateAppendTo(aggregate, isMessage));
         out.append(generateToEncoder(aggregate));
+        if (declaresStaticMembers)
+        {
+            out.append(staticMemberBlocks.removeLast());
+        }
         out.append("}\n");
         pop();
     }
 
+    // Groups declared in a component interface are implicitly static, all other groups are inner classes
+    private boolean isStaticNestedGroup()
+    {
+        final List<Aggregate> stack = new ArrayList<>(aggregateStack);
+        return stack.size() > 1 && stack.get(stack.size() - 2) instanceof Component;
+    }
+
+    // The names of the groups between the closest enclosing class that can declare static members and this aggregate
+    private String staticMemberPrefix()
+    {
+        final StringBuilder prefix = new StringBuilder();
+        final List<Aggregate> stack = new ArrayList<>(aggregateStack);
+        for (int i = stack.size() - 1; i > 0; i--)
+        {
+            final Aggregate aggregate = stack.get(i);
+            if (!(aggregate instanceof Group) || stack.get(i - 1) instanceof Component)
+            {
+                break;
+            }
+            prefix.insert(0, aggregate.name());
+        }
+        return prefix.toString();
+    }
+
+    private String validatedFieldTags()
+    {
+        final String prefix = staticMemberPrefix();
+        return prefix.isEmpty() ? VALIDATED_FIELD_TAGS : constantName(prefix) + "_" + VALIDATED_FIELD_TAGS;
+    }
+
+    private String validatedFieldIndex()
+    {
+        return "validated" + staticMemberPrefix() + "FieldIndex";
+    }
+
     private String classDeclaration(
         final String className,
         final List<String> interfaces,
@@ -408,6 +502,25 @@ class DecoderGenerator extends Generator
         {
             return String.format("    public abstract void %1$s();\n", resetMethod);
         }
+        else if (isLazy(group))
+        {
+            final Entry numberField = group.numberField();
+            return String.format(
+                "    public void %1$s()\n" +
+                "    {\n" +
+                "        if (%2$s != null)\n" +
+                "        {\n" +
+                "            %2$s.reset();\n" +
+                "            %2$s.clearEntries();\n" +
+                "        }\n" +
+                "        %3$s = MISSING_INT;\n" +
+                "        has%4$s = false;\n" +
+                "    }\n\n",
+                resetMethod,
+                formatPropertyName(name),
+                formatPropertyName(numberField.name()),
+                numberField.name());
+        }
         else
         {
             final Entry numberField = group.numberField();
@@ -491,7 +604,8 @@ class DecoderGenerator extends Generator
             "            missingRequiredFields.clear();\n" +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
-                "            alreadyVisitedFields.clear();\n") +
+                "            alreadyVisitedFields.clear();\n" +
+                "            alreadyVisitedUnknownFields.clear();\n") +
             "        }\n";
     }
 
@@ -507,6 +621,20 @@ class DecoderGenerator extends Generator
         final List<Field> requiredFields = requiredFields(aggregate.entries()).collect(toList());
         out.append(generateFieldDictionary(requiredFields, REQUIRED_FIELDS, true));
 
+        final Collection<Field> validatedFields = validatedFields(aggregate, requiredFields);
+        out.append(String.format("    private static final int %1$s = %2$d;\n\n",
+            REQUIRED_FIELD_COUNT,
+            requiredFields.size()));
+        final String validatedFieldIndex = generateValidatedFieldIndex(validatedFields);
+        if (staticMemberPrefix().isEmpty())
+        {
+            out.append(validatedFieldIndex);
+        }
+        else
+        {
+            staticMemberBlocks.peekLast().append(validatedFieldIndex);
+        }
+
         if (aggregate.containsGroup())
         {
             final List<Field> groupFields = aggregate
@@ -556,9 +684,10 @@ class DecoderGenerator extends Generator
 
         out.append(String.format(
             (isGroup ? generateAllGroupFields(aggregate) :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final FieldBitSet alreadyVisitedFields = new FieldBitSet(%1$d);\n\n" +
+            "    private final IntHashSet alreadyVisitedUnknownFields = new IntHashSet(10);\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "    private final FieldBitSet missingRequiredFields = new FieldBitSet(%1$d);\n\n" +
             "    public boolean validate()\n" +
             "    {\n" +
             // validation for some tags performed in the decode method
@@ -566,12 +695,12 @@ class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
+            "        final int missingFieldIndex = missingRequiredFields.first();\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
             "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "        if (missingFieldIndex != FieldBitSet.NO_FIELD_INDEX)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = " + validatedFieldTags() + "[missingFieldIndex];\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
@@ -579,11 +708,58 @@ class DecoderGenerator extends Generator
             "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
+            validatedFields.size(),
             messageValidation,
             enumValidation,
-            groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            groupValidation));
+    }
+
+    // Required fields come first so that missing required fields can be tracked in the same index range
+    private Collection<Field> validatedFields(final Aggregate aggregate, final List<Field> requiredFields)
+    {
+        final Map<Integer, Field> numberToField = new LinkedHashMap<>();
+        requiredFields.forEach((field) -> numberToField.putIfAbsent(field.number(), field));
+        aggregate
+            .allFieldsIncludingComponents()
+            .map((entry) -> (Field)entry.element())
+            .forEach((field) -> numberToField.putIfAbsent(field.number(), field));
+        aggregate
+            .allGroupsIncludingComponents()
+            .map((entry) -> (Field)((Group)entry.element()).numberField().element())
+            .forEach((field) -> numberToField.putIfAbsent(field.number(), field));
+        return numberToField.values();
+    }
+
+    private String generateValidatedFieldIndex(final Collection<Field> validatedFields)
+    {
+        final StringBuilder tags = new StringBuilder();
+        final StringBuilder cases = new StringBuilder();
+        int fieldIndex = 0;
+        for (final Field field : validatedFields)
+        {
+            final String constantName = "Constants." + constantName(field.name());
+            tags.append("        ").append(constantName).append(",\n");
+            cases.append("            case ").append(constantName).append(": return ").append(fieldIndex).append(";\n");
+            fieldIndex++;
+        }
+
+        return String.format(
+            "    private static final int[] %1$s =\n" +
+            "    {\n" +
+            "%2$s" +
+            "    };\n\n" +
+            "    private static int %3$s(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%4$s" +
+            "            default: return FieldBitSet.NO_FIELD_INDEX;\n" +
+            "        }\n" +
+            "    }\n\n",
+            validatedFieldTags(),
+            tags,
+            validatedFieldIndex(),
+            cases);
     }
 
     private String generateAllGroupFields(final Aggregate groupAggregate)
@@ -714,6 +890,14 @@ class DecoderGenerator extends Generator
         final Entry numberField = group.numberField();
         final String numberFieldName = numberField.name();
         final boolean required = entry.required();
+        final String indent = required ? "" : "    ";
+        // A lazy group's entries are found by scanning for its fields, so a NumInGroup that's too low leaves
+        // entries that the iterator never reaches.
+        final String unreadEntries = isLazy(group) ? String.format(
+            " ||\n" +
+            "%1$s                (%2$s != null && %2$s.hasNextEntry())",
+            indent,
+            formatPropertyName(group.name())) : "";
         final String validationCode = String.format(
             "%3$s        {\n" +
             "%3$s            int count = 0;\n" +
@@ -728,7 +912,7 @@ class DecoderGenerator extends Generator
             "%3$s                    return false;\n" +
             "%3$s                }\n" +
             "%3$s            }\n" +
-            "%3$s            if (count != iterator.numberFieldValue())\n" +
+            "%3$s            if (count != iterator.numberFieldValue()%7$s)\n" +
             "%3$s            {\n" +
             "%3$s                invalidTagId = %5$s;\n" +
             "%3$s                rejectReason = %6$s;\n" +
@@ -737,10 +921,11 @@ class DecoderGenerator extends Generator
             "%3$s        }\n",
             decoderClassName(group),
             iteratorFieldName(group),
-            required ? "" : "    ",
+            indent,
             iteratorClassName(group, false),
             numberField.number(),
-            INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP);
+            INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP,
+            unreadEntries);
 
         if (required)
         {
@@ -967,9 +1152,142 @@ class DecoderGenerator extends Generator
                 "    private IntHashSet seenFields = new IntHashSet(%2$d);\n\n",
                 groupClassName(group),
                 sizeHashSet(group.entries())));
+
+            if (isLazy(group))
+            {
+                out.append(lazyGroupMethods(group));
+            }
         }
     }
 
+    private String lazyGroupMethods(final Group group)
+    {
+        final String entryFieldCases = entryFieldNumbers(group, new TreeSet<>())
+            .stream()
+            .map((number) -> "            case " + number + ":\n")
+            .collect(joining());
+
+        return String.format(
+            "    private AsciiBuffer entriesBuffer;\n" +
+            "    private int entriesOffset;\n" +
+            "    private int entriesEnd;\n" +
+            "    private int entryEnd;\n\n" +
+            "    int skipEntries(final AsciiBuffer buffer, final int offset, final int end)\n" +
+            "    {\n" +
+            "        int position = offset;\n" +
+            "        while (position < end)\n" +
+            "        {\n" +
+            "            final int equalsPosition = buffer.scan(position, end, '=');\n" +
+            "            if (equalsPosition == AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "            {\n" +
+            "                break;\n" +
+            "            }\n" +
+            "            final int tag = buffer.getInt(position, equalsPosition);\n" +
+            "            if (!isEntryField(tag) && (%2$s || %3$s))\n" +
+            "            {\n" +
+            "                break;\n" +
+            "            }\n" +
+            "            final int endOfField = buffer.scan(equalsPosition + 1, end, START_OF_HEADER);\n" +
+            "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "            {\n" +
+            "                break;\n" +
+            "            }\n" +
+            "            position = endOfField + 1;\n" +
+            "        }\n" +
+            "        entriesBuffer = buffer;\n" +
+            "        entriesOffset = offset;\n" +
+            "        entriesEnd = position;\n" +
+            "        entryEnd = offset;\n" +
+            "        return position;\n" +
+            "    }\n\n" +
+            "    void clearEntries()\n" +
+            "    {\n" +
+            "        entriesBuffer = null;\n" +
+            "        entriesOffset = 0;\n" +
+            "        entriesEnd = 0;\n" +
+            "        entryEnd = 0;\n" +
+            "    }\n\n" +
+            "    /**\n" +
+            "     * Decodes the first entry of the group into this decoder.\n" +
+            "     *\n" +
+            "     * @return this decoder or null if the group has no entries.\n" +
+            "     */\n" +
+            "    public %1$s firstEntry()\n" +
+            "    {\n" +
+            "        if (entriesOffset >= entriesEnd)\n" +
+            "        {\n" +
+            "            return null;\n" +
+            "        }\n" +
+            "        decodeEntry(entriesOffset);\n" +
+            "        return this;\n" +
+            "    }\n\n" +
+            "    public boolean hasNextEntry()\n" +
+            "    {\n" +
+            "        return entryEnd < entriesEnd;\n" +
+            "    }\n\n" +
+            "    /**\n" +
+            "     * Decodes the entry after the current one into this decoder.\n" +
+            "     *\n" +
+            "     * @return this decoder.\n" +
+            "     */\n" +
+            "    public %1$s nextEntry()\n" +
+            "    {\n" +
+            "        decodeEntry(entryEnd);\n" +
+            "        return this;\n" +
+            "    }\n\n" +
+            "    private void decodeEntry(final int position)\n" +
+            "    {\n" +
+            "        reset();\n" +
+            "        entryEnd = position + decode(entriesBuffer, position, entriesEnd - position);\n" +
+            "    }\n\n" +
+            "    private boolean isEntryField(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%4$s" +
+            "                return true;\n" +
+            "            default:\n" +
+            "                return false;\n" +
+            "        }\n" +
+            "    }\n\n",
+            groupClassName(group),
+            CODEC_REJECT_UNKNOWN_FIELD_ENABLED,
+            unknownFieldPredicate(GROUP),
+            entryFieldCases);
+    }
+
+    private boolean isLazy(final Group group)
+    {
+        return lazyGroups && !isSharedParent() && !group.isInParent() && !containsDataField(group);
+    }
+
+    // Data fields can contain the field separator so the group can't be skipped without decoding it.
+    private static boolean containsDataField(final Aggregate aggregate)
+    {
+        return aggregate
+            .allFieldsIncludingComponents()
+            .anyMatch((entry) -> ((Field)entry.element()).type().isDataBased()) ||
+            aggregate
+            .allGroupsIncludingComponents()
+            .anyMatch((entry) -> containsDataField((Group)entry.element()));
+    }
+
+    private static Set<Integer> entryFieldNumbers(final Aggregate aggregate, final Set<Integer> numbers)
+    {
+        aggregate
+            .allFieldsIncludingComponents()
+            .forEach((entry) -> numbers.add(((Field)entry.element()).number()));
+        aggregate
+            .allGroupsIncludingComponents()
+            .forEach((entry) ->
+            {
+                final Group group = (Group)entry.element();
+                numbers.add(((Field)group.numberField().element()).number());
+                entryFieldNumbers(group, numbers);
+            });
+        return numbers;
+    }
+
     private void wrapTrailerAndMessageFieldsInGroupConstructor(final Writer out, final Aggregate aggregate)
         throws IOException
     {
@@ -1141,12 +1459,17 @@ class DecoderGenerator extends Generator
         }
         else
         {
+            // A lazy group's decoder is a cursor that's positioned on the first entry of the group
+            final String groupPropertyName = formatPropertyName(group.name());
+            final String getGroup = isLazy(group) ?
+                groupPropertyName + " == null ? null : " + groupPropertyName + ".firstEntry()" :
+                groupPropertyName;
             out.append(String.format(
                 "\n" +
                 "    private %1$s %2$s = null;\n" +
                 "    public %1$s %2$s()\n" +
                 "    {\n" +
-                "        return %2$s;\n" +
+                "        return %6$s;\n" +
                 "    }\n\n" +
                 "%3$s\n" +
                 "    private %4$s %5$s = new %4$s(this);\n" +
@@ -1155,10 +1478,11 @@ class DecoderGenerator extends Generator
                 "        return %5$s.iterator();\n" +
                 "    }\n\n",
                 groupClassName,
-                formatPropertyName(group.name()),
+                groupPropertyName,
                 prefix,
                 iteratorClassName(group, false),
-                iteratorFieldName(group)));
+                iteratorFieldName(group),
+                getGroup));
         }
     }
 
@@ -1241,6 +1565,11 @@ class DecoderGenerator extends Generator
                 parentDecoderName,
                 parentLocation));
         }
+        else if (isLazy(group))
+        {
+            generateLazyGroupIterator(
+                out, numberFieldReset, iteratorClassName, groupDecoderName, groupPropertyName);
+        }
         else
         {
             generateNormalGroupIterator(
@@ -1248,6 +1577,64 @@ class DecoderGenerator extends Generator
         }
     }
 
+    private void generateLazyGroupIterator(
+        final Writer out,
+        final String numberFieldReset,
+        final String iteratorClassName,
+        final String groupDecoderName,
+        final String groupPropertyName)
+        throws IOException
+    {
+        final String parentDecoderName = decoderClassName(currentAggregate());
+        out.append(String.format(
+            "    " + GENERATED_ANNOTATION +
+            "    public class %1$s implements Iterable<%2$s>, java.util.Iterator<%2$s>\n" +
+            "    {\n" +
+            "        private final %3$s parent;\n" +
+            "        private int remainder;\n" +
+            "        private %2$s current;\n" +
+            "        private boolean started;\n\n" +
+            "        public %1$s(final %3$s parent)\n" +
+            "        {\n" +
+            "            this.parent = parent;\n" +
+            "        }\n\n" +
+            "        public boolean hasNext()\n" +
+            "        {\n" +
+            "            return remainder > 0 && current != null && (!started || current.hasNextEntry());\n" +
+            "        }\n\n" +
+            "        public %2$s next()\n" +
+            "        {\n" +
+            "            remainder--;\n" +
+            "            if (started)\n" +
+            "            {\n" +
+            "                current.nextEntry();\n" +
+            "            }\n" +
+            "            started = true;\n" +
+            "            return current;\n" +
+            "        }\n\n" +
+            "        public int numberFieldValue()\n" +
+            "        {\n" +
+            "            return %4$s;\n" +
+            "        }\n\n" +
+            "        public void reset()\n" +
+            "        {\n" +
+            "            remainder = numberFieldValue();\n" +
+            "            current = parent.%5$s();\n" +
+            "            started = false;\n" +
+            "        }\n\n" +
+            "        public %1$s iterator()\n" +
+            "        {\n" +
+            "            reset();\n" +
+            "            return this;\n" +
+            "        }\n\n" +
+            "    }\n\n",
+            iteratorClassName,
+            groupDecoderName,
+            parentDecoderName,
+            numberFieldReset,
+            groupPropertyName));
+    }
+
     private void generateNormalGroupIterator(
         final Writer out,
         final String numberFieldReset,
@@ -1673,11 +2060,14 @@ class DecoderGenerator extends Generator
         final boolean hasCommonCompounds = type == MESSAGE;
         final boolean isGroup = type == GROUP;
         final boolean isHeader = type == HEADER;
+        final boolean stopsEarly = projected && type == MESSAGE;
         final String endGroupCheck = endGroupCheck(aggregate, isGroup);
-        final String prefix = generateDecodePrefix(aggregate, hasCommonCompounds, isGroup, isHeader, endGroupCheck);
+        final String prefix = generateDecodePrefix(
+            aggregate, hasCommonCompounds, isGroup, isHeader, stopsEarly, endGroupCheck);
         final String body = entries.stream()
             .map(this::decodeEntry)
-            .collect(joining("\n", "", "\n"));
+            .collect(joining("\n", "", "\n")) +
+            (stopsEarly ? skipUnprojectedFields(aggregate) : "");
 
         final String suffix =
             "            default:\n" +
@@ -1685,7 +2075,7 @@ class DecoderGenerator extends Generator
             "                {\n" +
             (isGroup ?
             "                    seenFields.remove(tag);\n" :
-            "                    alreadyVisitedFields.remove(tag);\n") +
+            "                    alreadyVisitedUnknownFields.remove(tag);\n") +
             "                }\n" +
             (isGroup ? "" :
             "                else\n" +
@@ -1708,10 +2098,73 @@ class DecoderGenerator extends Generator
             "            {\n" +
             "                position = endOfField + 1;\n" +
             "            }\n" +
+            (stopsEarly ?
+            "\n" +
+            "            final int projectedFieldIndex = " + validatedFieldIndex() + "(tag);\n" +
+            "            if (projectedFieldIndex != FieldBitSet.NO_FIELD_INDEX &&\n" +
+            "                projectedFields.add(projectedFieldIndex) &&\n" +
+            "                ++projectedFieldCount == " + validatedFieldTags() + ".length)\n" +
+            "            {\n" +
+            "                // The rest of the message, including the trailer and its checksum, isn't validated\n" +
+            "                return length;\n" +
+            "            }\n" : "") +
             "        }\n" +
             decodeTrailerOrReturn(hasCommonCompounds, 2) +
             "    }\n\n";
-        return prefix + body + suffix;
+
+        // Projected messages skip the remainder of the message, including the trailer, once they've seen every field
+        final String projectedFields = stopsEarly ?
+            "    private final FieldBitSet projectedFields =\n" +
+            "        new FieldBitSet(" + validatedFieldTags() + ".length);\n\n" :
+            "";
+        return projectedFields + prefix + body + suffix;
+    }
+
+    // Fields of the message that aren't in its projection are known fields, so they're skipped like unknown fields
+    // when not rejecting unknown fields and aren't rejected when rejecting them.
+    private String skipUnprojectedFields(final Aggregate aggregate)
+    {
+        final Map<Integer, String> decodedFields = fieldsWithin(aggregate, false, new HashMap<>());
+        final Map<Integer, String> skippedFields =
+            fieldsWithin(unprojectedMessages.get(aggregate.name()), true, new TreeMap<>());
+        skippedFields.keySet().removeAll(decodedFields.keySet());
+        if (skippedFields.isEmpty())
+        {
+            return "";
+        }
+
+        return skippedFields
+            .values()
+            .stream()
+            .map((name) -> "            case Constants." + constantName(name) + ":\n")
+            .collect(joining("", "",
+            "                alreadyVisitedUnknownFields.remove(tag);\n" +
+            "                break;\n\n"));
+    }
+
+    // Finds the fields that a message's decode method switches on, or all the fields that can appear in the message
+    // when including the fields within its groups.
+    private static Map<Integer, String> fieldsWithin(
+        final Aggregate aggregate, final boolean includeGroupFields, final Map<Integer, String> fields)
+    {
+        for (final Entry entry : aggregate.entries())
+        {
+            entry.forEach(
+                (field) -> fields.put(field.number(), field.name()),
+                (group) ->
+                {
+                    final Field numberField = (Field)group.numberField().element();
+                    fields.put(numberField.number(), numberField.name());
+                    if (includeGroupFields)
+                    {
+                        fieldsWithin(group, true, fields);
+                    }
+                },
+                (component) -> fieldsWithin(component, includeGroupFields, fields),
+                (anyFields) -> {});
+        }
+
+        return fields;
     }
 
     private String generateDecodePrefix(
@@ -1719,6 +2172,7 @@ class DecoderGenerator extends Generator
         final boolean hasCommonCompounds,
         final boolean isGroup,
         final boolean isHeader,
+        final boolean stopsEarly,
         final String endGroupCheck)
     {
         return "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
@@ -1727,14 +2181,17 @@ class DecoderGenerator extends Generator
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            "            missingRequiredFields.copyFirst(" + REQUIRED_FIELD_COUNT + ");\n" +
+            (isGroup ? "" :
+            "            alreadyVisitedFields.clear();\n" +
+            "            alreadyVisitedUnknownFields.clear();\n") +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
             "        int position = offset;\n" +
             (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
             (isGroup ? "        seenFields.clear();\n" : "") +
+            (stopsEarly ? "        projectedFields.clear();\n        int projectedFieldCount = 0;\n" : "") +
             "        int tag;\n\n" +
             "        while (position < end)\n" +
             "        {\n" +
@@ -1766,13 +2223,18 @@ class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
+            "                final int fieldIndex = " + validatedFieldIndex() + "(tag);\n" +
             (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
+            "                if (fieldIndex == FieldBitSet.NO_FIELD_INDEX ?\n" +
+            "                    !alreadyVisitedUnknownFields.add(tag) : !alreadyVisitedFields.add(fieldIndex))\n" +
             "                {\n" +
             "                    invalidTagId = tag;\n" +
             "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
             "                }\n") +
-            "                missingRequiredFields.remove(tag);\n" +
+            "                if (fieldIndex != FieldBitSet.NO_FIELD_INDEX)\n" +
+            "                {\n" +
+            "                    missingRequiredFields.remove(fieldIndex);\n" +
+            "                }\n" +
             "                seenFieldCount++;\n" +
             "            }\n\n" +
             "            switch (tag)\n" +
@@ -1806,7 +2268,15 @@ class DecoderGenerator extends Generator
     private String endGroupCheck(final Aggregate aggregate, final boolean isGroup)
     {
         final String endGroupCheck;
-        if (isGroup)
+        if (isGroup && isLazy((Group)aggregate))
+        {
+            endGroupCheck =
+                "            if (!seenFields.add(tag))\n" +
+                "            {\n" +
+                "                return position - offset;\n" +
+                "            }\n";
+        }
+        else if (isGroup)
         {
             endGroupCheck = String.format(
                 "            if (!seenFields.add(tag))\n" +
@@ -1899,6 +2369,24 @@ class DecoderGenerator extends Generator
             getNumberField = "this." + groupNumberField;
         }
 
+        if (isLazy(group))
+        {
+            // Only record where the group's entries are, they're decoded when the group is iterated over.
+            final String parseLazyGroup = String.format(
+                "                if (%1$s == null)\n" +
+                "                {\n" +
+                "                    %1$s = new %2$s(trailer, %4$s);\n" +
+                "                }\n" +
+                "%3$s" +
+                "                position = %1$s.skipEntries(buffer, endOfField + 1, end);\n",
+                formatPropertyName(group.name()),
+                decoderClassName(group),
+                flyweightsEnabled ? "                " + getNumberField + ";\n" : "",
+                MESSAGE_FIELDS);
+
+            return decodeField(group.numberField(), parseLazyGroup);
+        }
+
         final String parseGroup = String.format(
             "                if (%1$s == null)\n" +
             "                {\n" +
@@ -2149,6 +2637,33 @@ class DecoderGenerator extends Generator
         }
 
         final String numberField = group.numberField().name();
+        if (isLazy(group))
+        {
+            return String.format(
+                "        if (has%2$s)\n" +
+                "        {\n" +
+                "            indent(builder, level);\n" +
+                "            builder.append(\"\\\"%1$s\\\": [\\n\");\n" +
+                "            final %3$s iterator = this.%4$s.iterator();\n" +
+                "            while (iterator.hasNext())\n" +
+                "            {\n" +
+                "                indent(builder, level);\n" +
+                "                iterator.next().appendTo(builder, level + 1);\n" +
+                "                if (iterator.hasNext())\n" +
+                "                {\n" +
+                "                    builder.append(',');\n" +
+                "                }\n" +
+                "                builder.append('\\n');\n" +
+                "            }\n" +
+                "            indent(builder, level);\n" +
+                "            builder.append(\"],\\n\");\n" +
+                "        }\n",
+                name,
+                numberField,
+                iteratorClassName(group, false),
+                iteratorFieldName(group));
+        }
+
         return String.format(
             "        if (has%2$s)\n" +
             "        {\n" +
@@ -2269,6 +2784,29 @@ class DecoderGenerator extends Generator
 
         final String numberField = group.numberField().name();
 
+        if (isLazy(group))
+        {
+            return String.format(
+                "        if (has%1$s)\n" +
+                "        {\n" +
+                "            final int size = this.%4$s;\n" +
+                "            final %2$s iterator = this.%3$s.iterator();\n" +
+                "            %6$s %7$sEncoder = %5$s.%7$s(size);\n" +
+                "            while (iterator.hasNext())\n" +
+                "            {\n" +
+                "                iterator.next().toEncoder(%7$sEncoder);\n" +
+                "                %7$sEncoder = %7$sEncoder.next();\n" +
+                "            }\n" +
+                "        }\n",
+                numberField,
+                iteratorClassName(group, false),
+                iteratorFieldName(group),
+                formatPropertyName(numberField),
+                encoderName,
+                encoderClassName(name),
+                formatPropertyName(name));
+        }
+
         return String.format(
             "        if (has%1$s)\n" +
             "        {\n" +
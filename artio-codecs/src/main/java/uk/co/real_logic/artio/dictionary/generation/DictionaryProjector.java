@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.*;
+
+import java.util.*;
+
+/**
+ * Creates a dictionary that only contains the projected messages, and for each of those messages only the fields,
+ * groups and components that have been named in its projection. Groups and components that are named in a projection
+ * are kept whole, components that aren't named are kept with the projected entries that they contain. As components
+ * are shared between messages a component contains the union of the entries projected from it by any message.
+ */
+class DictionaryProjector
+{
+    private static final String GROUP_COUNTER_SUFFIX = "GroupCounter";
+
+    private final Dictionary dictionary;
+    private final Map<String, Set<String>> projections;
+    private final Set<String> allProjectedNames = new HashSet<>();
+    private final Map<String, Component> wholeComponents = new HashMap<>();
+    private final Map<String, Component> projectedComponents = new HashMap<>();
+
+    DictionaryProjector(final Dictionary dictionary, final Map<String, Set<String>> projections)
+    {
+        this.dictionary = dictionary;
+        this.projections = projections;
+    }
+
+    Dictionary project()
+    {
+        final Map<String, Message> nameToMessage = new HashMap<>();
+        dictionary.messages().forEach((message) -> nameToMessage.put(message.name(), message));
+
+        final List<Message> messagesToProject = new ArrayList<>();
+        projections.forEach((messageName, names) ->
+        {
+            final Message message = nameToMessage.get(messageName);
+            if (message == null)
+            {
+                throw new IllegalArgumentException("Unknown message in projection: " + messageName);
+            }
+
+            if (DecoderGenerator.REQUIRED_SESSION_CODECS.contains(DecoderGenerator.decoderClassName(message)))
+            {
+                throw new IllegalArgumentException("Session messages can't be projected: " + messageName);
+            }
+
+            messagesToProject.add(message);
+            allProjectedNames.addAll(names);
+        });
+
+        addWholeComponents(dictionary.header());
+        addWholeComponents(dictionary.trailer());
+        messagesToProject.forEach(this::findWholeComponents);
+
+        final List<Message> projectedMessages = new ArrayList<>();
+        for (final Message message : messagesToProject)
+        {
+            final Set<String> names = projections.get(message.name());
+            final Message projectedMessage = new Message(message.name(), message.fullType(), message.category());
+            projectEntries(message, projectedMessage, names);
+
+            final Set<String> unknownNames = new TreeSet<>(names);
+            unknownNames.removeAll(namesWithin(projectedMessage, new HashSet<>()));
+            if (!unknownNames.isEmpty())
+            {
+                throw new IllegalArgumentException(
+                    "Unknown fields, groups or components in projection of " + message.name() + ": " + unknownNames);
+            }
+
+            projectedMessages.add(projectedMessage);
+        }
+
+        // Components that have nothing projected from them aren't referenced by any projected entry
+        final Map<String, Component> components = new HashMap<>();
+        projectedComponents.forEach((name, component) ->
+        {
+            if (!component.entries().isEmpty())
+            {
+                components.put(name, component);
+            }
+        });
+        components.putAll(wholeComponents);
+
+        return new Dictionary(
+            projectedMessages,
+            dictionary.fields(),
+            components,
+            dictionary.header(),
+            dictionary.trailer(),
+            dictionary.specType(),
+            dictionary.majorVersion(),
+            dictionary.minorVersion());
+    }
+
+    private void projectEntries(final Aggregate source, final Aggregate target, final Set<String> names)
+    {
+        for (final Entry entry : source.entries())
+        {
+            final Entry projectedEntry = entry.match(
+                (ele, field) -> names.contains(field.name()) ? ele : null,
+                (ele, group) -> isNamed(group, names) ? ele : null,
+                (ele, component) ->
+                {
+                    final Component projectedComponent = projectComponent(component);
+                    return projectedComponent.entries().isEmpty() ?
+                        null : new Entry(ele.required(), projectedComponent);
+                },
+                (ele, anyFields) -> null);
+
+            if (projectedEntry != null)
+            {
+                target.entries().add(projectedEntry);
+            }
+        }
+    }
+
+    private Component projectComponent(final Component component)
+    {
+        final String name = component.name();
+        final Component wholeComponent = wholeComponents.get(name);
+        if (wholeComponent != null)
+        {
+            return wholeComponent;
+        }
+
+        Component projectedComponent = projectedComponents.get(name);
+        if (projectedComponent == null)
+        {
+            projectedComponent = new Component(name);
+            projectEntries(component, projectedComponent, allProjectedNames);
+            projectedComponents.put(name, projectedComponent);
+        }
+
+        return projectedComponent;
+    }
+
+    private void findWholeComponents(final Aggregate aggregate)
+    {
+        for (final Entry entry : aggregate.entries())
+        {
+            entry.forEach(
+                (field) -> {},
+                (group) ->
+                {
+                    if (isNamed(group, allProjectedNames))
+                    {
+                        addWholeComponents(group);
+                    }
+                },
+                (component) ->
+                {
+                    if (allProjectedNames.contains(component.name()))
+                    {
+                        wholeComponents.put(component.name(), component);
+                        addWholeComponents(component);
+                    }
+                    else
+                    {
+                        findWholeComponents(component);
+                    }
+                },
+                (anyFields) -> {});
+        }
+    }
+
+    private void addWholeComponents(final Aggregate aggregate)
+    {
+        for (final Entry entry : aggregate.entries())
+        {
+            entry.forEach(
+                (field) -> {},
+                this::addWholeComponents,
+                (component) ->
+                {
+                    wholeComponents.put(component.name(), component);
+                    addWholeComponents(component);
+                },
+                (anyFields) -> {});
+        }
+    }
+
+    private static Set<String> namesWithin(final Aggregate aggregate, final Set<String> names)
+    {
+        for (final Entry entry : aggregate.entries())
+        {
+            entry.forEach(
+                (field) -> names.add(field.name()),
+                (group) -> names.addAll(groupNames(group)),
+                (component) ->
+                {
+                    names.add(component.name());
+                    namesWithin(component, names);
+                },
+                (anyFields) -> {});
+        }
+
+        return names;
+    }
+
+    private static boolean isNamed(final Group group, final Set<String> names)
+    {
+        return groupNames(group).stream().anyMatch(names::contains);
+    }
+
+    // A group can be projected by its own name, the name of its counter field or the dictionary's NumInGroup name
+    private static List<String> groupNames(final Group group)
+    {
+        final String numberFieldName = group.numberField().name();
+        final String numInGroupName = numberFieldName.endsWith(GROUP_COUNTER_SUFFIX) ?
+            numberFieldName.substring(0, numberFieldName.length() - GROUP_COUNTER_SUFFIX.length()) : numberFieldName;
+        return Arrays.asList(group.name(), numberFieldName, numInGroupName);
+    }
+}
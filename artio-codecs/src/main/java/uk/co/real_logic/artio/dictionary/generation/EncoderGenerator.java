@@ -62,12 +62,32 @@ class EncoderGenerator extends Generator
         "SequenceResetEncoder",
         "BusinessMessageRejectEncoder"));
 
+    // Session identification fields that are set once per session and so can be rendered into a header template
+    private static final Set<String> HEADER_TEMPLATE_FIELDS = new HashSet<>(Arrays.asList(
+        "SenderCompID",
+        "TargetCompID",
+        "SenderSubID",
+        "SenderLocationID",
+        "TargetSubID",
+        "TargetLocationID",
+        "OnBehalfOfCompID",
+        "OnBehalfOfSubID",
+        "OnBehalfOfLocationID",
+        "DeliverToCompID",
+        "DeliverToSubID",
+        "DeliverToLocationID"));
+
     private static final String TRAILER_ENCODE_PREFIX =
         "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n" +
         "    {\n" +
+        "        return finishMessage(buffer, messageStart, offset, buffer.computeChecksum(messageStart, offset));\n" +
+        "    }\n" +
+        "\n" +
+        "    long finishMessage(\n" +
+        "        final MutableAsciiBuffer buffer, final int messageStart, final int offset, final int checkSum)\n" +
+        "    {\n" +
         "        int position = offset;\n" +
         "\n" +
-        "        final int checkSum = buffer.computeChecksum(messageStart, position);\n" +
         "        buffer.putBytes(position, checkSumHeader, 0, checkSumHeaderLength);\n" +
         "        position += checkSumHeaderLength;\n" +
         "        buffer.putNaturalPaddedIntAscii(position, 3, checkSum);\n" +
@@ -116,6 +136,42 @@ class EncoderGenerator extends Generator
         "        final int start = offset + beginStringLength + 16;\n" +
         "        int position = start;";
 
+    // The session identification fields are rendered into a template when they're first encoded and then copied from
+    // it, along with their checksum, until one of them changes.
+    private static final String HEADER_TEMPLATE_MEMBERS =
+        "    private final MutableAsciiBuffer headerTemplate = new MutableAsciiBuffer(new byte[64]);\n" +
+        "    private boolean headerTemplateValid = false;\n" +
+        "    private int headerTemplateOffset = 0;\n" +
+        "    private int headerTemplateLength = 0;\n" +
+        "    private int headerTemplateCheckSum = 0;\n" +
+        "\n" +
+        "    private void renderHeaderTemplate(final MutableAsciiBuffer buffer, final int offset, final int length)\n" +
+        "    {\n" +
+        "        if (headerTemplate.capacity() < length)\n" +
+        "        {\n" +
+        "            headerTemplate.wrap(new byte[length]);\n" +
+        "        }\n" +
+        "        headerTemplate.putBytes(0, buffer, offset, length);\n" +
+        "        headerTemplateLength = length;\n" +
+        "        headerTemplateCheckSum = buffer.computeChecksum(offset, offset + length);\n" +
+        "        headerTemplateValid = true;\n" +
+        "    }\n" +
+        "\n" +
+        "    int checkSum(final MutableAsciiBuffer buffer, final int messageStart, final int end)\n" +
+        "    {\n" +
+        "        if (!headerTemplateValid)\n" +
+        "        {\n" +
+        "            return buffer.computeChecksum(messageStart, end);\n" +
+        "        }\n" +
+        "\n" +
+        "        final int headerTemplateEnd = headerTemplateOffset + headerTemplateLength;\n" +
+        "        return (buffer.computeChecksum(messageStart, headerTemplateOffset) + headerTemplateCheckSum +\n" +
+        "            buffer.computeChecksum(headerTemplateEnd, end)) % 256;\n" +
+        "    }\n" +
+        "\n";
+
+    private static final String INVALIDATE_HEADER_TEMPLATE = "        headerTemplateValid = false;\n";
+
     private static final String GROUP_ENCODE_PREFIX =
         "    public int encode(final MutableAsciiBuffer buffer, final int offset, final int remainingElements)\n" +
         "    {\n" +
@@ -157,6 +213,9 @@ class EncoderGenerator extends Generator
 
     private final String beginString;  // e.g. "FIX.4.4"
 
+    // The run of header fields that are encoded from a template, empty if templates are disabled
+    private final List<Entry> headerTemplateEntries;
+
     EncoderGenerator(
         final Dictionary dictionary,
         final String builderPackage,
@@ -167,6 +226,22 @@ class EncoderGenerator extends Generator
         final Class<?> rejectUnknownEnumValueClass,
         final String codecRejectUnknownEnumValueEnabled,
         final boolean fixTagsInJavadoc)
+    {
+        this(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass, rejectUnknownFieldClass,
+            rejectUnknownEnumValueClass, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc, false);
+    }
+
+    EncoderGenerator(
+        final Dictionary dictionary,
+        final String builderPackage,
+        final String builderCommonPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean headerTemplates)
     {
         super(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, false, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc);
@@ -176,6 +251,40 @@ class EncoderGenerator extends Generator
         validateHasField(header, BODY_LENGTH);
 
         beginString = dictionary.beginString();
+        headerTemplateEntries = headerTemplates && !isSharedParent() ? headerTemplateEntries(header) : emptyList();
+    }
+
+    // The template covers the identification fields that are encoded contiguously from the SenderCompID onwards
+    private static List<Entry> headerTemplateEntries(final Component header)
+    {
+        final List<Entry> entries = header.entries();
+        final List<Entry> templateEntries = new ArrayList<>();
+        boolean inTemplate = false;
+        for (final Entry entry : entries)
+        {
+            if (!inTemplate && "SenderCompID".equals(entry.name()))
+            {
+                inTemplate = true;
+            }
+
+            if (inTemplate)
+            {
+                if (!isHeaderTemplateField(entry))
+                {
+                    break;
+                }
+
+                templateEntries.add(entry);
+            }
+        }
+
+        return templateEntries;
+    }
+
+    private static boolean isHeaderTemplateField(final Entry entry)
+    {
+        return entry.isField() && !entry.isInParent() && HEADER_TEMPLATE_FIELDS.contains(entry.name()) &&
+            ((Field)entry.element()).type().isStringBased();
     }
 
     private void validateHasField(final Component header, final String fieldName)
@@ -307,6 +416,11 @@ class EncoderGenerator extends Generator
                 "\n\n",
                 beginString,
                 scope));
+
+            if (!headerTemplateEntries.isEmpty())
+            {
+                out.append(HEADER_TEMPLATE_MEMBERS);
+            }
         }
 
         precomputedHeaders(out, aggregate.entries());
@@ -735,6 +849,13 @@ class EncoderGenerator extends Generator
         }
     }
 
+    private String invalidateHeaderTemplate(final String name)
+    {
+        final boolean inHeader = aggregateStack.peekLast() == dictionary.header();
+        return inHeader && headerTemplateEntries.stream().anyMatch((entry) -> entry.name().equals(name)) ?
+            INVALIDATE_HEADER_TEMPLATE : "";
+    }
+
     private String generateBytesSetter(
         final String className, final String fieldName, final String name, final String javadoc)
     {
@@ -748,6 +869,7 @@ class EncoderGenerator extends Generator
             "        %1$s.wrap(value);\n" +
             "        %1$sOffset = offset;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$s(final DirectBuffer value, final int length)\n" +
@@ -763,6 +885,7 @@ class EncoderGenerator extends Generator
             "        %1$s.wrap(value);\n" +
             "        %1$sOffset = offset;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$sAsCopy(final byte[] value, final int offset, final int length)\n" +
@@ -773,6 +896,7 @@ class EncoderGenerator extends Generator
             "        }\n" +
             "        %1$sOffset = 0;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$s(final byte[] value, final int length)\n" +
@@ -799,7 +923,8 @@ class EncoderGenerator extends Generator
             className,
             name,
             scope,
-            javadoc);
+            javadoc,
+            invalidateHeaderTemplate(name));
     }
 
     private String generateStringSetter(
@@ -819,6 +944,7 @@ class EncoderGenerator extends Generator
             "        }\n" +
             "        %1$sOffset = 0;\n" +
             "        %1$sLength = value.length();\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %3$s %1$s(final AsciiSequenceView value)\n" +
@@ -830,6 +956,7 @@ class EncoderGenerator extends Generator
             "            %1$sOffset = value.offset();\n" +
             "            %1$sLength = value.length();\n" +
             "        }\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %3$s %1$s(final char[] value)\n" +
@@ -848,6 +975,7 @@ class EncoderGenerator extends Generator
             "        }\n" +
             "        %1$sOffset = 0;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "%4$s",
@@ -855,7 +983,8 @@ class EncoderGenerator extends Generator
             generateBytesSetter(className, fieldName, name, javadoc),
             className,
             enumSetter,
-            javadoc);
+            javadoc,
+            invalidateHeaderTemplate(name));
     }
 
     private String generateSetter(
@@ -986,18 +1115,22 @@ class EncoderGenerator extends Generator
                 break;
         }
 
-        final String body = entries.stream()
+        final String body = aggregateType == HEADER && !headerTemplateEntries.isEmpty() ?
+            encodeHeaderWithTemplate(entries) :
+            entries.stream()
             .map(this::encodeEntry)
             .collect(joining("\n"));
 
         String suffix;
         if (aggregateType == AggregateType.MESSAGE)
         {
+            final String checkSum = headerTemplateEntries.isEmpty() ?
+                "" : ", header.checkSum(buffer, messageStart, position)";
             suffix =
                 "        position += trailer.startTrailer(buffer, position);\n" +
                 "\n" +
                 "        final int messageStart = header.finishHeader(buffer, bodyStart, position - bodyStart);\n" +
-                "        return trailer.finishMessage(buffer, messageStart, position);\n" +
+                "        return trailer.finishMessage(buffer, messageStart, position" + checkSum + ");\n" +
                 "    }\n\n";
         }
         else if (aggregateType == AggregateType.HEADER)
@@ -1032,6 +1165,42 @@ class EncoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
+    private String encodeHeaderWithTemplate(final List<Entry> entries)
+    {
+        final StringBuilder body = new StringBuilder();
+        for (final Entry entry : entries)
+        {
+            final int templateIndex = headerTemplateEntries.indexOf(entry);
+            if (templateIndex == 0)
+            {
+                final String templateFields = headerTemplateEntries.stream()
+                    .map(this::encodeEntry)
+                    .collect(joining("\n"));
+
+                body.append(
+                    "        final int headerTemplateStart = position;\n" +
+                    "        if (headerTemplateValid)\n" +
+                    "        {\n" +
+                    "            buffer.putBytes(position, headerTemplate, 0, headerTemplateLength);\n" +
+                    "            position += headerTemplateLength;\n" +
+                    "        }\n" +
+                    "        else\n" +
+                    "        {\n" +
+                    templateFields +
+                    "        renderHeaderTemplate(buffer, headerTemplateStart, position - headerTemplateStart);\n" +
+                    "        }\n" +
+                    "        headerTemplateOffset = headerTemplateStart;\n" +
+                    "\n");
+            }
+            else if (templateIndex < 0)
+            {
+                body.append(encodeEntry(entry)).append("\n");
+            }
+        }
+
+        return body.toString();
+    }
+
     private String encodeEntry(final Entry entry)
     {
         if (isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry))
@@ -1422,9 +1591,11 @@ class EncoderGenerator extends Generator
             "    {\n" +
             "        %2$sLength = 0;\n" +
             "        %2$s.wrap(%2$sInternalBuffer);\n" +
+            "%3$s" +
             "    }\n\n",
             nameOfResetMethod(name),
-            formatPropertyName(name));
+            formatPropertyName(name),
+            invalidateHeaderTemplate(name));
     }
 
     protected String resetRequiredFloat(final String name)
@@ -22,6 +22,7 @@ import org.agrona.generation.OutputManager;
 import uk.co.real_logic.artio.EncodingException;
 import uk.co.real_logic.artio.dictionary.CharArraySet;
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
+import uk.co.real_logic.artio.dictionary.FieldBitSet;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
 import uk.co.real_logic.artio.dictionary.ir.*;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
@@ -167,6 +168,7 @@ public abstract class Generator
             .append(importFor(StandardCharsets.class))
             .append(importFor(Arrays.class))
             .append(importFor(CharArraySet.class))
+            .append(importFor(FieldBitSet.class))
             .append(importFor(IntHashSet.class))
             .append(importFor(IntHashSet.IntIterator.class))
             .append(importFor(EncodingException.class))
@@ -66,6 +66,11 @@ public class CharFormatter
         }
     }
 
+    public String formatString()
+    {
+        return formatString;
+    }
+
     public CharFormatter with(final String string)
     {
         final int length = string.length();
@@ -25,11 +25,25 @@ import uk.co.real_logic.artio.util.float_parsing.DecimalFloatParser;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
 {
+    /**
+     * Set this system property to true in order to make {@link #scan(int, int, byte)} and
+     * {@link #computeChecksum(int, int)} process a byte at a time rather than 8 bytes at a time.
+     */
+    public static final String SCALAR_SCAN_PROP = "fix.codecs.scalar_scan";
+    private static final boolean WORD_AT_A_TIME = !Boolean.getBoolean(SCALAR_SCAN_PROP);
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long EVEN_BYTES = 0x00FF00FF00FF00FFL;
+    private static final long SUM_SHORTS = 0x0001000100010001L;
+
     private static final byte ZERO = '0';
     private static final byte DOT = (byte)'.';
 
@@ -217,6 +231,36 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     }
 
     public int scan(final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        if (WORD_AT_A_TIME)
+        {
+            return scanWords(startInclusive, endExclusive, terminator);
+        }
+
+        return scanBytes(startInclusive, endExclusive, terminator);
+    }
+
+    private int scanWords(final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        // Only whole words within the buffer are read so that running off the end fails as a byte at a time scan would
+        final int lastWordStart = Math.min(endExclusive, capacity()) - SIZE_OF_LONG;
+        final long pattern = (terminator & 0xFFL) * LOW_BITS;
+        int i = startInclusive;
+        for (; i <= lastWordStart; i += SIZE_OF_LONG)
+        {
+            // Bytes that match the terminator become zero and the lowest zero byte has its high bit set.
+            final long word = getLong(i, LITTLE_ENDIAN) ^ pattern;
+            final long matches = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (matches != 0)
+            {
+                return i + (Long.numberOfTrailingZeros(matches) >> 3);
+            }
+        }
+
+        return scanBytes(i, endExclusive, terminator);
+    }
+
+    private int scanBytes(final int startInclusive, final int endExclusive, final byte terminator)
     {
         int indexValue = UNKNOWN_INDEX;
         for (int i = startInclusive; i < endExclusive; i++)
@@ -235,7 +279,22 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+        if (WORD_AT_A_TIME)
+        {
+            final int lastWordStart = Math.min(endExclusive, capacity()) - SIZE_OF_LONG;
+            for (; index <= lastWordStart; index += SIZE_OF_LONG)
+            {
+                final long word = getLong(index);
+                // Add adjacent bytes into 16 bit lanes, then sum the lanes into the top lane with a multiply.
+                final long pairs = (word & EVEN_BYTES) + ((word >>> 8) & EVEN_BYTES);
+                final int unsignedSum = (int)((pairs * SUM_SHORTS) >>> 48);
+                // Bytes are summed as signed values, so subtract 256 for each byte with its high bit set.
+                total += unsignedSum - (Long.bitCount(word & HIGH_BITS) << 8);
+            }
+        }
+
+        for (; index < endExclusive; index++)
         {
             total += getByte(index);
         }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.artio.dictionary.FieldBitSet.NO_FIELD_INDEX;
+
+public class FieldBitSetTest
+{
+    private final FieldBitSet fieldBitSet = new FieldBitSet(130);
+
+    @Test
+    public void shouldBeEmptyWhenCreated()
+    {
+        assertEquals(NO_FIELD_INDEX, fieldBitSet.first());
+    }
+
+    @Test
+    public void shouldDetectFieldsThatHaveAlreadyBeenAdded()
+    {
+        assertTrue(fieldBitSet.add(3));
+        assertTrue(fieldBitSet.add(64));
+        assertTrue(fieldBitSet.add(129));
+
+        assertFalse(fieldBitSet.add(3));
+        assertFalse(fieldBitSet.add(64));
+        assertFalse(fieldBitSet.add(129));
+
+        fieldBitSet.clear();
+
+        assertTrue(fieldBitSet.add(64));
+    }
+
+    @Test
+    public void shouldFindLowestFieldAfterRemoval()
+    {
+        fieldBitSet.add(129);
+        fieldBitSet.add(70);
+        fieldBitSet.add(5);
+        assertEquals(5, fieldBitSet.first());
+
+        fieldBitSet.remove(5);
+        assertEquals(70, fieldBitSet.first());
+
+        fieldBitSet.remove(70);
+        assertEquals(129, fieldBitSet.first());
+
+        fieldBitSet.remove(129);
+        assertEquals(NO_FIELD_INDEX, fieldBitSet.first());
+    }
+
+    @Test
+    public void shouldCopyFirstFieldsAcrossWords()
+    {
+        fieldBitSet.add(100);
+
+        fieldBitSet.copyFirst(66);
+
+        for (int i = 0; i < 66; i++)
+        {
+            assertEquals(i, fieldBitSet.first());
+            fieldBitSet.remove(i);
+        }
+        assertEquals(NO_FIELD_INDEX, fieldBitSet.first());
+    }
+
+    @Test
+    public void shouldCopyFirstFieldsForWholeWord()
+    {
+        fieldBitSet.copyFirst(64);
+        fieldBitSet.remove(63);
+        assertEquals(0, fieldBitSet.first());
+        assertTrue(fieldBitSet.add(63));
+        assertTrue(fieldBitSet.add(64));
+
+        fieldBitSet.copyFirst(0);
+        assertEquals(NO_FIELD_INDEX, fieldBitSet.first());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.DecoderGenerator.*;
+import static uk.co.real_logic.artio.dictionary.generation.Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY;
+import static uk.co.real_logic.artio.util.Reflection.*;
+
+public class DecoderGeneratorLazyGroupsTest
+{
+    private static Class<?> heartbeat;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        new ConstantGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, null, outputManager).generate();
+        new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager).generate();
+        new DecoderGenerator(
+            MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
+            outputManager, ValidationOn.class, RejectUnknownFieldOff.class,
+            RejectUnknownEnumValueOn.class, false, false,
+            "true", true, true, null).generate();
+        new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
+            TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
+            RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        heartbeat = compileInMemory(HEARTBEAT_DECODER, sources);
+        if (heartbeat == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + sources);
+        }
+    }
+
+    @Test
+    public void shouldDecodeEntriesIntoTheSameDecoderWhenIterating() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        final Iterator<?> iterator = getEgGroupIterator(decoder);
+        assertTrue(iterator.hasNext());
+        final Object first = iterator.next();
+        assertEquals(1, get(first, "groupField"));
+
+        assertTrue(iterator.hasNext());
+        final Object second = iterator.next();
+        assertSame(first, second);
+        assertEquals(2, get(second, "groupField"));
+        assertNull(next(second));
+
+        assertFalse(iterator.hasNext());
+        assertTrue(decoder.validate());
+    }
+
+    @Test
+    public void shouldPositionGroupGetterOnFirstEntry() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        final Iterator<?> iterator = getEgGroupIterator(decoder);
+        iterator.next();
+        iterator.next();
+
+        assertEquals(1, get(getEgGroup(decoder), "groupField"));
+    }
+
+    @Test
+    public void shouldDecodeNestedGroupsWhenIterating() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(MULTI_ENTRY_NESTED_GROUP_MESSAGE);
+
+        final StringBuilder values = new StringBuilder();
+        for (final Object group : getEgGroupIterable(decoder))
+        {
+            values.append(get(group, "groupField")).append(':');
+            for (final Object nestedGroup : (Iterable<?>)get(group, "nestedGroupGroupIterator"))
+            {
+                values.append(get(nestedGroup, "nestedField")).append(',');
+            }
+        }
+
+        assertEquals("1:1,2,2:3,4,", values.toString());
+        assertTrue(decoder.validate());
+    }
+
+    @Test
+    public void shouldDecodeShorterGroupAfterReset() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        decoder.reset();
+        assertNull(getEgGroup(decoder));
+        assertFalse(getEgGroupIterator(decoder).hasNext());
+
+        decode(SINGLE_REPEATING_GROUP_MESSAGE, decoder);
+
+        final Iterator<?> iterator = getEgGroupIterator(decoder);
+        assertEquals(2, get(iterator.next(), "groupField"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldRejectGroupCountGreaterThanTheNumberOfEntries() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE_WITH_TOO_HIGH_NUMBER_FIELD);
+
+        assertFalse(decoder.validate());
+        assertEquals(INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP, decoder.rejectReason());
+        assertEquals(120, decoder.invalidTagId());
+    }
+
+    @Test
+    public void shouldRejectGroupCountLessThanTheNumberOfEntries() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE_WITH_TOO_LOW_NUMBER_FIELD);
+
+        assertFalse(decoder.validate());
+        assertEquals(INCORRECT_NUMINGROUP_COUNT_FOR_REPEATING_GROUP, decoder.rejectReason());
+        assertEquals(120, decoder.invalidTagId());
+    }
+
+    @Test
+    public void shouldDecodeFieldsAfterTheGroup() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        assertEquals("053", get(get(decoder, "trailer"), "checkSumAsString"));
+    }
+
+    @Test
+    public void shouldToStringLazyGroups() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        assertThat(decoder.toString(), containsString(STRING_GROUP_TWO_ELEMENTS));
+    }
+
+    private Decoder decodeHeartbeat(final String example) throws Exception
+    {
+        final Decoder decoder = (Decoder)heartbeat.getConstructor().newInstance();
+        decode(example, decoder);
+        return decoder;
+    }
+
+    private void decode(final String example, final Decoder decoder)
+    {
+        buffer.putAscii(1, example);
+        decoder.decode(buffer, 1, example.length());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.*;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.DecoderGenerator.INVALID_TAG_NUMBER;
+import static uk.co.real_logic.artio.dictionary.generation.Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY;
+import static uk.co.real_logic.artio.util.Reflection.get;
+
+public class DecoderGeneratorProjectionTest
+{
+    // Empty country field is invalid, but is after the projected fields
+    private static final String EG_FIELDS_MESSAGE_WITH_INVALID_UNPROJECTED_FIELD =
+        "8=FIX.4.4\0019=0049\00135=Z\0011001=GBP\0011002=XLON\0011003=\0011004=GBP\00110=209\001";
+
+    private static final String EG_FIELDS_MESSAGE_WITH_UNPROJECTED_FIELD_FIRST =
+        "8=FIX.4.4\0019=0049\00135=Z\0011003=GB\0011001=GBP\0011002=XLON\00110=209\001";
+
+    private static final String EG_FIELDS_MESSAGE_WITH_UNKNOWN_FIELD =
+        "8=FIX.4.4\0019=0049\00135=Z\0011000=1\0011001=GBP\0011002=XLON\00110=209\001";
+
+    private static Class<?> fieldsMessage;
+    private static Class<?> rejectingUnknownFieldsMessage;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        fieldsMessage = generateFieldsMessage(RejectUnknownFieldOff.class);
+        rejectingUnknownFieldsMessage = generateFieldsMessage(RejectUnknownFieldOn.class);
+    }
+
+    private static Class<?> generateFieldsMessage(final Class<?> rejectUnknownField) throws Exception
+    {
+        final Dictionary projectedDictionary = new DictionaryProjector(
+            MESSAGE_EXAMPLE, projection(FIELDS_MESSAGE, "CurrencyField", "ExchangeField")).project();
+
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        new ConstantGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, null, outputManager).generate();
+        new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager).generate();
+        new DecoderGenerator(
+            projectedDictionary, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
+            outputManager, ValidationOn.class, rejectUnknownField,
+            RejectUnknownEnumValueOn.class, false, false,
+            "true", true, false, MESSAGE_EXAMPLE).generate();
+        new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
+            TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
+            RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        final Class<?> fieldsMessage = compileInMemory(FIELDS_MESSAGE_DECODER, sources);
+        if (fieldsMessage == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + sources);
+        }
+
+        return fieldsMessage;
+    }
+
+    @Test
+    public void shouldDecodeProjectedFields() throws Exception
+    {
+        final Decoder decoder = decode(EG_FIELDS_MESSAGE);
+
+        assertEquals("GBP", get(decoder, "currencyFieldAsString"));
+        assertEquals("XLON", get(decoder, "exchangeFieldAsString"));
+        assertTrue(decoder.validate());
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void shouldNotGenerateUnprojectedFields() throws Exception
+    {
+        fieldsMessage.getMethod("countryFieldAsString");
+    }
+
+    @Test
+    public void shouldStopDecodingOnceProjectedFieldsHaveBeenSeen() throws Exception
+    {
+        final Decoder decoder = (Decoder)fieldsMessage.getConstructor().newInstance();
+        final String example = EG_FIELDS_MESSAGE_WITH_INVALID_UNPROJECTED_FIELD;
+        buffer.putAscii(1, example);
+
+        assertEquals(example.length(), decoder.decode(buffer, 1, example.length()));
+        assertEquals("XLON", get(decoder, "exchangeFieldAsString"));
+        assertTrue(decoder.validate());
+    }
+
+    @Test
+    public void shouldSkipUnprojectedFieldsWhenRejectingUnknownFields() throws Exception
+    {
+        final Decoder decoder = decode(rejectingUnknownFieldsMessage, EG_FIELDS_MESSAGE_WITH_UNPROJECTED_FIELD_FIRST);
+
+        assertEquals("GBP", get(decoder, "currencyFieldAsString"));
+        assertEquals("XLON", get(decoder, "exchangeFieldAsString"));
+        assertTrue(decoder.validate());
+    }
+
+    @Test
+    public void shouldRejectFieldsUnknownToTheDictionaryWhenRejectingUnknownFields() throws Exception
+    {
+        final Decoder decoder = decode(rejectingUnknownFieldsMessage, EG_FIELDS_MESSAGE_WITH_UNKNOWN_FIELD);
+
+        assertFalse(decoder.validate());
+        assertEquals(1000, decoder.invalidTagId());
+        assertEquals(INVALID_TAG_NUMBER, decoder.rejectReason());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownFieldsInProjection()
+    {
+        new DictionaryProjector(MESSAGE_EXAMPLE, projection(FIELDS_MESSAGE, "CurrencyField", "NotAField")).project();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectProjectionOfSessionMessages()
+    {
+        new DictionaryProjector(MESSAGE_EXAMPLE, projection("Heartbeat", "TestReqID")).project();
+    }
+
+    private static Map<String, Set<String>> projection(final String messageName, final String... fieldNames)
+    {
+        return Collections.singletonMap(messageName, new HashSet<>(Arrays.asList(fieldNames)));
+    }
+
+    private Decoder decode(final String example) throws Exception
+    {
+        return decode(fieldsMessage, example);
+    }
+
+    private Decoder decode(final Class<?> messageClass, final String example) throws Exception
+    {
+        final Decoder decoder = (Decoder)messageClass.getConstructor().newInstance();
+        buffer.putAscii(1, example);
+        decoder.decode(buffer, 1, example.length());
+        return decoder;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+
+public class EncoderGeneratorHeaderTemplateTest
+{
+    private static Class<?> templatedMessage;
+    private static Class<?> plainMessage;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        templatedMessage = compileOtherMessage(true);
+        plainMessage = compileOtherMessage(false);
+    }
+
+    private static Class<?> compileOtherMessage(final boolean headerTemplates) throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager).generate();
+        new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, TEST_PARENT_PACKAGE, outputManager, ValidationOn.class,
+            RejectUnknownFieldOff.class, RejectUnknownEnumValueOn.class,
+            Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true, headerTemplates).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        final Class<?> otherMessage = compileInMemory(OTHER_MESSAGE_ENCODER, sources);
+        if (otherMessage == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + sources);
+        }
+        assertNotNull(otherMessage);
+        return otherMessage;
+    }
+
+    @Test
+    public void shouldEncodeTheSameMessagesFromTheTemplate() throws Exception
+    {
+        final Encoder templated = newEncoder(templatedMessage);
+        final Encoder plain = newEncoder(plainMessage);
+
+        for (int msgSeqNum = 1; msgSeqNum <= 3; msgSeqNum++)
+        {
+            templated.header().msgSeqNum(msgSeqNum);
+            plain.header().msgSeqNum(msgSeqNum);
+
+            assertEncodesTheSame(templated, plain);
+        }
+    }
+
+    @Test
+    public void shouldRenderTemplateAgainWhenAFieldIsSet() throws Exception
+    {
+        final Encoder templated = newEncoder(templatedMessage);
+        final Encoder plain = newEncoder(plainMessage);
+        assertEncodesTheSame(templated, plain);
+
+        templated.header().targetCompID("OTHER_TARGET".toCharArray());
+        plain.header().targetCompID("OTHER_TARGET".toCharArray());
+
+        assertThat(assertEncodesTheSame(templated, plain), containsString("\00156=OTHER_TARGET\001"));
+    }
+
+    @Test
+    public void shouldRenderTemplateAgainWhenAFieldIsReset() throws Exception
+    {
+        final Encoder templated = newEncoder(templatedMessage);
+        final Encoder plain = newEncoder(plainMessage);
+        assertEncodesTheSame(templated, plain);
+
+        templated.header().reset();
+        plain.header().reset();
+        setupHeader(templated.header().senderCompID("OTHER_SENDER"));
+        setupHeader(plain.header().senderCompID("OTHER_SENDER"));
+
+        assertThat(assertEncodesTheSame(templated, plain), containsString("\00149=OTHER_SENDER\001"));
+    }
+
+    private Encoder newEncoder(final Class<?> messageClass) throws Exception
+    {
+        final Encoder encoder = (Encoder)messageClass.getConstructor().newInstance();
+        setupHeader(encoder.header().senderCompID("SENDER").targetCompID("TARGET"));
+        return encoder;
+    }
+
+    private void setupHeader(final SessionHeaderEncoder header)
+    {
+        if (!header.hasTargetCompID())
+        {
+            header.targetCompID("TARGET");
+        }
+        header.msgSeqNum(1).sendingTime("20240101-00:00:00.000".getBytes());
+    }
+
+    private String assertEncodesTheSame(final Encoder templated, final Encoder plain)
+    {
+        final String expected = encode(plain);
+        assertEquals(expected, encode(templated));
+        return expected;
+    }
+
+    private String encode(final Encoder encoder)
+    {
+        final long result = encoder.encode(buffer, 1);
+        return buffer.getAscii(Encoder.offset(result), Encoder.length(result));
+    }
+}
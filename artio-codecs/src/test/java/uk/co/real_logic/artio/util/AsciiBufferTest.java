@@ -140,6 +140,71 @@ public class AsciiBufferTest
         assertEquals(-1, value);
     }
 
+    @Test
+    public void shouldFindFirstTerminatorWhenScanningForwards()
+    {
+        final byte[] message = "8=FIX.4.4\0019=12\00135=0\00149=SENDER\00156=TARGET\00110=123\001".getBytes(US_ASCII);
+        buffer.putBytes(0, message);
+
+        for (int start = 0; start < message.length; start++)
+        {
+            for (int end = start; end <= message.length; end++)
+            {
+                assertEquals(
+                    "start = " + start + ", end = " + end,
+                    expectedScan(message, start, end, (byte)'\001'),
+                    buffer.scan(start, end, '\001'));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotScanPastEndOfBuffer()
+    {
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer("35=A|".getBytes(US_ASCII));
+
+        assertEquals(4, buffer.scan(1, 100, '|'));
+    }
+
+    @Test
+    public void shouldComputeChecksumOfSignedBytes()
+    {
+        final byte[] bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte)(i * 37);
+        }
+        buffer.putBytes(0, bytes);
+
+        for (int start = 0; start < 10; start++)
+        {
+            for (int end = start; end <= bytes.length; end++)
+            {
+                int expected = 0;
+                for (int i = start; i < end; i++)
+                {
+                    expected += bytes[i];
+                }
+
+                assertEquals(
+                    "start = " + start + ", end = " + end, expected % 256, buffer.computeChecksum(start, end));
+            }
+        }
+    }
+
+    private static int expectedScan(final byte[] bytes, final int start, final int end, final byte terminator)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (bytes[i] == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
     private void putAscii(final String value)
     {
         buffer.putBytes(0, value.getBytes(US_ASCII));
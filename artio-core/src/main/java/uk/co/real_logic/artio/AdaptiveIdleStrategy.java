@@ -0,0 +1,344 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.hints.ThreadHints;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy that spins, yields and then parks like a {@link org.agrona.concurrent.BackoffIdleStrategy} but
+ * adapts how long it spins and parks for to how busy its duty cycle has recently been.
+ * <p>
+ * The strategy counts the duty cycles that did work, using the work counts passed to {@link #idle(int)}, over a
+ * fixed window of time. Measuring over time rather than over a number of duty cycles means that activity doesn't
+ * decay faster when the duty cycle is spinning quickly than when it's parked. While the last window had at least the
+ * busy number of work cycles the strategy spins and then yields before parking for only the minimum park period, so
+ * the thread keeps low wake up latency. Once a window has fewer than the lower quiet number of work cycles it stops
+ * spinning and backs off its park period exponentially up to the maximum, freeing the core. Having separate
+ * thresholds stops the strategy flapping between the two modes.
+ * <p>
+ * The current phase and the total time spent in each idle phase can be exposed through counters, the engine and
+ * library do this automatically for their idle strategies. Time spent doing work is in the {@link #ACTIVE} phase and
+ * isn't counted. Instances are stateful and must only be used by a single thread.
+ */
+public final class AdaptiveIdleStrategy implements IdleStrategy
+{
+    public static final String ALIAS = "adaptive";
+
+    public static final int SPIN = 0;
+    public static final int YIELD = 1;
+    public static final int PARK = 2;
+    public static final int ACTIVE = 3;
+
+    public static final long DEFAULT_MAX_SPINS = 10_000;
+    public static final long DEFAULT_MAX_YIELDS = 100;
+    public static final long DEFAULT_MIN_PARK_PERIOD_NS = 1_000;
+    public static final long DEFAULT_MAX_PARK_PERIOD_NS = TimeUnit.MILLISECONDS.toNanos(1);
+    public static final long DEFAULT_BUSY_WORK_CYCLES = 10;
+    public static final long DEFAULT_QUIET_WORK_CYCLES = 2;
+    public static final long DEFAULT_ACTIVITY_WINDOW_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Only the idle phases have their time recorded
+    private static final int IDLE_PHASE_COUNT = 3;
+
+    private final long maxSpins;
+    private final long maxYields;
+    private final long minParkPeriodNs;
+    private final long maxParkPeriodNs;
+    private final long busyWorkCycles;
+    private final long quietWorkCycles;
+    private final long activityWindowNs;
+    private final NanoClock nanoClock;
+
+    private final AtomicCounter[] phaseTimeCounters = new AtomicCounter[IDLE_PHASE_COUNT];
+    private AtomicCounter phaseCounter;
+
+    private long activityWindowStartNs;
+    private long windowWorkCycles;
+    private boolean busy;
+    private long idleCycles;
+    private long parkPeriodNs;
+    private int phase = ACTIVE;
+    private long unrecordedPhaseTimeNs;
+
+    public AdaptiveIdleStrategy()
+    {
+        this(
+            DEFAULT_MAX_SPINS,
+            DEFAULT_MAX_YIELDS,
+            DEFAULT_MIN_PARK_PERIOD_NS,
+            DEFAULT_MAX_PARK_PERIOD_NS,
+            DEFAULT_BUSY_WORK_CYCLES,
+            DEFAULT_QUIET_WORK_CYCLES,
+            DEFAULT_ACTIVITY_WINDOW_NS);
+    }
+
+    /**
+     * Create an adaptive idle strategy that uses {@link System#nanoTime()}.
+     *
+     * @param maxSpins the number of idle duty cycles to spin for while busy.
+     * @param maxYields the number of idle duty cycles to yield for, after any spinning, before parking.
+     * @param minParkPeriodNs the park period while busy and the initial park period while quiet.
+     * @param maxParkPeriodNs the park period that the back off is capped at while quiet.
+     * @param busyWorkCycles the number of duty cycles in an activity window that must do work to switch to busy.
+     * @param quietWorkCycles the number of duty cycles in an activity window that must do work to stay busy.
+     * @param activityWindowNs the length of time that work cycles are counted over.
+     */
+    public AdaptiveIdleStrategy(
+        final long maxSpins,
+        final long maxYields,
+        final long minParkPeriodNs,
+        final long maxParkPeriodNs,
+        final long busyWorkCycles,
+        final long quietWorkCycles,
+        final long activityWindowNs)
+    {
+        this(
+            maxSpins,
+            maxYields,
+            minParkPeriodNs,
+            maxParkPeriodNs,
+            busyWorkCycles,
+            quietWorkCycles,
+            activityWindowNs,
+            new SystemNanoClock());
+    }
+
+    /**
+     * Create an adaptive idle strategy.
+     *
+     * @param maxSpins the number of idle duty cycles to spin for while busy.
+     * @param maxYields the number of idle duty cycles to yield for, after any spinning, before parking.
+     * @param minParkPeriodNs the park period while busy and the initial park period while quiet.
+     * @param maxParkPeriodNs the park period that the back off is capped at while quiet.
+     * @param busyWorkCycles the number of duty cycles in an activity window that must do work to switch to busy.
+     * @param quietWorkCycles the number of duty cycles in an activity window that must do work to stay busy.
+     * @param activityWindowNs the length of time that work cycles are counted over.
+     * @param nanoClock the clock used to measure activity windows and phase times.
+     */
+    public AdaptiveIdleStrategy(
+        final long maxSpins,
+        final long maxYields,
+        final long minParkPeriodNs,
+        final long maxParkPeriodNs,
+        final long busyWorkCycles,
+        final long quietWorkCycles,
+        final long activityWindowNs,
+        final NanoClock nanoClock)
+    {
+        if (quietWorkCycles > busyWorkCycles)
+        {
+            throw new IllegalArgumentException("quietWorkCycles (" + quietWorkCycles +
+                ") must not be greater than busyWorkCycles (" + busyWorkCycles + ")");
+        }
+
+        if (minParkPeriodNs > maxParkPeriodNs)
+        {
+            throw new IllegalArgumentException("minParkPeriodNs (" + minParkPeriodNs +
+                ") must not be greater than maxParkPeriodNs (" + maxParkPeriodNs + ")");
+        }
+
+        if (activityWindowNs <= 0)
+        {
+            throw new IllegalArgumentException("Invalid activityWindowNs: " + activityWindowNs);
+        }
+
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkPeriodNs = minParkPeriodNs;
+        this.maxParkPeriodNs = maxParkPeriodNs;
+        this.busyWorkCycles = busyWorkCycles;
+        this.quietWorkCycles = quietWorkCycles;
+        this.activityWindowNs = activityWindowNs;
+        this.nanoClock = nanoClock;
+        parkPeriodNs = minParkPeriodNs;
+        activityWindowStartNs = nanoClock.nanoTime();
+    }
+
+    /**
+     * Exposes the phase of this strategy and the time it has spent in each idle phase through counters.
+     *
+     * @param phaseCounter set to {@link #SPIN}, {@link #YIELD}, {@link #PARK} or {@link #ACTIVE}.
+     * @param spinTimeCounter the total time spent spinning in nanoseconds.
+     * @param yieldTimeCounter the total time spent yielding in nanoseconds.
+     * @param parkTimeCounter the total time spent parked in nanoseconds.
+     * @throws IllegalStateException if this strategy already has counters.
+     */
+    public void counters(
+        final AtomicCounter phaseCounter,
+        final AtomicCounter spinTimeCounter,
+        final AtomicCounter yieldTimeCounter,
+        final AtomicCounter parkTimeCounter)
+    {
+        if (hasCounters())
+        {
+            throw new IllegalStateException("Counters already set, is this idle strategy used by multiple threads?");
+        }
+
+        phaseTimeCounters[SPIN] = spinTimeCounter;
+        phaseTimeCounters[YIELD] = yieldTimeCounter;
+        phaseTimeCounters[PARK] = parkTimeCounter;
+        phaseCounter.setOrdered(phase);
+        this.phaseCounter = phaseCounter;
+    }
+
+    public boolean hasCounters()
+    {
+        return phaseCounter != null;
+    }
+
+    public void idle(final int workCount)
+    {
+        final long timeNs = nanoClock.nanoTime();
+        final boolean didWork = workCount > 0;
+        updateActivity(didWork, timeNs);
+
+        if (didWork)
+        {
+            reset();
+        }
+        else
+        {
+            idle(timeNs);
+        }
+    }
+
+    public void idle()
+    {
+        idle(phaseCounter != null ? nanoClock.nanoTime() : 0);
+    }
+
+    public void reset()
+    {
+        idleCycles = 0;
+        parkPeriodNs = minParkPeriodNs;
+        enterPhase(ACTIVE);
+    }
+
+    public String alias()
+    {
+        return ALIAS;
+    }
+
+    public int phase()
+    {
+        return phase;
+    }
+
+    public boolean isBusy()
+    {
+        return busy;
+    }
+
+    private void idle(final long startTimeNs)
+    {
+        final long idleCycles = this.idleCycles;
+        final long spins = busy ? maxSpins : 0;
+        if (idleCycles < spins)
+        {
+            enterPhase(SPIN);
+            this.idleCycles = idleCycles + 1;
+            ThreadHints.onSpinWait();
+            addPhaseTime(startTimeNs);
+        }
+        else if (idleCycles < spins + maxYields)
+        {
+            enterPhase(YIELD);
+            this.idleCycles = idleCycles + 1;
+            Thread.yield();
+            addPhaseTime(startTimeNs);
+        }
+        else
+        {
+            enterPhase(PARK);
+            final long parkPeriodNs = this.parkPeriodNs;
+            LockSupport.parkNanos(parkPeriodNs);
+            this.parkPeriodNs = busy ? minParkPeriodNs : Math.min(parkPeriodNs << 1, maxParkPeriodNs);
+            addPhaseTime(startTimeNs);
+            recordPhaseTime();
+        }
+    }
+
+    private void updateActivity(final boolean didWork, final long timeNs)
+    {
+        if (didWork)
+        {
+            windowWorkCycles++;
+        }
+
+        if (timeNs - activityWindowStartNs >= activityWindowNs)
+        {
+            final long windowWorkCycles = this.windowWorkCycles;
+            busy = windowWorkCycles >= (busy ? quietWorkCycles : busyWorkCycles);
+            this.windowWorkCycles = 0;
+            activityWindowStartNs = timeNs;
+        }
+    }
+
+    private void enterPhase(final int phase)
+    {
+        if (this.phase != phase)
+        {
+            recordPhaseTime();
+            this.phase = phase;
+
+            final AtomicCounter phaseCounter = this.phaseCounter;
+            if (phaseCounter != null)
+            {
+                phaseCounter.setOrdered(phase);
+            }
+        }
+    }
+
+    // Time is accumulated locally whilst spinning or yielding to avoid an atomic add on every idle cycle
+    private void addPhaseTime(final long startTimeNs)
+    {
+        if (phaseCounter != null)
+        {
+            unrecordedPhaseTimeNs += nanoClock.nanoTime() - startTimeNs;
+        }
+    }
+
+    private void recordPhaseTime()
+    {
+        final long unrecordedPhaseTimeNs = this.unrecordedPhaseTimeNs;
+        if (unrecordedPhaseTimeNs > 0)
+        {
+            phaseTimeCounters[phase].getAndAddOrdered(unrecordedPhaseTimeNs);
+            this.unrecordedPhaseTimeNs = 0;
+        }
+    }
+
+    public String toString()
+    {
+        return "AdaptiveIdleStrategy{" +
+            "alias=" + ALIAS +
+            ", maxSpins=" + maxSpins +
+            ", maxYields=" + maxYields +
+            ", minParkPeriodNs=" + minParkPeriodNs +
+            ", maxParkPeriodNs=" + maxParkPeriodNs +
+            ", busyWorkCycles=" + busyWorkCycles +
+            ", quietWorkCycles=" + quietWorkCycles +
+            ", activityWindowNs=" + activityWindowNs +
+            '}';
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.LangUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Object2IntHashMap;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.BitUtil.SIZE_OF_BYTE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+import static uk.co.real_logic.artio.CommonConfiguration.DEBUG_BINARY_FILE_PROPERTY;
+import static uk.co.real_logic.artio.CommonConfiguration.DEBUG_LOGGING_SEPARATOR;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_DEBUG_LOGGING_SEPARATOR;
+
+/**
+ * Asynchronous binary backend for the {@link DebugLogger}. Logging threads copy the tag, the id of the
+ * {@link CharFormatter} and the raw arguments of each call into a many to one off-heap ring buffer, and a background
+ * agent appends them to a file without formatting them. {@link BinaryDebugLogReader} formats the file offline.
+ *
+ * Each record in the file is framed by its record type and length. Formatters and thread names are written to the
+ * file as definition records before the first record that refers to them. Records are dropped rather than blocking
+ * the logging thread when the ring buffer is full, the number dropped is written to the file.
+ */
+final class BinaryDebugLog implements AutoCloseable
+{
+    static final int TEXT_RECORD = 1;
+    static final int FORMATTED_RECORD = 2;
+    static final int FORMATTER_DEFINITION = 3;
+    static final int THREAD_DEFINITION = 4;
+    static final int DROPPED_RECORDS = 5;
+
+    // File framing
+    static final int RECORD_TYPE_OFFSET = 0;
+    static final int RECORD_LENGTH_OFFSET = RECORD_TYPE_OFFSET + SIZE_OF_INT;
+    static final int RECORD_HEADER_LENGTH = RECORD_LENGTH_OFFSET + SIZE_OF_INT;
+
+    // Text and formatted records
+    static final int TAG_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = TAG_OFFSET + SIZE_OF_INT;
+    static final int THREAD_ID_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int HEADER_LENGTH = THREAD_ID_OFFSET + SIZE_OF_INT;
+
+    // Formatted records
+    static final int FORMATTER_ID_OFFSET = HEADER_LENGTH;
+    static final int ARGUMENT_COUNT_OFFSET = FORMATTER_ID_OFFSET + SIZE_OF_INT;
+    static final int ARGUMENTS_OFFSET = ARGUMENT_COUNT_OFFSET + SIZE_OF_INT;
+    static final byte LONG_ARGUMENT = 1;
+    static final byte ASCII_ARGUMENT = 2;
+
+    // Definition records
+    static final int DEFINITION_ID_OFFSET = 0;
+    static final int DEFINITION_NAME_OFFSET = DEFINITION_ID_OFFSET + SIZE_OF_INT;
+
+    // Dropped records
+    static final int DROPPED_COUNT_OFFSET = 0;
+
+    private static final int MISSING_ID = -1;
+    private static final int WRITE_BATCH_SIZE = 64 * 1024;
+
+    private final IdentityHashMap<CharFormatter, Integer> formatterIds = new IdentityHashMap<>();
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final ManyToOneRingBuffer ringBuffer;
+    private final AgentRunner runner;
+
+    BinaryDebugLog(final File file, final int bufferSize)
+    {
+        ringBuffer = new ManyToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(bufferSize + TRAILER_LENGTH)));
+
+        final FileChannel channel;
+        try
+        {
+            channel = FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING);
+        }
+        catch (final IOException ex)
+        {
+            throw new IllegalStateException(
+                "Unable to configure DebugLogger, please check " + DEBUG_BINARY_FILE_PROPERTY, ex);
+        }
+
+        runner = new AgentRunner(
+            new SleepingMillisIdleStrategy(1), Throwable::printStackTrace, null, new WriterAgent(channel));
+        AgentRunner.startOnThread(runner, (runnable) ->
+        {
+            final Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    ThreadWriter newThreadWriter(final String threadName)
+    {
+        return new ThreadWriter(threadName);
+    }
+
+    private synchronized int registerFormatter(final CharFormatter formatter)
+    {
+        final Integer existingId = formatterIds.get(formatter);
+        if (existingId != null)
+        {
+            return existingId;
+        }
+
+        final int formatterId = formatterIds.size();
+        formatterIds.put(formatter, formatterId);
+        // Written whilst holding the lock so that no other thread can log with the id before it's defined.
+        writeDefinition(FORMATTER_DEFINITION, formatterId, formatter.formatString());
+        return formatterId;
+    }
+
+    private void writeDefinition(final int recordType, final int id, final String name)
+    {
+        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(DEFINITION_NAME_OFFSET + name.length());
+        buffer.putInt(DEFINITION_ID_OFFSET, id, LITTLE_ENDIAN);
+        final int length = DEFINITION_NAME_OFFSET + buffer.putStringWithoutLengthAscii(DEFINITION_NAME_OFFSET, name);
+
+        // Definitions are written once per formatter or thread, so wait for space rather than losing them.
+        while (!ringBuffer.write(recordType, buffer, 0, length))
+        {
+            if (runner.isClosed())
+            {
+                return;
+            }
+
+            Thread.yield();
+        }
+    }
+
+    public void close()
+    {
+        runner.close();
+    }
+
+    /**
+     * Encodes the records of a single logging thread, not thread safe.
+     */
+    final class ThreadWriter
+    {
+        private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(1024);
+        private final Object2IntHashMap<CharFormatter> formatterIds = new Object2IntHashMap<>(MISSING_ID);
+        private final int threadId;
+
+        private int recordType;
+        private int length;
+        private int argumentCount;
+
+        ThreadWriter(final String threadName)
+        {
+            threadId = threadIds.getAndIncrement();
+            writeDefinition(THREAD_DEFINITION, threadId, threadName);
+        }
+
+        ThreadWriter startText(final LogTag tag)
+        {
+            recordType = TEXT_RECORD;
+            length = putHeader(tag);
+            return this;
+        }
+
+        ThreadWriter startFormatted(final LogTag tag, final CharFormatter formatter)
+        {
+            recordType = FORMATTED_RECORD;
+            putHeader(tag);
+            buffer.putInt(FORMATTER_ID_OFFSET, formatterId(formatter), LITTLE_ENDIAN);
+            length = ARGUMENTS_OFFSET;
+            argumentCount = 0;
+            return this;
+        }
+
+        ThreadWriter append(final CharSequence value)
+        {
+            length += putAscii(length, value);
+            return this;
+        }
+
+        ThreadWriter append(final DirectBuffer value, final int offset, final int valueLength)
+        {
+            putBytes(length, value, offset, valueLength);
+            length += valueLength;
+            return this;
+        }
+
+        ThreadWriter with(final long value)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            final int length = this.length;
+            buffer.putByte(length, LONG_ARGUMENT);
+            buffer.putLong(length + SIZE_OF_BYTE, value, LITTLE_ENDIAN);
+            this.length = length + SIZE_OF_BYTE + SIZE_OF_LONG;
+            argumentCount++;
+            return this;
+        }
+
+        ThreadWriter with(final CharSequence value)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            final int length = this.length;
+            final int valueOffset = length + SIZE_OF_BYTE + SIZE_OF_INT;
+            final int valueLength = putAscii(valueOffset, value);
+            buffer.putByte(length, ASCII_ARGUMENT);
+            buffer.putInt(length + SIZE_OF_BYTE, valueLength, LITTLE_ENDIAN);
+            this.length = valueOffset + valueLength;
+            argumentCount++;
+            return this;
+        }
+
+        ThreadWriter with(final DirectBuffer value, final int offset, final int valueLength)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            final int length = this.length;
+            final int valueOffset = length + SIZE_OF_BYTE + SIZE_OF_INT;
+            buffer.putByte(length, ASCII_ARGUMENT);
+            buffer.putInt(length + SIZE_OF_BYTE, valueLength, LITTLE_ENDIAN);
+            putBytes(valueOffset, value, offset, valueLength);
+            this.length = valueOffset + valueLength;
+            argumentCount++;
+            return this;
+        }
+
+        void commit()
+        {
+            final int recordType = this.recordType;
+            final int length = this.length;
+            if (recordType == FORMATTED_RECORD)
+            {
+                buffer.putInt(ARGUMENT_COUNT_OFFSET, argumentCount, LITTLE_ENDIAN);
+            }
+
+            final ManyToOneRingBuffer ringBuffer = BinaryDebugLog.this.ringBuffer;
+            if (length > ringBuffer.maxMsgLength() || !ringBuffer.write(recordType, buffer, 0, length))
+            {
+                droppedRecords.incrementAndGet();
+            }
+        }
+
+        private int putHeader(final LogTag tag)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            buffer.putInt(TAG_OFFSET, tag.ordinal(), LITTLE_ENDIAN);
+            buffer.putLong(TIMESTAMP_OFFSET, System.currentTimeMillis(), LITTLE_ENDIAN);
+            buffer.putInt(THREAD_ID_OFFSET, threadId, LITTLE_ENDIAN);
+            return HEADER_LENGTH;
+        }
+
+        private int formatterId(final CharFormatter formatter)
+        {
+            int formatterId = formatterIds.getValue(formatter);
+            if (formatterId == MISSING_ID)
+            {
+                formatterId = registerFormatter(formatter);
+                formatterIds.put(formatter, formatterId);
+            }
+            return formatterId;
+        }
+
+        private int putAscii(final int offset, final CharSequence value)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            final int length = value.length();
+            for (int i = 0; i < length; i++)
+            {
+                buffer.putByte(offset + i, (byte)value.charAt(i));
+            }
+            return length;
+        }
+
+        private void putBytes(final int offset, final DirectBuffer value, final int valueOffset, final int length)
+        {
+            final MutableDirectBuffer buffer = this.buffer;
+            buffer.putBytes(offset, value, valueOffset, length);
+            if (DEBUG_LOGGING_SEPARATOR != DEFAULT_DEBUG_LOGGING_SEPARATOR)
+            {
+                for (int i = offset, end = offset + length; i < end; i++)
+                {
+                    if (buffer.getByte(i) == DEFAULT_DEBUG_LOGGING_SEPARATOR)
+                    {
+                        buffer.putByte(i, DEBUG_LOGGING_SEPARATOR);
+                    }
+                }
+            }
+        }
+    }
+
+    private final class WriterAgent implements Agent, MessageHandler
+    {
+        private final ByteBuffer batch;
+        private final UnsafeBuffer batchBuffer;
+        private final FileChannel channel;
+
+        private int batchLength;
+        private long reportedDroppedRecords;
+
+        WriterAgent(final FileChannel channel)
+        {
+            this.channel = channel;
+            batch = ByteBuffer.allocateDirect(
+                Math.max(WRITE_BATCH_SIZE, RECORD_HEADER_LENGTH + ringBuffer.maxMsgLength()));
+            batchBuffer = new UnsafeBuffer(batch);
+        }
+
+        public int doWork()
+        {
+            final int work = ringBuffer.read(this) + checkDroppedRecords();
+            flush();
+            return work;
+        }
+
+        public void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+        {
+            final int recordOffset = claim(msgTypeId, length);
+            batchBuffer.putBytes(recordOffset, buffer, index, length);
+        }
+
+        private int checkDroppedRecords()
+        {
+            final long droppedRecords = BinaryDebugLog.this.droppedRecords.get();
+            final long newlyDroppedRecords = droppedRecords - reportedDroppedRecords;
+            if (newlyDroppedRecords == 0)
+            {
+                return 0;
+            }
+
+            reportedDroppedRecords = droppedRecords;
+            final int recordOffset = claim(DROPPED_RECORDS, SIZE_OF_LONG);
+            batchBuffer.putLong(recordOffset + DROPPED_COUNT_OFFSET, newlyDroppedRecords, LITTLE_ENDIAN);
+            return 1;
+        }
+
+        private int claim(final int recordType, final int length)
+        {
+            if (batchLength + RECORD_HEADER_LENGTH + length > batchBuffer.capacity())
+            {
+                flush();
+            }
+
+            final UnsafeBuffer batchBuffer = this.batchBuffer;
+            final int batchLength = this.batchLength;
+            batchBuffer.putInt(batchLength + RECORD_TYPE_OFFSET, recordType, LITTLE_ENDIAN);
+            batchBuffer.putInt(batchLength + RECORD_LENGTH_OFFSET, length, LITTLE_ENDIAN);
+            this.batchLength = batchLength + RECORD_HEADER_LENGTH + length;
+            return batchLength + RECORD_HEADER_LENGTH;
+        }
+
+        private void flush()
+        {
+            if (batchLength == 0)
+            {
+                return;
+            }
+
+            final ByteBuffer batch = this.batch;
+            batch.limit(batchLength).position(0);
+            try
+            {
+                while (batch.hasRemaining())
+                {
+                    channel.write(batch);
+                }
+            }
+            catch (final IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+            finally
+            {
+                batch.clear();
+                batchLength = 0;
+            }
+        }
+
+        public void onClose()
+        {
+            while (ringBuffer.read(this) > 0)
+            {
+                flush();
+            }
+            checkDroppedRecords();
+            flush();
+
+            try
+            {
+                channel.force(false);
+                channel.close();
+            }
+            catch (final IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+        }
+
+        public String roleName()
+        {
+            return "artio-debug-log";
+        }
+    }
+}
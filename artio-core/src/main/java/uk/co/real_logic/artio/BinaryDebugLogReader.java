@@ -0,0 +1,246 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.util.CharFormatter;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.util.function.Consumer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_BYTE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.BinaryDebugLog.*;
+
+/**
+ * Formats a file written by the {@link DebugLogger} when {@link CommonConfiguration#DEBUG_BINARY_FILE_PROPERTY} is
+ * set. Each record is formatted in the same way as the {@link PrintingDebugAppender} would have formatted it.
+ *
+ * Usage: BinaryDebugLogReader &lt;binary debug log file&gt;
+ */
+public final class BinaryDebugLogReader
+{
+    private static final LogTag[] LOG_TAGS = LogTag.values();
+
+    private final Int2ObjectHashMap<CharFormatter> formatters = new Int2ObjectHashMap<>();
+    private final Int2ObjectHashMap<String> threadNames = new Int2ObjectHashMap<>();
+    private final StringBuilder builder = new StringBuilder();
+    private byte[] bytes = new byte[1024];
+
+    public static void main(final String[] args)
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: BinaryDebugLogReader <binary debug log file>");
+            System.exit(-1);
+        }
+
+        final PrintWriter output = new PrintWriter(System.out);
+        new BinaryDebugLogReader().read(new File(args[0]), output::println);
+        output.flush();
+    }
+
+    /**
+     * Format each record within a binary debug log file. A partially written record at the end of the file, for
+     * example if the process was killed whilst writing it, is ignored.
+     *
+     * @param file the file to read.
+     * @param lineHandler the callback for each formatted record, the builder is reused between callbacks.
+     * @return the number of records that have been read from the file.
+     */
+    public int read(final File file, final Consumer<StringBuilder> lineHandler)
+    {
+        final MappedByteBuffer mappedByteBuffer = IoUtil.mapExistingFile(file, "binary debug log");
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final int capacity = buffer.capacity();
+            int records = 0;
+            int offset = 0;
+            while (offset + RECORD_HEADER_LENGTH <= capacity)
+            {
+                final int recordType = buffer.getInt(offset + RECORD_TYPE_OFFSET, LITTLE_ENDIAN);
+                final int length = buffer.getInt(offset + RECORD_LENGTH_OFFSET, LITTLE_ENDIAN);
+                final int recordOffset = offset + RECORD_HEADER_LENGTH;
+                if (length < 0 || recordOffset + length > capacity)
+                {
+                    break;
+                }
+
+                onRecord(recordType, buffer, recordOffset, length, lineHandler);
+                offset = recordOffset + length;
+                records++;
+            }
+
+            return records;
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+    }
+
+    private void onRecord(
+        final int recordType,
+        final UnsafeBuffer buffer,
+        final int offset,
+        final int length,
+        final Consumer<StringBuilder> lineHandler)
+    {
+        switch (recordType)
+        {
+            case FORMATTER_DEFINITION:
+                formatters.put(
+                    buffer.getInt(offset + DEFINITION_ID_OFFSET, LITTLE_ENDIAN),
+                    new CharFormatter(definitionName(buffer, offset, length)));
+                break;
+
+            case THREAD_DEFINITION:
+                threadNames.put(
+                    buffer.getInt(offset + DEFINITION_ID_OFFSET, LITTLE_ENDIAN),
+                    definitionName(buffer, offset, length));
+                break;
+
+            case TEXT_RECORD:
+            {
+                final StringBuilder builder = appendStart(buffer, offset);
+                appendAscii(buffer, offset + HEADER_LENGTH, length - HEADER_LENGTH);
+                lineHandler.accept(builder);
+                break;
+            }
+
+            case FORMATTED_RECORD:
+            {
+                final StringBuilder builder = appendStart(buffer, offset);
+                appendFormatted(buffer, offset);
+                lineHandler.accept(builder);
+                break;
+            }
+
+            case DROPPED_RECORDS:
+            {
+                final StringBuilder builder = this.builder;
+                builder.setLength(0);
+                builder
+                    .append("Dropped ")
+                    .append(buffer.getLong(offset + DROPPED_COUNT_OFFSET, LITTLE_ENDIAN))
+                    .append(" debug log records as the ring buffer was full");
+                lineHandler.accept(builder);
+                break;
+            }
+
+            default:
+                // Skip unknown records for forward compatibility.
+                break;
+        }
+    }
+
+    private StringBuilder appendStart(final UnsafeBuffer buffer, final int offset)
+    {
+        final StringBuilder builder = this.builder;
+        builder.setLength(0);
+
+        final int tagOrdinal = buffer.getInt(offset + TAG_OFFSET, LITTLE_ENDIAN);
+        builder
+            .append(buffer.getLong(offset + TIMESTAMP_OFFSET, LITTLE_ENDIAN))
+            .append(':')
+            .append(threadNames.get(buffer.getInt(offset + THREAD_ID_OFFSET, LITTLE_ENDIAN)));
+
+        if (tagOrdinal >= 0 && tagOrdinal < LOG_TAGS.length)
+        {
+            builder.append(LOG_TAGS[tagOrdinal].logStr());
+        }
+        else
+        {
+            builder.append("[UNKNOWN_TAG_").append(tagOrdinal).append(']');
+        }
+
+        return builder;
+    }
+
+    private void appendFormatted(final UnsafeBuffer buffer, final int offset)
+    {
+        final int formatterId = buffer.getInt(offset + FORMATTER_ID_OFFSET, LITTLE_ENDIAN);
+        final CharFormatter formatter = formatters.get(formatterId);
+        if (formatter == null)
+        {
+            builder.append("Unknown formatter: ").append(formatterId);
+            return;
+        }
+
+        try
+        {
+            formatter.clear();
+            final int argumentCount = buffer.getInt(offset + ARGUMENT_COUNT_OFFSET, LITTLE_ENDIAN);
+            int argumentOffset = offset + ARGUMENTS_OFFSET;
+            for (int i = 0; i < argumentCount; i++)
+            {
+                final byte argumentType = buffer.getByte(argumentOffset);
+                argumentOffset += SIZE_OF_BYTE;
+                if (argumentType == LONG_ARGUMENT)
+                {
+                    formatter.with(buffer.getLong(argumentOffset, LITTLE_ENDIAN));
+                    argumentOffset += SIZE_OF_LONG;
+                }
+                else
+                {
+                    final int argumentLength = buffer.getInt(argumentOffset, LITTLE_ENDIAN);
+                    argumentOffset += SIZE_OF_INT;
+                    final byte[] bytes = acquireBytes(argumentLength);
+                    buffer.getBytes(argumentOffset, bytes, 0, argumentLength);
+                    formatter.with(bytes, argumentLength);
+                    argumentOffset += argumentLength;
+                }
+            }
+            formatter.appendTo(builder);
+        }
+        catch (final IllegalStateException ex)
+        {
+            builder.append("Invalid record for formatter '").append(formatter.formatString()).append('\'');
+        }
+    }
+
+    private void appendAscii(final UnsafeBuffer buffer, final int offset, final int length)
+    {
+        final StringBuilder builder = this.builder;
+        for (int i = 0; i < length; i++)
+        {
+            builder.append((char)buffer.getByte(offset + i));
+        }
+    }
+
+    private static String definitionName(final UnsafeBuffer buffer, final int offset, final int length)
+    {
+        return buffer.getStringWithoutLengthAscii(offset + DEFINITION_NAME_OFFSET, length - DEFINITION_NAME_OFFSET);
+    }
+
+    private byte[] acquireBytes(final int length)
+    {
+        byte[] bytes = this.bytes;
+        if (bytes.length < length)
+        {
+            bytes = new byte[length];
+            this.bytes = bytes;
+        }
+        return bytes;
+    }
+}
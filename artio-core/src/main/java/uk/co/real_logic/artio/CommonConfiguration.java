@@ -106,10 +106,25 @@ public class CommonConfiguration
      * Property name for the flag to enable or disable message timing
      */
     public static final String TIME_MESSAGES_PROPERTY = "fix.core.timing";
+    /**
+     * Property name for timing only one in this many messages when message timing is enabled, this reduces the
+     * cost of leaving timing enabled in production.
+     */
+    public static final String TIMING_SAMPLE_INTERVAL_PROPERTY = "fix.core.timing.sample_interval";
     /**
      * Property name for the file to log debug messages to, default is standard output
      */
     public static final String DEBUG_FILE_PROPERTY = "fix.core.debug.file";
+    /**
+     * Property name for the file to asynchronously log binary debug records to. When this is set debug logging calls
+     * copy their arguments into an off-heap ring buffer rather than formatting them on the calling thread, and
+     * {@link BinaryDebugLogReader} formats the file offline.
+     */
+    public static final String DEBUG_BINARY_FILE_PROPERTY = "fix.core.debug.binary_file";
+    /**
+     * Property name for the size of the ring buffer that binary debug records are written to, must be a power of two.
+     */
+    public static final String DEBUG_BINARY_BUFFER_SIZE_PROPERTY = "fix.core.debug.binary_buffer_size";
     /**
      * Property name for the period at which histogram intervals are polled and logged
      */
@@ -229,7 +244,14 @@ public class CommonConfiguration
     }
 
     public static final String DEBUG_FILE = System.getProperty(DEBUG_FILE_PROPERTY);
+    public static final String DEBUG_BINARY_FILE = System.getProperty(DEBUG_BINARY_FILE_PROPERTY);
+    public static final int DEFAULT_DEBUG_BINARY_BUFFER_SIZE = 8 * 1024 * 1024;
+    public static final int DEBUG_BINARY_BUFFER_SIZE = Integer.getInteger(
+        DEBUG_BINARY_BUFFER_SIZE_PROPERTY, DEFAULT_DEBUG_BINARY_BUFFER_SIZE);
     public static final boolean TIME_MESSAGES = Boolean.getBoolean(TIME_MESSAGES_PROPERTY);
+    public static final int DEFAULT_TIMING_SAMPLE_INTERVAL = 1;
+    public static final int TIMING_SAMPLE_INTERVAL = Integer.getInteger(
+        TIMING_SAMPLE_INTERVAL_PROPERTY, DEFAULT_TIMING_SAMPLE_INTERVAL);
     public static final boolean FORCE_WRITES = Boolean.getBoolean(FORCE_WRITES_MESSAGES_PROPERTY);
 
     public static final int BACKOFF_SPINS = Integer.getInteger("fix.core.spins", 100);
@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -35,10 +36,16 @@ import static uk.co.real_logic.artio.CommonConfiguration.*;
 /**
  * A logger purely for debug data. Not optimised for high performance logging, but all logging calls must be removable
  * by the optimiser.
+ *
+ * If {@link CommonConfiguration#DEBUG_BINARY_FILE_PROPERTY} is set then records are written asynchronously to a
+ * binary file by a {@link BinaryDebugLog} rather than being formatted on the calling thread, see
+ * {@link BinaryDebugLogReader} in order to format them.
  */
 public final class DebugLogger
 {
     private static final AbstractDebugAppender APPENDER;
+    private static final BinaryDebugLog BINARY_LOG;
+    private static final boolean IS_BINARY;
     private static final ThreadLocal<ThreadLocalLogger> THREAD_LOCAL = ThreadLocal.withInitial(ThreadLocalLogger::new);
 
     public static final boolean IS_REPLAY_LOG_TAG_ENABLED = isEnabled(LogTag.REPLAY);
@@ -62,6 +69,17 @@ public final class DebugLogger
         {
             APPENDER = new PrintingDebugAppender();
         }
+
+        if (DEBUG_PRINT_MESSAGES && DEBUG_BINARY_FILE != null)
+        {
+            BINARY_LOG = new BinaryDebugLog(new File(DEBUG_BINARY_FILE), DEBUG_BINARY_BUFFER_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(BINARY_LOG::close, "artio-debug-log-shutdown"));
+        }
+        else
+        {
+            BINARY_LOG = null;
+        }
+        IS_BINARY = BINARY_LOG != null;
     }
 
     public static void log(
@@ -84,8 +102,10 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(value);
-            THREAD_LOCAL.get().log(tag, formatter, buffer, offset, length);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(value)
+                .commit(buffer, offset, length);
         }
     }
 
@@ -100,8 +120,10 @@ public final class DebugLogger
     {
         if (isEnabled(tag) && isEnabled(messageType))
         {
-            formatter.clear().with(value);
-            THREAD_LOCAL.get().log(tag, formatter, buffer, offset, length);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(value)
+                .commit(buffer, offset, length);
         }
     }
 
@@ -116,8 +138,11 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter, buffer, offset, length);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .commit(buffer, offset, length);
         }
     }
 
@@ -623,8 +648,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().startFormatted(tag, formatter).with(first).with(second).commit();
         }
     }
 
@@ -635,8 +659,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().startFormatted(tag, formatter).with(first).commit();
         }
     }
 
@@ -648,8 +671,7 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get().startFormatted(tag, formatter).with(first).with(second).commit();
         }
     }
 
@@ -662,8 +684,12 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .with(third)
+                .commit();
         }
     }
 
@@ -676,8 +702,12 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .with(third)
+                .commit();
         }
     }
 
@@ -690,8 +720,12 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .with(third)
+                .commit();
         }
     }
 
@@ -705,8 +739,13 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third).with(fourth);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .with(third)
+                .with(fourth)
+                .commit();
         }
     }
 
@@ -720,8 +759,13 @@ public final class DebugLogger
     {
         if (isEnabled(tag))
         {
-            formatter.clear().with(first).with(second).with(third).with(fourth);
-            THREAD_LOCAL.get().log(tag, formatter);
+            THREAD_LOCAL.get()
+                .startFormatted(tag, formatter)
+                .with(first)
+                .with(second)
+                .with(third)
+                .with(fourth)
+                .commit();
         }
     }
 
@@ -844,6 +888,10 @@ public final class DebugLogger
         private final AsciiSequenceView asciiView = new AsciiSequenceView();
         private final UnsafeBuffer buffer = new UnsafeBuffer(bytes);
         private final ThreadLocalAppender appender;
+        final BinaryDebugLog.ThreadWriter binaryWriter;
+
+        private LogTag formattedTag;
+        private CharFormatter formatter;
 
         final boolean isThreadEnabled;
 
@@ -852,6 +900,7 @@ public final class DebugLogger
             final String threadName = threadName();
             isThreadEnabled = DEBUG_PRINT_THREAD == null || DEBUG_PRINT_THREAD.equals(threadName);
             appender = APPENDER.makeLocalAppender();
+            binaryWriter = IS_BINARY ? BINARY_LOG.newThreadWriter(threadName) : null;
         }
 
         public void logSbeMessage(final LogTag tag, final StartReplayEncoder encoder)
@@ -1477,6 +1526,12 @@ public final class DebugLogger
         public void log(
             final LogTag tag, final String message)
         {
+            if (IS_BINARY)
+            {
+                binaryWriter.startText(tag).append(message).commit();
+                return;
+            }
+
             appendStart();
             builder.append(message);
             finish(tag);
@@ -1485,6 +1540,12 @@ public final class DebugLogger
         public void log(
             final LogTag tag, final String prefixString, final DirectBuffer buffer, final int offset, final int length)
         {
+            if (IS_BINARY)
+            {
+                binaryWriter.startText(tag).append(prefixString).append(buffer, offset, length).commit();
+                return;
+            }
+
             appendStart();
             builder.append(prefixString);
 
@@ -1525,6 +1586,12 @@ public final class DebugLogger
             final String prefixString,
             final String suffixString)
         {
+            if (IS_BINARY)
+            {
+                binaryWriter.startText(tag).append(prefixString).append(suffixString).commit();
+                return;
+            }
+
             appendStart();
             final StringBuilder builder = this.builder;
             builder.append(prefixString);
@@ -1541,11 +1608,85 @@ public final class DebugLogger
             finish(tag);
         }
 
+        // Formats a record on this thread or writes its arguments to the binary log to be formatted later, the
+        // formatter's arguments are added with the with() methods and then the record is committed.
+        ThreadLocalLogger startFormatted(final LogTag tag, final CharFormatter formatter)
+        {
+            if (IS_BINARY)
+            {
+                binaryWriter.startFormatted(tag, formatter);
+            }
+            else
+            {
+                formatter.clear();
+            }
+            formattedTag = tag;
+            this.formatter = formatter;
+            return this;
+        }
+
+        ThreadLocalLogger with(final long value)
+        {
+            if (IS_BINARY)
+            {
+                binaryWriter.with(value);
+            }
+            else
+            {
+                formatter.with(value);
+            }
+            return this;
+        }
+
+        ThreadLocalLogger with(final String value)
+        {
+            if (IS_BINARY)
+            {
+                binaryWriter.with(value);
+            }
+            else
+            {
+                formatter.with(value);
+            }
+            return this;
+        }
+
+        void commit()
+        {
+            if (IS_BINARY)
+            {
+                binaryWriter.commit();
+            }
+            else
+            {
+                log(formattedTag, formatter);
+            }
+        }
+
+        void commit(final DirectBuffer buffer, final int offset, final int length)
+        {
+            if (IS_BINARY)
+            {
+                binaryWriter.with(buffer, offset, length).commit();
+            }
+            else
+            {
+                log(formattedTag, formatter, buffer, offset, length);
+            }
+        }
+
         private void finish(final LogTag tag)
         {
             final StringBuilder builder = this.builder;
-            builder.append(System.lineSeparator());
-            appender.log(tag, builder);
+            if (IS_BINARY)
+            {
+                binaryWriter.startText(tag).append(builder).commit();
+            }
+            else
+            {
+                builder.append(System.lineSeparator());
+                appender.log(tag, builder);
+            }
         }
     }
 }
@@ -18,6 +18,7 @@ package uk.co.real_logic.artio;
 import io.aeron.Aeron;
 import io.aeron.Counter;
 import org.agrona.collections.IntHashSet;
+import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.agrona.concurrent.status.CountersReader;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
@@ -47,7 +48,15 @@ public class FixCounters implements AutoCloseable
         CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
         NEGATIVE_TIMESTAMP_TYPE_ID(10_009),
         FAILED_ADMIN_TYPE_ID(10_010),
-        FAILED_ADMIN_REPLY_TYPE_ID(10_011);
+        FAILED_ADMIN_REPLY_TYPE_ID(10_011),
+        REPLAY_CACHE_HIT_TYPE_ID(10_012),
+        REPLAY_CACHE_MISS_TYPE_ID(10_013),
+        SESSION_POOL_HIT_TYPE_ID(10_014),
+        SESSION_POOL_MISS_TYPE_ID(10_015),
+        LOGON_QUEUE_DEPTH_TYPE_ID(10_016),
+        LOGON_ADMISSION_LATENCY_TYPE_ID(10_017),
+        IDLE_STRATEGY_PHASE_TYPE_ID(10_018),
+        IDLE_STRATEGY_PHASE_TIME_TYPE_ID(10_019);
 
         final int id;
 
@@ -68,6 +77,12 @@ public class FixCounters implements AutoCloseable
     private final AtomicCounter failedReplayPublications;
     private final AtomicCounter failedAdminReplyPublications;
     private final AtomicCounter currentReplayCount;
+    private final AtomicCounter replayCacheHits;
+    private final AtomicCounter replayCacheMisses;
+    private final AtomicCounter sessionPoolHits;
+    private final AtomicCounter sessionPoolMisses;
+    private final AtomicCounter logonQueueDepth;
+    private final AtomicCounter logonAdmissionLatency;
     private final AtomicCounter negativeTimestamps;
     private final Aeron aeron;
 
@@ -112,10 +127,23 @@ public class FixCounters implements AutoCloseable
         {
             currentReplayCount = newCounter(FixCountersId.CURRENT_REPLAY_COUNT_TYPE_ID.id(),
                 "Current Replay Count");
+            replayCacheHits = newCounter(REPLAY_CACHE_HIT_TYPE_ID.id(), "Replay Cache Hits");
+            replayCacheMisses = newCounter(REPLAY_CACHE_MISS_TYPE_ID.id(), "Replay Cache Misses");
+            sessionPoolHits = newCounter(SESSION_POOL_HIT_TYPE_ID.id(), "Session Pool Hits");
+            sessionPoolMisses = newCounter(SESSION_POOL_MISS_TYPE_ID.id(), "Session Pool Misses");
+            logonQueueDepth = newCounter(LOGON_QUEUE_DEPTH_TYPE_ID.id(), "Logon Queue Depth");
+            logonAdmissionLatency = newCounter(
+                LOGON_ADMISSION_LATENCY_TYPE_ID.id(), "Last Logon Admission Latency in ns");
         }
         else
         {
             currentReplayCount = null;
+            replayCacheHits = null;
+            replayCacheMisses = null;
+            sessionPoolHits = null;
+            sessionPoolMisses = null;
+            logonQueueDepth = null;
+            logonAdmissionLatency = null;
         }
     }
 
@@ -144,11 +172,64 @@ public class FixCounters implements AutoCloseable
         return currentReplayCount;
     }
 
+    public AtomicCounter replayCacheHits()
+    {
+        return replayCacheHits;
+    }
+
+    public AtomicCounter replayCacheMisses()
+    {
+        return replayCacheMisses;
+    }
+
+    public AtomicCounter sessionPoolHits()
+    {
+        return sessionPoolHits;
+    }
+
+    public AtomicCounter sessionPoolMisses()
+    {
+        return sessionPoolMisses;
+    }
+
+    public AtomicCounter logonQueueDepth()
+    {
+        return logonQueueDepth;
+    }
+
+    public AtomicCounter logonAdmissionLatency()
+    {
+        return logonAdmissionLatency;
+    }
+
     public AtomicCounter negativeTimestamps()
     {
         return negativeTimestamps;
     }
 
+    /**
+     * Adds counters for the phase of an idle strategy and its time in each phase, if it's an
+     * {@link AdaptiveIdleStrategy} that doesn't already have counters.
+     *
+     * @param idleStrategy the idle strategy to add counters for.
+     * @param name the name of the duty cycle that the idle strategy is used by.
+     */
+    public void adaptiveIdleStrategyCounters(final IdleStrategy idleStrategy, final String name)
+    {
+        if (idleStrategy instanceof AdaptiveIdleStrategy && !((AdaptiveIdleStrategy)idleStrategy).hasCounters())
+        {
+            final AtomicCounter phase = newCounter(IDLE_STRATEGY_PHASE_TYPE_ID.id(), name + " Idle Phase");
+            final AtomicCounter spinTime = newCounter(
+                IDLE_STRATEGY_PHASE_TIME_TYPE_ID.id(), name + " Spin Time in ns");
+            final AtomicCounter yieldTime = newCounter(
+                IDLE_STRATEGY_PHASE_TIME_TYPE_ID.id(), name + " Yield Time in ns");
+            final AtomicCounter parkTime = newCounter(
+                IDLE_STRATEGY_PHASE_TIME_TYPE_ID.id(), name + " Park Time in ns");
+
+            ((AdaptiveIdleStrategy)idleStrategy).counters(phase, spinTime, yieldTime, parkTime);
+        }
+    }
+
     public AtomicCounter messagesRead(final long connectionId, final String address)
     {
         return newCounter(FixCountersId.MESSAGES_READ_TYPE_ID.id(),
@@ -19,9 +19,10 @@ import org.agrona.ErrorHandler;
 import org.agrona.concurrent.AtomicBuffer;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
@@ -32,6 +33,7 @@ public class ChecksumFramer extends SectorFramer
     private final ChecksumConsumer validateChecksumFunc;
     private final String fileName;
     private final boolean indexChecksumEnabled;
+    private final long[] dirtySectors;
 
     public ChecksumFramer(
         final AtomicBuffer buffer,
@@ -49,6 +51,7 @@ public class ChecksumFramer extends SectorFramer
         this.fileName = fileName;
         this.indexChecksumEnabled = indexChecksumEnabled;
         validateChecksumFunc = this::validateChecksum;
+        dirtySectors = new long[((capacity / SECTOR_SIZE) + Long.SIZE - 1) / Long.SIZE];
     }
 
     public void validateCheckSums()
@@ -67,6 +70,52 @@ public class ChecksumFramer extends SectorFramer
         }
     }
 
+    /**
+     * Marks the sector containing the offset as modified since the last call to
+     * {@link #updateDirtyChecksums(IntConsumer)}.
+     *
+     * @param offset the offset within the buffer that has been written to.
+     */
+    public void markDirty(final int offset)
+    {
+        final int sector = offset / SECTOR_SIZE;
+        dirtySectors[sector / Long.SIZE] |= 1L << sector;
+    }
+
+    public void clearDirtySectors()
+    {
+        Arrays.fill(dirtySectors, 0L);
+    }
+
+    /**
+     * Updates the checksums of only the sectors that have been marked as dirty and clears their dirty marks.
+     *
+     * @param sectorStartConsumer called with the start offset of each dirty sector, after its checksum is updated.
+     */
+    public void updateDirtyChecksums(final IntConsumer sectorStartConsumer)
+    {
+        final long[] dirtySectors = this.dirtySectors;
+        for (int i = 0; i < dirtySectors.length; i++)
+        {
+            long dirtyWord = dirtySectors[i];
+            while (dirtyWord != 0)
+            {
+                final int sector = (i * Long.SIZE) + Long.numberOfTrailingZeros(dirtyWord);
+                dirtyWord &= dirtyWord - 1;
+
+                final int sectorStart = sector * SECTOR_SIZE;
+                if (indexChecksumEnabled)
+                {
+                    saveChecksumFunc.accept(sectorStart + SECTOR_DATA_LENGTH, checksum(sectorStart));
+                }
+                sectorStartConsumer.accept(sectorStart);
+            }
+            dirtySectors[i] = 0L;
+        }
+
+        clearByteBuffer();
+    }
+
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
     {
         final int savedChecksum = buffer.getInt(checksumOffset);
@@ -77,31 +126,41 @@ public class ChecksumFramer extends SectorFramer
 
     private void withChecksums(final ChecksumConsumer consumer)
     {
-        final byte[] inMemoryBytes = buffer.byteArray();
-        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
-        final int wrapAdjustment = buffer.wrapAdjustment();
         final int capacity = this.capacity;
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
             final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+            consumer.accept(checksumOffset, checksum(sectorEnd - SECTOR_SIZE));
+        }
 
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+        clearByteBuffer();
+    }
+
+    private int checksum(final int sectorStartOffset)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final int sectorStart = sectorStartOffset + buffer.wrapAdjustment();
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
         }
+        return (int)crc32.getValue();
+    }
 
+    private void clearByteBuffer()
+    {
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
         if (inMemoryByteBuffer != null)
         {
             inMemoryByteBuffer.clear();
@@ -38,6 +38,7 @@ import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
 import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor;
+import uk.co.real_logic.artio.engine.logger.ReplayIndexSummary;
 import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.fixp.FixPCancelOnDisconnectTimeoutHandler;
 import uk.co.real_logic.artio.fixp.FixPProtocolFactory;
@@ -104,6 +105,23 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      */
     public static final String INDEX_CHECKSUM_ENABLED_PROP = "logging.checksum.enabled";
 
+    /**
+     * Property name for writing only the changed sectors of the sequence number index files when they're flushed.
+     */
+    public static final String INCREMENTAL_SEQUENCE_NUMBER_INDEX_FLUSH_PROP =
+        "logging.sequence_number_index.incremental_flush";
+
+    /**
+     * Property name for journaling the changed sectors of the sequence number index files before they're written.
+     */
+    public static final String SEQUENCE_NUMBER_INDEX_JOURNAL_PROP = "logging.sequence_number_index.journal";
+
+    /**
+     * Property name for running each sequence number index on its own indexing thread.
+     */
+    public static final String DEDICATED_SEQUENCE_NUMBER_INDEXERS_PROP =
+        "logging.sequence_number_index.dedicated_indexers";
+
     /**
      * Deprecated property name for size of logging index files. Do not use this, set
      * {@link #REPLAY_INDEX_RECORD_CAPACITY_PROP} instead.
@@ -165,6 +183,36 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for the size in bytes of the per-connection buffer used to coalesce outbound writes.
+     */
+    public static final String SENDER_WRITE_COALESCING_BUFFER_SIZE_PROP =
+        "fix.core.sender_write_coalescing_buffer_size";
+    /**
+     * Property name for the size in bytes of the per-session in-memory cache of recently sent messages that is used
+     * to serve resend requests without an archive replay.
+     */
+    public static final String REPLAY_CACHE_SESSION_CAPACITY_PROP = "fix.core.replay_cache_session_capacity";
+    /**
+     * Property name for the number of engine managed sessions whose buffers are pre-allocated and recycled.
+     */
+    public static final String SESSION_POOL_SIZE_PROP = "fix.core.session_pool_size";
+    /**
+     * Property name for the maximum number of acceptor logons whose authentication is started in a single duty cycle
+     * of the Framer.
+     */
+    public static final String MAX_LOGONS_PER_DUTY_CYCLE_PROP = "fix.core.max_logons_per_duty_cycle";
+    /**
+     * Property name for the maximum number of accepted connections that can be waiting to have their logon
+     * authenticated.
+     */
+    public static final String MAX_PENDING_LOGONS_PROP = "fix.core.max_pending_logons";
+    /**
+     * Property name for whether inbound FIX messages are tagged with the id of the library that owns their session
+     * so that other libraries can drop them without decoding or reassembling them.
+     */
+    public static final String PARTITION_INBOUND_MESSAGES_BY_LIBRARY_PROP =
+        "fix.core.partition_inbound_messages_by_library";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -187,6 +235,12 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_REPLAY_POSITION_BUFFER_SIZE = 4 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS = (int)SECONDS.toMillis(5);
+    public static final int DEFAULT_SENDER_WRITE_COALESCING_BUFFER_SIZE = 0;
+    public static final int DEFAULT_REPLAY_CACHE_SESSION_CAPACITY = 0;
+    public static final int DEFAULT_SESSION_POOL_SIZE = 0;
+    public static final int DEFAULT_MAX_LOGONS_PER_DUTY_CYCLE = 0;
+    public static final int DEFAULT_MAX_PENDING_LOGONS = 0;
+    public static final boolean DEFAULT_PARTITION_INBOUND_MESSAGES_BY_LIBRARY = false;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_FIXP_ID_FILE = "fixp_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
@@ -209,6 +263,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final long DEFAULT_DUPLICATE_ENGINE_TIMEOUT_IN_MS = SECONDS.toMillis(10);
     public static final int NO_THROTTLE_WINDOW = MISSING_INT;
     public static final boolean DEFAULT_INDEX_CHECKSUM_ENABLED = true;
+    public static final boolean DEFAULT_INCREMENTAL_SEQUENCE_NUMBER_INDEX_FLUSH = false;
+    public static final boolean DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL = true;
+    public static final boolean DEFAULT_DEDICATED_SEQUENCE_NUMBER_INDEXERS = false;
 
     public static final long MAX_COD_TIMEOUT_IN_NS = 60_000_000_000L;
     public static final long MAX_COD_TIMEOUT_IN_MS = 60_000L;
@@ -281,7 +338,23 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS);
+    private int senderWriteCoalescingBufferSize =
+        getInteger(SENDER_WRITE_COALESCING_BUFFER_SIZE_PROP, DEFAULT_SENDER_WRITE_COALESCING_BUFFER_SIZE);
+    private int replayCacheSessionCapacity =
+        getInteger(REPLAY_CACHE_SESSION_CAPACITY_PROP, DEFAULT_REPLAY_CACHE_SESSION_CAPACITY);
+    private int sessionPoolSize = getInteger(SESSION_POOL_SIZE_PROP, DEFAULT_SESSION_POOL_SIZE);
+    private int maxLogonsPerDutyCycle = getInteger(MAX_LOGONS_PER_DUTY_CYCLE_PROP, DEFAULT_MAX_LOGONS_PER_DUTY_CYCLE);
+    private int maxPendingLogons = getInteger(MAX_PENDING_LOGONS_PROP, DEFAULT_MAX_PENDING_LOGONS);
+    private Set<String> priorityLogonCompIds = new HashSet<>();
+    private boolean partitionInboundMessagesByLibrary =
+        getBoolean(PARTITION_INBOUND_MESSAGES_BY_LIBRARY_PROP, DEFAULT_PARTITION_INBOUND_MESSAGES_BY_LIBRARY);
     private boolean indexChecksumEnabled = getBoolean(INDEX_CHECKSUM_ENABLED_PROP, DEFAULT_INDEX_CHECKSUM_ENABLED);
+    private boolean incrementalSequenceNumberIndexFlush = getBoolean(
+        INCREMENTAL_SEQUENCE_NUMBER_INDEX_FLUSH_PROP, DEFAULT_INCREMENTAL_SEQUENCE_NUMBER_INDEX_FLUSH);
+    private boolean sequenceNumberIndexJournal =
+        getBoolean(SEQUENCE_NUMBER_INDEX_JOURNAL_PROP, DEFAULT_SEQUENCE_NUMBER_INDEX_JOURNAL);
+    private boolean dedicatedSequenceNumberIndexers =
+        getBoolean(DEDICATED_SEQUENCE_NUMBER_INDEXERS_PROP, DEFAULT_DEDICATED_SEQUENCE_NUMBER_INDEXERS);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -497,8 +570,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      */
     public static long replayIndexFileCapacityToBytes(final int requestedNumberOfRecordsToStore)
     {
-        return HEADER_FILE_SIZE + ReplayIndexDescriptor.RECORD_LENGTH *
-            (long)findNextPositivePowerOfTwo(requestedNumberOfRecordsToStore);
+        final int indexFileCapacity = findNextPositivePowerOfTwo(requestedNumberOfRecordsToStore);
+        return HEADER_FILE_SIZE + ReplayIndexSummary.summaryFileSize(indexFileCapacity) +
+            ReplayIndexDescriptor.RECORD_LENGTH * (long)indexFileCapacity;
     }
 
     /**
@@ -579,7 +653,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets the idle strategy for the Framer thread.
+     * Sets the idle strategy for the Framer thread. An {@link uk.co.real_logic.artio.AdaptiveIdleStrategy} also gets
+     * counters for its phase and the time spent in each phase.
      *
      * @param framerIdleStrategy the idle strategy for the Framer thread.
      * @return this
@@ -591,7 +666,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets the idle strategy for the Logger thread.
+     * Sets the idle strategy for the Logger thread. An {@link uk.co.real_logic.artio.AdaptiveIdleStrategy} also gets
+     * counters for its phase and the time spent in each phase.
      *
      * @param archiverIdleStrategy the idle strategy for the Logger thread.
      * @return this
@@ -647,6 +723,25 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables coalescing of outbound TCP writes. When enabled, messages that are read from libraries for the same
+     * connection within a single Framer duty cycle are copied into a per-connection buffer of this size and written
+     * to the socket with a single write at the end of the poll, rather than one write per message. Messages that are
+     * larger than this buffer, replays and messages for slow consumers are written as before.
+     *
+     * This reduces the number of syscalls when bursts of messages are sent to the same connection, at the cost of
+     * an extra copy of each message. Not supported in reproduction mode or when writing a reproduction log.
+     *
+     * @param senderWriteCoalescingBufferSize the size in bytes of the coalescing buffer, 0 disables coalescing.
+     * @return this
+     * @see EngineConfiguration#SENDER_WRITE_COALESCING_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration senderWriteCoalescingBufferSize(final int senderWriteCoalescingBufferSize)
+    {
+        this.senderWriteCoalescingBufferSize = senderWriteCoalescingBufferSize;
+        return this;
+    }
+
     /**
      * Set the timeout in milliseconds for TCP connections which don't send a logon message.
      *
@@ -1058,6 +1153,104 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables an in-memory cache of the most recent messages sent by each FIX session. Resend requests whose
+     * whole range is held in the cache are served directly from memory rather than by starting a replay from the
+     * archive, which is the common case when a counterparty only asks for the last few messages. Older ranges
+     * fall back to the archive. The effectiveness of the cache can be monitored through the replay cache hit and
+     * miss counters.
+     *
+     * The cache is off-heap and allocated on demand for each session that sends a message, so the total memory
+     * used is this capacity multiplied by the number of sessions. It only applies when outbound messages are
+     * logged.
+     *
+     * @param replayCacheSessionCapacity the size in bytes of the cache for each session, 0 disables the cache.
+     * @return this
+     */
+    public EngineConfiguration replayCacheSessionCapacity(final int replayCacheSessionCapacity)
+    {
+        this.replayCacheSessionCapacity = replayCacheSessionCapacity;
+        return this;
+    }
+
+    /**
+     * Pre-allocates the buffers used by this number of engine managed sessions and recycles them when a session
+     * disconnects or is handed over to a library. Each session needs two buffers of
+     * {@link #sessionBufferSize(int)} bytes, so without a pool a burst of sessions reconnecting at the same time
+     * causes a burst of allocation on the Framer thread. When the pool is empty buffers are allocated as before. The
+     * effectiveness of the pool can be monitored through the session pool hit and miss counters.
+     *
+     * @param sessionPoolSize the number of sessions to pre-allocate buffers for, 0 disables the pool.
+     * @return this
+     */
+    public EngineConfiguration sessionPoolSize(final int sessionPoolSize)
+    {
+        this.sessionPoolSize = sessionPoolSize;
+        return this;
+    }
+
+    /**
+     * Limits the number of acceptor logons whose authentication is started in a single duty cycle of the Framer.
+     * Without a limit a storm of connections logging on at the same time is authenticated in one go, delaying the
+     * messages of sessions that are already logged on. Logons over the limit stay in their connection's receive
+     * buffer and are authenticated in a later duty cycle, subject to the
+     * {@link #noLogonDisconnectTimeoutInMs(int)}. Logons from {@link #priorityLogonCompIds(Set)} are never delayed.
+     *
+     * @param maxLogonsPerDutyCycle the maximum number of logons to authenticate per duty cycle, 0 for no limit.
+     * @return this
+     */
+    public EngineConfiguration maxLogonsPerDutyCycle(final int maxLogonsPerDutyCycle)
+    {
+        this.maxLogonsPerDutyCycle = maxLogonsPerDutyCycle;
+        return this;
+    }
+
+    /**
+     * Bounds the number of accepted connections that can be waiting to have their logon authenticated. Connections
+     * accepted once the bound has been reached are closed straight away. The current number of waiting connections
+     * can be monitored through the logon queue depth counter.
+     *
+     * @param maxPendingLogons the maximum number of connections waiting for authentication, 0 for no bound.
+     * @return this
+     */
+    public EngineConfiguration maxPendingLogons(final int maxPendingLogons)
+    {
+        this.maxPendingLogons = maxPendingLogons;
+        return this;
+    }
+
+    /**
+     * Sets the SenderCompIDs of counterparties whose logons are authenticated ahead of
+     * {@link #maxLogonsPerDutyCycle(int)}.
+     *
+     * @param priorityLogonCompIds the SenderCompIDs of the logon messages to prioritise.
+     * @return this
+     */
+    public EngineConfiguration priorityLogonCompIds(final Set<String> priorityLogonCompIds)
+    {
+        this.priorityLogonCompIds = priorityLogonCompIds;
+        return this;
+    }
+
+    /**
+     * Partitions the inbound library stream by library. Every library subscribes to the same inbound stream, so by
+     * default each library reads, reassembles and decodes the header of every FIX message received by the engine
+     * only to drop those for sessions owned by another library. When enabled the engine tags each inbound FIX
+     * message's Aeron frame with the id of the library that owns its session and libraries skip frames tagged for
+     * another library before doing any of that work.
+     *
+     * The archiver and indexers are unaffected and continue to see every message on the stream. Libraries from
+     * older versions ignore the tag and keep filtering messages as they did before.
+     *
+     * @param partitionInboundMessagesByLibrary true to tag inbound messages with their library id, false otherwise.
+     * @return this
+     */
+    public EngineConfiguration partitionInboundMessagesByLibrary(final boolean partitionInboundMessagesByLibrary)
+    {
+        this.partitionInboundMessagesByLibrary = partitionInboundMessagesByLibrary;
+        return this;
+    }
+
     /**
      * Sets the initial sequenceIndex for the new session.
      * Doesnt affects existing session.
@@ -1193,6 +1386,57 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Flushes only the sectors of the sequence number index files that have changed since the last flush, writing
+     * them in place. By default the whole index is copied into a second file, forced to disk and then swapped with
+     * the index file, so each flush writes the full {@link #SEQUENCE_NUMBER_INDEX_SIZE_PROP} bytes however few
+     * sessions have changed. The first flush after startup or a sequence number reset is still written in full.
+     *
+     * @param incrementalSequenceNumberIndexFlush true to flush only the changed sectors.
+     * @return this
+     * @see #sequenceNumberIndexJournal(boolean)
+     */
+    public EngineConfiguration incrementalSequenceNumberIndexFlush(final boolean incrementalSequenceNumberIndexFlush)
+    {
+        this.incrementalSequenceNumberIndexFlush = incrementalSequenceNumberIndexFlush;
+        return this;
+    }
+
+    /**
+     * When the sequence number index files are flushed incrementally, first writes the changed sectors to a journal
+     * file that is replayed on startup if the engine crashed part way through writing the index file. Disabling this
+     * saves a sync per flush, but a crash during a flush can then leave a sector of the index file with an invalid
+     * checksum.
+     *
+     * @param sequenceNumberIndexJournal true to journal changed sectors before writing them.
+     * @return this
+     * @see #incrementalSequenceNumberIndexFlush(boolean)
+     */
+    public EngineConfiguration sequenceNumberIndexJournal(final boolean sequenceNumberIndexJournal)
+    {
+        this.sequenceNumberIndexJournal = sequenceNumberIndexJournal;
+        return this;
+    }
+
+    /**
+     * Runs the inbound and outbound sequence number indexes on their own threads, each polling its own
+     * subscription and publishing its own indexed position. By default every index is updated serially on the
+     * archiving thread, so a slow sequence number index flush also delays the replay indexes and the replayer, and
+     * a slow replay index write delays the indexed positions that session handover waits for.
+     *
+     * The replay indexes stay on the archiving thread with the replayer, whose queries they evict. The dedicated
+     * threads use a backoff idle strategy and the {@link #threadFactory(ThreadFactory)} whichever
+     * {@link EngineScheduler} is in use.
+     *
+     * @param dedicatedSequenceNumberIndexers true to run the sequence number indexes on their own threads.
+     * @return this
+     */
+    public EngineConfiguration dedicatedSequenceNumberIndexers(final boolean dedicatedSequenceNumberIndexers)
+    {
+        this.dedicatedSequenceNumberIndexers = dedicatedSequenceNumberIndexers;
+        return this;
+    }
+
     /**
      * Sets the message handler for outbound messages to be passed to when reproduction mode is enabled.
      *
@@ -1799,6 +2043,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return inboundBytesReceivedLimit;
     }
 
+    public int senderWriteCoalescingBufferSize()
+    {
+        return senderWriteCoalescingBufferSize;
+    }
+
     public MappedFile sentSequenceNumberIndex()
     {
         return sentSequenceNumberIndex;
@@ -1928,6 +2177,36 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return maxConcurrentSessionReplays;
     }
 
+    public int replayCacheSessionCapacity()
+    {
+        return replayCacheSessionCapacity;
+    }
+
+    public int sessionPoolSize()
+    {
+        return sessionPoolSize;
+    }
+
+    public int maxLogonsPerDutyCycle()
+    {
+        return maxLogonsPerDutyCycle;
+    }
+
+    public int maxPendingLogons()
+    {
+        return maxPendingLogons;
+    }
+
+    public Set<String> priorityLogonCompIds()
+    {
+        return priorityLogonCompIds;
+    }
+
+    public boolean partitionInboundMessagesByLibrary()
+    {
+        return partitionInboundMessagesByLibrary;
+    }
+
     public int replayPositionBufferSize()
     {
         return replayPositionBufferSize;
@@ -2043,6 +2322,21 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexChecksumEnabled;
     }
 
+    public boolean incrementalSequenceNumberIndexFlush()
+    {
+        return incrementalSequenceNumberIndexFlush;
+    }
+
+    public boolean sequenceNumberIndexJournal()
+    {
+        return sequenceNumberIndexJournal;
+    }
+
+    public boolean dedicatedSequenceNumberIndexers()
+    {
+        return dedicatedSequenceNumberIndexers;
+    }
+
     public EngineReproductionConfiguration reproductionConfiguration()
     {
         return reproductionConfiguration;
@@ -2084,6 +2378,12 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                     "Do not set writeReproductionLog(true) when using reproduction mode");
             }
 
+            if (senderWriteCoalescingBufferSize() > 0)
+            {
+                throw new IllegalArgumentException(
+                    "Do not set senderWriteCoalescingBufferSize when using reproduction mode");
+            }
+
             bindAtStartup(false);
         }
 
@@ -2107,6 +2407,36 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (writeReproductionLog() && senderWriteCoalescingBufferSize() > 0)
+        {
+            throw new IllegalArgumentException(
+                "Do not set senderWriteCoalescingBufferSize when writing a reproduction log");
+        }
+
+        if (replayCacheSessionCapacity() < 0)
+        {
+            throw new IllegalArgumentException(
+                "replayCacheSessionCapacity must not be negative, but was " + replayCacheSessionCapacity());
+        }
+
+        if (sessionPoolSize() < 0)
+        {
+            throw new IllegalArgumentException(
+                "sessionPoolSize must not be negative, but was " + sessionPoolSize());
+        }
+
+        if (maxLogonsPerDutyCycle() < 0)
+        {
+            throw new IllegalArgumentException(
+                "maxLogonsPerDutyCycle must not be negative, but was " + maxLogonsPerDutyCycle());
+        }
+
+        if (maxPendingLogons() < 0)
+        {
+            throw new IllegalArgumentException(
+                "maxPendingLogons must not be negative, but was " + maxPendingLogons());
+        }
+
         if (acceptsFixP() && !logAllMessages())
         {
             throw new IllegalArgumentException("FIXP acceptor is not supported without logging messages");
@@ -24,6 +24,7 @@ import io.aeron.logbuffer.BufferClaim;
 import org.agrona.ErrorHandler;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.*;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.Reply;
 import uk.co.real_logic.artio.StreamInformation;
@@ -37,6 +38,7 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.Streams;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
@@ -74,8 +76,14 @@ public class EngineContext implements AutoCloseable
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
     private Agent indexingAgent;
+    // Only set with dedicated sequence number indexers, which are owned by their runners
+    private Indexer inboundSequenceNumberIndexer;
+    private Indexer outboundSequenceNumberIndexer;
+    private AgentRunner inboundSequenceNumberIndexerRunner;
+    private AgentRunner outboundSequenceNumberIndexerRunner;
     private ReplayQuery pruneInboundReplayQuery;
     private ReplayQuery outboundReplayQuery;
+    private ReplayCache outboundReplayCache;
     private FramerContext framerContext;
     private long inboundIndexRegistrationId;
     private long outboundIndexRegistrationId;
@@ -122,7 +130,9 @@ public class EngineContext implements AutoCloseable
                 connectionIdToFixPSessionId,
                 fixPProtocolType,
                 indexChecksumEnabled,
-                configuration.logOutboundMessages());
+                configuration.logOutboundMessages(),
+                configuration.incrementalSequenceNumberIndexFlush(),
+                configuration.sequenceNumberIndexJournal());
             receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
                 recvSequenceNumberExtractor,
                 configuration.receivedSequenceNumberBuffer(),
@@ -136,7 +146,9 @@ public class EngineContext implements AutoCloseable
                 connectionIdToFixPSessionId,
                 fixPProtocolType,
                 indexChecksumEnabled,
-                configuration.logInboundMessages());
+                configuration.logInboundMessages(),
+                configuration.incrementalSequenceNumberIndexFlush(),
+                configuration.sequenceNumberIndexJournal());
 
             newStreams();
             newArchivingAgent();
@@ -232,6 +244,7 @@ public class EngineContext implements AutoCloseable
         final EpochFractionFormat epochFractionFormat = configuration.sessionEpochFractionFormat();
         return new Replayer(
             replayQuery,
+            outboundReplayCache,
             replayPublication,
             new BufferClaim(),
             configuration.archiverIdleStrategy(),
@@ -264,6 +277,7 @@ public class EngineContext implements AutoCloseable
         {
             final String logFileDir = configuration.logFileDir();
             final boolean indexChecksumEnabled = configuration.indexChecksumEnabled();
+            final boolean dedicatedSequenceNumberIndexers = configuration.dedicatedSequenceNumberIndexers();
 
             final Long2LongHashMap connectionIdToILinkUuid = new Long2LongHashMap(UNK_SESSION);
             final List<Index> inboundIndices = new ArrayList<>();
@@ -280,7 +294,15 @@ public class EngineContext implements AutoCloseable
                     inboundEvictionHandler);
                 inboundIndices.add(inboundReplayIndex);
             }
-            inboundIndices.add(receivedSequenceNumberIndex);
+            if (dedicatedSequenceNumberIndexers)
+            {
+                inboundSequenceNumberIndexer = newSequenceNumberIndexer(
+                    receivedSequenceNumberIndex, inboundLibraryStreams, "inbound", inboundCompletionPosition);
+            }
+            else
+            {
+                inboundIndices.add(receivedSequenceNumberIndex);
+            }
 
             final Subscription inboundIndexSubscription = inboundLibraryStreams.subscription("inboundIndexer");
             inboundIndexRegistrationId = inboundIndexSubscription.registrationId();
@@ -305,8 +327,28 @@ public class EngineContext implements AutoCloseable
                     indexChecksumEnabled,
                     outboundEvictionHandler);
                 outboundIndices.add(outboundReplayIndex);
+
+                final int replayCacheSessionCapacity = configuration.replayCacheSessionCapacity();
+                if (replayCacheSessionCapacity > 0)
+                {
+                    outboundReplayCache = new ReplayCache(
+                        configuration.outboundLibraryStream(),
+                        replayCacheSessionCapacity,
+                        sentSequenceNumberExtractor,
+                        fixCounters.replayCacheHits(),
+                        fixCounters.replayCacheMisses());
+                    outboundIndices.add(outboundReplayCache);
+                }
+            }
+            if (dedicatedSequenceNumberIndexers)
+            {
+                outboundSequenceNumberIndexer = newSequenceNumberIndexer(
+                    sentSequenceNumberIndex, outboundLibraryStreams, "outbound", outboundLibraryCompletionPosition);
+            }
+            else
+            {
+                outboundIndices.add(sentSequenceNumberIndex);
             }
-            outboundIndices.add(sentSequenceNumberIndex);
 
             final Subscription outboundIndexSubscription = outboundLibraryStreams.subscription("outboundIndexer");
             outboundIndexRegistrationId = outboundIndexSubscription.registrationId();
@@ -326,6 +368,20 @@ public class EngineContext implements AutoCloseable
         }
     }
 
+    private Indexer newSequenceNumberIndexer(
+        final Index sequenceNumberIndex,
+        final Streams streams,
+        final String direction,
+        final CompletionPosition completionPosition)
+    {
+        return new Indexer(
+            Collections.singletonList(sequenceNumberIndex),
+            streams.subscription(direction + "SequenceNumberIndexer"),
+            configuration.agentNamePrefix() + direction + "SequenceNumber",
+            completionPosition,
+            configuration.archiveReplayStream());
+    }
+
     public long inboundIndexRegistrationId()
     {
         return inboundIndexRegistrationId;
@@ -389,15 +445,43 @@ public class EngineContext implements AutoCloseable
         if (configuration.logInboundMessages())
         {
             inboundIndexer.catchIndexUp(aeronArchive, errorHandler);
+            if (inboundSequenceNumberIndexer != null)
+            {
+                inboundSequenceNumberIndexer.catchIndexUp(aeronArchive, errorHandler);
+            }
         }
 
         // when outbound logging disabled
         if (configuration.logOutboundMessages())
         {
             outboundIndexer.catchIndexUp(aeronArchive, errorHandler);
+            if (outboundSequenceNumberIndexer != null)
+            {
+                outboundSequenceNumberIndexer.catchIndexUp(aeronArchive, errorHandler);
+            }
         }
     }
 
+    void launchDedicatedIndexers()
+    {
+        inboundSequenceNumberIndexerRunner = launchDedicatedIndexer(inboundSequenceNumberIndexer);
+        outboundSequenceNumberIndexerRunner = launchDedicatedIndexer(outboundSequenceNumberIndexer);
+    }
+
+    private AgentRunner launchDedicatedIndexer(final Indexer indexer)
+    {
+        if (indexer == null)
+        {
+            return null;
+        }
+
+        // Idle strategies are stateful so each thread needs its own
+        final AgentRunner runner = new AgentRunner(
+            CommonConfiguration.backoffIdleStrategy(), errorHandler, null, indexer);
+        AgentRunner.startOnThread(runner, configuration.threadFactory());
+        return runner;
+    }
+
     public Streams outboundLibraryStreams()
     {
         return outboundLibraryStreams;
@@ -439,7 +523,8 @@ public class EngineContext implements AutoCloseable
     public GatewayPublication inboundPublication()
     {
         return inboundLibraryStreams.gatewayPublication(
-            configuration.framerIdleStrategy(), inboundLibraryStreams.dataPublication("inboundPublication"));
+            configuration.framerIdleStrategy(), inboundLibraryStreams.dataPublication("inboundPublication"))
+            .partitionByLibrary(configuration.partitionInboundMessagesByLibrary());
     }
 
     public CompletionPosition inboundCompletionPosition()
@@ -507,7 +592,12 @@ public class EngineContext implements AutoCloseable
 
     public void close()
     {
+        EngineScheduler.awaitRunnerStart(inboundSequenceNumberIndexerRunner);
+        EngineScheduler.awaitRunnerStart(outboundSequenceNumberIndexerRunner);
+
         Exceptions.closeAll(
+            inboundSequenceNumberIndexerRunner,
+            outboundSequenceNumberIndexerRunner,
             sentSequenceNumberIndex, receivedSequenceNumberIndex, pruneInboundReplayQuery);
     }
 }
@@ -295,6 +295,8 @@ public final class FixEngine extends GatewayProcess
                 scheduler = configuration.scheduler();
                 scheduler.configure(configuration.aeronContext());
                 init(configuration, ENGINE_LIBRARY_ID);
+                fixCounters.adaptiveIdleStrategyCounters(configuration.framerIdleStrategy(), "Framer");
+                fixCounters.adaptiveIdleStrategyCounters(configuration.archiverIdleStrategy(), "Archiver");
                 timers = new EngineTimers(configuration.epochNanoClock(), fixCounters.negativeTimestamps());
                 final AeronArchive.Context archiveContext = configuration.aeronArchiveContext();
                 final AeronArchive aeronArchive =
@@ -403,6 +405,7 @@ public final class FixEngine extends GatewayProcess
             monitoringCompositeAgent,
             conductorAgent(),
             recordingCoordinator);
+        engineContext.launchDedicatedIndexers();
 
         launched = true;
 
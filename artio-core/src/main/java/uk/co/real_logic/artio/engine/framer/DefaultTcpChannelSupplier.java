@@ -2,6 +2,8 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.CloseHelper;
 import org.agrona.LangUtil;
+import org.agrona.nio.NioSelectedKeySet;
+import org.agrona.nio.TransportPoller;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 
@@ -25,16 +27,22 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
     private final boolean hasBindAddress;
     private final Set<SocketChannel> openingSocketChannels = new HashSet<>();
 
-    private Selector selector;
+    // Selected keys are held in an array rather than the selector's own HashSet to avoid allocating an iterator
+    // on every duty cycle, as with the ReceiverEndPoints.
+    private final ChannelPoller channelPoller;
+    private final Selector selector;
+    private final NioSelectedKeySet selectedKeySet;
     private ServerSocketChannel listeningChannel;
 
     public DefaultTcpChannelSupplier(final EngineConfiguration configuration)
     {
         hasBindAddress = configuration.hasBindAddress();
         this.configuration = configuration;
+        channelPoller = new ChannelPoller();
+        selector = channelPoller.selector();
+        selectedKeySet = channelPoller.selectedKeySet();
         try
         {
-            selector = Selector.open();
             if (configuration.bindAtStartup() && configuration.initialAcceptedSessionOwner() != SOLE_LIBRARY)
             {
                 bind();
@@ -51,14 +59,18 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
         if (hasBindAddress || openingSocketChannels.size() > 0)
         {
             selector.selectNow();
-            final Set<SelectionKey> selectionKeys = selector.selectedKeys();
-            final int unprocessedConnections = selectionKeys.size();
-            if (unprocessedConnections > 0)
+            final NioSelectedKeySet selectedKeySet = this.selectedKeySet;
+            final SelectionKey[] selectionKeys = selectedKeySet.keys();
+            final int unprocessedConnections = selectedKeySet.size();
+            try
             {
-                final Iterator<SelectionKey> it = selectionKeys.iterator();
-                while (it.hasNext())
+                for (int i = 0; i < unprocessedConnections; i++)
                 {
-                    final SelectionKey selectionKey = it.next();
+                    final SelectionKey selectionKey = selectionKeys[i];
+                    if (!selectionKey.isValid())
+                    {
+                        continue;
+                    }
 
                     if (selectionKey.isAcceptable())
                     {
@@ -70,8 +82,6 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
 
                             handler.onNewChannel(timeInMs, newTcpChannel(channel));
                         }
-
-                        it.remove();
                     }
                     else if (selectionKey.isConnectable())
                     {
@@ -83,7 +93,6 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
                             if (channel.finishConnect())
                             {
                                 selectionKey.interestOps(selectionKey.interestOps() & (~OP_CONNECT));
-                                it.remove();
 
                                 onFinishConnect(channelHandler, channel);
                             }
@@ -91,12 +100,16 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
                         catch (final IOException e)
                         {
                             channelHandler.onInitiatedChannel(null, e);
-                            it.remove();
                             openingSocketChannels.remove(channel);
                         }
                     }
                 }
             }
+            finally
+            {
+                // The selector is level triggered, so keys that weren't ready to be processed are selected again.
+                selectedKeySet.reset();
+            }
 
             return unprocessedConnections;
         }
@@ -147,7 +160,7 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
     public void close()
     {
         Exceptions.closeAll(
-            selector,
+            channelPoller,
             () ->
             {
                 if (listeningChannel != null)
@@ -203,4 +216,17 @@ public class DefaultTcpChannelSupplier extends TcpChannelSupplier
             }
         }
     }
+
+    static final class ChannelPoller extends TransportPoller
+    {
+        Selector selector()
+        {
+            return selector;
+        }
+
+        NioSelectedKeySet selectedKeySet()
+        {
+            return selectedKeySet;
+        }
+    }
 }
@@ -16,9 +16,11 @@
 package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.engine.MappedFile;
@@ -95,6 +97,9 @@ public class FixContexts implements SessionContexts
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
     private final CopyOnWriteArrayList<SessionInfo> allSessions = new CopyOnWriteArrayList<>();
     private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    // Contexts by the hash code of their key, chained through SessionContext.nextWithSameKeyHash(), so that accepted
+    // logons can find the key of a known session without allocating one.
+    private final Int2ObjectHashMap<SessionContext> keyHashToContext = new Int2ObjectHashMap<>();
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -103,6 +108,7 @@ public class FixContexts implements SessionContexts
     private final AtomicBuffer buffer;
     private final boolean reproductionEnabled;
     private final SessionIdStrategy idStrategy;
+    private final boolean acceptLogonLookup;
     private final ErrorHandler errorHandler;
     private final MappedFile mappedFile;
     private final int initialSequenceIndex;
@@ -123,6 +129,7 @@ public class FixContexts implements SessionContexts
         this.byteBuffer = this.buffer.byteBuffer();
         sectorFramer = new SectorFramer(buffer.capacity());
         this.idStrategy = idStrategy;
+        this.acceptLogonLookup = idStrategy.supportsAcceptLogonLookup();
         this.initialSequenceIndex = initialSequenceIndex;
         this.errorHandler = errorHandler;
         loadBuffer();
@@ -213,6 +220,7 @@ public class FixContexts implements SessionContexts
                         sessionIdDecoder.offset(),
                         initialSequenceIndex, thisDictionary, reproductionEnabled);
                     compositeToContext.put(compositeKey, sessionContext);
+                    indexKeyHash(sessionContext);
                 }
                 catch (final Exception e)
                 {
@@ -281,6 +289,34 @@ public class FixContexts implements SessionContexts
         return sectorEnd;
     }
 
+    /**
+     * Creates the composite key for an accepted logon, reusing the key of a known session when the
+     * {@link SessionIdStrategy} supports looking it up without allocating.
+     *
+     * @param header the header of the logon message.
+     * @return the composite session key.
+     * @throws IllegalArgumentException if the header is missing a required field.
+     */
+    public CompositeKey onAcceptLogon(final SessionHeaderDecoder header)
+    {
+        if (acceptLogonLookup)
+        {
+            final SessionIdStrategy idStrategy = this.idStrategy;
+            SessionContext context = keyHashToContext.get(idStrategy.acceptLogonHashCode(header));
+            while (context != null)
+            {
+                final CompositeKey compositeKey = context.sessionKey();
+                if (idStrategy.matchesAcceptLogon(compositeKey, header))
+                {
+                    return compositeKey;
+                }
+                context = context.nextWithSameKeyHash();
+            }
+        }
+
+        return idStrategy.onAcceptLogon(header);
+    }
+
     public SessionContext onLogon(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
         final SessionContext sessionContext = newSessionContext(compositeKey, fixDictionary);
@@ -295,9 +331,14 @@ public class FixContexts implements SessionContexts
 
     SessionContext newSessionContext(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
-        final SessionContext context = compositeToContext.computeIfAbsent(
-            compositeKey,
-            key -> onNewLogon(key, fixDictionary));
+        SessionContext context = compositeToContext.get(compositeKey);
+        if (context == null)
+        {
+            context = onNewLogon(compositeKey, fixDictionary);
+            compositeToContext.put(compositeKey, context);
+            indexKeyHash(context);
+        }
+
         if (context.lastFixDictionary() != fixDictionary)
         {
             context.ensureFixDictionary(fixDictionary);
@@ -317,6 +358,15 @@ public class FixContexts implements SessionContexts
         return sessionContext;
     }
 
+    private void indexKeyHash(final SessionContext context)
+    {
+        if (acceptLogonLookup)
+        {
+            final int keyHash = context.sessionKey().hashCode();
+            context.nextWithSameKeyHash(keyHashToContext.put(keyHash, context));
+        }
+    }
+
     private SessionContext assignSessionId(
         final CompositeKey compositeKey,
         final long sessionId,
@@ -460,6 +510,7 @@ public class FixContexts implements SessionContexts
 
         counter = LOWEST_VALID_SESSION_ID;
         compositeToContext.clear();
+        keyHashToContext.clear();
         allSessions.clear();
 
         if (backupLocation != null)
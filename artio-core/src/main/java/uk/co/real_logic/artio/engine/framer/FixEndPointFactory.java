@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MessageTimingHandler;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 
 class FixEndPointFactory
 {
@@ -38,6 +39,7 @@ class FixEndPointFactory
     private final FixGatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final MessageTimingHandler messageTimingHandler;
+    private final Timer inboundTimer;
 
     FixEndPointFactory(
         final EngineConfiguration configuration,
@@ -48,7 +50,8 @@ class FixEndPointFactory
         final ErrorHandler errorHandler,
         final FixGatewaySessions gatewaySessions,
         final SenderSequenceNumbers senderSequenceNumbers,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final Timer inboundTimer)
     {
         this.configuration = configuration;
         this.fixContexts = fixContexts;
@@ -59,6 +62,7 @@ class FixEndPointFactory
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.messageTimingHandler = messageTimingHandler;
+        this.inboundTimer = inboundTimer;
     }
 
     FixReceiverEndPoint receiverEndPoint(
@@ -87,7 +91,9 @@ class FixEndPointFactory
             receiverFormatters,
             configuration.throttleWindowInMs(),
             configuration.throttleLimitOfMessages(),
-            configuration.isReproductionEnabled());
+            configuration.isReproductionEnabled(),
+            gatewaySessions.logonAdmission(),
+            inboundTimer);
     }
 
     FixSenderEndPoint senderEndPoint(
@@ -115,6 +121,7 @@ class FixEndPointFactory
             senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer),
             messageTimingHandler,
             receiverEndPoint,
-            senderFormatters);
+            senderFormatters,
+            configuration.senderWriteCoalescingBufferSize());
     }
 }
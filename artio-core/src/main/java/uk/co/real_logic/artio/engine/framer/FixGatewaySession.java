@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.session.*;
 import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
@@ -53,6 +54,9 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
     private SessionParser sessionParser;
     private InternalSession session;
     private DirectSessionProxy proxy;
+    private SessionBufferPool bufferPool;
+    private MutableAsciiBuffer sessionBuffer;
+    private MutableAsciiBuffer proxyBuffer;
     private CompositeKey sessionKey;
     private String username;
     private String password;
@@ -145,6 +149,30 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
         session.close();
         session = null;
         proxy = null;
+        releaseBuffers();
+    }
+
+    void buffers(
+        final SessionBufferPool bufferPool,
+        final MutableAsciiBuffer sessionBuffer,
+        final MutableAsciiBuffer proxyBuffer)
+    {
+        releaseBuffers();
+        this.bufferPool = bufferPool;
+        this.sessionBuffer = sessionBuffer;
+        this.proxyBuffer = proxyBuffer;
+    }
+
+    // Only called once the session that encodes into these buffers has been closed
+    private void releaseBuffers()
+    {
+        if (sessionBuffer != null)
+        {
+            bufferPool.release(sessionBuffer);
+            bufferPool.release(proxyBuffer);
+            sessionBuffer = null;
+            proxyBuffer = null;
+        }
     }
 
     void setManagementTo(final int libraryId)
@@ -328,6 +356,7 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
     void close()
     {
         CloseHelper.close(session);
+        releaseBuffers();
     }
 
     public int sequenceIndex()
@@ -67,6 +67,8 @@ public class FixGatewaySessions extends GatewaySessions
     private final Function<FixDictionary, UserRequestExtractor> newUserRequestExtractor =
         dictionary -> new UserRequestExtractor(dictionary, errorHandler);
     private final InternalSession.Formatters formatters = new InternalSession.Formatters();
+    private final SessionBufferPool bufferPool;
+    private final LogonAdmission logonAdmission;
 
     private final EpochFractionClock epochFractionClock;
     private final SessionIdStrategy sessionIdStrategy;
@@ -143,6 +145,29 @@ public class FixGatewaySessions extends GatewaySessions
         this.cancelOnDisconnectTimeoutWindowInMs = configuration.cancelOnDisconnectTimeoutWindowInMs();
 
         sendingTimeEncoder = new UtcTimestampEncoder(epochFractionPrecision);
+        bufferPool = new SessionBufferPool(
+            sessionBufferSize,
+            configuration.sessionPoolSize(),
+            fixCounters.sessionPoolHits(),
+            fixCounters.sessionPoolMisses());
+        logonAdmission = new LogonAdmission(
+            configuration.maxLogonsPerDutyCycle(),
+            configuration.maxPendingLogons(),
+            configuration.priorityLogonCompIds(),
+            fixCounters.logonQueueDepth(),
+            fixCounters.logonAdmissionLatency());
+    }
+
+    int pollSessions(final long timeInMs, final long timeInNs)
+    {
+        logonAdmission.onDutyCycle();
+
+        return super.pollSessions(timeInMs, timeInNs);
+    }
+
+    LogonAdmission logonAdmission()
+    {
+        return logonAdmission;
     }
 
     void acquire(
@@ -159,11 +184,12 @@ public class FixGatewaySessions extends GatewaySessions
         final long connectionId = gatewaySession.connectionId();
         final AtomicCounter receivedMsgSeqNo = fixCounters.receivedMsgSeqNo(connectionId, sessionId);
         final AtomicCounter sentMsgSeqNo = fixCounters.sentMsgSeqNo(connectionId, sessionId);
-        final MutableAsciiBuffer asciiBuffer = new MutableAsciiBuffer(new byte[sessionBufferSize]);
+        final MutableAsciiBuffer asciiBuffer = bufferPool.acquire();
+        final MutableAsciiBuffer proxyBuffer = bufferPool.acquire();
         final OnMessageInfo messageInfo = new OnMessageInfo();
 
         final DirectSessionProxy proxy = new DirectSessionProxy(
-            sessionBufferSize,
+            proxyBuffer,
             outboundPublication,
             sessionIdStrategy,
             customisationStrategy,
@@ -223,6 +249,7 @@ public class FixGatewaySessions extends GatewaySessions
         {
             sessions.add(gatewaySession);
         }
+        gatewaySession.buffers(bufferPool, asciiBuffer, proxyBuffer);
         gatewaySession.manage(sessionParser, session, proxy);
 
         if (DebugLogger.isEnabled(FIX_CONNECTION))
@@ -251,7 +278,7 @@ public class FixGatewaySessions extends GatewaySessions
         gatewaySession.startAuthentication(epochClock.time());
 
         return new FixPendingAcceptorLogon(
-            sessionIdStrategy, gatewaySession, logon, connectionId, fixContexts, channel, fixDictionary, framer,
+            gatewaySession, logon, connectionId, fixContexts, channel, fixDictionary, framer,
             remoteAddress, fixReceiverEndPoint, cancelOnDisconnectOption, cancelOnDisconnectTimeoutWindowInMs);
     }
 
@@ -286,7 +313,6 @@ public class FixGatewaySessions extends GatewaySessions
     {
         private static final int ENCODE_BUFFER_SIZE = 1024;
 
-        private final SessionIdStrategy sessionIdStrategy;
         private final FixGatewaySession session;
         private final AbstractLogonDecoder logon;
         private final FixContexts fixContexts;
@@ -301,7 +327,6 @@ public class FixGatewaySessions extends GatewaySessions
         private long rejectEncodeResult;
 
         FixPendingAcceptorLogon(
-            final SessionIdStrategy sessionIdStrategy,
             final FixGatewaySession gatewaySession,
             final AbstractLogonDecoder logon,
             final long connectionId,
@@ -316,7 +341,6 @@ public class FixGatewaySessions extends GatewaySessions
         {
             super(gatewaySession, connectionId, channel, framer, fixReceiverEndPoint);
 
-            this.sessionIdStrategy = sessionIdStrategy;
             this.session = gatewaySession;
             this.logon = logon;
             this.fixContexts = fixContexts;
@@ -402,7 +426,7 @@ public class FixGatewaySessions extends GatewaySessions
             final CompositeKey compositeKey;
             try
             {
-                compositeKey = sessionIdStrategy.onAcceptLogon(header);
+                compositeKey = fixContexts.onAcceptLogon(header);
             }
             catch (final IllegalArgumentException e)
             {
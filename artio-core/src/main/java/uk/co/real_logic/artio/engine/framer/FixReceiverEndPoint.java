@@ -30,6 +30,7 @@ import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -157,6 +158,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup;
     private final FixReceiverEndPointFormatters formatters;
     private final boolean reproductionEnabled;
+    private final LogonAdmission logonAdmission;
+    private final Timer inboundTimer;
 
     private FixGatewaySession gatewaySession;
     private long sessionId;
@@ -173,6 +176,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private long lastReadTimestampInNs;
     private String address;
     private boolean requiresProxyCheck = true;
+    private boolean awaitingLogonAdmission;
+    private long connectTimeInNs;
 
     FixReceiverEndPoint(
         final TcpChannel channel,
@@ -192,7 +197,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final FixReceiverEndPointFormatters formatters,
         final int throttleWindowInMs,
         final int throttleLimitOfMessages,
-        final boolean reproductionEnabled)
+        final boolean reproductionEnabled,
+        final LogonAdmission logonAdmission,
+        final Timer inboundTimer)
     {
         super(publication, channel, connectionId, bufferSize, errorHandler, framer, libraryId,
             throttleWindowInMs, throttleLimitOfMessages);
@@ -209,10 +216,19 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         this.clock = clock;
         this.acceptorFixDictionaryLookup = acceptorFixDictionaryLookup;
         this.reproductionEnabled = reproductionEnabled;
+        this.logonAdmission = logonAdmission;
+        this.inboundTimer = inboundTimer;
 
         address = channel.remoteAddr();
     }
 
+    // Called for accepted connections, whose logon must then be admitted by the LogonAdmission
+    void awaitLogonAdmission(final long connectTimeInNs)
+    {
+        this.awaitingLogonAdmission = true;
+        this.connectTimeInNs = connectTimeInNs;
+    }
+
     private int readData() throws IOException
     {
         final int dataRead = channel.read(byteBuffer);
@@ -474,6 +490,12 @@ class FixReceiverEndPoint extends ReceiverEndPoint
                 }
                 else
                 {
+                    if (awaitingLogonAdmission && messageType == LOGON_MESSAGE_TYPE && !admitLogon(offset, length))
+                    {
+                        // Leave the logon in the buffer and retry in a later duty cycle
+                        break;
+                    }
+
                     final boolean firstMessage = messagesRead.incrementOrdered() == 0;
                     if (requiresAuthentication())
                     {
@@ -510,6 +532,17 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         return true;
     }
 
+    private boolean admitLogon(final int offset, final int length)
+    {
+        if (logonAdmission.tryAdmit(buffer, offset, length, connectTimeInNs, clock.nanoTime()))
+        {
+            awaitingLogonAdmission = false;
+            return true;
+        }
+
+        return false;
+    }
+
     private void onLogon(final long readTimestampInNs, final boolean firstMessage)
     {
         if (!firstMessage)
@@ -883,6 +916,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             }
             else
             {
+                inboundTimer.recordSince(readTimestamp);
                 gatewaySession.onMessage(buffer, offset, length, messageType, position);
                 return true;
             }
@@ -1095,6 +1129,12 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     void cleanupDisconnectState(final DisconnectReason reason)
     {
+        if (awaitingLogonAdmission)
+        {
+            awaitingLogonAdmission = false;
+            logonAdmission.onLeaveQueue();
+        }
+
         final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
         if (entry != null)
         {
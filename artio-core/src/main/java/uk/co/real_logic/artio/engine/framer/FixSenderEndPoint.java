@@ -36,6 +36,7 @@ import uk.co.real_logic.artio.util.CharFormatter;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -60,6 +61,9 @@ class FixSenderEndPoint extends SenderEndPoint
     static final int ENQ_START_REPLAY_LEN = ENQ_REPLAY_COMPLETE_LEN;
     static final int ENQ_MESSAGE_BLOCK_LEN = SIZE_OF_INT + SIZE_OF_INT + SIZE_OF_INT + SIZE_OF_INT;
 
+    // Per staged message: sequence number, body length, meta data offset, meta data length
+    private static final int STAGED_RECORD_INTS = 4;
+
     protected static final int NO_REATTEMPT = 0;
 
     static class Formatters
@@ -95,6 +99,7 @@ class FixSenderEndPoint extends SenderEndPoint
     private final MessageTimingHandler messageTimingHandler;
     private final FixReceiverEndPoint receiverEndPoint;
     private final Formatters formatters;
+    private final int writeCoalescingBufferSize;
 
     private long sessionId;
     private long sendingTimeoutTimeInMs;
@@ -112,6 +117,17 @@ class FixSenderEndPoint extends SenderEndPoint
     private boolean requiresRetry;
     private int reattemptBytesWritten = NO_REATTEMPT;
 
+    // Write coalescing state, only used when writeCoalescingBufferSize > 0
+    private ExpandableDirectByteBuffer stagedBodies;
+    private ExpandableDirectByteBuffer stagedMetaData;
+    private int[] stagedRecords;
+    private int stagedBodiesLength;
+    private int stagedMetaDataLength;
+    private int stagedMessageCount;
+    private int lastStagedSequenceNumber;
+    private long lastStagedTimeInMs;
+    private boolean queuedForFlush;
+
     FixSenderEndPoint(
         final long connectionId,
         final int libraryId,
@@ -128,7 +144,8 @@ class FixSenderEndPoint extends SenderEndPoint
         final SenderSequenceNumber senderSequenceNumber,
         final MessageTimingHandler messageTimingHandler,
         final FixReceiverEndPoint receiverEndPoint,
-        final Formatters formatters)
+        final Formatters formatters,
+        final int writeCoalescingBufferSize)
     {
         super(connectionId, inboundPublication, reproductionPublication, libraryId, channel, bytesInBuffer,
             maxBytesInBuffer, errorHandler,
@@ -142,6 +159,7 @@ class FixSenderEndPoint extends SenderEndPoint
         this.messageTimingHandler = messageTimingHandler;
         this.receiverEndPoint = receiverEndPoint;
         this.formatters = formatters;
+        this.writeCoalescingBufferSize = writeCoalescingBufferSize;
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
     }
 
@@ -252,6 +270,18 @@ class FixSenderEndPoint extends SenderEndPoint
         {
             final int metaDataOffset = offset - FixMessageDecoder.bodyHeaderLength() - metaDataLength;
 
+            if (writeCoalescingBufferSize > 0)
+            {
+                if (!replay && !replaying && !requiresRetry && reattemptBytesWritten == NO_REATTEMPT &&
+                    stageMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, timeInMs))
+                {
+                    return;
+                }
+
+                // Preserve ordering with anything that has already been staged
+                flushStagedWrites();
+            }
+
             if ((replaying && !replay) || (!replaying && replay) || requiresRetry)
             {
                 enqueueMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, replay);
@@ -353,6 +383,14 @@ class FixSenderEndPoint extends SenderEndPoint
     private void enqueueMessage(
         final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
         final int metaDataOffset, final int metaDataLength, final int sequenceNumber, final boolean replay)
+    {
+        enqueueMessage(
+            srcBuffer, srcOffset, bodyLength, srcBuffer, metaDataOffset, metaDataLength, sequenceNumber, replay);
+    }
+
+    private void enqueueMessage(
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength, final DirectBuffer metaDataBuffer,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber, final boolean replay)
     {
         final int totalLength = ENQ_MESSAGE_BLOCK_LEN + bodyLength + metaDataLength;
         final ReattemptState reattemptState = enqueue(totalLength, replay);
@@ -375,7 +413,178 @@ class FixSenderEndPoint extends SenderEndPoint
         buffer.putInt(reattemptOffset, metaDataLength);
         reattemptOffset += SIZE_OF_INT;
 
-        buffer.putBytes(reattemptOffset, srcBuffer, metaDataOffset, metaDataLength);
+        buffer.putBytes(reattemptOffset, metaDataBuffer, metaDataOffset, metaDataLength);
+    }
+
+    // return true iff the message has been staged for a coalesced write
+    private boolean stageMessage(
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber, final long timeInMs)
+    {
+        final int writeCoalescingBufferSize = this.writeCoalescingBufferSize;
+        if (bodyLength > writeCoalescingBufferSize)
+        {
+            return false;
+        }
+
+        if (stagedBodiesLength + bodyLength > writeCoalescingBufferSize)
+        {
+            flushStagedWrites();
+
+            // The flush may have been back-pressured, so the message has to go down the reattempt path
+            if (requiresRetry || reattemptBytesWritten != NO_REATTEMPT)
+            {
+                return false;
+            }
+        }
+
+        ExpandableDirectByteBuffer stagedBodies = this.stagedBodies;
+        if (stagedBodies == null)
+        {
+            stagedBodies = this.stagedBodies = new ExpandableDirectByteBuffer(writeCoalescingBufferSize);
+            stagedMetaData = new ExpandableDirectByteBuffer();
+            stagedRecords = new int[STAGED_RECORD_INTS * 16];
+        }
+
+        final int stagedBodiesLength = this.stagedBodiesLength;
+        stagedBodies.putBytes(stagedBodiesLength, srcBuffer, srcOffset, bodyLength);
+        this.stagedBodiesLength = stagedBodiesLength + bodyLength;
+
+        final int stagedMetaDataLength = this.stagedMetaDataLength;
+        if (metaDataLength > 0)
+        {
+            stagedMetaData.putBytes(stagedMetaDataLength, srcBuffer, metaDataOffset, metaDataLength);
+            this.stagedMetaDataLength = stagedMetaDataLength + metaDataLength;
+        }
+
+        final int recordOffset = stagedMessageCount * STAGED_RECORD_INTS;
+        int[] stagedRecords = this.stagedRecords;
+        if (recordOffset + STAGED_RECORD_INTS > stagedRecords.length)
+        {
+            stagedRecords = this.stagedRecords = Arrays.copyOf(stagedRecords, stagedRecords.length * 2);
+        }
+        stagedRecords[recordOffset] = sequenceNumber;
+        stagedRecords[recordOffset + 1] = bodyLength;
+        stagedRecords[recordOffset + 2] = stagedMetaDataLength;
+        stagedRecords[recordOffset + 3] = metaDataLength;
+        stagedMessageCount++;
+        lastStagedSequenceNumber = sequenceNumber;
+        lastStagedTimeInMs = timeInMs;
+
+        return true;
+    }
+
+    // Only called by FixSenderEndPoints, returns true if this end point needs to be added to the flush queue
+    boolean markQueuedForFlush()
+    {
+        if (stagedMessageCount > 0 && !queuedForFlush)
+        {
+            queuedForFlush = true;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes all the messages staged during the current duty cycle to the TCP channel with a single write. Anything
+     * that can't be written goes into the normal reattempt buffer, so slow consumer handling is unchanged.
+     *
+     * @return the number of messages that were staged.
+     */
+    int flushStagedWrites()
+    {
+        queuedForFlush = false;
+
+        final int stagedMessageCount = this.stagedMessageCount;
+        if (stagedMessageCount == 0)
+        {
+            return 0;
+        }
+
+        final ExpandableDirectByteBuffer stagedBodies = this.stagedBodies;
+        final ExpandableDirectByteBuffer stagedMetaData = this.stagedMetaData;
+        final int[] stagedRecords = this.stagedRecords;
+        final int stagedBodiesLength = this.stagedBodiesLength;
+        resetStagedWrites();
+
+        try
+        {
+            final int written = writeBuffer(
+                stagedBodies, 0, stagedBodiesLength, lastStagedSequenceNumber, false);
+
+            final MessageTimingHandler messageTimingHandler = this.messageTimingHandler;
+            int messageOffset = 0;
+            for (int i = 0; i < stagedMessageCount; i++)
+            {
+                final int recordOffset = i * STAGED_RECORD_INTS;
+                final int sequenceNumber = stagedRecords[recordOffset];
+                final int bodyLength = stagedRecords[recordOffset + 1];
+                final int metaDataOffset = stagedRecords[recordOffset + 2];
+                final int metaDataLength = stagedRecords[recordOffset + 3];
+                final int messageEnd = messageOffset + bodyLength;
+
+                if (messageEnd <= written)
+                {
+                    if (messageTimingHandler != null)
+                    {
+                        messageTimingHandler.onMessage(
+                            sequenceNumber, connectionId, stagedMetaData, metaDataOffset, metaDataLength);
+                    }
+                }
+                else
+                {
+                    if (messageOffset < written)
+                    {
+                        // partially written message, always the first one to be enqueued
+                        this.reattemptBytesWritten = written - messageOffset;
+                        tryLogBackPressure(sequenceNumber, false, written - messageOffset);
+                    }
+
+                    enqueueMessage(
+                        stagedBodies, messageOffset, bodyLength,
+                        stagedMetaData, metaDataOffset, metaDataLength, sequenceNumber, false);
+                }
+
+                messageOffset = messageEnd;
+            }
+
+            updateSendingTimeoutTimeInMs(lastStagedTimeInMs, written);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+
+        return stagedMessageCount;
+    }
+
+    /**
+     * Called before the TCP channel is closed. Messages staged during the current duty cycle, for example a Logout
+     * followed by a disconnect request, are written out unless the disconnect is due to an error on the connection.
+     *
+     * @param reason the reason for the disconnect.
+     */
+    void onDisconnect(final DisconnectReason reason)
+    {
+        switch (reason)
+        {
+            case REMOTE_DISCONNECT:
+            case EXCEPTION:
+            case SLOW_CONSUMER:
+                resetStagedWrites();
+                break;
+
+            default:
+                flushStagedWrites();
+        }
+    }
+
+    private void resetStagedWrites()
+    {
+        stagedBodiesLength = 0;
+        stagedMetaDataLength = 0;
+        stagedMessageCount = 0;
     }
 
     private void enqueueReplayComplete(final long correlationId)
@@ -622,6 +831,7 @@ class FixSenderEndPoint extends SenderEndPoint
 
     public void close()
     {
+        resetStagedWrites();
         senderSequenceNumber.close();
         invalidLibraryAttempts.close();
         super.close();
@@ -660,6 +870,7 @@ class FixSenderEndPoint extends SenderEndPoint
 
     boolean poll(final long timeInMs)
     {
+        flushStagedWrites();
         reattempt();
 
         if (isSlowConsumer() && timeInMs > sendingTimeoutTimeInMs)
@@ -694,6 +905,8 @@ class FixSenderEndPoint extends SenderEndPoint
                 formatters.replayComplete.clear().with(connectionId).with(correlationId));
         }
 
+        flushStagedWrites();
+
         // can receive this when we're not replaying, but if we've already detected the end
         // of the current replay then replayCorrelationId = correlationId
         if ((!replaying && replayCorrelationId != correlationId) || !reattempt(true))
@@ -740,6 +953,8 @@ class FixSenderEndPoint extends SenderEndPoint
                 .with(connectionId).with(correlationId));
         }
 
+        flushStagedWrites();
+
         // We start the replay with this message, rather than VRR because it doesn't race with replay complete.
         if (replaying || requiresRetry)
         {
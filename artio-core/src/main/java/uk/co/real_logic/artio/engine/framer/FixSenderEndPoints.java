@@ -22,8 +22,10 @@ import org.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -37,6 +39,8 @@ class FixSenderEndPoints implements AutoCloseable
     private final Long2ObjectHashMap<FixSenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
+    // End points with writes staged during the current duty cycle, when write coalescing is enabled
+    private final ArrayList<FixSenderEndPoint> stagedEndPoints = new ArrayList<>();
 
     private int libraryLookup(final long sessionId)
     {
@@ -63,11 +67,12 @@ class FixSenderEndPoints implements AutoCloseable
         connectionIdToSenderEndpoint.put(senderEndPoint.connectionId(), senderEndPoint);
     }
 
-    void removeConnection(final long connectionId)
+    void removeConnection(final long connectionId, final DisconnectReason reason)
     {
         final FixSenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.remove(connectionId);
         if (senderEndPoint != null)
         {
+            senderEndPoint.onDisconnect(reason);
             senderEndPoint.close();
         }
     }
@@ -96,6 +101,7 @@ class FixSenderEndPoints implements AutoCloseable
                 messageType,
                 timeInMs,
                 metaDataLength);
+            queueForFlush(endPoint);
             return true;
         }
 
@@ -120,11 +126,39 @@ class FixSenderEndPoints implements AutoCloseable
                 libraryId, refMsgType, refSeqNum, sequenceNumber, sequenceIndex,
                 businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength,
                 timeInMs);
+            queueForFlush(endPoint);
         }
 
         return null;
     }
 
+    private void queueForFlush(final FixSenderEndPoint endPoint)
+    {
+        if (endPoint.markQueuedForFlush())
+        {
+            stagedEndPoints.add(endPoint);
+        }
+    }
+
+    int flushStagedWrites()
+    {
+        final ArrayList<FixSenderEndPoint> stagedEndPoints = this.stagedEndPoints;
+        final int size = stagedEndPoints.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = 0; i < size; i++)
+        {
+            count += stagedEndPoints.get(i).flushStagedWrites();
+        }
+        stagedEndPoints.clear();
+
+        return count;
+    }
+
     Action onReplayMessage(
         final long connectionId, final DirectBuffer buffer, final int offset, final int length,
         final int sequenceNumber)
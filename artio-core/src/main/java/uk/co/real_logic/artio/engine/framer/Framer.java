@@ -98,6 +98,12 @@ import static uk.co.real_logic.artio.messages.SessionStatus.SESSION_HANDOVER;
 
 /**
  * Handles incoming connections from clients and outgoing connections to exchanges.
+ * <p>
+ * All connections are handled on the single Framer thread. It isn't sharded across several agents because each
+ * shard would need its own inbound and outbound publications: {@link GatewayPublication} wraps a single-writer
+ * {@link io.aeron.ExclusivePublication}. Library and session ownership management would also have to move to a
+ * coordinating agent. Sharding receiver end points on this thread was tried and removed: it gave no parallelism
+ * and cost one selectNow per shard on every duty cycle.
  */
 class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 {
@@ -452,6 +458,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         return fixPSenderEndPoints.reattempt() +
             librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
+            fixSenderEndPoints.flushStagedWrites() +
             adminEngineSubscription.poll(adminEngineProtocolSubscription, outboundLibraryFragmentLimit);
     }
 
@@ -719,6 +726,12 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     private void onNewFixConnection(final long timeInMs, final TcpChannel channel)
     {
+        if (!((FixGatewaySessions)gatewaySessions).logonAdmission().onConnect())
+        {
+            channel.close();
+            return;
+        }
+
         final long connectionId = newConnectionId();
         final FixGatewaySession gatewaySession = setupFixConnection(
             channel,
@@ -1764,6 +1777,10 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             libraryId,
             this);
         receiverEndPoints.add(receiverEndPoint);
+        if (connectionType == ACCEPTOR)
+        {
+            receiverEndPoint.awaitLogonAdmission(clock.nanoTime());
+        }
 
         final FixSenderEndPoint senderEndPoint = endPointFactory.senderEndPoint(
             channel, connectionId, libraryId, this, receiverEndPoint);
@@ -1797,8 +1814,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        // Write out anything staged for the connection before the receiver end point closes the channel
+        fixSenderEndPoints.removeConnection(connectionId, reason);
         receiverEndPoints.removeConnection(connectionId, reason);
-        fixSenderEndPoints.removeConnection(connectionId);
         fixPSenderEndPoints.removeConnection(connectionId);
         gatewaySessions.releaseByConnectionId(connectionId);
         fixPContexts.onDisconnect(connectionId);
@@ -2763,7 +2781,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final CompositeKey compositeKey;
         try
         {
-            compositeKey = sessionIdStrategy.onAcceptLogon(acceptorHeaderDecoder);
+            compositeKey = fixContexts.onAcceptLogon(acceptorHeaderDecoder);
         }
         catch (final IllegalArgumentException e)
         {
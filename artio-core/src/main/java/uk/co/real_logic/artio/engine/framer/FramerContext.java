@@ -144,7 +144,8 @@ public class FramerContext
                 errorHandler,
                 (FixGatewaySessions)gatewaySessions,
                 engineContext.senderSequenceNumbers(),
-                configuration.messageTimingHandler());
+                configuration.messageTimingHandler(),
+                timers.inboundTimer());
         }
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+
+/**
+ * Limits how many acceptor logons start authentication in each duty cycle and how many accepted connections can be
+ * waiting to do so. Only used on the Framer thread.
+ */
+class LogonAdmission
+{
+    static final int UNLIMITED = 0;
+
+    private static final byte[] SENDER_COMP_ID_TAG = { SEPARATOR, '4', '9', '=' };
+
+    private final int maxLogonsPerDutyCycle;
+    private final int maxPendingLogons;
+    private final byte[][] priorityCompIds;
+    private final AtomicCounter queueDepth;
+    private final AtomicCounter admissionLatency;
+
+    private int logonsThisDutyCycle;
+    private int pendingLogons;
+
+    LogonAdmission(
+        final int maxLogonsPerDutyCycle,
+        final int maxPendingLogons,
+        final Set<String> priorityCompIds,
+        final AtomicCounter queueDepth,
+        final AtomicCounter admissionLatency)
+    {
+        this.maxLogonsPerDutyCycle = maxLogonsPerDutyCycle;
+        this.maxPendingLogons = maxPendingLogons;
+        this.queueDepth = queueDepth;
+        this.admissionLatency = admissionLatency;
+
+        this.priorityCompIds = new byte[priorityCompIds.size()][];
+        int i = 0;
+        for (final String compId : priorityCompIds)
+        {
+            this.priorityCompIds[i++] = compId.getBytes(US_ASCII);
+        }
+    }
+
+    void onDutyCycle()
+    {
+        logonsThisDutyCycle = 0;
+    }
+
+    /**
+     * Called when a connection is accepted.
+     *
+     * @return false if too many connections are already waiting to logon and the connection should be closed.
+     */
+    boolean onConnect()
+    {
+        if (maxPendingLogons != UNLIMITED && pendingLogons >= maxPendingLogons)
+        {
+            return false;
+        }
+
+        pendingLogons++;
+        queueDepth.setOrdered(pendingLogons);
+        return true;
+    }
+
+    /**
+     * Called when an accepted connection has a logon message to authenticate.
+     *
+     * @return true if authentication can start, false if it should be retried in a later duty cycle.
+     */
+    boolean tryAdmit(
+        final AsciiBuffer buffer, final int offset, final int length, final long connectTimeInNs, final long timeInNs)
+    {
+        if (maxLogonsPerDutyCycle != UNLIMITED && logonsThisDutyCycle >= maxLogonsPerDutyCycle &&
+            !isPriority(buffer, offset, length))
+        {
+            return false;
+        }
+
+        logonsThisDutyCycle++;
+        admissionLatency.setOrdered(timeInNs - connectTimeInNs);
+        onLeaveQueue();
+        return true;
+    }
+
+    /**
+     * Called when an accepted connection disconnects before its logon was admitted.
+     */
+    void onLeaveQueue()
+    {
+        pendingLogons--;
+        queueDepth.setOrdered(pendingLogons);
+    }
+
+    int pendingLogons()
+    {
+        return pendingLogons;
+    }
+
+    private boolean isPriority(final AsciiBuffer buffer, final int offset, final int length)
+    {
+        final byte[][] priorityCompIds = this.priorityCompIds;
+        if (priorityCompIds.length == 0)
+        {
+            return false;
+        }
+
+        final int start = senderCompIdStart(buffer, offset, offset + length);
+        if (start == AsciiBuffer.UNKNOWN_INDEX)
+        {
+            return false;
+        }
+
+        final int end = buffer.scan(start, offset + length, SEPARATOR);
+        if (end == AsciiBuffer.UNKNOWN_INDEX)
+        {
+            return false;
+        }
+
+        for (final byte[] compId : priorityCompIds)
+        {
+            if (matches(buffer, start, end - start, compId))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int senderCompIdStart(final AsciiBuffer buffer, final int offset, final int end)
+    {
+        final byte[] tag = SENDER_COMP_ID_TAG;
+        final int tagLength = tag.length;
+        for (int i = offset, last = end - tagLength; i <= last; i++)
+        {
+            if (matches(buffer, i, tagLength, tag))
+            {
+                return i + tagLength;
+            }
+        }
+
+        return AsciiBuffer.UNKNOWN_INDEX;
+    }
+
+    private static boolean matches(final AsciiBuffer buffer, final int offset, final int length, final byte[] value)
+    {
+        if (length != value.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (buffer.getByte(offset + i) != value[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
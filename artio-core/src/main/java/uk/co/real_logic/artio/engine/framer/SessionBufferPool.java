@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of the buffers that engine managed sessions encode their messages into. Only used on the Framer thread.
+ */
+class SessionBufferPool
+{
+    static final int BUFFERS_PER_SESSION = 2;
+
+    private final ArrayDeque<MutableAsciiBuffer> buffers = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int capacity;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+
+    SessionBufferPool(
+        final int bufferSize, final int sessionCount, final AtomicCounter hits, final AtomicCounter misses)
+    {
+        this.bufferSize = bufferSize;
+        this.capacity = sessionCount * BUFFERS_PER_SESSION;
+        this.hits = hits;
+        this.misses = misses;
+
+        for (int i = 0; i < capacity; i++)
+        {
+            buffers.add(newBuffer());
+        }
+    }
+
+    MutableAsciiBuffer acquire()
+    {
+        final MutableAsciiBuffer buffer = buffers.pollLast();
+        if (buffer != null)
+        {
+            hits.increment();
+            return buffer;
+        }
+
+        misses.increment();
+        return newBuffer();
+    }
+
+    void release(final MutableAsciiBuffer buffer)
+    {
+        if (buffers.size() < capacity)
+        {
+            buffers.addLast(buffer);
+        }
+    }
+
+    int available()
+    {
+        return buffers.size();
+    }
+
+    private MutableAsciiBuffer newBuffer()
+    {
+        return new MutableAsciiBuffer(new byte[bufferSize]);
+    }
+}
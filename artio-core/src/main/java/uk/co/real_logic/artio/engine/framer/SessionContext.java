@@ -41,6 +41,7 @@ class SessionContext implements SessionInfo
     private long lastSequenceResetTimeInNs;
     private FixDictionary lastFixDictionary;
     private int filePosition;
+    private SessionContext nextWithSameKeyHash;
 
     SessionContext(
         final CompositeKey compositeKey,
@@ -116,6 +117,16 @@ class SessionContext implements SessionInfo
         this.filePosition = filePosition;
     }
 
+    void nextWithSameKeyHash(final SessionContext nextWithSameKeyHash)
+    {
+        this.nextWithSameKeyHash = nextWithSameKeyHash;
+    }
+
+    SessionContext nextWithSameKeyHash()
+    {
+        return nextWithSameKeyHash;
+    }
+
     void updateFrom(final Session session)
     {
         sequenceIndex = session.sequenceIndex();
@@ -15,8 +15,11 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.collections.LongHashSet;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.FilterBy;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.From;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.MessageTypeOf;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.SessionOf;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.To;
 
 final class ArchiveScanPlanner
@@ -36,18 +39,31 @@ final class ArchiveScanPlanner
     private static IndexQuery extractIndexQuery(final FixMessagePredicate queryPredicate)
     {
         final IndexQuery indexQuery = new IndexQuery();
-        extractIndexQuery(queryPredicate, indexQuery);
+        extractIndexQuery(queryPredicate, indexQuery, true);
         return indexQuery.needed() ? indexQuery : null;
     }
 
-    private static void extractIndexQuery(final FixMessagePredicate predicate, final IndexQuery indexQuery)
+    private static void extractIndexQuery(
+        final FixMessagePredicate predicate, final IndexQuery indexQuery, final boolean conjunction)
     {
         // NB: range returned by the index plan still needs filtering afterwards to ensure correctness
         if (predicate instanceof CompositeFixMessagePredicate)
         {
-            final CompositeFixMessagePredicate and = (CompositeFixMessagePredicate)predicate;
-            extractIndexQuery(and.left(), indexQuery);
-            extractIndexQuery(and.right(), indexQuery);
+            final CompositeFixMessagePredicate composite = (CompositeFixMessagePredicate)predicate;
+            final boolean isConjunction = conjunction && composite instanceof FixMessageAnd;
+            extractIndexQuery(composite.left(), indexQuery, isConjunction);
+            extractIndexQuery(composite.right(), indexQuery, isConjunction);
+        }
+        // Sessions and message types are intersected, so they can only be extracted from predicates that must all match
+        else if (predicate instanceof SessionOf && conjunction)
+        {
+            final LongHashSet sessionIds = new LongHashSet();
+            sessionIds.add(((SessionOf)predicate).sessionId());
+            indexQuery.sessionIds(sessionIds);
+        }
+        else if (predicate instanceof MessageTypeOf && conjunction)
+        {
+            indexQuery.messageTypes(((MessageTypeOf)predicate).messageTypes());
         }
         else if (predicate instanceof From)
         {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import java.io.File;
+
+/**
+ * Layout of the cold tier files that {@link ColdTierWriter} compacts archived messages into, one pair per session and
+ * stream. The inbound and outbound messages of a session are in different streams and have independent sequence
+ * numbers, so keeping them apart means that a sequence number range only refers to the messages in one direction.
+ * <p>
+ * Segment file: a series of deflate compressed blocks. Once inflated a block is a series of records of
+ * (int fragment length, int sequence number, the FixMessage fragment as it was archived). Every message in a block
+ * has the same sequence index.
+ * <p>
+ * Index file: a series of 48 byte entries, one per block, of (int sequence index, int min sequence number,
+ * int max sequence number, int inflated length, long first timestamp, long last timestamp, long block position,
+ * int compressed length, 4 bytes padding). An entry is only appended after its block has been written.
+ * <p>
+ * Compacted file: a single long, the timestamp that the archive has been compacted up to, exclusive. It's written once
+ * a compaction has completed so that the next compaction carries on from there. It's written to a temporary file
+ * which is then atomically moved into place, so a crash never leaves it partially written.
+ */
+final class ColdTierDescriptor
+{
+    static final String SEGMENT_SUFFIX = ".cold";
+    static final String INDEX_SUFFIX = ".cold-index";
+    static final String COMPACTED_FILE_NAME = "compacted-to";
+    static final String COMPACTED_TEMP_FILE_NAME = COMPACTED_FILE_NAME + ".tmp";
+
+    static final int RECORD_FRAGMENT_LENGTH_OFFSET = 0;
+    static final int RECORD_SEQUENCE_NUMBER_OFFSET = 4;
+    static final int RECORD_HEADER_LENGTH = 8;
+
+    static final int INDEX_SEQUENCE_INDEX_OFFSET = 0;
+    static final int INDEX_MIN_SEQUENCE_NUMBER_OFFSET = 4;
+    static final int INDEX_MAX_SEQUENCE_NUMBER_OFFSET = 8;
+    static final int INDEX_INFLATED_LENGTH_OFFSET = 12;
+    static final int INDEX_FIRST_TIMESTAMP_OFFSET = 16;
+    static final int INDEX_LAST_TIMESTAMP_OFFSET = 24;
+    static final int INDEX_BLOCK_POSITION_OFFSET = 32;
+    static final int INDEX_COMPRESSED_LENGTH_OFFSET = 40;
+    static final int INDEX_ENTRY_LENGTH = 48;
+
+    static File segmentFile(final File directory, final long sessionId, final int streamId)
+    {
+        return new File(directory, fileName(sessionId, streamId) + SEGMENT_SUFFIX);
+    }
+
+    static File indexFile(final File directory, final long sessionId, final int streamId)
+    {
+        return new File(directory, fileName(sessionId, streamId) + INDEX_SUFFIX);
+    }
+
+    static File compactedFile(final File directory)
+    {
+        return new File(directory, COMPACTED_FILE_NAME);
+    }
+
+    static File compactedTempFile(final File directory)
+    {
+        return new File(directory, COMPACTED_TEMP_FILE_NAME);
+    }
+
+    private static String fileName(final long sessionId, final int streamId)
+    {
+        return "session-" + sessionId + "-stream-" + streamId;
+    }
+}
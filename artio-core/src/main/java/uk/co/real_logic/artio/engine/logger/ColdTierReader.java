@@ -0,0 +1,273 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static uk.co.real_logic.artio.engine.logger.ColdTierDescriptor.*;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
+
+/**
+ * Reads the messages of a session back out of the cold tier written by a {@link ColdTierWriter}. Messages are handed
+ * to a {@link FixMessageConsumer} in the same way as a {@link FixArchiveScanner} would, so the same consumers can be
+ * used for both. Only the blocks of the session whose index entries overlap the requested range are inflated.
+ * <p>
+ * Each read is of the messages of a session in one stream, for example its outbound messages, as the sequence numbers
+ * of the inbound and outbound messages of a session are independent of each other.
+ */
+public class ColdTierReader implements AutoCloseable
+{
+    public static final int ANY_SEQUENCE_INDEX = -1;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final UnsafeBuffer indexBuffer = new UnsafeBuffer(new byte[0]);
+    private final UnsafeBuffer blockBuffer = new UnsafeBuffer(new byte[0]);
+    private final Inflater inflater = new Inflater();
+    private final File directory;
+
+    private byte[] compressed = new byte[0];
+
+    public ColdTierReader(final File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the messages of a session within a range of sequence numbers.
+     *
+     * @param sessionId the id of the session.
+     * @param streamId the id of the stream that the messages were archived from.
+     * @param sequenceIndex the sequence index of the messages, or {@link #ANY_SEQUENCE_INDEX}.
+     * @param beginSequenceNumber the lowest sequence number to read, inclusive.
+     * @param endSequenceNumber the highest sequence number to read, inclusive.
+     * @param consumer the consumer of the messages that are read.
+     * @return the number of messages read.
+     */
+    public int readSequenceNumbers(
+        final long sessionId,
+        final int streamId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final FixMessageConsumer consumer)
+    {
+        return read(
+            sessionId,
+            streamId,
+            sequenceIndex,
+            beginSequenceNumber,
+            endSequenceNumber,
+            Long.MIN_VALUE,
+            Long.MAX_VALUE,
+            consumer);
+    }
+
+    /**
+     * Reads the messages of a session within a range of timestamps.
+     *
+     * @param sessionId the id of the session.
+     * @param streamId the id of the stream that the messages were archived from.
+     * @param beginTimestampInclusive the message's timestamp must be &gt;= this value.
+     * @param endTimestampExclusive the message's timestamp must be &lt; this value.
+     * @param consumer the consumer of the messages that are read.
+     * @return the number of messages read.
+     */
+    public int readTimestamps(
+        final long sessionId,
+        final int streamId,
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive,
+        final FixMessageConsumer consumer)
+    {
+        return read(
+            sessionId,
+            streamId,
+            ANY_SEQUENCE_INDEX,
+            Integer.MIN_VALUE,
+            Integer.MAX_VALUE,
+            beginTimestampInclusive,
+            endTimestampExclusive,
+            consumer);
+    }
+
+    public void close()
+    {
+        inflater.end();
+    }
+
+    private int read(
+        final long sessionId,
+        final int streamId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive,
+        final FixMessageConsumer consumer)
+    {
+        final File indexFile = indexFile(directory, sessionId, streamId);
+        if (!indexFile.exists())
+        {
+            return 0;
+        }
+
+        final ArtioLogHeader header = new ArtioLogHeader(streamId);
+        int read = 0;
+        try (RandomAccessFile segmentFile = new RandomAccessFile(segmentFile(directory, sessionId, streamId), "r"))
+        {
+            final UnsafeBuffer indexBuffer = this.indexBuffer;
+            indexBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+            final int indexLength = indexBuffer.capacity() - (indexBuffer.capacity() % INDEX_ENTRY_LENGTH);
+
+            for (int entry = 0; entry < indexLength; entry += INDEX_ENTRY_LENGTH)
+            {
+                final int blockSequenceIndex = indexBuffer.getInt(entry + INDEX_SEQUENCE_INDEX_OFFSET);
+                if (sequenceIndex != ANY_SEQUENCE_INDEX && blockSequenceIndex != sequenceIndex)
+                {
+                    continue;
+                }
+
+                if (indexBuffer.getInt(entry + INDEX_MAX_SEQUENCE_NUMBER_OFFSET) < beginSequenceNumber ||
+                    indexBuffer.getInt(entry + INDEX_MIN_SEQUENCE_NUMBER_OFFSET) > endSequenceNumber)
+                {
+                    continue;
+                }
+
+                if (indexBuffer.getLong(entry + INDEX_LAST_TIMESTAMP_OFFSET) < beginTimestampInclusive ||
+                    indexBuffer.getLong(entry + INDEX_FIRST_TIMESTAMP_OFFSET) >= endTimestampExclusive)
+                {
+                    continue;
+                }
+
+                final int inflatedLength = inflate(segmentFile, entry);
+                read += readBlock(
+                    inflatedLength,
+                    beginSequenceNumber,
+                    endSequenceNumber,
+                    beginTimestampInclusive,
+                    endTimestampExclusive,
+                    consumer,
+                    header);
+            }
+        }
+        catch (final IOException | DataFormatException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        return read;
+    }
+
+    private int inflate(final RandomAccessFile segmentFile, final int entry)
+        throws IOException, DataFormatException
+    {
+        final UnsafeBuffer indexBuffer = this.indexBuffer;
+        final int compressedLength = indexBuffer.getInt(entry + INDEX_COMPRESSED_LENGTH_OFFSET);
+        final int inflatedLength = indexBuffer.getInt(entry + INDEX_INFLATED_LENGTH_OFFSET);
+
+        if (compressed.length < compressedLength)
+        {
+            compressed = new byte[compressedLength];
+        }
+        segmentFile.seek(indexBuffer.getLong(entry + INDEX_BLOCK_POSITION_OFFSET));
+        segmentFile.readFully(compressed, 0, compressedLength);
+
+        final UnsafeBuffer blockBuffer = this.blockBuffer;
+        if (blockBuffer.capacity() < inflatedLength)
+        {
+            blockBuffer.wrap(new byte[inflatedLength]);
+        }
+
+        final Inflater inflater = this.inflater;
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        final int length = inflater.inflate(blockBuffer.byteArray(), 0, inflatedLength);
+        if (length != inflatedLength)
+        {
+            throw new IOException("Corrupt cold tier block, inflated " + length + " bytes, expected " + inflatedLength);
+        }
+
+        return inflatedLength;
+    }
+
+    private int readBlock(
+        final int blockLength,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive,
+        final FixMessageConsumer consumer,
+        final ArtioLogHeader header)
+    {
+        final UnsafeBuffer blockBuffer = this.blockBuffer;
+        final FixMessageDecoder fixMessage = this.fixMessage;
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+
+        int read = 0;
+        int position = 0;
+        while (position < blockLength)
+        {
+            final int fragmentLength = blockBuffer.getInt(position + RECORD_FRAGMENT_LENGTH_OFFSET);
+            final int sequenceNumber = blockBuffer.getInt(position + RECORD_SEQUENCE_NUMBER_OFFSET);
+            final int fragmentOffset = position + RECORD_HEADER_LENGTH;
+            position = fragmentOffset + fragmentLength;
+
+            if (sequenceNumber < beginSequenceNumber || sequenceNumber > endSequenceNumber)
+            {
+                continue;
+            }
+
+            messageHeader.wrap(blockBuffer, fragmentOffset);
+            final int version = messageHeader.version();
+            int offset = fragmentOffset + MessageHeaderDecoder.ENCODED_LENGTH;
+            fixMessage.wrap(blockBuffer, offset, messageHeader.blockLength(), version);
+
+            final long timestamp = fixMessage.timestamp();
+            if (timestamp < beginTimestampInclusive || timestamp >= endTimestampExclusive)
+            {
+                continue;
+            }
+
+            if (version >= metaDataSinceVersion())
+            {
+                offset += metaDataHeaderLength() + fixMessage.metaDataLength();
+                fixMessage.skipMetaData();
+            }
+
+            consumer.onMessage(
+                fixMessage,
+                blockBuffer,
+                offset + FixMessageDecoder.BLOCK_LENGTH + bodyHeaderLength(),
+                fixMessage.bodyLength(),
+                header);
+            read++;
+        }
+
+        return read;
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntHashSet;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.ColdTierDescriptor.*;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.between;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.filterBy;
+
+/**
+ * Compacts archived FIX messages into compressed per session and stream files for long term retention, see
+ * {@link ColdTierDescriptor} for the layout. Each session's messages are collected into blocks that are deflated and
+ * appended to its segment file, with an index entry that lets a {@link ColdTierReader} find a sequence number or time
+ * range by only inflating the blocks of that session which cover it.
+ * <p>
+ * This is a {@link FixMessageConsumer} so that it can be given the output of a {@link FixArchiveScanner}, see
+ * {@link #compact(FixArchiveScanner, String, IntHashSet, long, int, File)}. It's designed to be run as a background
+ * job and isn't allocation free.
+ */
+public class ColdTierWriter implements FixMessageConsumer, AutoCloseable
+{
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_BUFFERED_BYTES = 64 * 1024 * 1024;
+    public static final long NOTHING_COMPACTED = Long.MIN_VALUE;
+
+    private final Long2ObjectHashMap<Int2ObjectHashMap<SessionBlock>> sessionIdToBlocks = new Long2ObjectHashMap<>();
+    private final SequenceNumberExtractor sequenceNumberExtractor = new SequenceNumberExtractor();
+    private final UnsafeBuffer indexEntry = new UnsafeBuffer(new byte[INDEX_ENTRY_LENGTH]);
+    private final Deflater deflater;
+    private final File directory;
+    private final int blockSize;
+    private final int maxBufferedBytes;
+
+    private byte[] compressed;
+    private int bufferedBytes;
+
+    /**
+     * Compacts the messages in the archive that are older than a timestamp into the cold tier. The archive isn't
+     * pruned by this operation, once it has completed the recordings can be pruned up to the same point in time with
+     * {@link uk.co.real_logic.artio.engine.FixEngine#pruneArchive(org.agrona.collections.Long2LongHashMap)}.
+     * <p>
+     * Each compaction carries on from the timestamp that the last completed compaction ended at, so running it again
+     * doesn't duplicate messages. Blocks left behind by a compaction that didn't complete are discarded first. The
+     * directory should only be written to by this method.
+     *
+     * @param scanner the scanner used to read the archive.
+     * @param aeronChannel the channel that the streams were recorded from.
+     * @param queryStreamIds the ids of the recorded streams to compact.
+     * @param endTimestampExclusive messages with a timestamp &lt; this value are compacted.
+     * @param archiveScannerStreamId the stream id used by the archive scanner for replays.
+     * @param directory the directory to write the cold tier files into.
+     */
+    public static void compact(
+        final FixArchiveScanner scanner,
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final long endTimestampExclusive,
+        final int archiveScannerStreamId,
+        final File directory)
+    {
+        final long beginTimestampInclusive = compactedTo(directory);
+        if (endTimestampExclusive <= beginTimestampInclusive)
+        {
+            return;
+        }
+
+        try
+        {
+            discardBlocksFrom(directory, beginTimestampInclusive);
+
+            try (ColdTierWriter writer = new ColdTierWriter(directory))
+            {
+                scanner.scan(
+                    aeronChannel,
+                    queryStreamIds,
+                    filterBy(writer, between(beginTimestampInclusive, endTimestampExclusive)),
+                    null,
+                    false,
+                    archiveScannerStreamId);
+            }
+
+            final UnsafeBuffer compactedTo = new UnsafeBuffer(new byte[Long.BYTES]);
+            compactedTo.putLong(0, endTimestampExclusive);
+            final Path tempFile = compactedTempFile(directory).toPath();
+            Files.write(tempFile, compactedTo.byteArray());
+            Files.move(tempFile, compactedFile(directory).toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    /**
+     * Gets the timestamp that a cold tier has been compacted up to by
+     * {@link #compact(FixArchiveScanner, String, IntHashSet, long, int, File)}.
+     *
+     * @param directory the directory of the cold tier files.
+     * @return the exclusive end timestamp of the last completed compaction, or {@link #NOTHING_COMPACTED}.
+     */
+    public static long compactedTo(final File directory)
+    {
+        final File compactedFile = compactedFile(directory);
+        if (!compactedFile.exists())
+        {
+            return NOTHING_COMPACTED;
+        }
+
+        try
+        {
+            return new UnsafeBuffer(Files.readAllBytes(compactedFile.toPath())).getLong(0);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+            return NOTHING_COMPACTED;
+        }
+    }
+
+    // Blocks are appended in timestamp order, so those from an incomplete compaction are at the end of each file
+    static void discardBlocksFrom(final File directory, final long timestamp) throws IOException
+    {
+        final File[] indexFiles = directory.listFiles((dir, name) -> name.endsWith(INDEX_SUFFIX));
+        if (indexFiles == null)
+        {
+            return;
+        }
+
+        for (final File indexFile : indexFiles)
+        {
+            final UnsafeBuffer indexBuffer = new UnsafeBuffer(Files.readAllBytes(indexFile.toPath()));
+            final int indexLength = indexBuffer.capacity() - (indexBuffer.capacity() % INDEX_ENTRY_LENGTH);
+
+            int keptIndexLength = 0;
+            long keptSegmentLength = 0;
+            while (keptIndexLength < indexLength &&
+                indexBuffer.getLong(keptIndexLength + INDEX_FIRST_TIMESTAMP_OFFSET) < timestamp)
+            {
+                keptSegmentLength = indexBuffer.getLong(keptIndexLength + INDEX_BLOCK_POSITION_OFFSET) +
+                    indexBuffer.getInt(keptIndexLength + INDEX_COMPRESSED_LENGTH_OFFSET);
+                keptIndexLength += INDEX_ENTRY_LENGTH;
+            }
+
+            final String indexName = indexFile.getName();
+            final File segmentFile = new File(
+                directory, indexName.substring(0, indexName.length() - INDEX_SUFFIX.length()) + SEGMENT_SUFFIX);
+            truncate(indexFile, keptIndexLength);
+            truncate(segmentFile, keptSegmentLength);
+        }
+    }
+
+    private static void truncate(final File file, final long length) throws IOException
+    {
+        if (file.length() > length)
+        {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+            {
+                randomAccessFile.setLength(length);
+            }
+        }
+    }
+
+    public ColdTierWriter(final File directory)
+    {
+        this(directory, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BUFFERED_BYTES, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create a cold tier writer.
+     *
+     * @param directory the directory to write the cold tier files into, created if it doesn't exist.
+     * @param blockSize the number of uncompressed bytes after which a session's block is compressed and written.
+     * @param maxBufferedBytes the number of uncompressed bytes over all sessions after which every block is written.
+     * @param compressionLevel the {@link Deflater} compression level.
+     */
+    public ColdTierWriter(
+        final File directory, final int blockSize, final int maxBufferedBytes, final int compressionLevel)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("blockSize must be positive, but is: " + blockSize);
+        }
+
+        IoUtil.ensureDirectoryExists(directory, "cold tier");
+
+        this.directory = directory;
+        this.blockSize = blockSize;
+        this.maxBufferedBytes = maxBufferedBytes;
+        deflater = new Deflater(compressionLevel);
+        compressed = new byte[blockSize];
+    }
+
+    public void onMessage(
+        final FixMessageDecoder message,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ArtioLogHeader header)
+    {
+        final long sessionId = message.session();
+        final int streamId = header.streamId();
+        Int2ObjectHashMap<SessionBlock> streamIdToBlock = sessionIdToBlocks.get(sessionId);
+        if (streamIdToBlock == null)
+        {
+            streamIdToBlock = new Int2ObjectHashMap<>();
+            sessionIdToBlocks.put(sessionId, streamIdToBlock);
+        }
+
+        SessionBlock block = streamIdToBlock.get(streamId);
+        if (block == null)
+        {
+            block = new SessionBlock(sessionId, streamId, blockSize);
+            streamIdToBlock.put(streamId, block);
+        }
+
+        final int sequenceIndex = message.sequenceIndex();
+        if (block.length > 0 && block.sequenceIndex != sequenceIndex)
+        {
+            flush(block);
+        }
+
+        sequenceNumberExtractor.extract(buffer, offset, length);
+        final int sequenceNumber = sequenceNumberExtractor.sequenceNumber();
+
+        // Keep the whole archived fragment so that readers can hand the message off exactly as it was archived
+        final int fragmentOffset = message.offset() - MessageHeaderDecoder.ENCODED_LENGTH;
+        final int fragmentLength = offset + length - fragmentOffset;
+        block.append(
+            sequenceIndex,
+            sequenceNumber,
+            message.timestamp(),
+            buffer,
+            fragmentOffset,
+            fragmentLength);
+        bufferedBytes += RECORD_HEADER_LENGTH + fragmentLength;
+
+        if (block.length >= blockSize)
+        {
+            flush(block);
+        }
+
+        if (bufferedBytes > maxBufferedBytes)
+        {
+            flushAll();
+        }
+    }
+
+    public void close()
+    {
+        try
+        {
+            flushAll();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private void flushAll()
+    {
+        for (final Int2ObjectHashMap<SessionBlock> streamIdToBlock : sessionIdToBlocks.values())
+        {
+            for (final SessionBlock block : streamIdToBlock.values())
+            {
+                if (block.length > 0)
+                {
+                    flush(block);
+                }
+            }
+        }
+        sessionIdToBlocks.clear();
+        bufferedBytes = 0;
+    }
+
+    private void flush(final SessionBlock block)
+    {
+        final int inflatedLength = block.length;
+        final int compressedLength = deflate(block.buffer.byteArray(), inflatedLength);
+        final long sessionId = block.sessionId;
+        final int streamId = block.streamId;
+        final File segmentFile = segmentFile(directory, sessionId, streamId);
+
+        try
+        {
+            final long blockPosition = segmentFile.length();
+            try (FileOutputStream segmentOut = new FileOutputStream(segmentFile, true))
+            {
+                segmentOut.write(compressed, 0, compressedLength);
+            }
+
+            final UnsafeBuffer indexEntry = this.indexEntry;
+            indexEntry.putInt(INDEX_SEQUENCE_INDEX_OFFSET, block.sequenceIndex);
+            indexEntry.putInt(INDEX_MIN_SEQUENCE_NUMBER_OFFSET, block.minSequenceNumber);
+            indexEntry.putInt(INDEX_MAX_SEQUENCE_NUMBER_OFFSET, block.maxSequenceNumber);
+            indexEntry.putInt(INDEX_INFLATED_LENGTH_OFFSET, inflatedLength);
+            indexEntry.putLong(INDEX_FIRST_TIMESTAMP_OFFSET, block.firstTimestamp);
+            indexEntry.putLong(INDEX_LAST_TIMESTAMP_OFFSET, block.lastTimestamp);
+            indexEntry.putLong(INDEX_BLOCK_POSITION_OFFSET, blockPosition);
+            indexEntry.putInt(INDEX_COMPRESSED_LENGTH_OFFSET, compressedLength);
+            try (FileOutputStream indexOut = new FileOutputStream(indexFile(directory, sessionId, streamId), true))
+            {
+                indexOut.write(indexEntry.byteArray(), 0, INDEX_ENTRY_LENGTH);
+            }
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        bufferedBytes -= inflatedLength;
+        block.reset();
+    }
+
+    private int deflate(final byte[] input, final int length)
+    {
+        final Deflater deflater = this.deflater;
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+
+        int compressedLength = 0;
+        while (!deflater.finished())
+        {
+            if (compressedLength == compressed.length)
+            {
+                compressed = Arrays.copyOf(compressed, compressedLength << 1);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        return compressedLength;
+    }
+
+    private static final class SessionBlock
+    {
+        private final long sessionId;
+        private final int streamId;
+        private final ExpandableArrayBuffer buffer;
+
+        private int length;
+        private int sequenceIndex;
+        private int minSequenceNumber;
+        private int maxSequenceNumber;
+        private long firstTimestamp;
+        private long lastTimestamp;
+
+        SessionBlock(final long sessionId, final int streamId, final int blockSize)
+        {
+            this.sessionId = sessionId;
+            this.streamId = streamId;
+            buffer = new ExpandableArrayBuffer(blockSize);
+            reset();
+        }
+
+        void append(
+            final int sequenceIndex,
+            final int sequenceNumber,
+            final long timestamp,
+            final DirectBuffer fragmentBuffer,
+            final int fragmentOffset,
+            final int fragmentLength)
+        {
+            final int length = this.length;
+            if (length == 0)
+            {
+                this.sequenceIndex = sequenceIndex;
+                firstTimestamp = timestamp;
+            }
+            lastTimestamp = timestamp;
+
+            if (sequenceNumber != NO_SEQUENCE_NUMBER)
+            {
+                minSequenceNumber = Math.min(minSequenceNumber, sequenceNumber);
+                maxSequenceNumber = Math.max(maxSequenceNumber, sequenceNumber);
+            }
+
+            final ExpandableArrayBuffer buffer = this.buffer;
+            buffer.putInt(length + RECORD_FRAGMENT_LENGTH_OFFSET, fragmentLength);
+            buffer.putInt(length + RECORD_SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putBytes(length + RECORD_HEADER_LENGTH, fragmentBuffer, fragmentOffset, fragmentLength);
+            this.length = length + RECORD_HEADER_LENGTH + fragmentLength;
+        }
+
+        void reset()
+        {
+            length = 0;
+            minSequenceNumber = Integer.MAX_VALUE;
+            maxSequenceNumber = NO_SEQUENCE_NUMBER;
+        }
+    }
+}
@@ -136,7 +136,9 @@ public class FixArchiveScanner implements AutoCloseable
         /**
          * Sets the logFileDir used by your {@link EngineConfiguration}. This configuration option isn't required, it
          * allows faster FixArchiveScanner operations for predicates where you're searching by time by using the
-         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates.
+         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates, or by
+         * session or message type by using the {@link FixMessagePredicates#sessionOf(long)} or
+         * {@link FixMessagePredicates#messageTypeOf(String...)} predicates.
          * Setting this configuration option automatically enables index scanning.
          *
          * @param logFileDir the logFileDir configured in your {@link EngineConfiguration}.
@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -45,6 +46,8 @@ public class FixArchiveScanningAgent implements AutoCloseable
     private final String logFileDir;
 
     private final Long2ObjectHashMap<TimeIndexReader> streamIdToInboundTimeIndex = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<MessageBlockIndexReader> streamIdToMessageBlockIndex =
+        new Long2ObjectHashMap<>();
 
     private StreamTimestampZipper timestampZipper;
     private Subscription replaySubscription;
@@ -82,13 +85,22 @@ public class FixArchiveScanningAgent implements AutoCloseable
             fixHandler.reset();
         }
 
+        final IndexQuery indexQuery = extractIndexQueryIfPossible(fixHandler, follow, queryStreamIds);
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange =
-            scanIndexIfPossible(fixHandler, follow, queryStreamIds);
+            scanIndexIfPossible(indexQuery, queryStreamIds);
+        // Blocks are only indexed by FIX messages, so FIXP messages could be in any block
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges = fixPHandler == null ?
+            scanMessageBlockIndexIfPossible(indexQuery, queryStreamIds) : null;
 
         this.follow = follow;
         replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId);
         pollers = makeRecordingPollers(
-            aeronChannel, queryStreamIds, follow, recordingIdToPositionRange, replaySubscription);
+            aeronChannel,
+            queryStreamIds,
+            follow,
+            recordingIdToPositionRange,
+            recordingIdToPositionRanges,
+            replaySubscription);
 
         if (DEBUG_LOG_ARCHIVE_SCAN)
         {
@@ -122,6 +134,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
         final IntHashSet queryStreamIds,
         final boolean follow,
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange,
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges,
         final Subscription replaySubscription)
     {
         return queryStreamIds
@@ -134,11 +147,40 @@ public class FixArchiveScanningAgent implements AutoCloseable
                     // 1) they are empty - we don't need to poll them
                     // 2) we use empty length later within polling as a test for polling being finished
                     .filter(archiveLocation -> archiveLocation.length() != 0L)
-                    .map(archiveLocation -> new RecordingPoller(replaySubscription, id, archiveLocation)))
+                    .map(archiveLocation -> splitArchiveLocation(archiveLocation, recordingIdToPositionRanges))
+                    .filter(archiveLocations -> !archiveLocations.isEmpty())
+                    .map(archiveLocations -> new RecordingPoller(replaySubscription, id, archiveLocations)))
             .toArray(RecordingPoller[]::new);
     }
 
-    private Long2ObjectHashMap<PositionRange> scanIndexIfPossible(
+    // Splits a recording's location into the ranges that the message block index says could match the query.
+    private ArrayDeque<ArchiveLocation> splitArchiveLocation(
+        final ArchiveLocation location,
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges)
+    {
+        final ArrayDeque<ArchiveLocation> archiveLocations = new ArrayDeque<>();
+        final List<PositionRange> positionRanges = recordingIdToPositionRanges == null ?
+            null : recordingIdToPositionRanges.get(location.recordingId);
+        if (positionRanges == null || location.startPosition == NULL_POSITION)
+        {
+            archiveLocations.add(location);
+            return archiveLocations;
+        }
+
+        for (final PositionRange positionRange : positionRanges)
+        {
+            final long startPosition = Math.max(location.startPosition, positionRange.startPosition());
+            final long stopPosition = Math.min(location.stopPosition, positionRange.endPosition());
+            if (startPosition < stopPosition)
+            {
+                archiveLocations.add(new ArchiveLocation(location.recordingId, startPosition, stopPosition));
+            }
+        }
+
+        return archiveLocations;
+    }
+
+    private IndexQuery extractIndexQueryIfPossible(
         final FixMessageConsumer fixHandler, final boolean follow, final IntHashSet queryStreamIds)
     {
         if (DEBUG_LOG_ARCHIVE_SCAN)
@@ -170,39 +212,77 @@ public class FixArchiveScanningAgent implements AutoCloseable
                 DebugLogger.log(ARCHIVE_SCAN, "indexQuery = " + indexQuery);
             }
 
-            if (indexQuery == null)
+            return indexQuery;
+        }
+        catch (final IllegalArgumentException e)
+        {
+            // Unable to create query plan
+            return null;
+        }
+    }
+
+    private Long2ObjectHashMap<PositionRange> scanIndexIfPossible(
+        final IndexQuery indexQuery, final IntHashSet queryStreamIds)
+    {
+        if (indexQuery == null || !indexQuery.needsTimeIndex())
+        {
+            return null;
+        }
+
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
+        for (final int streamId : queryStreamIds)
+        {
+            TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
+            if (reader == null)
             {
-                return null;
+                reader = new TimeIndexReader(logFileDir, streamId);
+                streamIdToInboundTimeIndex.put(streamId, reader);
             }
 
-            final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
-            for (final int streamId : queryStreamIds)
+            if (!reader.findPositionRange(indexQuery, recordingIdToPositionRange))
             {
-                TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
-                if (reader == null)
-                {
-                    reader = new TimeIndexReader(logFileDir, streamId);
-                    streamIdToInboundTimeIndex.put(streamId, reader);
-                }
-
-                if (!reader.findPositionRange(indexQuery, recordingIdToPositionRange))
-                {
-                    return null;
-                }
+                return null;
             }
+        }
 
-            if (DEBUG_LOG_ARCHIVE_SCAN)
+        if (DEBUG_LOG_ARCHIVE_SCAN)
+        {
+            DebugLogger.log(ARCHIVE_SCAN, "recordingIdToPositionRange = " + recordingIdToPositionRange);
+        }
+
+        return recordingIdToPositionRange;
+    }
+
+    private Long2ObjectHashMap<List<PositionRange>> scanMessageBlockIndexIfPossible(
+        final IndexQuery indexQuery, final IntHashSet queryStreamIds)
+    {
+        if (indexQuery == null || !indexQuery.needsMessageBlockIndex())
+        {
+            return null;
+        }
+
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges = new Long2ObjectHashMap<>();
+        for (final int streamId : queryStreamIds)
+        {
+            MessageBlockIndexReader reader = streamIdToMessageBlockIndex.get(streamId);
+            if (reader == null)
             {
-                DebugLogger.log(ARCHIVE_SCAN, "recordingIdToPositionRange = " + recordingIdToPositionRange);
+                reader = new MessageBlockIndexReader(logFileDir, streamId);
+                streamIdToMessageBlockIndex.put(streamId, reader);
             }
 
-            return recordingIdToPositionRange;
+            if (!reader.findPositionRanges(indexQuery, recordingIdToPositionRanges))
+            {
+                return null;
+            }
         }
-        catch (final IllegalArgumentException e)
+
+        if (DEBUG_LOG_ARCHIVE_SCAN)
         {
-            // Unable to create query plan
-            return null;
+            DebugLogger.log(ARCHIVE_SCAN, "recordingIdToPositionRanges = " + recordingIdToPositionRanges);
         }
+
+        return recordingIdToPositionRanges;
     }
 
     private boolean checkCompletion(final RecordingPoller[] pollers)
@@ -328,10 +408,12 @@ public class FixArchiveScanningAgent implements AutoCloseable
         }
     }
 
+    // Replays the locations within a single recording one after another, in position order.
     class RecordingPoller implements StreamTimestampZipper.Poller
     {
         private final Subscription replaySubscription;
         private final int originalStreamId;
+        private final ArrayDeque<ArchiveLocation> archiveLocations;
 
         private ArchiveLocation archiveLocation;
 
@@ -341,11 +423,12 @@ public class FixArchiveScanningAgent implements AutoCloseable
         RecordingPoller(
             final Subscription replaySubscription,
             final int originalStreamId,
-            final ArchiveLocation archiveLocation)
+            final ArrayDeque<ArchiveLocation> archiveLocations)
         {
             this.replaySubscription = replaySubscription;
             this.originalStreamId = originalStreamId;
-            this.archiveLocation = archiveLocation;
+            this.archiveLocations = archiveLocations;
+            this.archiveLocation = archiveLocations.poll();
         }
 
         public boolean isComplete()
@@ -373,7 +456,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
 
                     image = lookupImage(sessionId);
                     stopPosition = archiveLocation.stopPosition;
-                    archiveLocation = null;
+                    archiveLocation = archiveLocations.poll();
                 }
 
                 return 1;
@@ -419,7 +502,8 @@ public class FixArchiveScanningAgent implements AutoCloseable
         public String toString()
         {
             return "RecordingPoller{" +
-                "archiveLocations=" + archiveLocation +
+                "archiveLocation=" + archiveLocation +
+                ", archiveLocations=" + archiveLocations +
                 ", replaySubscription=" + replaySubscription +
                 ", originalStreamId=" + originalStreamId +
                 ", stopPosition=" + stopPosition +
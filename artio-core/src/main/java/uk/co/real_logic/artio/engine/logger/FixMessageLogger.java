@@ -41,8 +41,11 @@ import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_OUTBOUND
  * Main method is provided as an example of usage - when integrating into your specific system you should pass in the
  * library aeron channel and stream ids used by your {@link uk.co.real_logic.artio.engine.EngineConfiguration}.
  *
- * Since this class generates Java objects for every message that passes through the system you're recommended to run
- * it in a different process to the normal Artio Engine if you're operating in a latency sensitive environment.
+ * The streams are merged into timestamp order without allocating per message, so the cost of logging depends upon
+ * the {@link FixMessageConsumer}. The default consumer used by the main method generates Java objects for every
+ * message. For an always on log of every message use a {@link MessageLogFileWriter} as the consumer, it writes the
+ * messages to memory mapped files without allocating. You're still recommended to run the logger in a different
+ * process to the normal Artio Engine if you're operating in a latency sensitive environment.
  */
 public class FixMessageLogger implements Agent
 {
@@ -72,7 +72,9 @@ class FixReplayerSession extends ReplayerSession
     private final ErrorHandler errorHandler;
     private final SequenceNumberExtractor sequenceNumberExtractor;
     private final FixThrottleRejectBuilder throttleRejectBuilder;
+    private final ReplayCache replayCache;
 
+    private ReplayCache.CachedReplay cachedReplay;
     private int lastSeqNo;
     private int headerSeqNum;
 
@@ -102,7 +104,8 @@ class FixReplayerSession extends ReplayerSession
         final int maxBytesInBuffer,
         final UtcTimestampEncoder utcTimestampEncoder,
         final Replayer replayer,
-        final FixThrottleRejectBuilder throttleRejectBuilder)
+        final FixThrottleRejectBuilder throttleRejectBuilder,
+        final ReplayCache replayCache)
     {
         super(connectionId, correlationId, bufferClaim, idleStrategy, maxClaimAttempts, publication, replayQuery,
             beginSeqNo, endSeqNo,
@@ -118,6 +121,7 @@ class FixReplayerSession extends ReplayerSession
 
         lastSeqNo = beginSeqNo - 1;
         this.throttleRejectBuilder = throttleRejectBuilder;
+        this.replayCache = replayCache;
 
         possDupEnabler = new PossDupEnabler(
             utcTimestampEncoder,
@@ -132,6 +136,21 @@ class FixReplayerSession extends ReplayerSession
         state = State.REPLAYING;
     }
 
+    void query()
+    {
+        final MessageTracker messageTracker = messageTracker();
+        if (replayCache != null)
+        {
+            cachedReplay = replayCache.lookup(sessionId, sequenceIndex, beginSeqNo, endSeqNo, messageTracker);
+            if (cachedReplay != null)
+            {
+                return;
+            }
+        }
+
+        query(messageTracker);
+    }
+
     MessageTracker messageTracker()
     {
         return new FixMessageTracker(REPLAY_MESSAGE, this, sessionId);
@@ -381,7 +400,7 @@ class FixReplayerSession extends ReplayerSession
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING step");
-                if (replayOperation.pollReplay())
+                if (pollReplay())
                 {
                     state = State.CHECK_REPLAY;
                     return attemptReplay();
@@ -392,6 +411,7 @@ class FixReplayerSession extends ReplayerSession
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: CHECK_REPLAY step");
                 if (completeReplay())
                 {
+                    releaseCachedReplay();
                     state = State.SEND_COMPLETE_MESSAGE;
                 }
                 return false;
@@ -401,7 +421,8 @@ class FixReplayerSession extends ReplayerSession
 
             case CLOSING:
             {
-                return replayOperation.pollReplay();
+                // A cached replay is released when the close starts so has nothing to clean up
+                return replayOperation == null || replayOperation.pollReplay();
             }
 
             default:
@@ -409,10 +430,16 @@ class FixReplayerSession extends ReplayerSession
         }
     }
 
+    private boolean pollReplay()
+    {
+        return cachedReplay != null ? cachedReplay.pollReplay() : replayOperation.pollReplay();
+    }
+
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = cachedReplay != null ?
+            cachedReplay.replayedMessages() : replayOperation.replayedMessages();
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -471,12 +498,29 @@ class FixReplayerSession extends ReplayerSession
         return true;
     }
 
+    void closeNow()
+    {
+        releaseCachedReplay();
+        super.closeNow();
+    }
+
     void startClose()
     {
+        releaseCachedReplay();
         state = State.CLOSING;
         super.startClose();
     }
 
+    private void releaseCachedReplay()
+    {
+        final ReplayCache.CachedReplay cachedReplay = this.cachedReplay;
+        if (cachedReplay != null)
+        {
+            cachedReplay.release();
+            this.cachedReplay = null;
+        }
+    }
+
     public String toString()
     {
         return "FixReplayerSession{" +
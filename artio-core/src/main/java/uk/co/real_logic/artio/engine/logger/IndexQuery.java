@@ -15,6 +15,8 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.collections.LongHashSet;
+
 class IndexQuery
 {
     static final long NO_BEGIN = Long.MIN_VALUE;
@@ -23,6 +25,10 @@ class IndexQuery
     private long beginTimestampInclusive = Long.MIN_VALUE;
     private long endTimestampExclusive = Long.MAX_VALUE;
 
+    // null if the query isn't restricted by session or message type respectively
+    private LongHashSet sessionIds;
+    private LongHashSet messageTypes;
+
     void from(final long beginTimestampInclusive)
     {
         final long existingBeginTimestampInclusive = this.beginTimestampInclusive;
@@ -43,17 +49,50 @@ class IndexQuery
         }
     }
 
+    void sessionIds(final LongHashSet sessionIds)
+    {
+        this.sessionIds = intersect(this.sessionIds, sessionIds);
+    }
+
+    void messageTypes(final LongHashSet messageTypes)
+    {
+        this.messageTypes = intersect(this.messageTypes, messageTypes);
+    }
+
+    private static LongHashSet intersect(final LongHashSet existing, final LongHashSet values)
+    {
+        final LongHashSet result = new LongHashSet();
+        result.addAll(values);
+        if (existing != null)
+        {
+            result.retainAll(existing);
+        }
+        return result;
+    }
+
     boolean needed()
+    {
+        return needsTimeIndex() || needsMessageBlockIndex();
+    }
+
+    boolean needsTimeIndex()
     {
         return beginTimestampInclusive != NO_BEGIN ||
             endTimestampExclusive != NO_END;
     }
 
+    boolean needsMessageBlockIndex()
+    {
+        return sessionIds != null || messageTypes != null;
+    }
+
     public String toString()
     {
         return "IndexPlan{" +
             "beginTimestampInclusive=" + beginTimestampInclusive +
             ", endTimestampExclusive=" + endTimestampExclusive +
+            ", sessionIds=" + sessionIds +
+            ", messageTypes=" + messageTypes +
             '}';
     }
 
@@ -66,4 +105,14 @@ class IndexQuery
     {
         return endTimestampExclusive;
     }
+
+    LongHashSet sessionIds()
+    {
+        return sessionIds;
+    }
+
+    LongHashSet messageTypes()
+    {
+        return messageTypes;
+    }
 }
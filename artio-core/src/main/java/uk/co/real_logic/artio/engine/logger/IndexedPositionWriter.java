@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionEncoder;
 
 import java.util.ArrayList;
+import java.util.function.IntConsumer;
 
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
@@ -169,6 +170,16 @@ class IndexedPositionWriter implements AutoCloseable
         checksumFramer.updateChecksums();
     }
 
+    void updateDirtyChecksums(final IntConsumer sectorStartConsumer)
+    {
+        checksumFramer.updateDirtyChecksums(sectorStartConsumer);
+    }
+
+    void clearDirtySectors()
+    {
+        checksumFramer.clearDirtySectors();
+    }
+
     AtomicBuffer buffer()
     {
         return buffer;
@@ -177,6 +188,7 @@ class IndexedPositionWriter implements AutoCloseable
     private void putPosition(final long position, final AtomicBuffer buffer, final int offset)
     {
         buffer.putLongVolatile(offset + POSITION_OFFSET, position);
+        checksumFramer.markDirty(offset);
     }
 
     public void trackPosition(final int aeronSessionId, final long endPosition)
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.engine.logger.MessageBlockIndexWriter.*;
+
+/**
+ * Reads the files written by {@link MessageBlockIndexWriter} in order to find the ranges of a recording that could
+ * contain messages matching a query.
+ */
+class MessageBlockIndexReader
+{
+    private final String logFileDir;
+    private final int streamId;
+
+    MessageBlockIndexReader(final String logFileDir, final int streamId)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+    }
+
+    /**
+     * Find the position ranges of each recording of the stream that could match the query's sessions and message types.
+     *
+     * @param indexQuery the query to find ranges for.
+     * @param recordingIdToPositionRanges the map to put the ranges into. Recordings without a block index aren't put
+     *                                    into the map and need to be scanned in full.
+     * @return false if the log file directory doesn't exist, true otherwise.
+     */
+    boolean findPositionRanges(
+        final IndexQuery indexQuery, final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges)
+    {
+        final File logDir = new File(logFileDir);
+        final String fileNamePrefix = FILE_NAME + streamId + "-";
+        if (!logDir.exists() || !logDir.isDirectory())
+        {
+            return false;
+        }
+
+        final long messageTypesMask = messageTypesMask(indexQuery.messageTypes());
+        final long[] sessionsMask = sessionsMask(indexQuery.sessionIds());
+
+        for (final String file : logDir.list())
+        {
+            if (file.startsWith(fileNamePrefix))
+            {
+                final long recordingId = Long.parseLong(file.substring(fileNamePrefix.length()));
+                recordingIdToPositionRanges.put(
+                    recordingId, findPositionRanges(new File(logDir, file), messageTypesMask, sessionsMask));
+            }
+        }
+
+        return true;
+    }
+
+    private List<PositionRange> findPositionRanges(
+        final File file, final long messageTypesMask, final long[] sessionsMask)
+    {
+        final List<PositionRange> ranges = new ArrayList<>();
+        if (file.length() < ENTRY_LENGTH)
+        {
+            ranges.add(new PositionRange(0, Long.MAX_VALUE));
+            return ranges;
+        }
+
+        final MappedByteBuffer mappedByteBuffer = LoggerUtil.mapExistingFile(file);
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final int lastEntryOffset = buffer.capacity() - ENTRY_LENGTH;
+
+            // Anything before the first block, between blocks or after the last block isn't indexed.
+            long indexedPosition = 0;
+            for (int offset = 0; offset <= lastEntryOffset; offset += ENTRY_LENGTH)
+            {
+                final long startPosition = buffer.getLong(offset + START_POSITION_OFFSET, LITTLE_ENDIAN);
+                final long endPosition = buffer.getLong(offset + END_POSITION_OFFSET, LITTLE_ENDIAN);
+                if (startPosition > indexedPosition)
+                {
+                    addRange(ranges, indexedPosition, startPosition);
+                }
+
+                if (matches(buffer, offset, messageTypesMask, sessionsMask))
+                {
+                    addRange(ranges, startPosition, endPosition);
+                }
+
+                indexedPosition = Math.max(indexedPosition, endPosition);
+            }
+            addRange(ranges, indexedPosition, Long.MAX_VALUE);
+
+            return ranges;
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+    }
+
+    private static boolean matches(
+        final UnsafeBuffer buffer, final int offset, final long messageTypesMask, final long[] sessionsMask)
+    {
+        if ((buffer.getLong(offset + MESSAGE_TYPES_OFFSET, LITTLE_ENDIAN) & messageTypesMask) == 0)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < SESSION_WORDS; i++)
+        {
+            if ((buffer.getLong(offset + SESSIONS_OFFSET + i * SIZE_OF_LONG, LITTLE_ENDIAN) & sessionsMask[i]) != 0)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void addRange(final List<PositionRange> ranges, final long startPosition, final long endPosition)
+    {
+        final int lastIndex = ranges.size() - 1;
+        if (lastIndex >= 0)
+        {
+            final PositionRange last = ranges.get(lastIndex);
+            if (last.endPosition() >= startPosition)
+            {
+                ranges.set(lastIndex, new PositionRange(last.startPosition(), endPosition));
+                return;
+            }
+        }
+
+        ranges.add(new PositionRange(startPosition, endPosition));
+    }
+
+    private static long messageTypesMask(final LongHashSet messageTypes)
+    {
+        if (messageTypes == null)
+        {
+            return -1L;
+        }
+
+        long mask = 0;
+        final LongHashSet.LongIterator iterator = messageTypes.iterator();
+        while (iterator.hasNext())
+        {
+            mask |= messageTypeBit(iterator.nextValue());
+        }
+        return mask;
+    }
+
+    private static long[] sessionsMask(final LongHashSet sessionIds)
+    {
+        final long[] mask = new long[SESSION_WORDS];
+        if (sessionIds == null)
+        {
+            Arrays.fill(mask, -1L);
+            return mask;
+        }
+
+        final LongHashSet.LongIterator iterator = sessionIds.iterator();
+        while (iterator.hasNext())
+        {
+            final int sessionBitIndex = sessionBitIndex(iterator.nextValue());
+            mask[sessionBitIndex >> 6] |= 1L << sessionBitIndex;
+        }
+        return mask;
+    }
+}
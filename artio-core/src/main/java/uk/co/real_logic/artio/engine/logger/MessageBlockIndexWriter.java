@@ -0,0 +1,270 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Hashing;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Writes an index of which FIX sessions and message types are present within each block of a recording, so that
+ * the {@link FixArchiveScanner} can skip over blocks that can't match a {@link FixMessagePredicates#sessionOf(long)}
+ * or {@link FixMessagePredicates#messageTypeOf(String...)} query.
+ *
+ * A block covers a contiguous range of positions of roughly {@link #BLOCK_SIZE_IN_BYTES} and always starts at the
+ * beginning of a message. There's one file per recording of a stream, consisting of one entry per block:
+ *
+ * Start Position, inclusive
+ * End Position, exclusive
+ * Message Type Bitmap, one bit per hash of each message type
+ * Session Bitmap, one bit per surrogate session id modulo the bitmap size
+ *
+ * Bitmaps can have false positives, so scanned messages still need to be filtered. Ranges of a recording that aren't
+ * covered by an entry, for example messages that were lost from an unwritten block when the engine was killed,
+ * must be scanned as if they match.
+ */
+class MessageBlockIndexWriter implements AutoCloseable
+{
+    static final String FILE_NAME = "message-block-index-";
+
+    static final int BLOCK_SIZE_IN_BYTES = 64 * 1024;
+
+    static final int START_POSITION_OFFSET = 0;
+    static final int END_POSITION_OFFSET = START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int MESSAGE_TYPES_OFFSET = END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int SESSIONS_OFFSET = MESSAGE_TYPES_OFFSET + SIZE_OF_LONG;
+    static final int SESSION_WORDS = 4;
+    static final int ENTRY_LENGTH = SESSIONS_OFFSET + SESSION_WORDS * SIZE_OF_LONG;
+
+    private static final int SESSION_BIT_MASK = SESSION_WORDS * Long.SIZE - 1;
+    private static final long NO_POSITION = -1;
+
+    static File fileLocation(final String logFileDir, final int streamId, final long recordingId)
+    {
+        return new File(logFileDir + File.separator + FILE_NAME + streamId + "-" + recordingId);
+    }
+
+    static long messageTypeBit(final long messageType)
+    {
+        return 1L << Hashing.hash(messageType, Long.SIZE - 1);
+    }
+
+    static int sessionBitIndex(final long sessionId)
+    {
+        return (int)sessionId & SESSION_BIT_MASK;
+    }
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[ENTRY_LENGTH]);
+    private final Long2ObjectHashMap<RecordingWriter> recordingIdToWriter = new Long2ObjectHashMap<>();
+    private final String logFileDir;
+    private final int streamId;
+    private final ErrorHandler errorHandler;
+
+    MessageBlockIndexWriter(final String logFileDir, final int streamId, final ErrorHandler errorHandler)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Index a fragment that isn't the start of a FIX message.
+     *
+     * @param recordingId the recording that the fragment is in.
+     * @param startPosition the position of the start of the fragment's frame.
+     * @param endPosition the position of the end of the fragment's frame.
+     * @param beginMessage true if this fragment begins a message, false if it continues one.
+     */
+    void onFragment(
+        final long recordingId, final long startPosition, final long endPosition, final boolean beginMessage)
+    {
+        recordingWriter(recordingId).onFragment(startPosition, endPosition, beginMessage);
+    }
+
+    /**
+     * Index a fragment that is the start of a FIX message.
+     *
+     * @param recordingId the recording that the fragment is in.
+     * @param startPosition the position of the start of the fragment's frame.
+     * @param endPosition the position of the end of the fragment's frame.
+     * @param sessionId the surrogate id of the FIX session that the message is for.
+     * @param messageType the packed message type of the message.
+     */
+    void onFixMessage(
+        final long recordingId,
+        final long startPosition,
+        final long endPosition,
+        final long sessionId,
+        final long messageType)
+    {
+        final RecordingWriter writer = recordingWriter(recordingId);
+        if (writer.onFragment(startPosition, endPosition, true))
+        {
+            writer.onFixMessage(sessionId, messageType);
+        }
+    }
+
+    private RecordingWriter recordingWriter(final long recordingId)
+    {
+        RecordingWriter writer = recordingIdToWriter.get(recordingId);
+        if (writer == null)
+        {
+            writer = new RecordingWriter(recordingId);
+            recordingIdToWriter.put(recordingId, writer);
+        }
+        return writer;
+    }
+
+    public void close()
+    {
+        recordingIdToWriter.values().forEach(RecordingWriter::close);
+        recordingIdToWriter.clear();
+    }
+
+    class RecordingWriter
+    {
+        private final long[] sessions = new long[SESSION_WORDS];
+        private final RandomAccessFile file;
+
+        // Positions already in the index, for example when the indexer catches up after a restart, are skipped.
+        private long indexedPosition = NO_POSITION;
+        private long blockStartPosition = NO_POSITION;
+        private long blockEndPosition;
+        private long messageTypes;
+
+        RecordingWriter(final long recordingId)
+        {
+            file = openFile(fileLocation(logFileDir, streamId, recordingId));
+        }
+
+        private RandomAccessFile openFile(final File file)
+        {
+            try
+            {
+                final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                final long length = raf.length();
+                final long lastEntryOffset = (length / ENTRY_LENGTH - 1) * ENTRY_LENGTH;
+                if (lastEntryOffset >= 0)
+                {
+                    raf.seek(lastEntryOffset);
+                    raf.readFully(buffer.byteArray(), 0, ENTRY_LENGTH);
+                    indexedPosition = buffer.getLong(END_POSITION_OFFSET, LITTLE_ENDIAN);
+                }
+                // Overwrite any partially written entry.
+                raf.seek(lastEntryOffset + ENTRY_LENGTH);
+                return raf;
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+                return null;
+            }
+        }
+
+        boolean onFragment(final long startPosition, final long endPosition, final boolean beginMessage)
+        {
+            if (endPosition <= indexedPosition)
+            {
+                return false;
+            }
+
+            if (blockStartPosition == NO_POSITION)
+            {
+                // Only start indexing at a message boundary, the rest of the message is part of an earlier gap.
+                if (!beginMessage)
+                {
+                    return false;
+                }
+
+                blockStartPosition = startPosition;
+            }
+            else if (beginMessage && startPosition - blockStartPosition >= BLOCK_SIZE_IN_BYTES)
+            {
+                writeBlock();
+                // Blocks are contiguous whilst we're seeing every fragment, this covers any padding frames.
+                blockStartPosition = blockEndPosition;
+            }
+
+            blockEndPosition = endPosition;
+            indexedPosition = endPosition;
+            return true;
+        }
+
+        void onFixMessage(final long sessionId, final long messageType)
+        {
+            messageTypes |= messageTypeBit(messageType);
+            final int sessionBitIndex = sessionBitIndex(sessionId);
+            sessions[sessionBitIndex >> 6] |= 1L << sessionBitIndex;
+        }
+
+        private void writeBlock()
+        {
+            final UnsafeBuffer buffer = MessageBlockIndexWriter.this.buffer;
+            final long[] sessions = this.sessions;
+            buffer.putLong(START_POSITION_OFFSET, blockStartPosition, LITTLE_ENDIAN);
+            buffer.putLong(END_POSITION_OFFSET, blockEndPosition, LITTLE_ENDIAN);
+            buffer.putLong(MESSAGE_TYPES_OFFSET, messageTypes, LITTLE_ENDIAN);
+            for (int i = 0; i < SESSION_WORDS; i++)
+            {
+                buffer.putLong(SESSIONS_OFFSET + i * SIZE_OF_LONG, sessions[i], LITTLE_ENDIAN);
+                sessions[i] = 0;
+            }
+            messageTypes = 0;
+
+            try
+            {
+                if (file != null)
+                {
+                    file.write(buffer.byteArray(), 0, ENTRY_LENGTH);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+
+        void close()
+        {
+            if (blockStartPosition != NO_POSITION && blockEndPosition > blockStartPosition)
+            {
+                writeBlock();
+            }
+
+            if (file != null)
+            {
+                try
+                {
+                    file.getFD().sync();
+                }
+                catch (final IOException e)
+                {
+                    errorHandler.onError(e);
+                }
+                Exceptions.closeAll(file);
+            }
+        }
+    }
+}
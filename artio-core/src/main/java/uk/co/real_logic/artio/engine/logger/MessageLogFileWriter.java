@@ -0,0 +1,255 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.ArrayUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Appends every message it's given to rolling, memory mapped log files without allocating per message. Use it as the
+ * {@link FixMessageConsumer} of a {@link FixMessageLogger} to keep an always on log of every FIX message.
+ * <p>
+ * Each segment file, named prefix-N.log, holds a series of 8 byte aligned records:
+ * int message length, int stream id, long timestamp, long session id, then the message bytes. The length is written
+ * last and a zero length marks the end of the segment. Each segment has a prefix-N.index file with a
+ * (long timestamp, long offset) entry for the first record in every index interval of the segment, so readers can
+ * find a time without scanning the whole log. Restarting the writer starts a new segment after any existing ones.
+ * <p>
+ * By default finished segments are left to the operating system to write back to disk, forcing them out would block
+ * the thread that's logging messages. Segments aren't compressed as they're written for the same reason, they can be
+ * compressed once they're finished.
+ */
+public class MessageLogFileWriter implements FixMessageConsumer, AutoCloseable
+{
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_INDEX_INTERVAL = 64 * 1024;
+
+    public static final String LOG_SUFFIX = ".log";
+    public static final String INDEX_SUFFIX = ".index";
+
+    public static final int LENGTH_OFFSET = 0;
+    public static final int STREAM_ID_OFFSET = 4;
+    public static final int TIMESTAMP_OFFSET = 8;
+    public static final int SESSION_ID_OFFSET = 16;
+    public static final int RECORD_HEADER_LENGTH = 24;
+    public static final int RECORD_ALIGNMENT = 8;
+
+    public static final int INDEX_TIMESTAMP_OFFSET = 0;
+    public static final int INDEX_POSITION_OFFSET = 8;
+    public static final int INDEX_ENTRY_LENGTH = 16;
+
+    private final UnsafeBuffer segmentBuffer = new UnsafeBuffer(ArrayUtil.EMPTY_BYTE_ARRAY);
+    private final UnsafeBuffer indexBuffer = new UnsafeBuffer(ArrayUtil.EMPTY_BYTE_ARRAY);
+    private final File directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final int indexSize;
+    private final boolean forceOnSegmentClose;
+
+    private MappedByteBuffer mappedSegment;
+    private MappedByteBuffer mappedIndex;
+    private int segmentIndex;
+    private int position;
+    private int indexPosition;
+    private int nextIndexedPosition;
+
+    public MessageLogFileWriter(final File directory, final String prefix)
+    {
+        this(directory, prefix, DEFAULT_SEGMENT_SIZE, DEFAULT_INDEX_INTERVAL);
+    }
+
+    public MessageLogFileWriter(
+        final File directory, final String prefix, final int segmentSize, final int indexInterval)
+    {
+        this(directory, prefix, segmentSize, indexInterval, false);
+    }
+
+    /**
+     * Create a log file writer.
+     *
+     * @param directory the directory to write the log files into, created if it doesn't exist.
+     * @param prefix the prefix of the log file names.
+     * @param segmentSize the size of each log file in bytes, a multiple of {@link #RECORD_ALIGNMENT}.
+     * @param indexInterval the number of bytes of each log file covered by one entry in its index.
+     * @param forceOnSegmentClose true to force each segment and its index to disk when it's finished, this blocks
+     *                            the thread that's logging messages until they've been written.
+     */
+    public MessageLogFileWriter(
+        final File directory,
+        final String prefix,
+        final int segmentSize,
+        final int indexInterval,
+        final boolean forceOnSegmentClose)
+    {
+        if (segmentSize <= RECORD_HEADER_LENGTH || (segmentSize % RECORD_ALIGNMENT) != 0)
+        {
+            throw new IllegalArgumentException("Invalid segmentSize: " + segmentSize);
+        }
+
+        if (indexInterval <= 0)
+        {
+            throw new IllegalArgumentException("indexInterval must be positive, but is: " + indexInterval);
+        }
+
+        IoUtil.ensureDirectoryExists(directory, "message log");
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+        this.forceOnSegmentClose = forceOnSegmentClose;
+        indexSize = (segmentSize / indexInterval + 1) * INDEX_ENTRY_LENGTH;
+        segmentIndex = lastSegmentIndex(directory, prefix);
+
+        nextSegment();
+    }
+
+    public void onMessage(
+        final FixMessageDecoder message,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ArtioLogHeader header)
+    {
+        final int recordLength = BitUtil.align(RECORD_HEADER_LENGTH + length, RECORD_ALIGNMENT);
+        if (recordLength > segmentSize)
+        {
+            throw new IllegalArgumentException(
+                "Message of length " + length + " is too large for a segment of " + segmentSize + " bytes");
+        }
+
+        if (position + recordLength > segmentSize)
+        {
+            closeSegment();
+            nextSegment();
+        }
+
+        final int position = this.position;
+        final long timestamp = message.timestamp();
+        if (position >= nextIndexedPosition)
+        {
+            final UnsafeBuffer indexBuffer = this.indexBuffer;
+            final int indexPosition = this.indexPosition;
+            indexBuffer.putLong(indexPosition + INDEX_TIMESTAMP_OFFSET, timestamp);
+            indexBuffer.putLong(indexPosition + INDEX_POSITION_OFFSET, position);
+            this.indexPosition = indexPosition + INDEX_ENTRY_LENGTH;
+            nextIndexedPosition = (position / indexInterval + 1) * indexInterval;
+        }
+
+        final UnsafeBuffer segmentBuffer = this.segmentBuffer;
+        segmentBuffer.putInt(position + STREAM_ID_OFFSET, header.streamId());
+        segmentBuffer.putLong(position + TIMESTAMP_OFFSET, timestamp);
+        segmentBuffer.putLong(position + SESSION_ID_OFFSET, message.session());
+        segmentBuffer.putBytes(position + RECORD_HEADER_LENGTH, buffer, offset, length);
+        // Written last so that a concurrent reader of the mapped file only sees complete records
+        segmentBuffer.putIntOrdered(position + LENGTH_OFFSET, length);
+
+        this.position = position + recordLength;
+    }
+
+    public int segmentIndex()
+    {
+        return segmentIndex;
+    }
+
+    public int position()
+    {
+        return position;
+    }
+
+    public static File logFile(final File directory, final String prefix, final int segmentIndex)
+    {
+        return new File(directory, prefix + "-" + segmentIndex + LOG_SUFFIX);
+    }
+
+    public static File indexFile(final File directory, final String prefix, final int segmentIndex)
+    {
+        return new File(directory, prefix + "-" + segmentIndex + INDEX_SUFFIX);
+    }
+
+    public void close()
+    {
+        closeSegment();
+    }
+
+    private void nextSegment()
+    {
+        segmentIndex++;
+        // New files read as zeros anyway, so don't stall the duty cycle writing zeros through the whole segment
+        mappedSegment = IoUtil.mapNewFile(logFile(directory, prefix, segmentIndex), segmentSize, false);
+        mappedIndex = IoUtil.mapNewFile(indexFile(directory, prefix, segmentIndex), indexSize, false);
+        segmentBuffer.wrap(mappedSegment);
+        indexBuffer.wrap(mappedIndex);
+        position = 0;
+        indexPosition = 0;
+        nextIndexedPosition = 0;
+    }
+
+    private void closeSegment()
+    {
+        if (mappedSegment != null)
+        {
+            if (forceOnSegmentClose)
+            {
+                mappedSegment.force();
+                mappedIndex.force();
+            }
+            IoUtil.unmap(mappedSegment);
+            IoUtil.unmap(mappedIndex);
+            mappedSegment = null;
+            mappedIndex = null;
+            segmentBuffer.wrap(ArrayUtil.EMPTY_BYTE_ARRAY);
+            indexBuffer.wrap(ArrayUtil.EMPTY_BYTE_ARRAY);
+        }
+    }
+
+    private static int lastSegmentIndex(final File directory, final String prefix)
+    {
+        int lastSegmentIndex = -1;
+        final String[] fileNames = directory.list();
+        if (fileNames != null)
+        {
+            final String segmentPrefix = prefix + "-";
+            for (final String fileName : fileNames)
+            {
+                if (fileName.startsWith(segmentPrefix) && fileName.endsWith(LOG_SUFFIX))
+                {
+                    try
+                    {
+                        final int segmentIndex = Integer.parseInt(
+                            fileName.substring(segmentPrefix.length(), fileName.length() - LOG_SUFFIX.length()));
+                        lastSegmentIndex = Math.max(lastSegmentIndex, segmentIndex);
+                    }
+                    catch (final NumberFormatException e)
+                    {
+                        // Not one of our segments
+                    }
+                }
+            }
+        }
+
+        return lastSegmentIndex;
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.*;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongFunction;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.BREAK;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.SEQUENCE_RESET_MESSAGE_TYPE;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Caches the most recently sent messages of each FIX session in a bounded off-heap ring buffer so that resend
+ * requests for recent messages can be served without starting a replay from the archive.
+ *
+ * Each session's cache only ever holds a contiguous run of sequence numbers within a single sequence index. Anything
+ * that would break that run, for example a fragmented message, a throttle reject or a sequence reset, clears the
+ * session's cache. This means that a resend request is either answered entirely from the cache or entirely from the
+ * archive. The cache is populated by the outbound {@link Indexer} and queried by the {@link Replayer}, which both run
+ * on the archiving agent's thread.
+ *
+ * Each record in a session's ring buffer consists of:
+ *
+ * Record length (aligned)
+ * Fragment length, or {@link #PADDING} for a padding record at the end of the buffer
+ * First sequence number
+ * Last sequence number, greater than the first for a gap fill
+ * The fragment itself
+ */
+public class ReplayCache implements Index
+{
+    static final int PADDING = -1;
+    private static final long NO_POSITION = -1;
+    static final int RECORD_LENGTH_OFFSET = 0;
+    static final int FRAGMENT_LENGTH_OFFSET = RECORD_LENGTH_OFFSET + BitUtil.SIZE_OF_INT;
+    static final int SEQUENCE_NUMBER_OFFSET = FRAGMENT_LENGTH_OFFSET + BitUtil.SIZE_OF_INT;
+    static final int LAST_SEQUENCE_NUMBER_OFFSET = SEQUENCE_NUMBER_OFFSET + BitUtil.SIZE_OF_INT;
+    static final int RECORD_HEADER_LENGTH = LAST_SEQUENCE_NUMBER_OFFSET + BitUtil.SIZE_OF_INT;
+    static final int RECORD_ALIGNMENT = BitUtil.SIZE_OF_LONG;
+
+    private final LongFunction<SessionCache> newSessionCache = SessionCache::new;
+    private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final ThrottleNotificationDecoder throttleNotification = new ThrottleNotificationDecoder();
+    private final ThrottleRejectDecoder throttleReject = new ThrottleRejectDecoder();
+    private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
+    private final RedactSequenceUpdateDecoder redactSequenceUpdate = new RedactSequenceUpdateDecoder();
+    private final SessionOwnershipTracker sessTracker = new SessionOwnershipTracker();
+    private final Long2ObjectHashMap<SessionCache> fixSessionIdToCache = new Long2ObjectHashMap<>();
+
+    private final int requiredStreamId;
+    private final int sessionCapacity;
+    private final SequenceNumberExtractor sequenceNumberExtractor;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+
+    public ReplayCache(
+        final int requiredStreamId,
+        final int sessionCapacity,
+        final SequenceNumberExtractor sequenceNumberExtractor,
+        final AtomicCounter hits,
+        final AtomicCounter misses)
+    {
+        this.requiredStreamId = requiredStreamId;
+        this.sessionCapacity = BitUtil.findNextPositivePowerOfTwo(sessionCapacity);
+        this.sequenceNumberExtractor = sequenceNumberExtractor;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() != requiredStreamId)
+        {
+            return;
+        }
+
+        final byte flags = header.flags();
+        final boolean unfragmented = (flags & UNFRAGMENTED) == UNFRAGMENTED;
+        if (!unfragmented && (flags & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            // The session's cache has already been cleared by the beginning of this message
+            return;
+        }
+
+        frameHeaderDecoder.wrap(buffer, offset);
+        final int templateId = frameHeaderDecoder.templateId();
+        final int blockLength = frameHeaderDecoder.blockLength();
+        final int version = frameHeaderDecoder.version();
+        final int messageOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+        switch (templateId)
+        {
+            case FixMessageDecoder.TEMPLATE_ID:
+            {
+                messageFrame.wrap(buffer, messageOffset, blockLength, version);
+                final long fixSessionId = messageFrame.session();
+                if (messageFrame.status() != OK ||
+                    sessTracker.messageFromWrongLibrary(fixSessionId, messageFrame.libraryId()))
+                {
+                    return;
+                }
+
+                if (unfragmented)
+                {
+                    onFixMessage(buffer, offset, length, header, fixSessionId);
+                }
+                else
+                {
+                    clear(fixSessionId);
+                }
+                break;
+            }
+
+            case ThrottleNotificationDecoder.TEMPLATE_ID:
+            {
+                throttleNotification.wrap(buffer, messageOffset, blockLength, version);
+                clear(throttleNotification.session());
+                break;
+            }
+
+            case ThrottleRejectDecoder.TEMPLATE_ID:
+            {
+                throttleReject.wrap(buffer, messageOffset, blockLength, version);
+                clear(throttleReject.session());
+                break;
+            }
+
+            case ResetSequenceNumberDecoder.TEMPLATE_ID:
+            {
+                resetSequenceNumber.wrap(buffer, messageOffset, blockLength, version);
+                clear(resetSequenceNumber.session());
+                break;
+            }
+
+            case RedactSequenceUpdateDecoder.TEMPLATE_ID:
+            {
+                redactSequenceUpdate.wrap(buffer, messageOffset, blockLength, version);
+                clear(redactSequenceUpdate.session());
+                break;
+            }
+
+            case ManageSessionDecoder.TEMPLATE_ID:
+            {
+                sessTracker.onManageSession(buffer, messageOffset, blockLength, version);
+                break;
+            }
+        }
+    }
+
+    private void onFixMessage(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long fixSessionId)
+    {
+        final FixMessageDecoder messageFrame = this.messageFrame;
+        final int sequenceIndex = messageFrame.sequenceIndex();
+        final long messageType = messageFrame.messageType();
+        messageFrame.skipMetaData();
+        final int bodyLength = messageFrame.bodyLength();
+        final int bodyOffset = messageFrame.limit() + FixMessageDecoder.bodyHeaderLength();
+
+        final SequenceNumberExtractor sequenceNumberExtractor = this.sequenceNumberExtractor;
+        sequenceNumberExtractor.extractCached(buffer, bodyOffset, bodyLength, header.sessionId(), header.position());
+        final int sequenceNumber = sequenceNumberExtractor.sequenceNumber();
+        final int newSequenceNumber = sequenceNumberExtractor.newSequenceNumber();
+        if (sequenceNumber == NO_SEQUENCE_NUMBER)
+        {
+            return;
+        }
+
+        if (messageType == SEQUENCE_RESET_MESSAGE_TYPE && newSequenceNumber == 1)
+        {
+            clear(fixSessionId);
+            return;
+        }
+
+        final int lastSequenceNumber = newSequenceNumber > sequenceNumber ? newSequenceNumber - 1 : sequenceNumber;
+        fixSessionIdToCache
+            .computeIfAbsent(fixSessionId, newSessionCache)
+            .onMessage(buffer, offset, length, sequenceIndex, sequenceNumber, lastSequenceNumber);
+    }
+
+    private void clear(final long fixSessionId)
+    {
+        final SessionCache sessionCache = fixSessionIdToCache.get(fixSessionId);
+        if (sessionCache != null)
+        {
+            sessionCache.clear();
+        }
+    }
+
+    /**
+     * Lookup a range of messages for a resend request.
+     *
+     * @param fixSessionId the session to replay messages for.
+     * @param sequenceIndex the sequence index of the range.
+     * @param beginSequenceNumber the first sequence number of the range, inclusive.
+     * @param endSequenceNumber the last sequence number of the range, inclusive.
+     * @param messageTracker the tracker that replayed fragments are passed to.
+     * @return a replay of the range or null if the cache doesn't hold the whole range or the session's previous
+     * cached replay hasn't been released yet.
+     */
+    CachedReplay lookup(
+        final long fixSessionId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber,
+        final MessageTracker messageTracker)
+    {
+        final SessionCache sessionCache = fixSessionIdToCache.get(fixSessionId);
+        final CachedReplay replay = endSequenceNumber == MOST_RECENT_MESSAGE || sessionCache == null ? null :
+            sessionCache.lookup(sequenceIndex, beginSequenceNumber, endSequenceNumber, messageTracker);
+
+        if (replay == null)
+        {
+            misses.increment();
+        }
+        else
+        {
+            hits.increment();
+        }
+
+        return replay;
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long recordingId)
+    {
+        // Only messages sent by this instance of the engine are cached.
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Deliberately blank, the cache starts empty so there's nothing to catch up on.
+    }
+
+    public void close()
+    {
+        fixSessionIdToCache.values().forEach(SessionCache::close);
+        fixSessionIdToCache.clear();
+    }
+
+    private final class SessionCache implements AutoCloseable
+    {
+        private final UnsafeBuffer buffer;
+        private final CachedReplay replay = new CachedReplay();
+        private final int capacity;
+        private final int mask;
+
+        private long headPosition;
+        private long tailPosition;
+        private int sequenceIndex;
+        private int lastSequenceNumber;
+
+        SessionCache(final long fixSessionId)
+        {
+            capacity = sessionCapacity;
+            mask = capacity - 1;
+            buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity));
+        }
+
+        void onMessage(
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength,
+            final int sequenceIndex,
+            final int sequenceNumber,
+            final int lastSequenceNumber)
+        {
+            final int recordLength = BitUtil.align(RECORD_HEADER_LENGTH + srcLength, RECORD_ALIGNMENT);
+            if (recordLength > capacity)
+            {
+                clear();
+                return;
+            }
+
+            if (!isEmpty() && (sequenceIndex != this.sequenceIndex || sequenceNumber != this.lastSequenceNumber + 1))
+            {
+                clear();
+            }
+
+            final UnsafeBuffer buffer = this.buffer;
+            int offset = (int)(tailPosition & mask);
+            final int remaining = capacity - offset;
+            if (recordLength > remaining)
+            {
+                makeSpace(remaining + recordLength);
+                buffer.putInt(offset + RECORD_LENGTH_OFFSET, remaining);
+                buffer.putInt(offset + FRAGMENT_LENGTH_OFFSET, PADDING);
+                tailPosition += remaining;
+                offset = 0;
+            }
+            else
+            {
+                makeSpace(recordLength);
+            }
+
+            buffer.putInt(offset + RECORD_LENGTH_OFFSET, recordLength);
+            buffer.putInt(offset + FRAGMENT_LENGTH_OFFSET, srcLength);
+            buffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putInt(offset + LAST_SEQUENCE_NUMBER_OFFSET, lastSequenceNumber);
+            buffer.putBytes(offset + RECORD_HEADER_LENGTH, srcBuffer, srcOffset, srcLength);
+            tailPosition += recordLength;
+
+            this.sequenceIndex = sequenceIndex;
+            this.lastSequenceNumber = lastSequenceNumber;
+        }
+
+        private void makeSpace(final int length)
+        {
+            final long requiredHeadPosition = tailPosition + length - capacity;
+            while (headPosition < requiredHeadPosition)
+            {
+                headPosition += buffer.getInt((int)(headPosition & mask) + RECORD_LENGTH_OFFSET);
+            }
+        }
+
+        CachedReplay lookup(
+            final int sequenceIndex,
+            final int beginSequenceNumber,
+            final int endSequenceNumber,
+            final MessageTracker messageTracker)
+        {
+            if (isEmpty() || sequenceIndex != this.sequenceIndex || endSequenceNumber > lastSequenceNumber ||
+                beginSequenceNumber > endSequenceNumber)
+            {
+                return null;
+            }
+
+            final UnsafeBuffer buffer = this.buffer;
+            final long tailPosition = this.tailPosition;
+
+            long beginPosition = NO_POSITION;
+            long endPosition = tailPosition;
+            for (long position = headPosition; position < tailPosition; )
+            {
+                final int offset = (int)(position & mask);
+                final int recordLength = buffer.getInt(offset + RECORD_LENGTH_OFFSET);
+                if (buffer.getInt(offset + FRAGMENT_LENGTH_OFFSET) != PADDING)
+                {
+                    final int sequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+                    if (beginPosition == NO_POSITION)
+                    {
+                        if (sequenceNumber > beginSequenceNumber)
+                        {
+                            // The start of the range has already been evicted.
+                            return null;
+                        }
+
+                        if (buffer.getInt(offset + LAST_SEQUENCE_NUMBER_OFFSET) >= beginSequenceNumber)
+                        {
+                            beginPosition = position;
+                        }
+                    }
+
+                    if (sequenceNumber > endSequenceNumber)
+                    {
+                        endPosition = position;
+                        break;
+                    }
+                }
+
+                position += recordLength;
+            }
+
+            if (beginPosition == NO_POSITION)
+            {
+                return null;
+            }
+
+            final CachedReplay replay = this.replay;
+            if (replay.inUse)
+            {
+                // A previous replay of this session is still being sent, its copy can't be overwritten.
+                return null;
+            }
+
+            // Copy the range out so that the replay isn't affected by records being evicted while it is in progress.
+            final ExpandableArrayBuffer replayBuffer = replay.buffer;
+            int replayOffset = 0;
+            int replayedMessages = 0;
+            for (long position = beginPosition; position < endPosition; )
+            {
+                final int offset = (int)(position & mask);
+                final int recordLength = buffer.getInt(offset + RECORD_LENGTH_OFFSET);
+                if (buffer.getInt(offset + FRAGMENT_LENGTH_OFFSET) != PADDING)
+                {
+                    final int firstCopied = Math.max(
+                        buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET), beginSequenceNumber);
+                    final int lastCopied = Math.min(
+                        buffer.getInt(offset + LAST_SEQUENCE_NUMBER_OFFSET), endSequenceNumber);
+                    replayedMessages += lastCopied - firstCopied + 1;
+
+                    replayBuffer.putBytes(replayOffset, buffer, offset, recordLength);
+                    replayOffset += recordLength;
+                }
+                position += recordLength;
+            }
+
+            replay.reset(replayOffset, replayedMessages, messageTracker);
+            return replay;
+        }
+
+        boolean isEmpty()
+        {
+            return headPosition == tailPosition;
+        }
+
+        void clear()
+        {
+            headPosition = tailPosition;
+        }
+
+        public void close()
+        {
+            BufferUtil.free(buffer.byteBuffer());
+        }
+    }
+
+    /**
+     * A replay of a range of messages that have been copied out of the cache. Fragments are passed to the message
+     * tracker in the same way that {@link ReplayOperation} passes them on from an archive replay.
+     *
+     * Each session's cache has a single instance that is reused for every lookup, so it must be
+     * {@link #release() released} once the replay has completed or been abandoned. Until then further lookups for
+     * the same session miss and are replayed from the archive.
+     */
+    static final class CachedReplay
+    {
+        /**
+         * Fragments copied out of the cache no longer have the Aeron frame that they were received in, so they're
+         * all passed on with this empty header. The replay's handlers only use the fragment itself.
+         */
+        static final Header NO_FRAME_HEADER = newNoFrameHeader();
+
+        private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+        private int limit;
+        private int replayedMessages;
+        private MessageTracker messageTracker;
+        private int offset;
+        private boolean inUse;
+
+        void reset(final int limit, final int replayedMessages, final MessageTracker messageTracker)
+        {
+            this.limit = limit;
+            this.replayedMessages = replayedMessages;
+            this.messageTracker = messageTracker;
+            this.offset = 0;
+            this.inUse = true;
+        }
+
+        /**
+         * Attempt a replay step
+         *
+         * @return true if complete
+         */
+        boolean pollReplay()
+        {
+            final ExpandableArrayBuffer buffer = this.buffer;
+            final MessageTracker messageTracker = this.messageTracker;
+            while (offset < limit)
+            {
+                final int fragmentLength = buffer.getInt(offset + FRAGMENT_LENGTH_OFFSET);
+                final Action action = messageTracker.onFragment(
+                    buffer, offset + RECORD_HEADER_LENGTH, fragmentLength, NO_FRAME_HEADER);
+                if (action == ABORT)
+                {
+                    return false;
+                }
+
+                offset += buffer.getInt(offset + RECORD_LENGTH_OFFSET);
+
+                if (action == BREAK)
+                {
+                    return offset >= limit;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * The number of sequence numbers covered by the records that were copied for this replay, a gap fill record
+         * counts for every sequence number that it covers within the range.
+         *
+         * @return the number of sequence numbers covered by the records that were copied for this replay.
+         */
+        int replayedMessages()
+        {
+            return replayedMessages;
+        }
+
+        /**
+         * Allow this replay to be reused by the next lookup of its session.
+         */
+        void release()
+        {
+            messageTracker = null;
+            inUse = false;
+        }
+
+        private static Header newNoFrameHeader()
+        {
+            final Header header = new Header(0, 0);
+            header.buffer(new UnsafeBuffer(new byte[DataHeaderFlyweight.HEADER_LENGTH]));
+            return header;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
@@ -26,6 +27,7 @@ import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
@@ -49,6 +51,11 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  *
  * Written Positions are stored in a separate file at {@link ReplayIndexDescriptor#replayPositionPath(String, int)}.
  *
+ * A sparse summary of each session's index, see {@link ReplayIndexSummary}, is stored alongside its header file so
+ * that queries can binary search to their start position.
+ *
+ * The sessions and message types within each block of a recording are indexed by a {@link MessageBlockIndexWriter}.
+ *
  * Buffer Consists of:
  *
  * MessageHeader
@@ -85,11 +92,14 @@ public class ReplayIndex implements Index
     private final ReplayEvictionHandler evictionHandler;
     private final int segmentSizeBitShift;
     private final int segmentCount;
+    private final int summaryFileSize;
+    private final int summaryEntryMask;
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
     private final TimeIndexWriter timeIndex;
+    private final MessageBlockIndexWriter messageBlockIndex;
     private final SessionOwnershipTracker sessTracker;
 
     public ReplayIndex(
@@ -117,6 +127,8 @@ public class ReplayIndex implements Index
         this.evictionHandler = evictionHandler;
         this.segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
         this.segmentCount = ReplayIndexDescriptor.segmentCount(indexFileCapacity, indexSegmentCapacity);
+        this.summaryFileSize = ReplayIndexSummary.summaryFileSize(indexFileCapacity);
+        this.summaryEntryMask = ReplayIndexSummary.entryCount(indexFileCapacity) - 1;
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.errorHandler = errorHandler;
@@ -139,6 +151,7 @@ public class ReplayIndex implements Index
         positionReader = new IndexedPositionReader(positionBuffer);
         timeIndex = new TimeIndexWriter(
             logFileDir, requiredStreamId, timeIndexReplayFlushIntervalInNs, errorHandler);
+        messageBlockIndex = new MessageBlockIndexWriter(logFileDir, requiredStreamId, errorHandler);
     }
 
     private void checkPowerOfTwo(final String name, final int value)
@@ -275,6 +288,28 @@ public class ReplayIndex implements Index
         final boolean beginMessage = (flags & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG;
         final int aeronSessionId = header.sessionId();
 
+        final long blockRecordingId = recordingId == NULL_RECORDING_ID ?
+            recordingIdLookup.findRecordingId(aeronSessionId) : recordingId;
+        if (blockRecordingId != NULL_RECORDING_ID)
+        {
+            final long startPosition = endPosition -
+                BitUtil.align(srcLength + DataHeaderFlyweight.HEADER_LENGTH, FRAME_ALIGNMENT);
+            if (beginMessage && templateId == FixMessageEncoder.TEMPLATE_ID)
+            {
+                messageFrame.wrap(srcBuffer, offset, blockLength, version);
+                messageBlockIndex.onFixMessage(
+                    blockRecordingId,
+                    startPosition,
+                    endPosition,
+                    messageFrame.session(),
+                    MessageTypeExtractor.getMessageType(messageFrame));
+            }
+            else
+            {
+                messageBlockIndex.onFragment(blockRecordingId, startPosition, endPosition, beginMessage);
+            }
+        }
+
         if ((flags & UNFRAGMENTED) == UNFRAGMENTED || beginMessage)
         {
             switch (templateId)
@@ -458,6 +493,11 @@ public class ReplayIndex implements Index
             {
                 deleteFile(headerFile);
             }
+            final File summaryFile = replayIndexSummaryFile(fixSessionId);
+            if (summaryFile.exists())
+            {
+                deleteFile(summaryFile);
+            }
             for (int segmentIndex = 0; segmentIndex < segmentCount; segmentIndex++)
             {
                 final File segmentFile = replayIndexSegmentFile(fixSessionId, segmentIndex);
@@ -484,6 +524,7 @@ public class ReplayIndex implements Index
     {
         Exceptions.closeAll(
             timeIndex,
+            messageBlockIndex,
             positionWriter);
         fixSessionIdToIndex.values().forEach(SessionIndex::close);
         fixSessionIdToIndex.clear();
@@ -504,6 +545,9 @@ public class ReplayIndex implements Index
         private final UnsafeBuffer headerBuffer;
         private final File headerFile;
 
+        private final UnsafeBuffer summaryBuffer;
+        private final File summaryFile;
+
         private final UnsafeBuffer[] segmentBuffers;
         private final File[] segmentBufferFiles;
 
@@ -519,6 +563,29 @@ public class ReplayIndex implements Index
 
             headerFile = replayIndexHeaderFile(fixSessionId);
             final boolean exists = headerFile.exists();
+
+            // Mapped before the header so that a query that finds the header can also find the summary
+            summaryFile = replayIndexSummaryFile(fixSessionId);
+            if (summaryFileSize > 0)
+            {
+                boolean summaryExists = summaryFile.exists();
+                if (summaryExists && summaryFile.length() != summaryFileSize)
+                {
+                    // The index capacity has been reconfigured
+                    deleteFile(summaryFile);
+                    summaryExists = false;
+                }
+                summaryBuffer = mapUnsafeBuffer(summaryFileSize, summaryFile);
+                if (!exists || !summaryExists)
+                {
+                    ReplayIndexSummary.invalidate(summaryBuffer);
+                }
+            }
+            else
+            {
+                summaryBuffer = null;
+            }
+
             this.headerBuffer = mapUnsafeBuffer(HEADER_FILE_SIZE, headerFile);
 
             if (!exists)
@@ -594,6 +661,13 @@ public class ReplayIndex implements Index
                 .recordingId(recordingId)
                 .length(length);
 
+            final UnsafeBuffer summaryBuffer = this.summaryBuffer;
+            if (summaryBuffer != null && ReplayIndexSummary.isBlockStart(beginChangePosition))
+            {
+                ReplayIndexSummary.onBlockStart(
+                    summaryBuffer, summaryEntryMask, beginChangePosition, sequenceIndex, sequenceNumber);
+            }
+
             endChangeOrdered(headerBuffer, changePosition);
 
             if (timestamp != NO_TIMESTAMP)
@@ -621,6 +695,10 @@ public class ReplayIndex implements Index
 
             evictionHandler.onReset(fixSessionId);
             deleteFile(headerFile);
+            if (summaryFile.exists())
+            {
+                deleteFile(summaryFile);
+            }
 
             for (int segmentIndex = 0; segmentIndex < segmentCount; segmentIndex++)
             {
@@ -635,6 +713,10 @@ public class ReplayIndex implements Index
         public void close()
         {
             ReplayIndexDescriptor.unmapBuffers(headerBuffer, segmentBuffers);
+            if (summaryBuffer != null)
+            {
+                IoUtil.unmap(summaryBuffer.byteBuffer());
+            }
         }
 
         public void checkForNextSession(final boolean forNextSession)
@@ -656,6 +738,11 @@ public class ReplayIndex implements Index
         return ReplayIndexDescriptor.replayIndexHeaderFile(logFileDir, fixSessionId, requiredStreamId);
     }
 
+    private File replayIndexSummaryFile(final long fixSessionId)
+    {
+        return ReplayIndexSummary.replayIndexSummaryFile(logFileDir, fixSessionId, requiredStreamId);
+    }
+
     private File replayIndexSegmentFile(final long fixSessionId, final int segmentIndex)
     {
         return ReplayIndexDescriptor.replayIndexSegmentFile(logFileDir, fixSessionId, requiredStreamId, segmentIndex);
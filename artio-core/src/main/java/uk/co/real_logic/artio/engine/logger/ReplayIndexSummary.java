@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.concurrent.AtomicBuffer;
+
+import java.io.File;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+
+/**
+ * A sparse summary of a session's replay index that allows a {@link ReplayQuery} to binary search to the start of
+ * a query rather than scanning every record in the index.
+ *
+ * The index is split into fixed size blocks of {@link #RECORDS_PER_ENTRY} records and the summary holds one entry
+ * for the first record of each block. The summary is itself a ring buffer that wraps at the same point as the index.
+ *
+ * Each entry consists of:
+ *
+ * Position of the record in the index, or {@link #INVALID_POSITION} whilst the entry is being updated
+ * Sequence Index
+ * Sequence Number
+ *
+ * Entries are only used as a hint for where to start scanning: an entry whose position doesn't match the block that
+ * it's read for, for example because it was written by an older version or overwritten by the writer lapping the
+ * reader, causes the query to fall back to scanning from the start of the index.
+ */
+public final class ReplayIndexSummary
+{
+    public static final int RECORDS_PER_ENTRY = 64;
+    static final int BLOCK_SIZE = RECORDS_PER_ENTRY * RECORD_LENGTH;
+    static final int BLOCK_SIZE_BIT_SHIFT = Integer.numberOfTrailingZeros(BLOCK_SIZE);
+
+    static final long INVALID_POSITION = -1;
+    static final int POSITION_OFFSET = 0;
+    static final int SEQUENCE_INDEX_OFFSET = POSITION_OFFSET + BitUtil.SIZE_OF_LONG;
+    static final int SEQUENCE_NUMBER_OFFSET = SEQUENCE_INDEX_OFFSET + BitUtil.SIZE_OF_INT;
+    static final int ENTRY_LENGTH = SEQUENCE_NUMBER_OFFSET + BitUtil.SIZE_OF_INT;
+
+    private static final long NO_BLOCK = -1;
+
+    private ReplayIndexSummary()
+    {
+    }
+
+    static File replayIndexSummaryFile(final String logFileDir, final long fixSessionId, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-summary");
+    }
+
+    /**
+     * Calculate the size of a summary file for a replay index.
+     *
+     * @param indexFileCapacity the number of records in the replay index, a power of two.
+     * @return the size of the summary file in bytes, 0 if the index is too small to be worth summarising.
+     */
+    public static int summaryFileSize(final int indexFileCapacity)
+    {
+        return entryCount(indexFileCapacity) * ENTRY_LENGTH;
+    }
+
+    static int entryCount(final int indexFileCapacity)
+    {
+        return indexFileCapacity / RECORDS_PER_ENTRY;
+    }
+
+    static void invalidate(final AtomicBuffer summaryBuffer)
+    {
+        final int capacity = summaryBuffer.capacity();
+        for (int offset = 0; offset < capacity; offset += ENTRY_LENGTH)
+        {
+            summaryBuffer.putLong(offset + POSITION_OFFSET, INVALID_POSITION);
+        }
+    }
+
+    static boolean isBlockStart(final long position)
+    {
+        return (position & (BLOCK_SIZE - 1)) == 0;
+    }
+
+    /**
+     * Record the first record of a block. Must be called before the record's change is made visible to readers.
+     *
+     * @param summaryBuffer the summary to update.
+     * @param entryMask the number of entries in the summary - 1.
+     * @param position the position of the record within the index.
+     * @param sequenceIndex the sequence index of the record.
+     * @param sequenceNumber the sequence number of the record.
+     */
+    static void onBlockStart(
+        final AtomicBuffer summaryBuffer,
+        final int entryMask,
+        final long position,
+        final int sequenceIndex,
+        final int sequenceNumber)
+    {
+        final int offset = entryOffset(position >> BLOCK_SIZE_BIT_SHIFT, entryMask);
+        summaryBuffer.putLongOrdered(offset + POSITION_OFFSET, INVALID_POSITION);
+        UNSAFE.storeFence(); // StoreStore required so the entry isn't updated before it's invalidated.
+        summaryBuffer.putInt(offset + SEQUENCE_INDEX_OFFSET, sequenceIndex);
+        summaryBuffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+        summaryBuffer.putLongOrdered(offset + POSITION_OFFSET, position);
+    }
+
+    /**
+     * Binary search the summary for the position to start scanning a query from. This is the start of the last block
+     * whose first record sorts before the beginning of the query, since records are written in
+     * (sequenceIndex, sequenceNumber) order.
+     *
+     * @param summaryBuffer the summary to search.
+     * @param entryMask the number of entries in the summary - 1.
+     * @param fromPosition the earliest valid position within the index.
+     * @param toPosition the position that the index has been written up to.
+     * @param sequenceIndex the sequence index that the query begins at.
+     * @param sequenceNumber the sequence number that the query begins at.
+     * @return the position to start scanning from, fromPosition if the summary can't narrow down the query.
+     */
+    static long seekPosition(
+        final AtomicBuffer summaryBuffer,
+        final int entryMask,
+        final long fromPosition,
+        final long toPosition,
+        final int sequenceIndex,
+        final int sequenceNumber)
+    {
+        if (toPosition <= fromPosition)
+        {
+            return fromPosition;
+        }
+
+        long highBlock = (toPosition - 1) >> BLOCK_SIZE_BIT_SHIFT;
+        long lowBlock = Math.max((fromPosition + BLOCK_SIZE - 1) >> BLOCK_SIZE_BIT_SHIFT, highBlock - entryMask);
+        long foundBlock = NO_BLOCK;
+
+        while (lowBlock <= highBlock)
+        {
+            final long block = (lowBlock + highBlock) >>> 1;
+            final int offset = entryOffset(block, entryMask);
+            final long expectedPosition = block << BLOCK_SIZE_BIT_SHIFT;
+
+            final long position = summaryBuffer.getLongVolatile(offset + POSITION_OFFSET);
+            final int entrySequenceIndex = summaryBuffer.getInt(offset + SEQUENCE_INDEX_OFFSET);
+            final int entrySequenceNumber = summaryBuffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+            UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+            if (position != expectedPosition ||
+                position != summaryBuffer.getLongVolatile(offset + POSITION_OFFSET))
+            {
+                return fromPosition;
+            }
+
+            final boolean beforeQuery = entrySequenceIndex < sequenceIndex ||
+                (entrySequenceIndex == sequenceIndex && entrySequenceNumber < sequenceNumber);
+            if (beforeQuery)
+            {
+                foundBlock = block;
+                lowBlock = block + 1;
+            }
+            else
+            {
+                highBlock = block - 1;
+            }
+        }
+
+        if (foundBlock == NO_BLOCK)
+        {
+            return fromPosition;
+        }
+
+        return Math.max(fromPosition, foundBlock << BLOCK_SIZE_BIT_SHIFT);
+    }
+
+    private static int entryOffset(final long block, final int entryMask)
+    {
+        return (int)(block & entryMask) * ENTRY_LENGTH;
+    }
+}
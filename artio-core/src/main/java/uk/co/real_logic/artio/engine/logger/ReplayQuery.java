@@ -76,6 +76,8 @@ public class ReplayQuery implements AutoCloseable
     private final int segmentSizeBitShift;
     private final int segmentCount;
     private final long indexFileSize;
+    private final int summaryFileSize;
+    private final int summaryEntryMask;
 
     private Subscription replaySubscription;
 
@@ -106,6 +108,8 @@ public class ReplayQuery implements AutoCloseable
         this.segmentSize = ReplayIndexDescriptor.capacityToBytesInt(indexSegmentCapacity);
         this.segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
         this.segmentCount = ReplayIndexDescriptor.segmentCount(indexFileCapacity, indexSegmentCapacity);
+        this.summaryFileSize = ReplayIndexSummary.summaryFileSize(indexFileCapacity);
+        this.summaryEntryMask = ReplayIndexSummary.entryCount(indexFileCapacity) - 1;
 
         logFileDirFile = new File(logFileDir);
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
@@ -141,6 +145,33 @@ public class ReplayQuery implements AutoCloseable
             .query(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag, tracker);
     }
 
+    /**
+     * Looks up the recording ranges that hold a range of messages without starting a replay of them.
+     *
+     * @param sessionId the FIX session id of the stream to query.
+     * @param beginSequenceNumber sequence number to begin the query at (inclusive).
+     * @param beginSequenceIndex the sequence index to begin the query at (inclusive).
+     * @param endSequenceNumber sequence number to end the query at (inclusive).
+     * @param endSequenceIndex the sequence index to end the query at (inclusive).
+     * @return the recording ranges in the order that they should be replayed, or null if the session has no index.
+     */
+    public List<RecordingRange> queryRecordingRanges(
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex)
+    {
+        final SessionQuery sessionQuery = lookupSessionQuery(sessionId);
+        if (sessionQuery == null)
+        {
+            return null;
+        }
+
+        return sessionQuery.queryRanges(
+            beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, LogTag.INDEX);
+    }
+
     public void queryStartPositions(final Long2LongHashMap newStartPositions)
     {
         final LongHashSet allSessionIds = listReplayIndexSessionIds(logFileDirFile, requiredStreamId);
@@ -200,6 +231,10 @@ public class ReplayQuery implements AutoCloseable
         private final File headerFile;
         private final UnsafeBuffer headerBuffer;
         private final UnsafeBuffer[] segmentBuffers;
+        private final File summaryFile;
+
+        private UnsafeBuffer summaryBuffer;
+        private long missingSummaryChangePosition = NULL_VALUE;
 
         private final int actingBlockLength;
         private final int actingVersion;
@@ -209,6 +244,7 @@ public class ReplayQuery implements AutoCloseable
             segmentBuffers = new UnsafeBuffer[segmentCount];
             headerFile = replayIndexHeaderFile(logFileDir, fixSessionId, requiredStreamId);
             headerBuffer = new UnsafeBuffer(indexBufferFactory.map(headerFile));
+            summaryFile = ReplayIndexSummary.replayIndexSummaryFile(logFileDir, fixSessionId, requiredStreamId);
             this.fixSessionId = fixSessionId;
 
             messageFrameHeader.wrap(headerBuffer, 0);
@@ -216,7 +252,6 @@ public class ReplayQuery implements AutoCloseable
             actingVersion = messageFrameHeader.version();
         }
 
-        @SuppressWarnings("MethodLength")
         ReplayOperation query(
             final int beginSequenceNumber,
             final int beginSequenceIndex,
@@ -224,6 +259,20 @@ public class ReplayQuery implements AutoCloseable
             final int endSequenceIndex,
             final LogTag logTag,
             final MessageTracker messageTracker)
+        {
+            final List<RecordingRange> ranges = queryRanges(
+                beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag);
+
+            return newReplayOperation(ranges, logTag, messageTracker);
+        }
+
+        @SuppressWarnings("MethodLength")
+        List<RecordingRange> queryRanges(
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int endSequenceNumber,
+            final int endSequenceIndex,
+            final LogTag logTag)
         {
             final boolean log = IS_REPLAY_ATTEMPT_ENABLED && logTag == LogTag.REPLAY;
             if (log)
@@ -251,6 +300,7 @@ public class ReplayQuery implements AutoCloseable
 
             long iteratorPosition = getIteratorPosition();
             long stopIteratingPosition = iteratorPosition + indexFileSize;
+            iteratorPosition = seekStartPosition(iteratorPosition, beginSequenceIndex, beginSequenceNumber);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition < stopIteratingPosition)
@@ -330,7 +380,56 @@ public class ReplayQuery implements AutoCloseable
                 ranges.add(currentRange);
             }
 
-            return newReplayOperation(ranges, logTag, messageTracker);
+            return ranges;
+        }
+
+        private long seekStartPosition(
+            final long iteratorPosition, final int beginSequenceIndex, final int beginSequenceNumber)
+        {
+            final UnsafeBuffer summaryBuffer = summaryBuffer();
+            if (summaryBuffer == null)
+            {
+                return iteratorPosition;
+            }
+
+            return ReplayIndexSummary.seekPosition(
+                summaryBuffer,
+                summaryEntryMask,
+                iteratorPosition,
+                endChangeVolatile(headerBuffer),
+                beginSequenceIndex,
+                beginSequenceNumber);
+        }
+
+        private UnsafeBuffer summaryBuffer()
+        {
+            UnsafeBuffer summaryBuffer = this.summaryBuffer;
+            if (summaryBuffer != null || summaryFileSize == 0)
+            {
+                return summaryBuffer;
+            }
+
+            // Index files written by older versions don't have a summary until the writer next opens them, which it
+            // does before it next changes the index, so there's no point checking the file again until then.
+            final long changePosition = endChangeVolatile(headerBuffer);
+            if (changePosition == missingSummaryChangePosition)
+            {
+                return null;
+            }
+
+            if (summaryFile.exists())
+            {
+                summaryBuffer = new UnsafeBuffer(indexBufferFactory.map(summaryFile));
+                if (summaryBuffer.capacity() == summaryFileSize)
+                {
+                    this.summaryBuffer = summaryBuffer;
+                    return summaryBuffer;
+                }
+                IoUtil.unmap(summaryBuffer.byteBuffer());
+            }
+
+            missingSummaryChangePosition = changePosition;
+            return null;
         }
 
         private UnsafeBuffer segmentBuffer(
@@ -503,6 +602,10 @@ public class ReplayQuery implements AutoCloseable
         public void close()
         {
             IoUtil.unmap(headerBuffer.byteBuffer());
+            if (summaryBuffer != null)
+            {
+                IoUtil.unmap(summaryBuffer.byteBuffer());
+            }
             for (final UnsafeBuffer segmentBuffer : segmentBuffers)
             {
                 if (segmentBuffer != null)
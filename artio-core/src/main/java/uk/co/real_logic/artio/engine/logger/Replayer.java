@@ -109,6 +109,7 @@ public class Replayer extends AbstractReplayer
     private final EpochNanoClock clock;
     private final EngineConfiguration configuration;
     private final ReplayQuery outboundReplayQuery;
+    private final ReplayCache replayCache;
     private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
     private final int maxClaimAttempts;
@@ -120,6 +121,7 @@ public class Replayer extends AbstractReplayer
 
     public Replayer(
         final ReplayQuery outboundReplayQuery,
+        final ReplayCache replayCache,
         final ExclusivePublication publication,
         final BufferClaim bufferClaim,
         final IdleStrategy idleStrategy,
@@ -144,6 +146,7 @@ public class Replayer extends AbstractReplayer
     {
         super(publication, fixSessionCodecsFactory, bufferClaim, senderSequenceNumbers);
         this.outboundReplayQuery = outboundReplayQuery;
+        this.replayCache = replayCache;
         this.idleStrategy = idleStrategy;
         this.errorHandler = errorHandler;
         this.maxClaimAttempts = maxClaimAttempts;
@@ -457,7 +460,8 @@ public class Replayer extends AbstractReplayer
             maxBytesInBuffer,
             utcTimestampEncoder,
             this,
-            throttleRejectBuilder);
+            throttleRejectBuilder,
+            replayCache);
 
         fixReplayerSession.query();
 
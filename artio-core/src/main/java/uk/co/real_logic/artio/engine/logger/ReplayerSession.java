@@ -78,6 +78,11 @@ abstract class ReplayerSession implements ControlledFragmentHandler
     }
 
     void query()
+    {
+        query(messageTracker());
+    }
+
+    void query(final MessageTracker messageTracker)
     {
         replayOperation = replayQuery.query(
             sessionId,
@@ -86,7 +91,7 @@ abstract class ReplayerSession implements ControlledFragmentHandler
             endSeqNo,
             sequenceIndex,
             REPLAY,
-            messageTracker());
+            messageTracker);
     }
 
     abstract MessageTracker messageTracker();
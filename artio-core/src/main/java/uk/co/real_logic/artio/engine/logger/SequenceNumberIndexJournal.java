@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.LangUtil;
+import org.agrona.collections.IntArrayList;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
+
+/**
+ * Write ahead journal of the sectors that are about to be overwritten in place in a sequence number index file.
+ * If a crash tears the in place write the journal is replayed over the index file on startup.
+ * <p>
+ * Entries: a series of (int sector offset, sector bytes)
+ * Trailer: int number of entries, long CRC32 of the entries
+ */
+class SequenceNumberIndexJournal implements AutoCloseable
+{
+    private static final int ENTRY_LENGTH = SIZE_OF_INT + SECTOR_SIZE;
+    private static final int TRAILER_LENGTH = SIZE_OF_INT + SIZE_OF_LONG;
+
+    private final CRC32 crc32 = new CRC32();
+    private final UnsafeBuffer journalBuffer = new UnsafeBuffer(new byte[0]);
+    private final RandomAccessFile file;
+
+    SequenceNumberIndexJournal(final File location)
+    {
+        RandomAccessFile file = null;
+        try
+        {
+            file = new RandomAccessFile(location, "rw");
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.file = file;
+    }
+
+    /**
+     * Replays a complete journal over the index file. An incomplete journal means that the in place write
+     * never started, so it is discarded.
+     *
+     * @param indexBuffer the buffer of the mapped index file.
+     * @return true if the journal was replayed and the index file needs to be forced to disk.
+     * @throws IOException if the journal can't be read.
+     */
+    boolean recover(final AtomicBuffer indexBuffer) throws IOException
+    {
+        final int length = (int)file.length();
+        if (length < TRAILER_LENGTH)
+        {
+            return false;
+        }
+
+        final UnsafeBuffer journalBuffer = ensureCapacity(length);
+        file.seek(0);
+        file.readFully(journalBuffer.byteArray(), 0, length);
+
+        final int entriesLength = length - TRAILER_LENGTH;
+        final int entryCount = journalBuffer.getInt(entriesLength);
+        final long checksum = journalBuffer.getLong(entriesLength + SIZE_OF_INT);
+        if (entryCount * ENTRY_LENGTH != entriesLength || checksum(entriesLength) != checksum)
+        {
+            clear();
+            return false;
+        }
+
+        for (int offset = 0; offset < entriesLength; offset += ENTRY_LENGTH)
+        {
+            final int sectorOffset = journalBuffer.getInt(offset);
+            indexBuffer.putBytes(sectorOffset, journalBuffer, offset + SIZE_OF_INT, SECTOR_SIZE);
+        }
+
+        return true;
+    }
+
+    /**
+     * Durably journals the given sectors of the buffer before they're written to the index file.
+     *
+     * @param buffer the in memory buffer of the sequence number index.
+     * @param sectorOffsets the offsets of the sectors to journal.
+     * @throws IOException if the journal can't be written.
+     */
+    void write(final AtomicBuffer buffer, final IntArrayList sectorOffsets) throws IOException
+    {
+        final int entryCount = sectorOffsets.size();
+        final int entriesLength = entryCount * ENTRY_LENGTH;
+        final int length = entriesLength + TRAILER_LENGTH;
+        final UnsafeBuffer journalBuffer = ensureCapacity(length);
+
+        int offset = 0;
+        for (int i = 0; i < entryCount; i++)
+        {
+            final int sectorOffset = sectorOffsets.getInt(i);
+            journalBuffer.putInt(offset, sectorOffset);
+            journalBuffer.putBytes(offset + SIZE_OF_INT, buffer, sectorOffset, SECTOR_SIZE);
+            offset += ENTRY_LENGTH;
+        }
+        journalBuffer.putInt(entriesLength, entryCount);
+        journalBuffer.putLong(entriesLength + SIZE_OF_INT, checksum(entriesLength));
+
+        file.seek(0);
+        file.write(journalBuffer.byteArray(), 0, length);
+        file.setLength(length);
+        file.getFD().sync();
+    }
+
+    /**
+     * Discards the journal once the index file has been forced to disk. Replaying the journal is idempotent so
+     * this doesn't need to be synced.
+     *
+     * @throws IOException if the journal can't be truncated.
+     */
+    void clear() throws IOException
+    {
+        file.setLength(0);
+    }
+
+    public void close() throws IOException
+    {
+        file.close();
+    }
+
+    private long checksum(final int entriesLength)
+    {
+        crc32.reset();
+        crc32.update(journalBuffer.byteArray(), 0, entriesLength);
+        return crc32.getValue();
+    }
+
+    private UnsafeBuffer ensureCapacity(final int length)
+    {
+        final UnsafeBuffer journalBuffer = this.journalBuffer;
+        if (journalBuffer.capacity() < length)
+        {
+            journalBuffer.wrap(new byte[length]);
+        }
+        return journalBuffer;
+    }
+}
@@ -22,6 +22,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.collections.CollectionUtil;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.AtomicBuffer;
@@ -44,6 +45,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
@@ -119,6 +121,14 @@ public class SequenceNumberIndexWriter implements Index
     private long lastUpdatedFileTimeInMs;
     private boolean hasSavedRecordSinceFileUpdate = false;
 
+    // Incremental flush state
+    private final boolean incrementalFlush;
+    private final SequenceNumberIndexJournal journal;
+    private final IntArrayList dirtySectorOffsets = new IntArrayList();
+    private final IntConsumer addDirtySectorFunc = dirtySectorOffsets::addInt;
+    private final IntConsumer addDirtyPositionSectorFunc = this::addDirtyPositionSector;
+    private boolean requiresFullFlush = true;
+
     public SequenceNumberIndexWriter(
         final SequenceNumberExtractor sequenceNumberExtractor,
         final AtomicBuffer inMemoryBuffer,
@@ -133,6 +143,41 @@ public class SequenceNumberIndexWriter implements Index
         final FixPProtocolType fixPProtocolType,
         final boolean indexChecksumEnabled,
         final boolean logMessages)
+    {
+        this(
+            sequenceNumberExtractor,
+            inMemoryBuffer,
+            indexFile,
+            errorHandler,
+            streamId,
+            recordingIdLookup,
+            indexFileStateFlushTimeoutInMs,
+            clock,
+            metaDataDir,
+            connectionIdToFixPSessionId,
+            fixPProtocolType,
+            indexChecksumEnabled,
+            logMessages,
+            false,
+            false);
+    }
+
+    public SequenceNumberIndexWriter(
+        final SequenceNumberExtractor sequenceNumberExtractor,
+        final AtomicBuffer inMemoryBuffer,
+        final MappedFile indexFile,
+        final ErrorHandler errorHandler,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup,
+        final long indexFileStateFlushTimeoutInMs,
+        final EpochClock clock,
+        final String metaDataDir,
+        final Long2LongHashMap connectionIdToFixPSessionId,
+        final FixPProtocolType fixPProtocolType,
+        final boolean indexChecksumEnabled,
+        final boolean logMessages,
+        final boolean incrementalFlush,
+        final boolean incrementalFlushJournal)
     {
         this.sequenceNumberExtractor = sequenceNumberExtractor;
         this.inMemoryBuffer = inMemoryBuffer;
@@ -150,6 +195,9 @@ public class SequenceNumberIndexWriter implements Index
         writablePath = writeableFile.toPath();
         passingPlacePath = passingFile(indexFilePath).toPath();
         writableFile = MappedFile.map(writeableFile, fileCapacity);
+        this.incrementalFlush = incrementalFlush;
+        journal = incrementalFlush && incrementalFlushJournal ?
+            new SequenceNumberIndexJournal(journalFile(indexFilePath)) : null;
 
         // TODO: Fsync parent directory
         indexedPositionsOffset = positionTableOffset(fileCapacity);
@@ -158,6 +206,7 @@ public class SequenceNumberIndexWriter implements Index
             indexChecksumEnabled);
         try
         {
+            recoverJournal();
             initialiseBuffer();
             if (logMessages)
             {
@@ -186,7 +235,7 @@ public class SequenceNumberIndexWriter implements Index
         }
         catch (final Exception e)
         {
-            CloseHelper.close(writableFile);
+            CloseHelper.closeAll(writableFile, journal);
             indexFile.close();
             throw e;
         }
@@ -688,6 +737,7 @@ public class SequenceNumberIndexWriter implements Index
         initialiseBlankBuffer();
         recordOffsets.clear();
         resetMetaDataFile();
+        requiresFullFlush = true;
     }
 
     private void resetMetaDataFile()
@@ -724,17 +774,109 @@ public class SequenceNumberIndexWriter implements Index
 
     private void updateFile()
     {
-        checksumFramer.updateChecksums();
-        if (positionWriter != null)
+        if (incrementalFlush && !requiresFullFlush)
         {
-            positionWriter.updateChecksums();
+            updateFileIncrementally();
+        }
+        else
+        {
+            checksumFramer.updateChecksums();
+            checksumFramer.clearDirtySectors();
+            if (positionWriter != null)
+            {
+                positionWriter.updateChecksums();
+                positionWriter.clearDirtySectors();
+            }
+            discardJournal();
+            saveFile();
+            flipFiles();
+            requiresFullFlush = false;
         }
-        saveFile();
-        flipFiles();
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
     }
 
+    // Only writes the sectors that have changed since the last flush, in place into the index file.
+    private void updateFileIncrementally()
+    {
+        final IntArrayList dirtySectorOffsets = this.dirtySectorOffsets;
+        dirtySectorOffsets.clear();
+        checksumFramer.updateDirtyChecksums(addDirtySectorFunc);
+        if (positionWriter != null)
+        {
+            positionWriter.updateDirtyChecksums(addDirtyPositionSectorFunc);
+        }
+
+        try
+        {
+            if (journal != null)
+            {
+                journal.write(inMemoryBuffer, dirtySectorOffsets);
+            }
+
+            final AtomicBuffer fileBuffer = indexFile.buffer();
+            for (int i = 0, size = dirtySectorOffsets.size(); i < size; i++)
+            {
+                final int sectorOffset = dirtySectorOffsets.getInt(i);
+                fileBuffer.putBytes(sectorOffset, inMemoryBuffer, sectorOffset, SECTOR_SIZE);
+            }
+            indexFile.force();
+            syncMetaDataFile();
+
+            if (journal != null)
+            {
+                journal.clear();
+            }
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+            // Fall back to writing the whole file on the next flush
+            requiresFullFlush = true;
+        }
+    }
+
+    private void addDirtyPositionSector(final int sectorStart)
+    {
+        dirtySectorOffsets.addInt(indexedPositionsOffset + sectorStart);
+    }
+
+    // A stale journal must never be replayed over a file written in full.
+    private void discardJournal()
+    {
+        if (journal != null)
+        {
+            dirtySectorOffsets.clear();
+            try
+            {
+                journal.write(inMemoryBuffer, dirtySectorOffsets);
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+    }
+
+    private void recoverJournal()
+    {
+        if (journal != null)
+        {
+            try
+            {
+                if (journal.recover(indexFile.buffer()))
+                {
+                    indexFile.force();
+                    journal.clear();
+                }
+            }
+            catch (final IOException e)
+            {
+                LangUtil.rethrowUnchecked(e);
+            }
+        }
+    }
+
     private void saveFile()
     {
         writableFile.buffer().putBytes(0, inMemoryBuffer, 0, fileCapacity);
@@ -818,7 +960,7 @@ public class SequenceNumberIndexWriter implements Index
         }
         finally
         {
-            Exceptions.closeAll(indexFile, writableFile, reader, () ->
+            Exceptions.closeAll(indexFile, writableFile, reader, journal, () ->
             {
                 if (metaDataFile != null)
                 {
@@ -1068,6 +1210,7 @@ public class SequenceNumberIndexWriter implements Index
         final long value)
     {
         inMemoryBuffer.putLongOrdered(recordOffset + MESSAGE_POSITION_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private void putSequenceNumber(
@@ -1075,6 +1218,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private int getSequenceNumber(final int recordOffset)
@@ -1092,6 +1236,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + META_DATA_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private int getMetaData(
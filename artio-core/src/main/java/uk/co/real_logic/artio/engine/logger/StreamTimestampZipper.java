@@ -24,19 +24,18 @@ import uk.co.real_logic.artio.ArtioLogHeader;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 import uk.co.real_logic.artio.messages.*;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
 
 import static java.lang.Math.min;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
 
+/**
+ * Merges the messages from several streams into timestamp order. Messages that can't be handed off yet are copied
+ * into a reorder buffer and merged from a primitive min heap per stream, so this doesn't allocate per message.
+ */
 public class StreamTimestampZipper implements AutoCloseable
 {
-    private static final TimestampComparator TIMESTAMP_COMPARATOR = new TimestampComparator();
-    private static final UnstableReverseTimestampComparator REVERSE_TIMESTAMP_COMPARATOR =
-        new UnstableReverseTimestampComparator();
-    private static final OffsetComparator OFFSET_COMPARATOR = new OffsetComparator();
+    private static final int INITIAL_BUFFERED_CAPACITY = 64;
 
     private final int maximumBufferSize;
     private final int compactionSize;
@@ -46,7 +45,13 @@ public class StreamTimestampZipper implements AutoCloseable
     private final ExpandableArrayBuffer reorderBuffer;
     private final boolean lazilyCompact;
 
-    private final ArrayList<BufferedPosition> positions = new ArrayList<>();
+    // Messages in the order they were put into the reorder buffer, so their offsets ascend. A null owner marks a
+    // message that has been handed off, these are removed by compaction.
+    private long[] bufferedTimestamps = new long[INITIAL_BUFFERED_CAPACITY];
+    private int[] bufferedOffsets = new int[INITIAL_BUFFERED_CAPACITY];
+    private int[] bufferedLengths = new int[INITIAL_BUFFERED_CAPACITY];
+    private StreamPoller[] bufferedOwners = new StreamPoller[INITIAL_BUFFERED_CAPACITY];
+    private int bufferedCount;
 
     private int reorderBufferOffset;
 
@@ -101,94 +106,162 @@ public class StreamTimestampZipper implements AutoCloseable
 
     private int processReorderBuffer(final StreamPoller[] pollers, final int fragmentLimit)
     {
-        final ArrayList<BufferedPosition> positions = this.positions;
+        final LogEntryHandler logEntryHandler = this.logEntryHandler;
 
         int read = 0;
-        positions.sort(REVERSE_TIMESTAMP_COMPARATOR);
-
-        final int lastIndex = positions.size() - 1;
-        int i = lastIndex;
-        for (; i >= 0; i--)
+        while (true)
         {
-            final BufferedPosition position = positions.get(i);
-            final long timestamp = position.timestamp;
-            final StreamPoller owner = position.owner;
-            final long timestampLowWaterMark = findMinLowWaterMark(pollers, owner);
+            final StreamPoller owner = findMinBufferedOwner(pollers);
+            if (owner == null)
+            {
+                break;
+            }
 
-            if (timestamp <= timestampLowWaterMark)
+            final int index = owner.peekBuffered();
+            final long timestamp = bufferedTimestamps[index];
+            final long timestampLowWaterMark = findMinLowWaterMark(pollers, owner);
+            if (timestamp > timestampLowWaterMark)
             {
-                owner.handledTimestamp(timestamp);
-                owner.elementsInBuffer--;
-                logEntryHandler.owner = owner;
-                logEntryHandler.onBufferedMessage(position.offset, position.length);
-                read++;
+                break;
+            }
 
-                updateOwnerTimestamp(positions, i, owner);
+            owner.popBuffered();
+            owner.handledTimestamp(timestamp);
+            bufferedOwners[index] = null;
+            logEntryHandler.owner = owner;
+            logEntryHandler.onBufferedMessage(bufferedOffsets[index], bufferedLengths[index]);
+            read++;
 
-                if (read >= fragmentLimit)
-                {
-                    break;
-                }
-            }
-            else
+            if (read >= fragmentLimit)
             {
                 break;
             }
         }
 
-        i++;
+        return read;
+    }
 
-        for (int j = lastIndex; j >= i; j--)
+    // k-way merge step: the stream whose earliest buffered message is the earliest overall, or null if empty.
+    private StreamPoller findMinBufferedOwner(final StreamPoller[] pollers)
+    {
+        StreamPoller minOwner = null;
+        int minIndex = 0;
+        for (int i = 0; i < pollers.length; i++)
         {
-            positions.remove(j);
+            final StreamPoller poller = pollers[i];
+            if (poller.bufferedSize > 0)
+            {
+                final int index = poller.peekBuffered();
+                if (minOwner == null || isBefore(index, minIndex))
+                {
+                    minOwner = poller;
+                    minIndex = index;
+                }
+            }
         }
 
-        return read;
+        return minOwner;
     }
 
-    private void updateOwnerTimestamp(
-        final ArrayList<BufferedPosition> positions, final int i, final StreamPoller owner)
+    // Messages with an equal timestamp are handed off in the order that they were buffered.
+    private boolean isBefore(final int index, final int otherIndex)
     {
-        // Find the next entry with the same owner and set the owner's timestamp to the next
-        // timestamp
-        for (int j = i - 1; j >= 0; j--)
+        final long timestamp = bufferedTimestamps[index];
+        final long otherTimestamp = bufferedTimestamps[otherIndex];
+        return timestamp < otherTimestamp ||
+            (timestamp == otherTimestamp && bufferedOffsets[index] < bufferedOffsets[otherIndex]);
+    }
+
+    private int addBufferedPosition(
+        final StreamPoller owner, final long timestamp, final int offset, final int length)
+    {
+        final int index = bufferedCount;
+        if (index == bufferedOwners.length)
         {
-            final BufferedPosition remainingPosition = positions.get(j);
-            if (remainingPosition.owner == owner)
-            {
-                // don't go through method here because this might increase the min buffered timestamp.
-                owner.minBufferedTimestamp = remainingPosition.timestamp;
-                return;
-            }
+            final int newCapacity = index << 1;
+            bufferedTimestamps = Arrays.copyOf(bufferedTimestamps, newCapacity);
+            bufferedOffsets = Arrays.copyOf(bufferedOffsets, newCapacity);
+            bufferedLengths = Arrays.copyOf(bufferedLengths, newCapacity);
+            bufferedOwners = Arrays.copyOf(bufferedOwners, newCapacity);
         }
 
-        owner.nothingBuffered();
+        bufferedTimestamps[index] = timestamp;
+        bufferedOffsets[index] = offset;
+        bufferedLengths[index] = length;
+        bufferedOwners[index] = owner;
+        bufferedCount = index + 1;
+
+        return index;
     }
 
-    private boolean compact()
+    private void compact()
     {
-        if (reorderBufferOffset > compactionSize)
+        if (isNothingBuffered())
+        {
+            // Every message has been handed off so the reorder buffer can be reused from the start without copying
+            bufferedCount = 0;
+            reorderBufferOffset = 0;
+        }
+        else if (reorderBufferOffset > compactionSize)
         {
-            positions.sort(OFFSET_COMPARATOR);
+            final long[] bufferedTimestamps = this.bufferedTimestamps;
+            final int[] bufferedOffsets = this.bufferedOffsets;
+            final int[] bufferedLengths = this.bufferedLengths;
+            final StreamPoller[] bufferedOwners = this.bufferedOwners;
+            final int bufferedCount = this.bufferedCount;
+
             int reorderBufferOffset = 0;
-            for (final BufferedPosition position : positions)
+            int compactedCount = 0;
+            for (int i = 0; i < bufferedCount; i++)
             {
-                final int offset = position.offset;
-                // No compaction possible
-                if (offset == reorderBufferOffset)
+                final StreamPoller owner = bufferedOwners[i];
+                if (owner == null)
+                {
+                    continue;
+                }
+
+                final int offset = bufferedOffsets[i];
+                final int length = bufferedLengths[i];
+                if (offset != reorderBufferOffset)
                 {
-                    return false;
+                    reorderBuffer.putBytes(reorderBufferOffset, reorderBuffer, offset, length);
                 }
 
-                final int length = position.length;
-                position.offset = reorderBufferOffset;
-                reorderBuffer.putBytes(reorderBufferOffset, reorderBuffer, offset, length);
+                bufferedTimestamps[compactedCount] = bufferedTimestamps[i];
+                bufferedOffsets[compactedCount] = reorderBufferOffset;
+                bufferedLengths[compactedCount] = length;
+                bufferedOwners[compactedCount] = owner;
+                compactedCount++;
 
                 final int newReorderBufferOffset = reorderBufferOffset + length;
                 validateReorderBufferOffset(length, reorderBufferOffset, newReorderBufferOffset);
                 reorderBufferOffset = newReorderBufferOffset;
             }
+
+            Arrays.fill(bufferedOwners, compactedCount, bufferedCount, null);
+            this.bufferedCount = compactedCount;
             this.reorderBufferOffset = reorderBufferOffset;
+
+            // Compaction preserves the order of the messages, but the heaps refer to their old indices
+            for (final StreamPoller poller : pollers)
+            {
+                poller.clearBuffered();
+            }
+            for (int i = 0; i < compactedCount; i++)
+            {
+                bufferedOwners[i].pushBuffered(i);
+            }
+        }
+    }
+
+    private boolean isNothingBuffered()
+    {
+        for (final StreamPoller poller : pollers)
+        {
+            if (poller.bufferedSize > 0)
+            {
+                return false;
+            }
         }
 
         return true;
@@ -207,23 +280,21 @@ public class StreamTimestampZipper implements AutoCloseable
     private void dumpBuffer()
     {
         final LogEntryHandler logEntryHandler = this.logEntryHandler;
-        final List<BufferedPosition> positions = this.positions;
-        final int size = positions.size();
-
-        positions.sort(TIMESTAMP_COMPARATOR);
+        final StreamPoller[] pollers = this.pollers;
+        // The buffer is dumped part way through buffering a message, which still belongs to the stream being polled
+        final StreamPoller pollingOwner = logEntryHandler.owner;
 
-        for (int i = 0; i < size; i++)
+        StreamPoller owner;
+        while ((owner = findMinBufferedOwner(pollers)) != null)
         {
-            final BufferedPosition position = positions.get(i);
-            logEntryHandler.owner = position.owner;
-            logEntryHandler.onBufferedMessage(position.offset, position.length);
+            final int index = owner.popBuffered();
+            logEntryHandler.owner = owner;
+            logEntryHandler.onBufferedMessage(bufferedOffsets[index], bufferedLengths[index]);
         }
+        logEntryHandler.owner = pollingOwner;
 
-        positions.clear();
-        for (final StreamPoller poller : pollers)
-        {
-            poller.elementsInBuffer = 0;
-        }
+        Arrays.fill(bufferedOwners, 0, bufferedCount, null);
+        bufferedCount = 0;
         reorderBufferOffset = 0;
     }
 
@@ -237,65 +308,6 @@ public class StreamTimestampZipper implements AutoCloseable
         }
     }
 
-    static class BufferedPosition
-    {
-        final StreamPoller owner;
-        final long timestamp;
-        int offset;
-        final int length;
-
-        BufferedPosition(final StreamPoller owner, final long timestamp, final int offset, final int length)
-        {
-            this.owner = owner;
-            this.timestamp = timestamp;
-            this.offset = offset;
-            this.length = length;
-        }
-
-        public String toString()
-        {
-            return "BufferedPosition{" +
-                "owner=" + owner.poller.streamId() +
-                ", timestamp=" + timestamp +
-                ", offset=" + offset +
-                ", length=" + length +
-                '}';
-        }
-    }
-
-    static class TimestampComparator implements Comparator<BufferedPosition>
-    {
-        public int compare(final BufferedPosition o1, final BufferedPosition o2)
-        {
-            return Long.compare(o1.timestamp, o2.timestamp);
-        }
-    }
-
-    static class UnstableReverseTimestampComparator implements Comparator<BufferedPosition>
-    {
-        public int compare(final BufferedPosition o1, final BufferedPosition o2)
-        {
-            final int timestampCompare = Long.compare(o2.timestamp, o1.timestamp);
-
-            // When we have two messages with an equal timestamp we don't want to have a stable sort, we want it to
-            // reverse the origin positions, so we then compare based upon the offset of the positions.
-            if (timestampCompare == 0)
-            {
-                return Long.compare(o2.offset, o1.offset);
-            }
-
-            return timestampCompare;
-        }
-    }
-
-    static class OffsetComparator implements Comparator<BufferedPosition>
-    {
-        public int compare(final BufferedPosition o1, final BufferedPosition o2)
-        {
-            return Long.compare(o1.offset, o2.offset);
-        }
-    }
-
     class StreamPoller
     {
         private static final long NOTHING_BUFFERED = -1;
@@ -305,7 +317,9 @@ public class StreamTimestampZipper implements AutoCloseable
         private long minBufferedTimestamp = NOTHING_BUFFERED;
         private long maxHandledTimestamp;
         private boolean isDrained = false;
-        private int elementsInBuffer = 0;
+        // Min heap of the indices of this stream's buffered messages
+        private int[] bufferedHeap = new int[INITIAL_BUFFERED_CAPACITY];
+        private int bufferedSize = 0;
 
         StreamPoller(final Poller poller)
         {
@@ -332,20 +346,88 @@ public class StreamTimestampZipper implements AutoCloseable
             maxHandledTimestamp = Math.max(maxHandledTimestamp, timestamp);
         }
 
-        void bufferedTimestamp(final long timestamp)
+        void pushBuffered(final int index)
         {
-            if (minBufferedTimestamp == NOTHING_BUFFERED)
+            int[] heap = bufferedHeap;
+            int child = bufferedSize;
+            if (child == heap.length)
             {
-                minBufferedTimestamp = timestamp;
+                heap = Arrays.copyOf(heap, child << 1);
+                bufferedHeap = heap;
             }
-            else
+            bufferedSize = child + 1;
+
+            while (child > 0)
+            {
+                final int parent = (child - 1) >> 1;
+                final int parentIndex = heap[parent];
+                if (!isBefore(index, parentIndex))
+                {
+                    break;
+                }
+
+                heap[child] = parentIndex;
+                child = parent;
+            }
+            heap[child] = index;
+
+            minBufferedTimestamp = bufferedTimestamps[heap[0]];
+        }
+
+        int peekBuffered()
+        {
+            return bufferedHeap[0];
+        }
+
+        int popBuffered()
+        {
+            final int[] heap = bufferedHeap;
+            final int top = heap[0];
+            final int size = bufferedSize - 1;
+            bufferedSize = size;
+
+            if (size == 0)
             {
-                minBufferedTimestamp = min(minBufferedTimestamp, timestamp);
+                minBufferedTimestamp = NOTHING_BUFFERED;
+                return top;
             }
+
+            final int last = heap[size];
+            int parent = 0;
+            while (true)
+            {
+                int child = (parent << 1) + 1;
+                if (child >= size)
+                {
+                    break;
+                }
+
+                int childIndex = heap[child];
+                final int right = child + 1;
+                if (right < size && isBefore(heap[right], childIndex))
+                {
+                    child = right;
+                    childIndex = heap[right];
+                }
+
+                if (!isBefore(childIndex, last))
+                {
+                    break;
+                }
+
+                heap[parent] = childIndex;
+                parent = child;
+            }
+            heap[parent] = last;
+
+            // don't go through handledTimestamp() here because this might increase the min buffered timestamp.
+            minBufferedTimestamp = bufferedTimestamps[heap[0]];
+            return top;
         }
 
-        public void nothingBuffered()
+        void clearBuffered()
         {
+            bufferedSize = 0;
             minBufferedTimestamp = NOTHING_BUFFERED;
         }
 
@@ -375,7 +457,7 @@ public class StreamTimestampZipper implements AutoCloseable
                 return false;
             }
 
-            if (elementsInBuffer > 0)
+            if (bufferedSize > 0)
             {
                 return false;
             }
@@ -558,10 +640,8 @@ public class StreamTimestampZipper implements AutoCloseable
             }
 
             final int reorderBufferOffset = StreamTimestampZipper.this.reorderBufferOffset;
-            owner.bufferedTimestamp(timestamp);
-            owner.elementsInBuffer++;
             reorderBuffer.putBytes(reorderBufferOffset, buffer, start, length);
-            positions.add(new BufferedPosition(owner, timestamp, reorderBufferOffset, length));
+            owner.pushBuffered(addBufferedPosition(owner, timestamp, reorderBufferOffset, length));
 
             final int newReorderBufferOffset = reorderBufferOffset + length;
             StreamTimestampZipper.this.reorderBufferOffset = newReorderBufferOffset;
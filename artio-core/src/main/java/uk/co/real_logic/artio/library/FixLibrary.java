@@ -81,6 +81,8 @@ public class FixLibrary extends GatewayProcess
         {
             scheduler.configure(configuration.aeronContext());
             init(configuration, configuration.libraryId());
+            fixCounters.adaptiveIdleStrategyCounters(
+                configuration.libraryIdleStrategy(), "Library " + configuration.libraryId());
             final LibraryTimers timers = new LibraryTimers(
                 configuration.epochNanoClock(), fixCounters.negativeTimestamps());
             initMonitoringAgent(timers.all(), configuration, null, null);
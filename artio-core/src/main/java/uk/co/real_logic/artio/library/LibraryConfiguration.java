@@ -118,7 +118,9 @@ public final class LibraryConfiguration extends CommonConfiguration
     }
 
     /**
-     * Sets the idle strategy for the FIX library instance.
+     * Sets the idle strategy for the FIX library instance. An {@link uk.co.real_logic.artio.AdaptiveIdleStrategy}
+     * also gets counters for its phase and the time spent in each phase, passing the work count returned from
+     * {@link FixLibrary#poll(int)} to it lets it adapt to how busy the library is.
      *
      * @param libraryIdleStrategy the idle strategy for the FIX library instance.
      * @return this
@@ -122,6 +122,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final List<Session> unmodifiableSessions = new UnmodifiableWrapper<>(() -> sessions);
     private final List<Session> unmodifiablePendingInitiatorSessions =
         new UnmodifiableWrapper<>(() -> pendingInitiatorSessions);
+    private final SessionPollScheduler sessionPollScheduler;
 
     private final Long2ObjectHashMap<FixPSubscription> connectionIdToFixPSubscription =
         new Long2ObjectHashMap<>();
@@ -139,6 +140,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final SessionIdStrategy sessionIdStrategy;
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer handlerTimer;
     private final SessionExistsHandler sessionExistsHandler;
     private final boolean enginesAreClustered;
     private final ErrorHandler errorHandler;
@@ -246,12 +248,14 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
         this.sessionTimer = timers.sessionTimer();
         this.receiveTimer = timers.receiveTimer();
+        this.handlerTimer = timers.handlerTimer();
 
         this.configuration = configuration;
         this.sessionIdStrategy = configuration.sessionIdStrategy();
         this.sessionExistsHandler = configuration.sessionExistsHandler();
         this.epochClock = epochClock;
         epochNanoClock = configuration.epochNanoClock();
+        sessionPollScheduler = new SessionPollScheduler(epochNanoClock.nanoTime());
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
         this.errorHandler = errorHandler;
         this.epochFractionClock = EpochFractionClocks.create(
@@ -394,6 +398,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     void disableSession(final InternalSession session)
     {
         sessions = ArrayUtil.remove(sessions, session);
+        sessionPollScheduler.remove(session);
         session.disable();
         cacheSession(session);
     }
@@ -819,14 +824,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInNs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
-
-        for (int i = 0, size = sessions.length; i < size; i++)
-        {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInNs);
-        }
+        int total = sessionPollScheduler.poll(timeInNs);
 
         final long timeInMs = System.currentTimeMillis();
         final InternalFixPConnection[] binaryFixPConnections = this.fixPConnections;
@@ -853,6 +851,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
                 sessions = ArrayUtil.add(sessions, session);
+                sessionPollScheduler.add(session);
             }
             else
             {
@@ -903,9 +902,23 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     //                     BEGIN EVENT HANDLERS
     // -----------------------------------------------------------------------
 
-    private final ControlledFragmentHandler outboundSubscription = new ControlledFragmentAssembler(
+    private final ControlledFragmentHandler inboundAssembler = new ControlledFragmentAssembler(
         ProtocolSubscription.of(this, new LibraryProtocolSubscription(this)));
 
+    private final ControlledFragmentHandler outboundSubscription = this::onInboundFragment;
+
+    private Action onInboundFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        // Messages that the engine has tagged for another library are skipped before reassembly or decoding.
+        if (ReservedValue.isForAnotherLibrary(header, libraryId))
+        {
+            return CONTINUE;
+        }
+
+        return inboundAssembler.onFragment(buffer, offset, length, header);
+    }
+
     public Action onManageSession(
         final int libraryId,
         final long connectionId,
@@ -1221,6 +1234,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         else
         {
             sessions = ArrayUtil.add(sessions, session);
+            sessionPollScheduler.add(session);
         }
     }
 
@@ -1291,6 +1305,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     if (!isEngineOwned)
                     {
                         sessions = ArrayUtil.add(sessions, session);
+                        sessionPollScheduler.add(session);
                     }
                 }
 
@@ -1300,6 +1315,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                 {
                     session.close();
                     sessions = ArrayUtil.remove(sessions, session);
+                    sessionPollScheduler.remove(session);
                     cacheSession(session);
                 }
             }
@@ -1827,6 +1843,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                         }
                     }
                 }
+                sessionPollScheduler.remove(session);
                 session.disable();
                 // TODO: Maybe we shouldn't be creating a lot of arrays and batch this up?
                 sessions = ArrayUtil.remove(sessions, i);
@@ -2200,6 +2217,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             session,
             receiveTimer,
             sessionTimer,
+            handlerTimer,
             this,
             configuration.replyTimeoutInMs(),
             errorHandler);
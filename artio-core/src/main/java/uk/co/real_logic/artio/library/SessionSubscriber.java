@@ -43,6 +43,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
     private final InternalSession session;
     private final Timer receiveTimer;
     private final Timer sessionTimer;
+    private final Timer handlerTimer;
     private final LibraryPoller libraryPoller;
     private final long replyTimeoutInMs;
     private final ErrorHandler errorHandler;
@@ -58,6 +59,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         final InternalSession session,
         final Timer receiveTimer,
         final Timer sessionTimer,
+        final Timer handlerTimer,
         final LibraryPoller libraryPoller,
         final long replyTimeoutInMs,
         final ErrorHandler errorHandler)
@@ -67,6 +69,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         this.session = session;
         this.receiveTimer = receiveTimer;
         this.sessionTimer = sessionTimer;
+        this.handlerTimer = handlerTimer;
         this.libraryPoller = libraryPoller;
         this.replyTimeoutInMs = replyTimeoutInMs;
         this.errorHandler = errorHandler;
@@ -111,6 +114,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                             timestamp,
                             position,
                             info);
+                        handlerTimer.recordSince(now);
 
                         if (handlerAction != ABORT)
                         {
@@ -131,6 +135,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
 
                         lastReceivedPosition = position;
 
+                        final long handlerStartTime = handlerTimer.currentTime(now);
                         final Action handlerAction = handler.onMessage(
                             buffer,
                             offset,
@@ -142,6 +147,7 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                             timestamp,
                             position,
                             info);
+                        handlerTimer.recordSince(handlerStartTime);
 
                         if (handlerAction == ABORT)
                         {
@@ -156,7 +162,8 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                     }
 
                 case CATCHUP_REPLAY:
-                    return handler.onMessage(
+                {
+                    final Action handlerAction = handler.onMessage(
                         buffer,
                         offset,
                         length,
@@ -167,6 +174,9 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
                         timestamp,
                         position,
                         info);
+                    handlerTimer.recordSince(now);
+                    return handlerAction;
+                }
 
                 default:
                     return CONTINUE;
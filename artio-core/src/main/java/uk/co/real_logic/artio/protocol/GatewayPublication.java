@@ -181,6 +181,8 @@ public class GatewayPublication extends ClaimablePublication
     private final EpochNanoClock clock;
     private final int maxPayloadLength;
 
+    private boolean partitionByLibrary = false;
+
     public GatewayPublication(
         final ExclusivePublication dataPublication,
         final AtomicCounter fails,
@@ -193,6 +195,19 @@ public class GatewayPublication extends ClaimablePublication
         this.maxPayloadLength = dataPublication.maxPayloadLength();
     }
 
+    /**
+     * Tag the Aeron frames of each FIX message that is saved with the id of the library that it is for, so that
+     * libraries can skip messages for other libraries, see {@link ReservedValue}.
+     *
+     * @param partitionByLibrary true to tag messages with their library id.
+     * @return this
+     */
+    public GatewayPublication partitionByLibrary(final boolean partitionByLibrary)
+    {
+        this.partitionByLibrary = partitionByLibrary;
+        return this;
+    }
+
     public long saveMessage(
         final DirectBuffer srcBuffer,
         final int srcOffset,
@@ -357,6 +372,7 @@ public class GatewayPublication extends ClaimablePublication
             .putMetaData(metaDataBuffer, 0, metaDataLength)
             .putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
 
+        tagLibraryId(bufferClaim, libraryId);
         if (!fragmented)
         {
             bufferClaim.commit();
@@ -383,6 +399,7 @@ public class GatewayPublication extends ClaimablePublication
 
                 remaining -= srcFragmentLength;
                 bufferClaim.buffer().putBytes(bufferClaim.offset(), srcBuffer, srcFragmentOffset, srcFragmentLength);
+                tagLibraryId(bufferClaim, libraryId);
                 bufferClaim.flags(remaining > 0 ? MIDDLE_FLAG : (byte)END_FLAG).commit();
             }
         }
@@ -390,6 +407,112 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    private void tagLibraryId(final BufferClaim bufferClaim, final int libraryId)
+    {
+        // Every fragment is tagged so that libraries can skip a message before reassembling it.
+        if (partitionByLibrary)
+        {
+            bufferClaim.reservedValue(ReservedValue.ofLibraryId(libraryId));
+        }
+    }
+
+    /**
+     * The longest FIX message that can be claimed with
+     * {@link #claimMessage(int, int, long, long, int, long, MessageStatus, int, BufferClaim)}, longer messages have to
+     * be fragmented so must be copied in with saveMessage.
+     *
+     * @return the length in bytes of the longest FIX message that can be claimed.
+     */
+    public int maxClaimableMessageLength()
+    {
+        return maxPayloadLength - FRAMED_MESSAGE_SIZE;
+    }
+
+    /**
+     * Claim space for a FIX message of a known length so that it can be written directly into the publication
+     * rather than being copied in. The message body starts at {@link #FRAMED_MESSAGE_SIZE} bytes after the
+     * claim's offset and the claim must be committed with {@link #commitMessage(BufferClaim)} or aborted by the
+     * caller.
+     *
+     * @param messageLength the length of the FIX message, must not exceed {@link #maxClaimableMessageLength()}.
+     * @param libraryId the library id that the message is sent from.
+     * @param messageType the long encoded message type.
+     * @param sessionId the id of the session that the message is sent on.
+     * @param sequenceIndex the sequence index of the message.
+     * @param connectionId the connection id to send the message to.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param bufferClaim the claim to wrap around the claimed space.
+     * @return the position of the end of the message if the claim succeeded, otherwise a negative error value.
+     */
+    public long claimMessage(
+        final int messageLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final BufferClaim bufferClaim)
+    {
+        if (messageLength > maxClaimableMessageLength())
+        {
+            throw new IllegalArgumentException(
+                "Message of length " + messageLength + " is too large to claim, max is " +
+                maxClaimableMessageLength());
+        }
+
+        final long position = claim(FRAMED_MESSAGE_SIZE + messageLength, bufferClaim);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        int offset = bufferClaim.offset();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        header.wrap(destBuffer, offset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        offset += header.encodedLength();
+
+        fixMessage.wrap(destBuffer, offset)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(0) // stamped when the message is committed
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .metaDataUpdateOffset(0)
+            .putMetaData(NO_METADATA, 0, 0);
+
+        putBodyLength(messageLength, offset, 0, destBuffer);
+        tagLibraryId(bufferClaim, libraryId);
+
+        return position;
+    }
+
+    /**
+     * Commit a FIX message that was claimed with
+     * {@link #claimMessage(int, int, long, long, int, long, MessageStatus, int, BufferClaim)}. The message is
+     * timestamped when it's committed, like a message that is copied in, rather than when its space was claimed.
+     *
+     * @param bufferClaim the claim that the message was written into.
+     */
+    public void commitMessage(final BufferClaim bufferClaim)
+    {
+        fixMessage
+            .wrap(bufferClaim.buffer(), bufferClaim.offset() + header.encodedLength())
+            .timestamp(clock.nanoTime());
+        bufferClaim.commit();
+    }
+
     private void putBodyLength(
         final int srcLength, final int offset, final int metaDataLength, final MutableDirectBuffer destBuffer)
     {
@@ -18,7 +18,14 @@ package uk.co.real_logic.artio.protocol;
 import io.aeron.logbuffer.Header;
 
 /**
- * 8 byte reserved word is used with the
+ * Encodes and decodes the 8 byte reserved value of an Aeron frame header.
+ *
+ * The high 4 bytes hold a checksum. When the engine partitions inbound messages by library the low 4 bytes of an
+ * inbound FIX message's frame hold the id of the library that the message is for, or {@link #NO_FILTER} if it hasn't
+ * been tagged.
+ *
+ * The low 4 bytes used to hold a cluster stream id. The accessors for it are deprecated as Artio no longer writes
+ * one, and for a frame that has been tagged with a library id they return the library id.
  */
 public final class ReservedValue
 {
@@ -26,6 +33,14 @@ public final class ReservedValue
 
     private static final int BITS_IN_INT = 32;
 
+    /**
+     * Encodes a cluster stream id into the low 4 bytes of a reserved value.
+     *
+     * @param clusterStreamId the cluster stream id to encode.
+     * @return the reserved value.
+     * @deprecated the low 4 bytes of the reserved value now hold a library id, see {@link #ofLibraryId(int)}.
+     */
+    @Deprecated
     public static long ofClusterStreamId(final int clusterStreamId)
     {
         return clusterStreamId & 0xFFFFFFFFL;
@@ -36,22 +51,55 @@ public final class ReservedValue
         return ((long)checksum) << BITS_IN_INT;
     }
 
+    /**
+     * Encodes a cluster stream id and checksum into a reserved value.
+     *
+     * @param clusterStreamId the cluster stream id to encode.
+     * @param checksum the checksum to encode.
+     * @return the reserved value.
+     * @deprecated the low 4 bytes of the reserved value now hold a library id, see {@link #ofLibraryId(int)}.
+     */
+    @Deprecated
     public static long of(final int clusterStreamId, final int checksum)
     {
         return ofChecksum(checksum) | ofClusterStreamId(clusterStreamId);
     }
 
+    /**
+     * Decodes the cluster stream id from the low 4 bytes of a reserved value.
+     *
+     * @param reservedValue the reserved value.
+     * @return the cluster stream id.
+     * @deprecated the low 4 bytes of the reserved value now hold a library id, see {@link #libraryId(Header)}.
+     */
+    @Deprecated
     public static int clusterStreamId(final long reservedValue)
     {
         return (int)reservedValue;
     }
 
+    /**
+     * Decodes the cluster stream id from the reserved value of a frame.
+     *
+     * @param header the header of the frame.
+     * @return the cluster stream id.
+     * @deprecated the low 4 bytes of the reserved value now hold a library id, see {@link #libraryId(Header)}.
+     */
+    @Deprecated
     public static int clusterStreamId(final Header header)
     {
         final long reservedValue = header.reservedValue();
         return clusterStreamId(reservedValue);
     }
 
+    /**
+     * Gets the cluster stream id of a frame, falling back to its Aeron stream id.
+     *
+     * @param header the header of the frame.
+     * @return the cluster stream id, or the Aeron stream id if the frame has none.
+     * @deprecated the low 4 bytes of the reserved value now hold a library id, so use {@link Header#streamId()}.
+     */
+    @Deprecated
     public static int streamId(final Header header)
     {
         final int clusterStreamId = clusterStreamId(header);
@@ -63,6 +111,42 @@ public final class ReservedValue
         return clusterStreamId;
     }
 
+    /**
+     * Encodes the id of the library that a frame is for into the low 4 bytes of a reserved value.
+     *
+     * @param libraryId the id of the library.
+     * @return the reserved value.
+     */
+    public static long ofLibraryId(final int libraryId)
+    {
+        return libraryId & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Decodes the id of the library that a frame is for.
+     *
+     * @param header the header of the frame.
+     * @return the id of the library, or {@link #NO_FILTER} if the frame hasn't been tagged.
+     */
+    public static int libraryId(final Header header)
+    {
+        return (int)header.reservedValue();
+    }
+
+    /**
+     * Checks whether a frame was tagged for a library other than the given one, so can be skipped by that library.
+     * Frames that haven't been tagged are never skipped.
+     *
+     * @param header the header of the frame.
+     * @param libraryId the id of the library that is reading the frame.
+     * @return true if the frame is for another library, false otherwise.
+     */
+    public static boolean isForAnotherLibrary(final Header header, final int libraryId)
+    {
+        final int taggedLibraryId = libraryId(header);
+        return taggedLibraryId != NO_FILTER && taggedLibraryId != libraryId;
+    }
+
     public static int checksum(final long reservedValue)
     {
         return (int)(reservedValue >> BITS_IN_INT);
@@ -119,6 +119,29 @@ public class DirectSessionProxy implements SessionProxy
         final int libraryId,
         final ErrorHandler errorHandler,
         final EpochFractionFormat epochFractionPrecision)
+    {
+        this(
+            new MutableAsciiBuffer(new byte[sessionBufferSize]),
+            gatewayPublication,
+            sessionIdStrategy,
+            customisationStrategy,
+            clock,
+            connectionId,
+            libraryId,
+            errorHandler,
+            epochFractionPrecision);
+    }
+
+    public DirectSessionProxy(
+        final MutableAsciiBuffer buffer,
+        final GatewayPublication gatewayPublication,
+        final SessionIdStrategy sessionIdStrategy,
+        final SessionCustomisationStrategy customisationStrategy,
+        final EpochNanoClock clock,
+        final long connectionId,
+        final int libraryId,
+        final ErrorHandler errorHandler,
+        final EpochFractionFormat epochFractionPrecision)
     {
         this.gatewayPublication = gatewayPublication;
         this.sessionIdStrategy = sessionIdStrategy;
@@ -126,7 +149,7 @@ public class DirectSessionProxy implements SessionProxy
         this.clock = clock;
         this.connectionId = connectionId;
         this.libraryId = libraryId;
-        this.buffer = new MutableAsciiBuffer(new byte[sessionBufferSize]);
+        this.buffer = buffer;
         this.errorHandler = errorHandler;
         lowSequenceNumber = new AsciiFormatter("MsgSeqNum too low, expecting %s but received %s");
         timestampEncoder = new UtcTimestampEncoder(epochFractionPrecision);
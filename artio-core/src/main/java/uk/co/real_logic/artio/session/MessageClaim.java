@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import io.aeron.logbuffer.BufferClaim;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAMED_MESSAGE_SIZE;
+
+/**
+ * Space claimed on a session's outbound publication that a FIX message of a known length can be written into, see
+ * {@link Session#tryClaim(int, int, long, MessageClaim)}.
+ *
+ * A claim object can be reused for many messages, but only one message at a time. Once the message has been written
+ * into {@link #buffer()} the claim must be committed or aborted before anything else is sent by the same library.
+ */
+public final class MessageClaim
+{
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer();
+    private final MutableAsciiBuffer copyBuffer = new MutableAsciiBuffer(new byte[0]);
+
+    private Session session;
+    private boolean copyOnCommit;
+    private long position;
+    private int length;
+    private int sequenceNumber;
+    private long messageType;
+
+    /**
+     * Gets the buffer to write the FIX message into. The message must start at offset 0 and be exactly as long as the
+     * length that was claimed.
+     *
+     * @return the buffer to write the FIX message into.
+     */
+    public MutableAsciiBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Gets the length of the FIX message that was claimed.
+     *
+     * @return the length of the FIX message that was claimed.
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * Sends the message that has been written into the claim.
+     *
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status. An error status can only be returned if the message was too large to
+     * claim directly and had to be copied into the publication.
+     * @throws IllegalStateException if there's no message claimed.
+     */
+    public long commit()
+    {
+        final Session session = checkClaimed();
+        this.session = null;
+
+        if (copyOnCommit)
+        {
+            return session.trySend(buffer, 0, length, sequenceNumber, messageType);
+        }
+
+        session.commitClaim(bufferClaim, sequenceNumber, messageType, buffer, length, position);
+        return position;
+    }
+
+    /**
+     * Discards the message that has been claimed without sending it.
+     *
+     * @throws IllegalStateException if there's no message claimed.
+     */
+    public void abort()
+    {
+        checkClaimed();
+        session = null;
+
+        if (!copyOnCommit)
+        {
+            bufferClaim.abort();
+        }
+    }
+
+    BufferClaim bufferClaim()
+    {
+        return bufferClaim;
+    }
+
+    void claimed(
+        final Session session,
+        final int length,
+        final int sequenceNumber,
+        final long messageType,
+        final long position)
+    {
+        onClaim(session, length, sequenceNumber, messageType);
+        this.copyOnCommit = false;
+        this.position = position;
+        buffer.wrap(bufferClaim.buffer(), bufferClaim.offset() + FRAMED_MESSAGE_SIZE, length);
+    }
+
+    void copyOnCommit(final Session session, final int length, final int sequenceNumber, final long messageType)
+    {
+        onClaim(session, length, sequenceNumber, messageType);
+        this.copyOnCommit = true;
+
+        // The claim's own buffer is used so that the message can't be overwritten by anything else the session sends
+        final MutableAsciiBuffer copyBuffer = this.copyBuffer;
+        if (copyBuffer.capacity() < length)
+        {
+            copyBuffer.wrap(new byte[length]);
+        }
+        buffer.wrap(copyBuffer, 0, length);
+    }
+
+    private void onClaim(final Session session, final int length, final int sequenceNumber, final long messageType)
+    {
+        if (this.session != null)
+        {
+            throw new IllegalStateException("Claim is already in use for sequence number " + this.sequenceNumber);
+        }
+
+        this.session = session;
+        this.length = length;
+        this.sequenceNumber = sequenceNumber;
+        this.messageType = messageType;
+    }
+
+    private Session checkClaimed()
+    {
+        final Session session = this.session;
+        if (session == null)
+        {
+            throw new IllegalStateException("No message has been claimed");
+        }
+        return session;
+    }
+}
@@ -64,6 +64,34 @@ class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
             header.senderCompID(), remoteCompIDLength);
     }
 
+    public boolean supportsAcceptLogonLookup()
+    {
+        return true;
+    }
+
+    public int acceptLogonHashCode(final SessionHeaderDecoder header)
+    {
+        return CompositeKeyImpl.hash(
+            CodecUtil.hashCode(header.targetCompID(), 0, header.targetCompIDLength()),
+            CodecUtil.hashCode(header.senderCompID(), 0, header.senderCompIDLength()));
+    }
+
+    public boolean matchesAcceptLogon(final CompositeKey compositeKey, final SessionHeaderDecoder header)
+    {
+        if (!(compositeKey instanceof CompositeKeyImpl))
+        {
+            return false;
+        }
+
+        final CompositeKeyImpl key = (CompositeKeyImpl)compositeKey;
+        final int localCompIDLength = header.targetCompIDLength();
+        final int remoteCompIDLength = header.senderCompIDLength();
+
+        return localCompIDLength != 0 && remoteCompIDLength != 0 &&
+            CodecUtil.equals(header.targetCompID(), key.localCompID, localCompIDLength) &&
+            CodecUtil.equals(header.senderCompID(), key.remoteCompID, remoteCompIDLength);
+    }
+
     public CompositeKey onInitiateLogon(
         final String localCompId,
         final String localSubId,
@@ -160,20 +188,20 @@ class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
         {
             this.localCompID = Arrays.copyOf(localCompID, localCompIDLength);
             this.remoteCompID = Arrays.copyOf(remoteCompID, remoteCompIDLength);
-            hashCode = hash(this.localCompID, this.remoteCompID);
+            hashCode = hash(Arrays.hashCode(this.localCompID), Arrays.hashCode(this.remoteCompID));
         }
 
         private CompositeKeyImpl(final byte[] localCompID, final byte[] remoteCompID)
         {
             this.localCompID = CodecUtil.fromBytes(localCompID);
             this.remoteCompID = CodecUtil.fromBytes(remoteCompID);
-            hashCode = hash(this.localCompID, this.remoteCompID);
+            hashCode = hash(Arrays.hashCode(this.localCompID), Arrays.hashCode(this.remoteCompID));
         }
 
-        private int hash(final char[] senderCompID, final char[] targetCompID)
+        private static int hash(final int localCompIDHash, final int remoteCompIDHash)
         {
-            int result = Arrays.hashCode(senderCompID);
-            result = 31 * result + Arrays.hashCode(targetCompID);
+            int result = localCompIDHash;
+            result = 31 * result + remoteCompIDHash;
             return result;
         }
 
@@ -65,6 +65,37 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
             header.senderCompID(), remoteCompIDLength);
     }
 
+    public boolean supportsAcceptLogonLookup()
+    {
+        return true;
+    }
+
+    public int acceptLogonHashCode(final SessionHeaderDecoder header)
+    {
+        return CompositeKeyImpl.hash(
+            CodecUtil.hashCode(header.targetCompID(), 0, header.targetCompIDLength()),
+            CodecUtil.hashCode(header.senderSubID(), 0, header.senderSubIDLength()),
+            CodecUtil.hashCode(header.senderCompID(), 0, header.senderCompIDLength()));
+    }
+
+    public boolean matchesAcceptLogon(final CompositeKey compositeKey, final SessionHeaderDecoder header)
+    {
+        if (!(compositeKey instanceof CompositeKeyImpl))
+        {
+            return false;
+        }
+
+        final CompositeKeyImpl key = (CompositeKeyImpl)compositeKey;
+        final int localCompIDLength = header.targetCompIDLength();
+        final int localSubIDLength = header.senderSubIDLength();
+        final int remoteCompIDLength = header.senderCompIDLength();
+
+        return localCompIDLength != 0 && localSubIDLength != 0 && remoteCompIDLength != 0 &&
+            CodecUtil.equals(header.targetCompID(), key.localCompID, localCompIDLength) &&
+            CodecUtil.equals(header.senderSubID(), key.localSubID, localSubIDLength) &&
+            CodecUtil.equals(header.senderCompID(), key.remoteCompID, remoteCompIDLength);
+    }
+
     public CompositeKey onInitiateLogon(
         final String localCompId,
         final String localSubId,
@@ -175,7 +206,10 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
             this.localCompID = Arrays.copyOf(localCompID, localCompIDLength);
             this.remoteCompID = Arrays.copyOf(remoteCompID, remoteCompIDLength);
             this.localSubID = Arrays.copyOf(localSubID, localSubIDLength);
-            hashCode = hash(this.localCompID, this.localSubID, this.remoteCompID);
+            hashCode = hash(
+                Arrays.hashCode(this.localCompID),
+                Arrays.hashCode(this.localSubID),
+                Arrays.hashCode(this.remoteCompID));
         }
 
         private CompositeKeyImpl(
@@ -186,14 +220,17 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
             this.localCompID = CodecUtil.fromBytes(localCompID);
             this.localSubID = CodecUtil.fromBytes(localSubID);
             this.remoteCompID = CodecUtil.fromBytes(remoteCompID);
-            hashCode = hash(this.localCompID, this.localSubID, this.remoteCompID);
+            hashCode = hash(
+                Arrays.hashCode(this.localCompID),
+                Arrays.hashCode(this.localSubID),
+                Arrays.hashCode(this.remoteCompID));
         }
 
-        private int hash(final char[] localCompID, final char[] localSubID, final char[] remoteCompID)
+        private static int hash(final int localCompIDHash, final int localSubIDHash, final int remoteCompIDHash)
         {
-            int result = Arrays.hashCode(localCompID);
-            result = 31 * result + Arrays.hashCode(localSubID);
-            result = 31 * result + Arrays.hashCode(remoteCompID);
+            int result = localCompIDHash;
+            result = 31 * result + localSubIDHash;
+            result = 31 * result + remoteCompIDHash;
             return result;
         }
 
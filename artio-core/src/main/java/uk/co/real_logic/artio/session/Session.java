@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.session;
 
 import io.aeron.Publication;
+import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
 import org.agrona.Verify;
@@ -94,6 +95,7 @@ public class Session
     private static final long NO_OPERATION = MIN_VALUE;
     static final long LIBRARY_DISCONNECTED = NO_OPERATION + 1;
     private static final int INITIAL_SEQUENCE_NUMBER = 1;
+    private static final long CLAIMED = 1;
     public static final long NO_REPLAY_CORRELATION_ID = 0;
 
     /**
@@ -203,6 +205,12 @@ public class Session
 
     private byte[] logoutText;
 
+    // Owned by the SessionPollScheduler, if any, that polls this session.
+    SessionPollScheduler pollScheduler;
+    long pollTimerId = SessionPollScheduler.NO_TIMER;
+    long pollTimerDeadlineInNs;
+    boolean awakeForPoll;
+
     Session(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -793,6 +801,55 @@ public class Session
         return position;
     }
 
+    /**
+     * Tries to claim space for a FIX message of a known length on this session so that the message can be written
+     * directly into the in memory log buffer without first being encoded into the session's buffer and then copied.
+     * This suits messages whose length is known before they are written, for example those rendered from a
+     * template. Once the message has been written into {@link MessageClaim#buffer()} it is sent by calling
+     * {@link MessageClaim#commit()}. See {{@link #trySend(Encoder)}} for scenarios where this could fail.
+     *
+     * Messages that are too large to be written into the log buffer without fragmentation are written into a buffer
+     * owned by the claim instead and copied into the log buffer when committed. They can be no larger than the
+     * session's buffer.
+     *
+     * @param length      the length of the FIX message to claim space for
+     * @param seqNum      the sequence number of the message that will be sent
+     * @param messageType the long encoded message type.
+     * @param claim       the claim to wrap around the claimed space.
+     * @return a positive number if the claim succeeded or a negative number indicating an error status.
+     * @throws IndexOutOfBoundsException if the message is too large to be fragmented, if this happens consider
+     *                                   increasing {@link CommonConfiguration#sessionBufferSize(int)}
+     * @throws IllegalStateException if the claim is already in use.
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     */
+    public long tryClaim(final int length, final int seqNum, final long messageType, final MessageClaim claim)
+    {
+        if (length > outboundPublication.maxClaimableMessageLength())
+        {
+            if (length > asciiBuffer.capacity())
+            {
+                throw new IndexOutOfBoundsException(
+                    "Message of length " + length + " is larger than the session buffer: " + asciiBuffer.capacity());
+            }
+
+            claim.copyOnCommit(this, length, seqNum, messageType);
+            return CLAIMED;
+        }
+
+        final long connectionId = this.state == ACTIVE ? this.connectionId : NO_CONNECTION_ID;
+        final long position = outboundPublication.claimMessage(
+            length, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum, claim.bufferClaim());
+
+        if (position > 0)
+        {
+            claim.claimed(this, length, seqNum, messageType, position);
+            return CLAIMED;
+        }
+
+        return position;
+    }
+
     /**
      * Deprecated, uses should be removed. This method will be removed in a future version.
      *
@@ -1191,6 +1248,20 @@ public class Session
         return Pressure.apply(requestDisconnect(DisconnectReason.INVALID_FIX_MESSAGE));
     }
 
+    void commitClaim(
+        final BufferClaim bufferClaim,
+        final int seqNum,
+        final long messageType,
+        final DirectBuffer messageBuffer,
+        final int length,
+        final long position)
+    {
+        outboundPublication.commitMessage(bufferClaim);
+        lastSentMsgSeqNum(seqNum, position);
+
+        DebugLogger.logFixMessage(FIX_MESSAGE, messageType, "Sent ", messageBuffer, 0, length);
+    }
+
     private void lastSentMsgSeqNum(final int sentSeqNum, final long position)
     {
         if (position >= 0)
@@ -2289,17 +2360,29 @@ public class Session
         incNextReceivedInboundMessageTime(timeInNs);
         sendingHeartbeatIntervalInNs = (long)(heartbeatIntervalInNs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInNs = timeInNs + sendingHeartbeatIntervalInNs;
+        wakePollScheduler();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        wakePollScheduler();
         return this;
     }
 
     void id(final long id)
     {
         this.id = id;
+        wakePollScheduler();
+    }
+
+    private void wakePollScheduler()
+    {
+        final SessionPollScheduler pollScheduler = this.pollScheduler;
+        if (pollScheduler != null)
+        {
+            pollScheduler.wake(this);
+        }
     }
 
     protected long timeInNs()
@@ -2493,6 +2576,46 @@ public class Session
         }
     }
 
+    /**
+     * Gets the time at which {@link #poll(long)} next needs to be called, assuming that the session doesn't change
+     * state or heartbeat interval in the meantime.
+     *
+     * @return the time in nanoseconds, {@link SessionPollScheduler#POLL_NEXT_CYCLE} if the session needs to be polled
+     * on every duty cycle or {@link SessionPollScheduler#NO_DEADLINE} if it doesn't need to be polled.
+     */
+    long pollDeadlineInNs()
+    {
+        final short state = state().value();
+        switch (state)
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return SessionPollScheduler.POLL_NEXT_CYCLE;
+
+            case AWAITING_LOGOUT_VALUE:
+                return awaitingLogoutTimeoutInNs + 1;
+
+            case DISCONNECTED_VALUE:
+            case DISABLED_VALUE:
+            case AWAITING_ASYNC_PROXY_LOGOUT_VALUE:
+                return SessionPollScheduler.NO_DEADLINE;
+
+            default:
+            {
+                if (connectionType == ConnectionType.INITIATOR && state == CONNECTED_VALUE && id() != UNKNOWN)
+                {
+                    return SessionPollScheduler.POLL_NEXT_CYCLE;
+                }
+
+                final long nextRequiredInboundMessageTimeInNs = this.nextRequiredInboundMessageTimeInNs;
+                return state == ACTIVE_VALUE ?
+                    Math.min(nextRequiredHeartbeatTimeInNs, nextRequiredInboundMessageTimeInNs) :
+                    nextRequiredInboundMessageTimeInNs;
+            }
+        }
+    }
+
     private int initiatorPoll()
     {
         int actions = 0;
@@ -67,6 +67,43 @@ public interface SessionIdStrategy
      */
     CompositeKey onAcceptLogon(SessionHeaderDecoder header) throws IllegalArgumentException;
 
+    /**
+     * Whether this strategy implements {@link #acceptLogonHashCode(SessionHeaderDecoder)} and
+     * {@link #matchesAcceptLogon(CompositeKey, SessionHeaderDecoder)}. This lets the engine find the key of a known
+     * session when you accept a logon without allocating a new key.
+     *
+     * @return true if the accept logon lookup methods are implemented, false otherwise.
+     */
+    default boolean supportsAcceptLogonLookup()
+    {
+        return false;
+    }
+
+    /**
+     * Computes the hash code of the key that {@link #onAcceptLogon(SessionHeaderDecoder)} would create for
+     * a logon without allocating it.
+     *
+     * @param header the header of the logon message.
+     * @return the hash code of the composite session key.
+     */
+    default int acceptLogonHashCode(final SessionHeaderDecoder header)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks whether the key that {@link #onAcceptLogon(SessionHeaderDecoder)} would create for a logon is equal to
+     * an existing key, without allocating it.
+     *
+     * @param compositeKey the existing key.
+     * @param header the header of the logon message.
+     * @return true if the keys are equal, false if they aren't or the header is missing a required field.
+     */
+    default boolean matchesAcceptLogon(final CompositeKey compositeKey, final SessionHeaderDecoder header)
+    {
+        return false;
+    }
+
     /**
      * Creates the composite session key when you initiate a logon.
      *
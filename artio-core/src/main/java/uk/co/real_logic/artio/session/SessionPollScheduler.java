@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Schedules the polling of a library's sessions so that a duty cycle only polls those sessions whose next deadline,
+ * for example to send a heartbeat or to time out a logout, has expired or whose state has changed since they were
+ * last polled, rather than every session.
+ *
+ * Sessions register their next deadline in a timer wheel after each poll. A session is woken up to be polled on the
+ * next duty cycle when it changes state or heartbeat interval, since either can bring its deadline forward. Deadlines
+ * that move later, for example when a message is sent, don't need to wake a session up: the session is just polled
+ * early and reschedules itself.
+ */
+public final class SessionPollScheduler implements DeadlineTimerWheel.TimerHandler
+{
+    static final long POLL_NEXT_CYCLE = Long.MIN_VALUE;
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    static final long NO_TIMER = -1;
+
+    // ~1ms ticks, heartbeat deadlines are normally seconds away
+    private static final long TICK_RESOLUTION_IN_NS = 1 << 20;
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private final Long2ObjectHashMap<Session> timerIdToSession = new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel timerWheel;
+
+    private ArrayList<Session> awakeSessions = new ArrayList<>();
+    private ArrayList<Session> pollingSessions = new ArrayList<>();
+
+    public SessionPollScheduler(final long startTimeInNs)
+    {
+        timerWheel = new DeadlineTimerWheel(NANOSECONDS, startTimeInNs, TICK_RESOLUTION_IN_NS, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Start scheduling polls of a session, the session is polled on the next duty cycle.
+     *
+     * @param session the session to poll.
+     */
+    public void add(final Session session)
+    {
+        session.pollScheduler = this;
+        wake(session);
+    }
+
+    /**
+     * Stop scheduling polls of a session.
+     *
+     * @param session the session to stop polling.
+     */
+    public void remove(final Session session)
+    {
+        if (session.pollScheduler != this)
+        {
+            return;
+        }
+
+        cancelTimer(session);
+        session.pollScheduler = null;
+        if (session.awakeForPoll)
+        {
+            session.awakeForPoll = false;
+            awakeSessions.remove(session);
+        }
+    }
+
+    /**
+     * Poll the sessions that have an expired deadline or have been woken up since the last duty cycle.
+     *
+     * @param timeInNs the current time.
+     * @return the number of actions performed by the sessions.
+     */
+    public int poll(final long timeInNs)
+    {
+        // The wheel advances by at most one tick per poll, so catch up if the duty cycle has been slower than a tick.
+        int ticks = 0;
+        do
+        {
+            timerWheel.poll(timeInNs, this, Integer.MAX_VALUE);
+        }
+        while (timerWheel.currentTickTime() <= timeInNs && ++ticks < TICKS_PER_WHEEL);
+
+        // Sessions woken up whilst polling are polled on the next duty cycle.
+        final ArrayList<Session> pollingSessions = awakeSessions;
+        awakeSessions = this.pollingSessions;
+        this.pollingSessions = pollingSessions;
+
+        int total = 0;
+        for (int i = 0, size = pollingSessions.size(); i < size; i++)
+        {
+            final Session session = pollingSessions.get(i);
+            if (session.pollScheduler == this && session.awakeForPoll)
+            {
+                session.awakeForPoll = false;
+                total += session.poll(timeInNs);
+                schedule(session);
+            }
+        }
+        pollingSessions.clear();
+
+        return total;
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final Session session = timerIdToSession.remove(timerId);
+        if (session != null)
+        {
+            session.pollTimerId = NO_TIMER;
+            wake(session);
+        }
+
+        return true;
+    }
+
+    void wake(final Session session)
+    {
+        if (!session.awakeForPoll)
+        {
+            session.awakeForPoll = true;
+            awakeSessions.add(session);
+        }
+    }
+
+    private void schedule(final Session session)
+    {
+        final long deadlineInNs = session.pollDeadlineInNs();
+        if (session.pollTimerId != NO_TIMER)
+        {
+            if (session.pollTimerDeadlineInNs == deadlineInNs)
+            {
+                return;
+            }
+
+            cancelTimer(session);
+        }
+
+        if (deadlineInNs == POLL_NEXT_CYCLE)
+        {
+            wake(session);
+        }
+        else if (deadlineInNs != NO_DEADLINE)
+        {
+            final long timerId = timerWheel.scheduleTimer(deadlineInNs);
+            timerIdToSession.put(timerId, session);
+            session.pollTimerId = timerId;
+            session.pollTimerDeadlineInNs = deadlineInNs;
+        }
+    }
+
+    private void cancelTimer(final Session session)
+    {
+        final long timerId = session.pollTimerId;
+        if (timerId != NO_TIMER)
+        {
+            timerWheel.cancelTimer(timerId);
+            timerIdToSession.remove(timerId);
+            session.pollTimerId = NO_TIMER;
+        }
+    }
+}
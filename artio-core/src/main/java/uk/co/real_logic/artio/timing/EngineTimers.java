@@ -21,17 +21,21 @@ import org.agrona.concurrent.status.AtomicCounter;
 import java.util.Arrays;
 import java.util.List;
 
+import static uk.co.real_logic.artio.CommonConfiguration.TIMING_SAMPLE_INTERVAL;
+
 public class EngineTimers
 {
     private final Timer outboundTimer;
     private final Timer sendTimer;
+    private final Timer inboundTimer;
     private final List<Timer> timers;
 
     public EngineTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
-        outboundTimer = new Timer(clock, "Outbound", 1, negativeTimestamps);
+        outboundTimer = new Timer(clock, "Outbound", 1, negativeTimestamps, TIMING_SAMPLE_INTERVAL);
         sendTimer = new Timer(clock, "Send", 2, negativeTimestamps);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        inboundTimer = new Timer(clock, "Inbound", 3, negativeTimestamps, TIMING_SAMPLE_INTERVAL);
+        timers = Arrays.asList(outboundTimer, sendTimer, inboundTimer);
     }
 
     public Timer outboundTimer()
@@ -44,6 +48,16 @@ public class EngineTimers
         return sendTimer;
     }
 
+    /**
+     * Times from reading a message from the TCP connection to publishing it to the library.
+     *
+     * @return the inbound timer.
+     */
+    public Timer inboundTimer()
+    {
+        return inboundTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
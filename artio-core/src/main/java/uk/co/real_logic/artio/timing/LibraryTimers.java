@@ -21,17 +21,21 @@ import org.agrona.concurrent.status.AtomicCounter;
 import java.util.Arrays;
 import java.util.List;
 
+import static uk.co.real_logic.artio.CommonConfiguration.TIMING_SAMPLE_INTERVAL;
+
 public class LibraryTimers
 {
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer handlerTimer;
     private final List<Timer> timers;
 
     public LibraryTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
         sessionTimer = new Timer(clock, "Session", -1, negativeTimestamps);
-        receiveTimer = new Timer(clock, "Receive", -2, negativeTimestamps);
-        timers = Arrays.asList(sessionTimer, receiveTimer);
+        receiveTimer = new Timer(clock, "Receive", -2, negativeTimestamps, TIMING_SAMPLE_INTERVAL);
+        handlerTimer = new Timer(clock, "Handler", -3, negativeTimestamps);
+        timers = Arrays.asList(sessionTimer, receiveTimer, handlerTimer);
     }
 
     public Timer sessionTimer()
@@ -44,6 +48,17 @@ public class LibraryTimers
         return receiveTimer;
     }
 
+    /**
+     * Times the application's SessionHandler. The Session timer covers all of the library's processing of a
+     * message, including the handler, so the handler timer is a breakdown of part of it.
+     *
+     * @return the handler timer.
+     */
+    public Timer handlerTimer()
+    {
+        return handlerTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
@@ -24,6 +24,12 @@ import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 
 public class Timer
 {
+    /**
+     * Returned from {@link #recordSince(long)} when the message isn't being timed. Passing it to the timer of a
+     * later stage of processing the same message means that stage isn't timed either.
+     */
+    public static final long NOT_SAMPLED = 0;
+
     private static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 3;
 
     // Only written to on recording thread
@@ -33,28 +39,95 @@ public class Timer
     private final EpochNanoClock clock;
     private final int id;
     private final String name;
+    private final int sampleInterval;
+    private int messagesUntilSample = 1;
     // Only accessed upon logging thread
     private Histogram histogram;
 
     public Timer(final EpochNanoClock clock, final String name, final int id, final AtomicCounter negativeTimestamps)
     {
+        this(clock, name, id, negativeTimestamps, 1);
+    }
+
+    /**
+     * Create a timer that only times one in every sampleInterval messages. Timers for the later stages of processing
+     * a message should time every message, as they're only passed the timestamps of sampled messages.
+     *
+     * @param clock the clock to time messages with.
+     * @param name the name of the stage being timed.
+     * @param id the id of the timer in the histogram log.
+     * @param negativeTimestamps counter incremented when a timing is negative.
+     * @param sampleInterval the number of messages that each timed message is sampled from.
+     */
+    public Timer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final int sampleInterval)
+    {
+        if (sampleInterval < 1)
+        {
+            throw new IllegalArgumentException("Invalid sampleInterval: " + sampleInterval + " for timer " + name);
+        }
+
         this.clock = clock;
         this.name = name;
         this.id = id;
         this.negativeTimestamps = negativeTimestamps;
+        this.sampleInterval = sampleInterval;
     }
 
+    /**
+     * Records the time since the timestamp if the message is sampled.
+     *
+     * @param timestamp the time that this stage of processing the message started at, or {@link #NOT_SAMPLED}.
+     * @return the current time if the message was timed, {@link #NOT_SAMPLED} otherwise.
+     */
     public long recordSince(final long timestamp)
     {
         if (TIME_MESSAGES)
         {
+            if (timestamp == NOT_SAMPLED || !sample())
+            {
+                return NOT_SAMPLED;
+            }
+
             final long time = clock.nanoTime();
             final long duration = time - timestamp;
             recordValue(duration);
             return time;
         }
 
-        return 0;
+        return NOT_SAMPLED;
+    }
+
+    /**
+     * Gets the time that a stage of processing a message starts at without recording anything, for stages that
+     * start part way through an enclosing timed stage.
+     *
+     * @param timestamp the time that the enclosing stage started at, or {@link #NOT_SAMPLED}.
+     * @return the current time if the message is being timed, {@link #NOT_SAMPLED} otherwise.
+     */
+    public long currentTime(final long timestamp)
+    {
+        if (TIME_MESSAGES && timestamp != NOT_SAMPLED)
+        {
+            return clock.nanoTime();
+        }
+
+        return NOT_SAMPLED;
+    }
+
+    boolean sample()
+    {
+        if (--messagesUntilSample > 0)
+        {
+            return false;
+        }
+
+        messagesUntilSample = sampleInterval;
+        return true;
     }
 
     void recordValue(final long duration)
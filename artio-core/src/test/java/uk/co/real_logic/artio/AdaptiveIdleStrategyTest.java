@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.AdaptiveIdleStrategy.ACTIVE;
+import static uk.co.real_logic.artio.AdaptiveIdleStrategy.PARK;
+import static uk.co.real_logic.artio.AdaptiveIdleStrategy.SPIN;
+import static uk.co.real_logic.artio.AdaptiveIdleStrategy.YIELD;
+
+public class AdaptiveIdleStrategyTest
+{
+    private static final int MAX_SPINS = 3;
+    private static final int MAX_YIELDS = 2;
+    private static final int BUSY_WORK_CYCLES = 4;
+    private static final int QUIET_WORK_CYCLES = 2;
+    private static final long ACTIVITY_WINDOW_NS = 1_000;
+
+    private long timeNs;
+    // How far time moves on every time the clock is read
+    private long tickNs;
+
+    private final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(
+        MAX_SPINS, MAX_YIELDS, 1, 16, BUSY_WORK_CYCLES, QUIET_WORK_CYCLES, ACTIVITY_WINDOW_NS, this::nanoTime);
+
+    @Test
+    public void shouldYieldThenParkWhenQuiet()
+    {
+        assertFalse(idleStrategy.isBusy());
+
+        idleFor(1);
+        assertEquals(YIELD, idleStrategy.phase());
+
+        idleFor(MAX_YIELDS - 1);
+        assertEquals(YIELD, idleStrategy.phase());
+
+        idleFor(1);
+        assertEquals(PARK, idleStrategy.phase());
+    }
+
+    @Test
+    public void shouldSpinBeforeYieldingWhenBusy()
+    {
+        becomeBusy();
+
+        idleStrategy.idle(0);
+        assertEquals(SPIN, idleStrategy.phase());
+
+        idleFor(MAX_SPINS - 1);
+        assertEquals(SPIN, idleStrategy.phase());
+
+        idleFor(1);
+        assertEquals(YIELD, idleStrategy.phase());
+    }
+
+    @Test
+    public void shouldOnlyBecomeQuietOnceActivityFallsBelowTheQuietThreshold()
+    {
+        becomeBusy();
+
+        // Activity drops below the busy threshold but stays busy until it's under the quiet threshold
+        workInWindow(QUIET_WORK_CYCLES);
+        assertTrue(idleStrategy.isBusy());
+
+        workInWindow(QUIET_WORK_CYCLES - 1);
+        assertFalse(idleStrategy.isBusy());
+    }
+
+    @Test
+    public void shouldMeasureActivityOverTimeRatherThanDutyCycles()
+    {
+        becomeBusy();
+
+        // Lots of idle duty cycles within a window don't make a busy strategy quiet
+        idleFor(1_000);
+        assertTrue(idleStrategy.isBusy());
+
+        // Work cycles spread over several windows don't make a quiet strategy busy
+        workInWindow(QUIET_WORK_CYCLES - 1);
+        assertFalse(idleStrategy.isBusy());
+        for (int i = 0; i < BUSY_WORK_CYCLES; i++)
+        {
+            workInWindow(1);
+        }
+        assertFalse(idleStrategy.isBusy());
+    }
+
+    @Test
+    public void shouldBecomeActiveWhenWorkIsDone()
+    {
+        idleFor(MAX_YIELDS + 1);
+        assertEquals(PARK, idleStrategy.phase());
+
+        idleStrategy.idle(1);
+        assertEquals(ACTIVE, idleStrategy.phase());
+
+        idleStrategy.idle(0);
+        assertEquals(YIELD, idleStrategy.phase());
+    }
+
+    @Test
+    public void shouldOnlyRecordPhaseTimeWhileIdle()
+    {
+        final AtomicCounter phase = mock(AtomicCounter.class);
+        final AtomicCounter spinTime = mock(AtomicCounter.class);
+        final AtomicCounter yieldTime = mock(AtomicCounter.class);
+        final AtomicCounter parkTime = mock(AtomicCounter.class);
+        idleStrategy.counters(phase, spinTime, yieldTime, parkTime);
+        assertTrue(idleStrategy.hasCounters());
+        verify(phase).setOrdered(ACTIVE);
+
+        tickNs = 10;
+        idleFor(MAX_YIELDS + 1);
+        verify(phase).setOrdered(YIELD);
+        verify(phase).setOrdered(PARK);
+        verify(yieldTime).getAndAddOrdered(MAX_YIELDS * tickNs);
+        verify(parkTime).getAndAddOrdered(tickNs);
+
+        // Working doesn't count as spinning and doesn't add any more time
+        idleStrategy.idle(1);
+        verify(phase, times(2)).setOrdered(ACTIVE);
+        verifyNoMoreInteractions(yieldTime, parkTime);
+        verifyNoInteractions(spinTime);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateActivityThresholds()
+    {
+        new AdaptiveIdleStrategy(MAX_SPINS, MAX_YIELDS, 1, 16, QUIET_WORK_CYCLES, BUSY_WORK_CYCLES, ACTIVITY_WINDOW_NS);
+    }
+
+    private void becomeBusy()
+    {
+        workInWindow(BUSY_WORK_CYCLES);
+        assertTrue(idleStrategy.isBusy());
+    }
+
+    // Does the given number of work cycles, the last of which ends the current activity window
+    private void workInWindow(final int workCycles)
+    {
+        for (int i = 1; i < workCycles; i++)
+        {
+            idleStrategy.idle(1);
+        }
+        timeNs += ACTIVITY_WINDOW_NS;
+        idleStrategy.idle(workCycles > 0 ? 1 : 0);
+    }
+
+    private void idleFor(final int cycles)
+    {
+        for (int i = 0; i < cycles; i++)
+        {
+            idleStrategy.idle(0);
+        }
+    }
+
+    private long nanoTime()
+    {
+        final long timeNs = this.timeNs;
+        this.timeNs = timeNs + tickNs;
+        return timeNs;
+    }
+}
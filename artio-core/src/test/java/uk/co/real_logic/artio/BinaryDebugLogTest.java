@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.util.CharFormatter;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryDebugLogTest
+{
+    private static final String THREAD_NAME = "test-thread";
+    private static final String MESSAGE = "35=D|49=SENDER|56=TARGET|";
+
+    private final CharFormatter formatter = new CharFormatter("Received %s from %s: %s");
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[128]);
+    private final List<String> lines = new ArrayList<>();
+
+    private File file;
+    private BinaryDebugLog binaryDebugLog;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("binary-debug-log", ".log");
+        binaryDebugLog = new BinaryDebugLog(file, 64 * 1024);
+        buffer.putStringWithoutLengthAscii(0, MESSAGE);
+    }
+
+    @After
+    public void tearDown()
+    {
+        binaryDebugLog.close();
+        file.delete();
+    }
+
+    @Test
+    public void shouldFormatRecordsOffline()
+    {
+        final BinaryDebugLog.ThreadWriter writer = binaryDebugLog.newThreadWriter(THREAD_NAME);
+
+        writer.startFormatted(LogTag.FIX_MESSAGE, formatter)
+            .with(1L)
+            .with("session")
+            .with(buffer, 0, MESSAGE.length())
+            .commit();
+        writer.startText(LogTag.REPLAY).append("Replaying: ").append(buffer, 0, MESSAGE.length()).commit();
+        writer.startFormatted(LogTag.FIX_MESSAGE, formatter)
+            .with(2L)
+            .with("other")
+            .with(buffer, 0, 4)
+            .commit();
+
+        final int records = readLines();
+
+        // Three log records, plus the thread and formatter definitions
+        assertEquals(5, records);
+        assertEquals(lines.toString(), 3, lines.size());
+        assertLine(0, "[FIX_MESSAGE]Received 1 from session: " + MESSAGE);
+        assertLine(1, "[REPLAY]Replaying: " + MESSAGE);
+        assertLine(2, "[FIX_MESSAGE]Received 2 from other: 35=D");
+    }
+
+    @Test
+    public void shouldReportDroppedRecords()
+    {
+        final BinaryDebugLog.ThreadWriter writer = binaryDebugLog.newThreadWriter(THREAD_NAME);
+
+        final String tooLong = new String(new byte[64 * 1024], US_ASCII);
+        writer.startText(LogTag.REPLAY).append(tooLong).commit();
+        writer.startText(LogTag.REPLAY).append("logged").commit();
+
+        readLines();
+
+        // The dropped count is written when the writer next sees it, which can be before or after the next record.
+        assertEquals(lines.toString(), 2, lines.size());
+        assertThat(lines, hasItem("Dropped 1 debug log records as the ring buffer was full"));
+        assertThat(lines, hasItem(endsWith(":" + THREAD_NAME + "[REPLAY]logged")));
+    }
+
+    private int readLines()
+    {
+        binaryDebugLog.close();
+        return new BinaryDebugLogReader().read(file, (line) -> lines.add(line.toString()));
+    }
+
+    private void assertLine(final int index, final String suffix)
+    {
+        assertThat(lines.get(index), endsWith(":" + THREAD_NAME + suffix));
+    }
+}
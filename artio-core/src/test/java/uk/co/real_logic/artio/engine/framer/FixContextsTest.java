@@ -22,6 +22,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 import uk.co.real_logic.artio.FileSystemCorruptionException;
 import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MappedFile;
@@ -46,6 +47,8 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -97,6 +100,43 @@ public class FixContextsTest
         assertValuesEqual(sessionContext, fixContexts.onLogon(aSession, fixDictionary));
     }
 
+    @Test
+    public void reusesKeyOfKnownSessionOnAcceptedLogon()
+    {
+        final SessionContext aContext = fixContexts.onLogon(aSession, fixDictionary);
+        fixContexts.onLogon(bSession, fixDictionary);
+
+        assertSame(aSession, fixContexts.onAcceptLogon(acceptorHeader("b", "a")));
+
+        final FixContexts fixContextsAfterRestart = newSessionContexts(buffer);
+        final CompositeKey reloadedKey = fixContextsAfterRestart.onAcceptLogon(acceptorHeader("b", "a"));
+        assertEquals(aSession, reloadedKey);
+        assertSame(reloadedKey, fixContextsAfterRestart.onAcceptLogon(acceptorHeader("b", "a")));
+        assertValuesEqual(aContext, fixContextsAfterRestart.onLogon(reloadedKey, fixDictionary));
+    }
+
+    @Test
+    public void createsKeyOfUnknownSessionOnAcceptedLogon()
+    {
+        fixContexts.onLogon(aSession, fixDictionary);
+
+        final CompositeKey key = fixContexts.onAcceptLogon(acceptorHeader("initiator", "acceptor"));
+        assertEquals(otherSession, key);
+        assertNotSame(otherSession, key);
+
+        final SessionContext context = fixContexts.onLogon(key, fixDictionary);
+        assertSame(key, fixContexts.onAcceptLogon(acceptorHeader("initiator", "acceptor")));
+        assertValuesEqual(context, fixContexts.onLogon(otherSession, fixDictionary));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAcceptedLogonWithMissingCompId()
+    {
+        fixContexts.onLogon(aSession, fixDictionary);
+
+        fixContexts.onAcceptLogon(acceptorHeader("b", ""));
+    }
+
     @Test
     public void persistsSessionContextsOverARestart()
     {
@@ -364,6 +404,16 @@ public class FixContextsTest
         assertEquals(sessionContext.sequenceIndex(), secondSessionContext.sequenceIndex());
     }
 
+    private SessionHeaderDecoder acceptorHeader(final String senderCompID, final String targetCompID)
+    {
+        final SessionHeaderDecoder header = mock(SessionHeaderDecoder.class);
+        when(header.senderCompID()).thenReturn(senderCompID.toCharArray());
+        when(header.senderCompIDLength()).thenReturn(senderCompID.length());
+        when(header.targetCompID()).thenReturn(targetCompID.toCharArray());
+        when(header.targetCompIDLength()).thenReturn(targetCompID.length());
+        return header;
+    }
+
     private long logonWithSenderAndTarget(final String senderCompID, final String targetCompID)
     {
         logonEncoder.header()
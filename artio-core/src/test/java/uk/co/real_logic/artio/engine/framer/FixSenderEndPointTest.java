@@ -41,6 +41,8 @@ import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS;
 import static uk.co.real_logic.artio.engine.framer.FixSenderEndPoint.*;
 import static uk.co.real_logic.artio.engine.logger.ArchiveDescriptor.alignTerm;
+import static uk.co.real_logic.artio.messages.DisconnectReason.APPLICATION_DISCONNECT;
+import static uk.co.real_logic.artio.messages.DisconnectReason.EXCEPTION;
 import static uk.co.real_logic.artio.messages.DisconnectReason.SLOW_CONSUMER;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 
@@ -88,7 +90,26 @@ public class FixSenderEndPointTest
         senderSequenceNumber,
         messageTimingHandler,
         receiverEndPoint,
-        new FixSenderEndPoint.Formatters());
+        new FixSenderEndPoint.Formatters(),
+        0);
+    private final FixSenderEndPoint coalescingEndPoint = new FixSenderEndPoint(
+        CONNECTION_ID,
+        LIBRARY_ID,
+        inboundPublication,
+        reproductionLogWriter,
+        tcpChannel,
+        bytesInBuffer,
+        invalidLibraryAttempts,
+        errorHandler,
+        framer,
+        MAX_BYTES_IN_BUFFER,
+        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+        0,
+        senderSequenceNumber,
+        messageTimingHandler,
+        receiverEndPoint,
+        new FixSenderEndPoint.Formatters(),
+        4 * BODY_LENGTH);
 
     @Before
     public void setup()
@@ -123,6 +144,85 @@ public class FixSenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldCoalesceMessagesIntoASingleWrite()
+    {
+        channelWillWrite(2 * BODY_LENGTH);
+
+        onCoalescedOutboundMessage(1);
+        onCoalescedOutboundMessage(2);
+        byteBufferNotWritten();
+
+        assertEquals(2, coalescingEndPoint.flushStagedWrites());
+        byteBufferWritten();
+        verify(messageTimingHandler).onMessage(eq(1L), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        verify(messageTimingHandler).onMessage(eq(2L), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        assertEquals(0, bytesInBuffer.get());
+        assertFalse(coalescingEndPoint.requiresRetry());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldReattemptUnwrittenPartOfCoalescedWrite()
+    {
+        final int firstWrites = BODY_LENGTH + 10;
+        channelWillWrite(firstWrites);
+
+        onCoalescedOutboundMessage(1);
+        onCoalescedOutboundMessage(2);
+        coalescingEndPoint.flushStagedWrites();
+        byteBufferWritten();
+
+        verify(messageTimingHandler).onMessage(eq(1L), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        verify(messageTimingHandler, never()).onMessage(eq(2L), anyLong(), any(), anyInt(), anyInt());
+        assertTrue(coalescingEndPoint.requiresRetry());
+        assertEquals(10, coalescingEndPoint.reattemptBytesWritten());
+        assertEquals(BODY_LENGTH + ENQ_MESSAGE_BLOCK_LEN, bytesInBuffer.get());
+
+        channelWillWrite(BODY_LENGTH - 10);
+        coalescingEndPoint.poll(0);
+        byteBufferWritten();
+
+        verify(messageTimingHandler).onMessage(eq(2L), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        assertEquals(0, bytesInBuffer.get());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldWriteStagedMessagesBeforeDisconnecting()
+    {
+        channelWillWrite(BODY_LENGTH);
+
+        onCoalescedOutboundMessage(1);
+        byteBufferNotWritten();
+
+        coalescingEndPoint.onDisconnect(APPLICATION_DISCONNECT);
+        coalescingEndPoint.close();
+
+        byteBufferWritten();
+        verify(messageTimingHandler).onMessage(eq(1L), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldDiscardStagedMessagesWhenDisconnectingDueToAnError()
+    {
+        onCoalescedOutboundMessage(1);
+
+        coalescingEndPoint.onDisconnect(EXCEPTION);
+        coalescingEndPoint.close();
+
+        byteBufferNotWritten();
+        assertEquals(0, coalescingEndPoint.flushStagedWrites());
+        byteBufferNotWritten();
+    }
+
+    private void onCoalescedOutboundMessage(final int sequenceNumber)
+    {
+        coalescingEndPoint.onOutboundMessage(
+            LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, sequenceNumber, 0, 0L, 0, 0);
+    }
+
     private void assertReattemptBytesWritten(final int firstWrites)
     {
         assertEquals(firstWrites, endPoint.reattemptBytesWritten());
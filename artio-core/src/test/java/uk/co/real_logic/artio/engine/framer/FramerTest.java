@@ -25,6 +25,7 @@ import org.agrona.LangUtil;
 import org.agrona.collections.MutableLong;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.QueuedPipe;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.agrona.concurrent.status.CountersReader;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
@@ -63,6 +64,7 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.Publication.BACK_PRESSURED;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
@@ -167,6 +169,10 @@ public class FramerTest
 
         when(mockSenderEndPoint.connectionId()).then((inv) -> connectionId.get());
 
+        when(gatewaySessions.logonAdmission()).thenReturn(new LogonAdmission(
+            LogonAdmission.UNLIMITED, LogonAdmission.UNLIMITED, emptySet(),
+            mock(AtomicCounter.class), mock(AtomicCounter.class)));
+
         when(gatewaySession.session()).thenReturn(session);
         when(gatewaySession.fixDictionary()).thenReturn(fixDictionary);
         when(gatewaySession.isOffline()).thenReturn(false);
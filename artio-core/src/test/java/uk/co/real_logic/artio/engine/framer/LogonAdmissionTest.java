@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static uk.co.real_logic.artio.engine.framer.LogonAdmission.UNLIMITED;
+
+public class LogonAdmissionTest
+{
+    private static final String LOGON =
+        "8=FIX.4.4\0019=68\00135=A\00149=%s\00156=acceptor\00134=1\00152=20240101-00:00:00\001" +
+        "98=0\001108=10\00110=000\001";
+
+    private final AtomicCounter queueDepth = mock(AtomicCounter.class);
+    private final AtomicCounter admissionLatency = mock(AtomicCounter.class);
+
+    @Test
+    public void shouldCloseConnectionsOverThePendingLogonBound()
+    {
+        final LogonAdmission admission = newAdmission(UNLIMITED, 2, Collections.emptySet());
+
+        assertTrue(admission.onConnect());
+        assertTrue(admission.onConnect());
+        assertFalse(admission.onConnect());
+        verify(queueDepth).setOrdered(2);
+
+        admission.onLeaveQueue();
+        assertTrue(admission.onConnect());
+        assertEquals(2, admission.pendingLogons());
+    }
+
+    @Test
+    public void shouldLimitLogonsPerDutyCycle()
+    {
+        final LogonAdmission admission = newAdmission(1, UNLIMITED, Collections.emptySet());
+        admission.onConnect();
+        admission.onConnect();
+
+        assertTrue(tryAdmit(admission, "initiator", 10));
+        verify(admissionLatency).setOrdered(10);
+        assertFalse(tryAdmit(admission, "initiator", 20));
+        assertEquals(1, admission.pendingLogons());
+
+        admission.onDutyCycle();
+        assertTrue(tryAdmit(admission, "initiator", 30));
+        assertEquals(0, admission.pendingLogons());
+        verify(queueDepth).setOrdered(0);
+    }
+
+    @Test
+    public void shouldAdmitPriorityCompIdsOverTheLimit()
+    {
+        final LogonAdmission admission = newAdmission(1, UNLIMITED, Collections.singleton("priority"));
+
+        assertTrue(tryAdmit(admission, "initiator", 10));
+        assertFalse(tryAdmit(admission, "priorit", 10));
+        assertFalse(tryAdmit(admission, "priority2", 10));
+        assertTrue(tryAdmit(admission, "priority", 10));
+    }
+
+    private LogonAdmission newAdmission(
+        final int maxLogonsPerDutyCycle, final int maxPendingLogons, final Set<String> priorityCompIds)
+    {
+        return new LogonAdmission(
+            maxLogonsPerDutyCycle, maxPendingLogons, priorityCompIds, queueDepth, admissionLatency);
+    }
+
+    private boolean tryAdmit(final LogonAdmission admission, final String senderCompId, final long timeInNs)
+    {
+        final String logon = String.format(LOGON, senderCompId);
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[logon.length() + 1]);
+        buffer.putAscii(1, logon);
+        return admission.tryAdmit(buffer, 1, logon.length(), 0, timeInNs);
+    }
+}
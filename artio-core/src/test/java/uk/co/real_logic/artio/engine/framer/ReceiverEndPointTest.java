@@ -38,10 +38,13 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.InternalSession;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.function.ToIntFunction;
 import java.util.stream.IntStream;
@@ -85,8 +88,19 @@ class ReceiverEndPointTest
         .senderAndTarget()
         .onInitiateLogon("ACCEPTOR", "", "", "INIATOR", "", "");
     private FixReceiverEndPoint endPoint;
+    private LogonAdmission logonAdmission = newLogonAdmission(LogonAdmission.UNLIMITED);
     private final EpochNanoClock mockClock = mock(EpochNanoClock.class);
 
+    private static LogonAdmission newLogonAdmission(final int maxLogonsPerDutyCycle)
+    {
+        return new LogonAdmission(
+            maxLogonsPerDutyCycle,
+            LogonAdmission.UNLIMITED,
+            Collections.emptySet(),
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class));
+    }
+
     private AcceptorLogonResult createSuccessfulPendingAuth()
     {
         final AcceptorLogonResult pendingAcceptorLogon = mock(AcceptorLogonResult.class);
@@ -159,7 +173,9 @@ class ReceiverEndPointTest
             new FixReceiverEndPoint.FixReceiverEndPointFormatters(),
             NO_THROTTLE_WINDOW,
             NO_THROTTLE_WINDOW,
-            false);
+            false,
+            logonAdmission,
+            mock(Timer.class));
         endPoint.gatewaySession(gatewaySession);
     }
 
@@ -182,6 +198,27 @@ class ReceiverEndPointTest
         verifyDuplicateSession(times(1));
     }
 
+    @Test
+    void shouldDeferLogonsOverTheAdmissionLimitToTheNextDutyCycle()
+    {
+        logonAdmission = newLogonAdmission(1);
+        logonAdmission.tryAdmit(new MutableAsciiBuffer(LOGON_MESSAGE), 0, LOGON_LEN, 0, 0);
+        givenAnUnauthenticatedReceiverEndPoint();
+        endPoint.awaitLogonAdmission(TIMESTAMP);
+        givenLogonResult(pendingAuth);
+
+        theEndpointReceivesALogon();
+        endPoint.poll();
+
+        verifyAuthenticated(never());
+
+        logonAdmission.onDutyCycle();
+        theEndpointReceivesNothing();
+        endPoint.poll();
+
+        verifyAuthenticated(times(1));
+    }
+
     @Test
     void shouldDisconnectWhenFirstMessageIsNotALogon()
     {
@@ -809,6 +846,12 @@ class ReceiverEndPointTest
         assertEquals(expected, endPoint.poll());
     }
 
+    private void verifyAuthenticated(final VerificationMode times)
+    {
+        verify(mockGatewaySessions, times).authenticate(
+            any(), anyLong(), eq(gatewaySession), any(), any(), eq(framer), any(), any());
+    }
+
     private void verifyDuplicateSession(final VerificationMode times)
     {
         verify(publication, times).saveDisconnect(anyInt(), anyLong(), eq(DisconnectReason.DUPLICATE_SESSION));
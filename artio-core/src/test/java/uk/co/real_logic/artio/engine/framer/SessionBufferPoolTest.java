@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+public class SessionBufferPoolTest
+{
+    private static final int BUFFER_SIZE = 256;
+
+    private final AtomicCounter hits = mock(AtomicCounter.class);
+    private final AtomicCounter misses = mock(AtomicCounter.class);
+
+    @Test
+    public void shouldPreAllocateBuffersForEachSession()
+    {
+        final SessionBufferPool pool = new SessionBufferPool(BUFFER_SIZE, 2, hits, misses);
+
+        assertEquals(4, pool.available());
+        for (int i = 0; i < 4; i++)
+        {
+            assertEquals(BUFFER_SIZE, pool.acquire().capacity());
+        }
+
+        verify(hits, times(4)).increment();
+        verifyNoInteractions(misses);
+        assertEquals(0, pool.available());
+    }
+
+    @Test
+    public void shouldAllocateWhenEmptyAndRecycleReleasedBuffers()
+    {
+        final SessionBufferPool pool = new SessionBufferPool(BUFFER_SIZE, 0, hits, misses);
+
+        final MutableAsciiBuffer buffer = pool.acquire();
+        verify(misses).increment();
+        assertEquals(BUFFER_SIZE, buffer.capacity());
+
+        pool.release(buffer);
+        assertEquals(0, pool.available());
+
+        final SessionBufferPool sizedPool = new SessionBufferPool(BUFFER_SIZE, 1, hits, misses);
+        sizedPool.acquire();
+        sizedPool.release(buffer);
+        assertSame(buffer, sizedPool.acquire());
+    }
+
+    @Test
+    public void shouldNotGrowBeyondCapacity()
+    {
+        final SessionBufferPool pool = new SessionBufferPool(BUFFER_SIZE, 1, hits, misses);
+
+        pool.release(new MutableAsciiBuffer(new byte[BUFFER_SIZE]));
+
+        assertEquals(2, pool.available());
+    }
+}
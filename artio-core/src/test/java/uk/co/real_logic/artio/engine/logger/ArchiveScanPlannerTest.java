@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.engine.logger;
 import org.junit.Test;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
 
 import java.util.function.Predicate;
 
@@ -46,4 +47,35 @@ public class ArchiveScanPlannerTest
         assertEquals(epochStartTimeInNs, indexQuery.beginTimestampInclusive());
         assertEquals(epochEndTimeInNs, indexQuery.endTimestampExclusive());
     }
+
+    @Test
+    public void shouldExtractSessionsAndMessageTypesFromConjunction()
+    {
+        final FixMessagePredicate predicate = sessionOf(1).and(messageTypeOf("D", "8"));
+        final FixMessageConsumer queryPredicate = filterBy((message, buffer, offset, length, header) ->
+        {
+        }, predicate);
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(queryPredicate);
+        assertTrue(indexQuery.needsMessageBlockIndex());
+        assertEquals(1, indexQuery.sessionIds().size());
+        assertTrue(indexQuery.sessionIds().contains(1));
+        assertEquals(2, indexQuery.messageTypes().size());
+        assertTrue(indexQuery.messageTypes().contains(MessageTypeEncoding.packMessageType("D")));
+        assertTrue(indexQuery.messageTypes().contains(MessageTypeEncoding.packMessageType("8")));
+    }
+
+    @Test
+    public void shouldNotExtractSessionsOrMessageTypesFromDisjunction()
+    {
+        final FixMessagePredicate predicate = sessionOf(1).or(messageTypeOf("D"));
+        final FixMessageConsumer queryPredicate = filterBy((message, buffer, offset, length, header) ->
+        {
+        }, predicate);
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(queryPredicate);
+        assertFalse(indexQuery.needsMessageBlockIndex());
+        assertNull(indexQuery.sessionIds());
+        assertNull(indexQuery.messageTypes());
+    }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.IntHashSet;
+import org.agrona.collections.LongArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_INBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOG_FILE_DIR;
+import static uk.co.real_logic.artio.engine.logger.FixMessageConsumerValidator.validateFixMessageConsumer;
+
+public class ColdTierTest extends AbstractLogTest
+{
+    private static final int OTHER_SEQUENCE_INDEX = SEQUENCE_INDEX + 1;
+    private static final int INBOUND_STREAM_ID = DEFAULT_INBOUND_LIBRARY_STREAM;
+
+    private final File directory = new File(DEFAULT_LOG_FILE_DIR, "cold-tier");
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final LongArrayList timestamps = new LongArrayList();
+    private final IntArrayList sequenceIndices = new IntArrayList();
+    private final IntArrayList streamIds = new IntArrayList();
+    private final ColdTierReader reader = new ColdTierReader(directory);
+
+    private final FixMessageConsumer consumer = (message, buffer, offset, length, header) ->
+    {
+        final String body = validateFixMessageConsumer(message, buffer, offset, length);
+        final long timestamp = message.timestamp();
+        assertThat(body, containsString("\00134=" + timestamp + "\001"));
+        timestamps.add(timestamp);
+        sequenceIndices.add(message.sequenceIndex());
+        streamIds.add(header.streamId());
+    };
+
+    private int rawLength;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.delete(directory, true);
+    }
+
+    @After
+    public void tearDown()
+    {
+        reader.close();
+        IoUtil.delete(directory, true);
+    }
+
+    @Test
+    public void shouldOnlyReadRequestedSequenceNumbersOfASession()
+    {
+        // A block per message
+        try (ColdTierWriter writer = new ColdTierWriter(directory, 1, Integer.MAX_VALUE, Deflater.BEST_SPEED))
+        {
+            writeMessages(writer, SESSION_ID, SEQUENCE_INDEX, 1, 5);
+            writeMessages(writer, SESSION_ID_2, SEQUENCE_INDEX, 1, 3);
+        }
+
+        assertEquals(3, reader.readSequenceNumbers(SESSION_ID, STREAM_ID, SEQUENCE_INDEX, 2, 4, consumer));
+        assertThat(timestamps, contains(2L, 3L, 4L));
+        assertThat(streamIds, contains(STREAM_ID, STREAM_ID, STREAM_ID));
+    }
+
+    @Test
+    public void shouldKeepTheStreamsOfASessionApart()
+    {
+        // The inbound and outbound messages of a session have the same sequence numbers
+        try (ColdTierWriter writer = new ColdTierWriter(directory))
+        {
+            for (int sequenceNumber = 1; sequenceNumber <= 3; sequenceNumber++)
+            {
+                writeMessages(writer, SESSION_ID, STREAM_ID, SEQUENCE_INDEX, sequenceNumber, sequenceNumber);
+                writeMessages(writer, SESSION_ID, INBOUND_STREAM_ID, SEQUENCE_INDEX, sequenceNumber, sequenceNumber);
+            }
+        }
+
+        assertEquals(2, reader.readSequenceNumbers(SESSION_ID, INBOUND_STREAM_ID, SEQUENCE_INDEX, 2, 3, consumer));
+        assertThat(timestamps, contains(2L, 3L));
+        assertThat(streamIds, contains(INBOUND_STREAM_ID, INBOUND_STREAM_ID));
+
+        assertEquals(3, reader.readTimestamps(SESSION_ID, STREAM_ID, 1, 4, consumer));
+        assertThat(timestamps, contains(2L, 3L, 1L, 2L, 3L));
+        assertThat(streamIds, contains(INBOUND_STREAM_ID, INBOUND_STREAM_ID, STREAM_ID, STREAM_ID, STREAM_ID));
+    }
+
+    @Test
+    public void shouldDiscardBlocksFromAnIncompleteCompaction() throws IOException
+    {
+        // A block per message
+        try (ColdTierWriter writer = new ColdTierWriter(directory, 1, Integer.MAX_VALUE, Deflater.BEST_SPEED))
+        {
+            writeMessages(writer, SESSION_ID, SEQUENCE_INDEX, 1, 5);
+        }
+
+        ColdTierWriter.discardBlocksFrom(directory, 3);
+
+        assertEquals(2, reader.readTimestamps(SESSION_ID, STREAM_ID, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+        assertThat(timestamps, contains(1L, 2L));
+
+        // Compacting again appends after the blocks that were kept
+        try (ColdTierWriter writer = new ColdTierWriter(directory, 1, Integer.MAX_VALUE, Deflater.BEST_SPEED))
+        {
+            writeMessages(writer, SESSION_ID, SEQUENCE_INDEX, 3, 4);
+        }
+
+        timestamps.clear();
+        assertEquals(4, reader.readTimestamps(SESSION_ID, STREAM_ID, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+        assertThat(timestamps, contains(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    public void shouldCompactMessagesCarryingOnFromTheLastCompaction()
+    {
+        // The scanner hands over the whole archive every time
+        final FixArchiveScanner scanner = mock(FixArchiveScanner.class);
+        doAnswer(invocation ->
+        {
+            writeMessages(invocation.getArgument(2), SESSION_ID, SEQUENCE_INDEX, 1, 5);
+            return null;
+        }).when(scanner).scan(anyString(), any(IntHashSet.class), any(), any(), anyBoolean(), anyInt());
+        final IntHashSet queryStreamIds = new IntHashSet();
+        queryStreamIds.add(STREAM_ID);
+
+        ColdTierWriter.compact(scanner, "aeron:ipc", queryStreamIds, 4, 1, directory);
+
+        assertEquals(4, ColdTierWriter.compactedTo(directory));
+        assertFalse(ColdTierDescriptor.compactedTempFile(directory).exists());
+        assertEquals(3, reader.readTimestamps(SESSION_ID, STREAM_ID, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+        assertThat(timestamps, contains(1L, 2L, 3L));
+
+        ColdTierWriter.compact(scanner, "aeron:ipc", queryStreamIds, 6, 1, directory);
+
+        assertEquals(6, ColdTierWriter.compactedTo(directory));
+        assertFalse(ColdTierDescriptor.compactedTempFile(directory).exists());
+        timestamps.clear();
+        assertEquals(5, reader.readTimestamps(SESSION_ID, STREAM_ID, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+        assertThat(timestamps, contains(1L, 2L, 3L, 4L, 5L));
+    }
+
+    @Test
+    public void shouldStartWithNothingCompacted()
+    {
+        assertEquals(ColdTierWriter.NOTHING_COMPACTED, ColdTierWriter.compactedTo(directory));
+    }
+
+    @Test
+    public void shouldReadTimestampsFromCompressedBlocks()
+    {
+        try (ColdTierWriter writer = new ColdTierWriter(directory))
+        {
+            writeMessages(writer, SESSION_ID, SEQUENCE_INDEX, 1, 50);
+            writeMessages(writer, SESSION_ID_2, SEQUENCE_INDEX, 1, 3);
+        }
+
+        assertEquals(2, reader.readTimestamps(SESSION_ID_2, STREAM_ID, 2, 4, consumer));
+        assertThat(timestamps, contains(2L, 3L));
+
+        final long segmentLength =
+            ColdTierDescriptor.segmentFile(directory, SESSION_ID, STREAM_ID).length() +
+            ColdTierDescriptor.segmentFile(directory, SESSION_ID_2, STREAM_ID).length();
+        assertThat(segmentLength, lessThan((long)rawLength));
+    }
+
+    @Test
+    public void shouldSeparateBlocksBySequenceIndex()
+    {
+        try (ColdTierWriter writer = new ColdTierWriter(directory))
+        {
+            writeMessages(writer, SESSION_ID, SEQUENCE_INDEX, 1, 2);
+            writeMessages(writer, SESSION_ID, OTHER_SEQUENCE_INDEX, 1, 2);
+        }
+
+        assertEquals(2, reader.readSequenceNumbers(SESSION_ID, STREAM_ID, OTHER_SEQUENCE_INDEX, 1, 2, consumer));
+        assertThat(sequenceIndices, contains(OTHER_SEQUENCE_INDEX, OTHER_SEQUENCE_INDEX));
+
+        assertEquals(4, reader.readSequenceNumbers(
+            SESSION_ID, STREAM_ID, ColdTierReader.ANY_SEQUENCE_INDEX, 1, 2, consumer));
+    }
+
+    @Test
+    public void shouldReadNothingForAnUnknownSession()
+    {
+        assertEquals(0, reader.readTimestamps(SESSION_ID, STREAM_ID, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+    }
+
+    private void writeMessages(
+        final FixMessageConsumer writer,
+        final long sessionId,
+        final int sequenceIndex,
+        final int fromSequenceNumber,
+        final int toSequenceNumber)
+    {
+        writeMessages(writer, sessionId, STREAM_ID, sequenceIndex, fromSequenceNumber, toSequenceNumber);
+    }
+
+    private void writeMessages(
+        final FixMessageConsumer writer,
+        final long sessionId,
+        final int streamId,
+        final int sequenceIndex,
+        final int fromSequenceNumber,
+        final int toSequenceNumber)
+    {
+        final ArtioLogHeader logHeader = new ArtioLogHeader(streamId);
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(false, sessionId, sequenceNumber, sequenceIndex);
+            // use the sequence number as the timestamp so that the consumer can check the message it was given
+            messageFrame.timestamp(sequenceNumber);
+
+            fixMessage.wrap(buffer, START + MessageHeaderDecoder.ENCODED_LENGTH,
+                FixMessageDecoder.BLOCK_LENGTH, FixMessageDecoder.SCHEMA_VERSION);
+            writer.onMessage(fixMessage, buffer, offset, logEntryLength, logHeader);
+            rawLength += fragmentLength();
+        }
+    }
+}
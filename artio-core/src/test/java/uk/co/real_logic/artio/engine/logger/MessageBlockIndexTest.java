@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOG_FILE_DIR;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.engine.logger.MessageBlockIndexWriter.BLOCK_SIZE_IN_BYTES;
+
+public class MessageBlockIndexTest
+{
+    private static final long REC_ID = 1;
+    private static final int FRAME_LENGTH = 1024;
+    private static final int FRAMES_PER_BLOCK = BLOCK_SIZE_IN_BYTES / FRAME_LENGTH;
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+    private static final long NEW_ORDER_SINGLE = MessageTypeEncoding.packMessageType("D");
+    private static final long EXECUTION_REPORT = MessageTypeEncoding.packMessageType("8");
+
+    private final ErrorHandler errorHandler = spy(new ErrorHandler()
+    {
+        public void onError(final Throwable throwable)
+        {
+            throwable.printStackTrace();
+        }
+    });
+
+    private final MessageBlockIndexReader reader = new MessageBlockIndexReader(
+        DEFAULT_LOG_FILE_DIR, DEFAULT_OUTBOUND_LIBRARY_STREAM);
+    private final IndexQuery query = new IndexQuery();
+
+    private MessageBlockIndexWriter writer;
+    private long position;
+
+    @Before
+    public void setup()
+    {
+        final File logFileDir = new File(DEFAULT_LOG_FILE_DIR);
+        if (logFileDir.exists())
+        {
+            IoUtil.delete(logFileDir, false);
+        }
+        assertTrue(logFileDir.mkdirs());
+
+        newWriter();
+
+        writeBlock(SESSION_ID, NEW_ORDER_SINGLE);
+        writeBlock(OTHER_SESSION_ID, EXECUTION_REPORT);
+        writeBlock(SESSION_ID, EXECUTION_REPORT);
+    }
+
+    @After
+    public void teardown()
+    {
+        verifyNoInteractions(errorHandler);
+        Exceptions.closeAll(writer);
+    }
+
+    @Test
+    public void shouldFindBlocksForSession()
+    {
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        assertRanges(
+            new PositionRange(0, block(1)),
+            new PositionRange(block(2), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldFindBlocksForMessageType()
+    {
+        writer.close();
+
+        query.messageTypes(setOf(NEW_ORDER_SINGLE));
+
+        assertRanges(
+            new PositionRange(0, block(1)),
+            new PositionRange(block(3), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldIntersectSessionsAndMessageTypes()
+    {
+        writer.close();
+
+        query.sessionIds(setOf(OTHER_SESSION_ID));
+        query.messageTypes(setOf(NEW_ORDER_SINGLE));
+
+        assertRanges(new PositionRange(block(3), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldScanBlocksThatHaveNotBeenWritten()
+    {
+        query.sessionIds(setOf(OTHER_SESSION_ID));
+
+        // The last block is still being written to
+        assertRanges(new PositionRange(block(1), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldNotReindexPositionsAfterRestart()
+    {
+        writer.close();
+        newWriter();
+
+        // Catchup replays some messages that have already been indexed, then indexes a new block after a gap.
+        position = block(2);
+        writeBlock(OTHER_SESSION_ID, NEW_ORDER_SINGLE);
+        position += FRAME_LENGTH;
+        writeBlock(SESSION_ID, EXECUTION_REPORT);
+        writeBlock(SESSION_ID, EXECUTION_REPORT);
+        writer.close();
+
+        query.sessionIds(setOf(OTHER_SESSION_ID));
+
+        assertRanges(
+            new PositionRange(block(1), block(2)),
+            new PositionRange(block(3), block(3) + FRAME_LENGTH),
+            new PositionRange(block(5) + FRAME_LENGTH, Long.MAX_VALUE));
+    }
+
+    private void writeBlock(final long sessionId, final long messageType)
+    {
+        for (int i = 0; i < FRAMES_PER_BLOCK; i++)
+        {
+            writer.onFixMessage(REC_ID, position, position + FRAME_LENGTH, sessionId, messageType);
+            position += FRAME_LENGTH;
+        }
+    }
+
+    private void newWriter()
+    {
+        writer = new MessageBlockIndexWriter(DEFAULT_LOG_FILE_DIR, DEFAULT_OUTBOUND_LIBRARY_STREAM, errorHandler);
+    }
+
+    private void assertRanges(final PositionRange... expectedRanges)
+    {
+        final Long2ObjectHashMap<List<PositionRange>> recordingIdToPositionRanges = new Long2ObjectHashMap<>();
+        assertTrue(reader.findPositionRanges(query, recordingIdToPositionRanges));
+
+        final List<PositionRange> ranges = recordingIdToPositionRanges.get(REC_ID);
+        assertEquals(ranges.toString(), expectedRanges.length, ranges.size());
+        for (int i = 0; i < expectedRanges.length; i++)
+        {
+            final PositionRange expected = expectedRanges[i];
+            final PositionRange range = ranges.get(i);
+            assertEquals(ranges.toString(), expected.startPosition(), range.startPosition());
+            assertEquals(ranges.toString(), expected.endPosition(), range.endPosition());
+        }
+    }
+
+    private static long block(final int index)
+    {
+        return (long)index * BLOCK_SIZE_IN_BYTES;
+    }
+
+    private static LongHashSet setOf(final long value)
+    {
+        final LongHashSet set = new LongHashSet();
+        set.add(value);
+        return set;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOG_FILE_DIR;
+import static uk.co.real_logic.artio.engine.logger.MessageLogFileWriter.*;
+
+public class MessageLogFileWriterTest
+{
+    private static final String PREFIX = "fix-messages";
+    private static final int SEGMENT_SIZE = 256;
+    private static final int INDEX_INTERVAL = 128;
+    private static final long SESSION_ID = 2;
+    private static final int STREAM_ID = 3;
+    private static final String MESSAGE = "8=FIX.4.4\0019=5\00135=0\00110=000\001";
+    private static final int RECORD_LENGTH = BitUtil.align(RECORD_HEADER_LENGTH + MESSAGE.length(), RECORD_ALIGNMENT);
+
+    private final File directory = new File(DEFAULT_LOG_FILE_DIR, "message-log");
+    private final FixMessageDecoder message = mock(FixMessageDecoder.class);
+    private final UnsafeBuffer messageBuffer = new UnsafeBuffer(MESSAGE.getBytes(US_ASCII));
+    private final ArtioLogHeader header = new ArtioLogHeader(STREAM_ID);
+
+    private MessageLogFileWriter writer;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.delete(directory, true);
+        when(message.session()).thenReturn(SESSION_ID);
+        writer = new MessageLogFileWriter(directory, PREFIX, SEGMENT_SIZE, INDEX_INTERVAL);
+    }
+
+    @After
+    public void tearDown()
+    {
+        writer.close();
+        IoUtil.delete(directory, true);
+    }
+
+    @Test
+    public void shouldWriteLengthPrefixedRecords()
+    {
+        write(1);
+        write(2);
+        writer.close();
+
+        final UnsafeBuffer log = map(logFile(directory, PREFIX, 0));
+        assertRecord(log, 0, 1);
+        assertRecord(log, RECORD_LENGTH, 2);
+        assertEquals(0, log.getInt(2 * RECORD_LENGTH + LENGTH_OFFSET));
+        IoUtil.unmap(log.byteBuffer());
+    }
+
+    @Test
+    public void shouldRollSegmentsWhenFull()
+    {
+        for (int i = 1; i <= 5; i++)
+        {
+            write(i);
+        }
+
+        assertEquals(1, writer.segmentIndex());
+        assertEquals(RECORD_LENGTH, writer.position());
+        writer.close();
+
+        final UnsafeBuffer secondLog = map(logFile(directory, PREFIX, 1));
+        assertRecord(secondLog, 0, 5);
+        IoUtil.unmap(secondLog.byteBuffer());
+    }
+
+    @Test
+    public void shouldRollSegmentsWhenForcingThemToDisk()
+    {
+        writer.close();
+        writer = new MessageLogFileWriter(directory, PREFIX, SEGMENT_SIZE, INDEX_INTERVAL, true);
+        for (int i = 1; i <= 5; i++)
+        {
+            write(i);
+        }
+        writer.close();
+
+        final UnsafeBuffer firstLog = map(logFile(directory, PREFIX, 1));
+        assertRecord(firstLog, 0, 1);
+        IoUtil.unmap(firstLog.byteBuffer());
+
+        final UnsafeBuffer secondLog = map(logFile(directory, PREFIX, 2));
+        assertRecord(secondLog, 0, 5);
+        IoUtil.unmap(secondLog.byteBuffer());
+    }
+
+    @Test
+    public void shouldIndexTheFirstRecordOfEachInterval()
+    {
+        for (int i = 1; i <= 4; i++)
+        {
+            write(i * 10);
+        }
+        writer.close();
+
+        final UnsafeBuffer index = map(indexFile(directory, PREFIX, 0));
+        assertIndexEntry(index, 0, 10, 0);
+        assertIndexEntry(index, 1, 40, 3 * RECORD_LENGTH);
+        assertIndexEntry(index, 2, 0, 0);
+        IoUtil.unmap(index.byteBuffer());
+    }
+
+    @Test
+    public void shouldStartANewSegmentOnRestart()
+    {
+        write(1);
+        writer.close();
+
+        writer = new MessageLogFileWriter(directory, PREFIX, SEGMENT_SIZE, INDEX_INTERVAL);
+        assertEquals(1, writer.segmentIndex());
+        write(2);
+        writer.close();
+
+        final UnsafeBuffer firstLog = map(logFile(directory, PREFIX, 0));
+        assertRecord(firstLog, 0, 1);
+        IoUtil.unmap(firstLog.byteBuffer());
+        assertFalse(logFile(directory, PREFIX, 2).exists());
+        assertTrue(indexFile(directory, PREFIX, 1).exists());
+    }
+
+    private void write(final long timestamp)
+    {
+        when(message.timestamp()).thenReturn(timestamp);
+        writer.onMessage(message, messageBuffer, 0, MESSAGE.length(), header);
+    }
+
+    private UnsafeBuffer map(final File file)
+    {
+        final MappedByteBuffer mappedBuffer = IoUtil.mapExistingFile(file, file.getName());
+        return new UnsafeBuffer(mappedBuffer);
+    }
+
+    private void assertRecord(final UnsafeBuffer log, final int position, final long timestamp)
+    {
+        assertEquals(MESSAGE.length(), log.getInt(position + LENGTH_OFFSET));
+        assertEquals(STREAM_ID, log.getInt(position + STREAM_ID_OFFSET));
+        assertEquals(timestamp, log.getLong(position + TIMESTAMP_OFFSET));
+        assertEquals(SESSION_ID, log.getLong(position + SESSION_ID_OFFSET));
+        assertEquals(MESSAGE, log.getStringWithoutLengthAscii(position + RECORD_HEADER_LENGTH, MESSAGE.length()));
+    }
+
+    private void assertIndexEntry(
+        final UnsafeBuffer index, final int entry, final long timestamp, final long position)
+    {
+        final int offset = entry * INDEX_ENTRY_LENGTH;
+        assertEquals(timestamp, index.getLong(offset + INDEX_TIMESTAMP_OFFSET));
+        assertEquals(position, index.getLong(offset + INDEX_POSITION_OFFSET));
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.builder.SequenceResetEncoder;
+import uk.co.real_logic.artio.decoder.SequenceResetDecoder;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class ReplayCacheTest extends AbstractLogTest
+{
+    private static final int CAPACITY = 64 * 1024;
+
+    private final Header fragmentHeader = mock(Header.class);
+    private final AtomicCounter hits = mock(AtomicCounter.class);
+    private final AtomicCounter misses = mock(AtomicCounter.class);
+    private final ControlledFragmentHandler handler = mock(ControlledFragmentHandler.class);
+    private final MessageTracker messageTracker = new FixMessageTracker(LogTag.REPLAY, handler, SESSION_ID);
+
+    private ReplayCache replayCache = newReplayCache(CAPACITY);
+    private long position = 0;
+
+    @Before
+    public void setUp()
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE);
+    }
+
+    @After
+    public void tearDown()
+    {
+        replayCache.close();
+    }
+
+    @Test
+    public void shouldReplayRecentMessagesFromCache()
+    {
+        indexMessages(1, 5);
+
+        final ReplayCache.CachedReplay replay = lookup(3, 5);
+
+        assertNotNull(replay);
+        assertTrue(replay.pollReplay());
+        assertEquals(3, replay.replayedMessages());
+        verify(handler, times(3)).onFragment(any(), anyInt(), anyInt(), any());
+        verify(hits).increment();
+        verifyNoInteractions(misses);
+    }
+
+    @Test
+    public void shouldMissWhenRangeHasBeenEvicted()
+    {
+        replayCache.close();
+        bufferContainsExampleMessage(true);
+        replayCache = newReplayCache(2 * fragmentLength());
+
+        indexMessages(1, 5);
+
+        assertNull(lookup(1, 5));
+        verify(misses).increment();
+        verifyNoInteractions(hits);
+    }
+
+    @Test
+    public void shouldMissWhenRangeHasNotBeenSentYet()
+    {
+        indexMessages(1, 3);
+
+        assertNull(lookup(2, 4));
+        verify(misses).increment();
+    }
+
+    @Test
+    public void shouldOnlyCacheContiguousSequenceNumbers()
+    {
+        indexMessages(1, 2);
+        indexMessages(5, 6);
+
+        assertNull(lookup(1, 6));
+        assertNotNull(lookup(5, 6));
+    }
+
+    @Test
+    public void shouldNotServeRangeFromAnotherSequenceIndex()
+    {
+        indexMessages(1, 3);
+
+        assertNull(replayCache.lookup(SESSION_ID, SEQUENCE_INDEX + 1, 1, 3, messageTracker));
+    }
+
+    @Test
+    public void shouldResumeReplayWhenBackPressured()
+    {
+        indexMessages(1, 3);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE, ABORT, CONTINUE);
+
+        final ReplayCache.CachedReplay replay = lookup(1, 3);
+
+        assertFalse(replay.pollReplay());
+        assertTrue(replay.pollReplay());
+        verify(handler, times(4)).onFragment(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    public void shouldCountSequenceNumbersCoveredByGapFillsWithinRange()
+    {
+        indexMessages(1, 2);
+        indexGapFill(3, 6);
+        indexMessages(6, 7);
+
+        final ReplayCache.CachedReplay replay = lookup(4, 7);
+
+        assertTrue(replay.pollReplay());
+        assertEquals(4, replay.replayedMessages());
+        verify(handler, times(3)).onFragment(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    public void shouldMissWhileSessionsPreviousReplayIsInUse()
+    {
+        indexMessages(1, 3);
+
+        assertNotNull(lookup(1, 3));
+        assertNull(lookup(2, 3));
+        verify(hits).increment();
+        verify(misses).increment();
+    }
+
+    @Test
+    public void shouldReuseReplayOnceReleased()
+    {
+        indexMessages(1, 3);
+
+        final ReplayCache.CachedReplay firstReplay = lookup(1, 3);
+        assertTrue(firstReplay.pollReplay());
+        firstReplay.release();
+
+        final ReplayCache.CachedReplay secondReplay = lookup(2, 3);
+        assertSame(firstReplay, secondReplay);
+        assertTrue(secondReplay.pollReplay());
+        assertEquals(2, secondReplay.replayedMessages());
+        verify(handler, times(5)).onFragment(any(), anyInt(), anyInt(), any());
+    }
+
+    private ReplayCache.CachedReplay lookup(final int beginSequenceNumber, final int endSequenceNumber)
+    {
+        return replayCache.lookup(
+            SESSION_ID, SEQUENCE_INDEX, beginSequenceNumber, endSequenceNumber, messageTracker);
+    }
+
+    private void indexMessages(final int fromSequenceNumber, final int toSequenceNumber)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(true, SESSION_ID, sequenceNumber, SEQUENCE_INDEX);
+            position += alignedEndPosition();
+            when(fragmentHeader.position()).thenReturn(position);
+            replayCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+        }
+    }
+
+    private void indexGapFill(final int sequenceNumber, final int newSequenceNumber)
+    {
+        final SequenceResetEncoder sequenceReset = new SequenceResetEncoder()
+            .gapFillFlag(true)
+            .newSeqNo(newSequenceNumber);
+        bufferContainsMessage(
+            SESSION_ID,
+            sequenceNumber,
+            SEQUENCE_INDEX,
+            sequenceReset,
+            sequenceReset.header(),
+            SequenceResetDecoder.MESSAGE_TYPE);
+        position += alignedEndPosition();
+        when(fragmentHeader.position()).thenReturn(position);
+        replayCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+    }
+
+    private ReplayCache newReplayCache(final int capacity)
+    {
+        return new ReplayCache(STREAM_ID, capacity, new SequenceNumberExtractor(), hits, misses);
+    }
+}
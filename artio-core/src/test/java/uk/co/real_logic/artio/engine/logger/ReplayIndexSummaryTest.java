@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexSummary.BLOCK_SIZE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexSummary.RECORDS_PER_ENTRY;
+
+public class ReplayIndexSummaryTest
+{
+    private static final int INDEX_FILE_CAPACITY = 16 * RECORDS_PER_ENTRY;
+    private static final int ENTRY_MASK = ReplayIndexSummary.entryCount(INDEX_FILE_CAPACITY) - 1;
+    private static final int SEQUENCE_INDEX = 0;
+
+    private final UnsafeBuffer summaryBuffer =
+        new UnsafeBuffer(new byte[ReplayIndexSummary.summaryFileSize(INDEX_FILE_CAPACITY)]);
+
+    private long position = 0;
+
+    @Before
+    public void setUp()
+    {
+        ReplayIndexSummary.invalidate(summaryBuffer);
+    }
+
+    @Test
+    public void shouldSeekToBlockBeforeBeginSequenceNumber()
+    {
+        writeRecords(SEQUENCE_INDEX, 1, 8 * RECORDS_PER_ENTRY);
+
+        // Block 3 starts with sequence number 193
+        assertEquals(3L * BLOCK_SIZE, seek(SEQUENCE_INDEX, 200));
+        assertEquals(2L * BLOCK_SIZE, seek(SEQUENCE_INDEX, 193));
+    }
+
+    @Test
+    public void shouldNotSeekWhenQueryBeginsInFirstBlock()
+    {
+        writeRecords(SEQUENCE_INDEX, 1, 8 * RECORDS_PER_ENTRY);
+
+        assertEquals(0L, seek(SEQUENCE_INDEX, 1));
+        assertEquals(0L, seek(SEQUENCE_INDEX, RECORDS_PER_ENTRY));
+    }
+
+    @Test
+    public void shouldOrderBySequenceIndexBeforeSequenceNumber()
+    {
+        writeRecords(SEQUENCE_INDEX, 1, 4 * RECORDS_PER_ENTRY);
+        writeRecords(SEQUENCE_INDEX + 1, 1, 4 * RECORDS_PER_ENTRY);
+
+        assertEquals(3L * BLOCK_SIZE, seek(SEQUENCE_INDEX + 1, 1));
+        assertEquals(5L * BLOCK_SIZE, seek(SEQUENCE_INDEX + 1, 2 * RECORDS_PER_ENTRY));
+    }
+
+    @Test
+    public void shouldOnlySearchBlocksStillHeldInTheIndex()
+    {
+        // Write twice the capacity of the index, so the first half has been overwritten.
+        writeRecords(SEQUENCE_INDEX, 1, 2 * INDEX_FILE_CAPACITY);
+        final long fromPosition = position - (long)INDEX_FILE_CAPACITY * RECORD_LENGTH;
+
+        assertEquals(fromPosition, seek(fromPosition, SEQUENCE_INDEX, 1));
+        assertEquals(20L * BLOCK_SIZE, seek(fromPosition, SEQUENCE_INDEX, 20 * RECORDS_PER_ENTRY + 2));
+    }
+
+    @Test
+    public void shouldFallBackToScanningWhenEntryIsInvalid()
+    {
+        writeRecords(SEQUENCE_INDEX, 1, 8 * RECORDS_PER_ENTRY);
+        ReplayIndexSummary.invalidate(summaryBuffer);
+
+        assertEquals(0L, seek(SEQUENCE_INDEX, 200));
+    }
+
+    private long seek(final int sequenceIndex, final int sequenceNumber)
+    {
+        return seek(0, sequenceIndex, sequenceNumber);
+    }
+
+    private long seek(final long fromPosition, final int sequenceIndex, final int sequenceNumber)
+    {
+        return ReplayIndexSummary.seekPosition(
+            summaryBuffer, ENTRY_MASK, fromPosition, position, sequenceIndex, sequenceNumber);
+    }
+
+    private void writeRecords(final int sequenceIndex, final int fromSequenceNumber, final int count)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber < fromSequenceNumber + count; sequenceNumber++)
+        {
+            if (ReplayIndexSummary.isBlockStart(position))
+            {
+                ReplayIndexSummary.onBlockStart(summaryBuffer, ENTRY_MASK, position, sequenceIndex, sequenceNumber);
+            }
+            position += RECORD_LENGTH;
+        }
+    }
+}
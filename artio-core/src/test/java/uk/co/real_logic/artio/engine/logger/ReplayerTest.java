@@ -118,6 +118,7 @@ public class ReplayerTest extends AbstractLogTest
 
         replayer = new Replayer(
             replayQuery,
+            null,
             publication,
             claim,
             idleStrategy,
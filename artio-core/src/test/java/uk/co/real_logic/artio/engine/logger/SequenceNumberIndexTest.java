@@ -25,6 +25,7 @@ import io.aeron.archive.codecs.SourceLocation;
 import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.EpochNanoClock;
@@ -46,6 +47,7 @@ import uk.co.real_logic.artio.messages.FixPProtocolType;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 
 import java.io.File;
+import java.io.IOException;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static org.agrona.IoUtil.deleteIfExists;
@@ -411,6 +413,66 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldFlushOnlyChangedSectorsInPlace()
+    {
+        writer.close();
+        writer = newWriter(inMemoryBuffer, true);
+        indexFixMessage();
+        flushIndexFile();
+
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 5, SEQUENCE_INDEX);
+        indexRecord();
+        flushIndexFile();
+
+        try (MappedFile mappedFile = newIndexFile())
+        {
+            final SequenceNumberIndexReader newReader = new SequenceNumberIndexReader(
+                mappedFile.buffer(), errorHandler, recordingIdLookup, null);
+
+            assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 5, newReader);
+        }
+        assertEquals(0, journalFile(INDEX_FILE_PATH).length());
+
+        writer.close();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 5, newInstanceAfterRestart());
+    }
+
+    @Test
+    public void shouldRecoverTornIncrementalFlushFromJournal() throws IOException
+    {
+        writer.close();
+        writer = newWriter(inMemoryBuffer, true);
+        indexFixMessage();
+        writer.close();
+
+        final UnsafeBuffer flushedIndex = newBuffer();
+        try (MappedFile mappedFile = newIndexFile())
+        {
+            flushedIndex.putBytes(0, mappedFile.buffer(), 0, BUFFER_SIZE);
+        }
+        try (SequenceNumberIndexJournal journal = new SequenceNumberIndexJournal(journalFile(INDEX_FILE_PATH)))
+        {
+            final IntArrayList sectorOffsets = new IntArrayList();
+            sectorOffsets.addInt(0);
+            journal.write(flushedIndex, sectorOffsets);
+        }
+        corruptIndexFile(SEQUENCE_NUMBER_OFFSET, SECTOR_SIZE / 2);
+
+        final AtomicBuffer recoveredBuffer = newBuffer();
+        writer = newWriter(recoveredBuffer, true);
+
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER,
+            new SequenceNumberIndexReader(recoveredBuffer, errorHandler, recordingIdLookup, null));
+        assertEquals(0, journalFile(INDEX_FILE_PATH).length());
+    }
+
+    private void flushIndexFile()
+    {
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+        writer.doWork();
+    }
+
     @Test
     public void shouldResetSequenceNumbers()
     {
@@ -461,13 +523,18 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     }
 
     private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer)
+    {
+        return newWriter(inMemoryBuffer, false);
+    }
+
+    private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer, final boolean incrementalFlush)
     {
         final MappedFile indexFile = newIndexFile();
         return new SequenceNumberIndexWriter(new SequenceNumberExtractor(),
             inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
             DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, null,
             new Long2LongHashMap(UNK_SESSION),
-            FixPProtocolType.ILINK_3, DEFAULT_INDEX_CHECKSUM_ENABLED, true);
+            FixPProtocolType.ILINK_3, DEFAULT_INDEX_CHECKSUM_ENABLED, true, incrementalFlush, true);
     }
 
     private MappedFile newIndexFile()
@@ -556,5 +623,6 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         deleteIfExists(new File(INDEX_FILE_PATH));
         deleteIfExists(writableFile(INDEX_FILE_PATH));
         deleteIfExists(passingFile(INDEX_FILE_PATH));
+        deleteIfExists(journalFile(INDEX_FILE_PATH));
     }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.FragmentAssembler;
+import io.aeron.logbuffer.Header;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static io.aeron.protocol.DataHeaderFlyweight.FLAGS_FIELD_OFFSET;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+
+public class StreamTimestampZipperTest
+{
+    private static final int FRAGMENT_LIMIT = 100;
+    private static final int LARGE_BUFFER_SIZE = 64 * 1024;
+    private static final int STREAM_A = 1;
+    private static final int STREAM_B = 2;
+    private static final int MESSAGE_LENGTH = encode(new ExpandableArrayBuffer(), 1);
+
+    private final List<String> messages = new ArrayList<>();
+    private final FakePoller streamA = new FakePoller(STREAM_A);
+    private final FakePoller streamB = new FakePoller(STREAM_B);
+
+    private StreamTimestampZipper zipper;
+
+    @Test
+    public void shouldMergeInterleavedStreamsInTimestampOrder()
+    {
+        newZipper(LARGE_BUFFER_SIZE, LARGE_BUFFER_SIZE, false);
+        streamA.add(1, 3, 5).complete();
+        streamB.add(2, 4, 6).complete();
+
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("1:1", "2:2", "1:3", "2:4", "1:5", "2:6"));
+        assertEquals(0, zipper.bufferPosition());
+    }
+
+    @Test
+    public void shouldHandOffEqualTimestampsInTheOrderTheyWereBuffered()
+    {
+        newZipper(LARGE_BUFFER_SIZE, LARGE_BUFFER_SIZE, false);
+        streamB.add(3, 5).complete();
+
+        zipper.poll(FRAGMENT_LIMIT);
+        assertThat(messages, empty());
+
+        // Stream B's message at 5 was buffered before stream A's, even though stream A is polled first
+        streamA.add(1, 5).complete();
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("1:1", "2:3", "2:5", "1:5"));
+    }
+
+    @Test
+    public void shouldCompactTheReorderBufferWhileMessagesAreBuffered()
+    {
+        newZipper(1, LARGE_BUFFER_SIZE, false);
+        streamB.add(3, 5).complete();
+
+        zipper.poll(FRAGMENT_LIMIT);
+        assertThat(messages, empty());
+        assertEquals(2 * MESSAGE_LENGTH, zipper.bufferPosition());
+
+        streamA.add(4);
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("2:3", "1:4"));
+        assertEquals(MESSAGE_LENGTH, zipper.bufferPosition());
+
+        streamA.add(6).complete();
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("2:3", "1:4", "2:5", "1:6"));
+        assertEquals(0, zipper.bufferPosition());
+    }
+
+    @Test
+    public void shouldDumpBufferedMessagesWhenTheBufferIsFull()
+    {
+        newZipper(LARGE_BUFFER_SIZE, 2 * MESSAGE_LENGTH, false);
+        streamB.add(3, 9);
+
+        zipper.poll(FRAGMENT_LIMIT);
+        assertThat(messages, empty());
+
+        // Buffering this message dumps stream B's messages, it's still stream A's message once they've been dumped
+        streamA.add(5);
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("2:3", "2:9"));
+        assertEquals(MESSAGE_LENGTH, zipper.bufferPosition());
+
+        zipper.close();
+
+        assertThat(messages, contains("2:3", "2:9", "1:5"));
+    }
+
+    @Test
+    public void shouldOnlyProcessTheReorderBufferOnceItReachesTheCompactionSizeWhenLazilyCompacting()
+    {
+        newZipper(LARGE_BUFFER_SIZE, LARGE_BUFFER_SIZE, true);
+        streamA.add(2).complete();
+        streamB.add(1).complete();
+
+        zipper.poll(FRAGMENT_LIMIT);
+
+        assertThat(messages, contains("2:1"));
+        assertEquals(MESSAGE_LENGTH, zipper.bufferPosition());
+
+        zipper.close();
+
+        assertThat(messages, contains("2:1", "1:2"));
+    }
+
+    private void newZipper(final int compactionSize, final int maximumBufferSize, final boolean lazilyCompact)
+    {
+        zipper = new StreamTimestampZipper(
+            (message, buffer, offset, length, header) ->
+                messages.add(header.streamId() + ":" + buffer.getStringWithoutLengthAscii(offset, length)),
+            (fixPMessage, buffer, offset, header) -> {},
+            compactionSize,
+            maximumBufferSize,
+            lazilyCompact,
+            streamA,
+            streamB);
+    }
+
+    // The body of each message is its timestamp
+    private static int encode(final MutableDirectBuffer buffer, final long timestamp)
+    {
+        final byte[] body = String.valueOf(timestamp).getBytes(US_ASCII);
+        final FixMessageEncoder fixMessage = new FixMessageEncoder();
+        fixMessage
+            .wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder())
+            .libraryId(1)
+            .messageType(0)
+            .session(1)
+            .sequenceIndex(0)
+            .connection(1)
+            .timestamp(timestamp)
+            .status(MessageStatus.OK)
+            .putMetaData(new byte[0], 0, 0)
+            .putBody(body, 0, body.length);
+        return fixMessage.limit();
+    }
+
+    static class FakePoller implements StreamTimestampZipper.Poller
+    {
+        private final ArrayDeque<Long> timestamps = new ArrayDeque<>();
+        private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+        private final Header header = new Header(0, 0);
+        private final int streamId;
+        private boolean complete;
+
+        FakePoller(final int streamId)
+        {
+            this.streamId = streamId;
+            final UnsafeBuffer headerBuffer = new UnsafeBuffer(new byte[HEADER_LENGTH]);
+            headerBuffer.putByte(FLAGS_FIELD_OFFSET, UNFRAGMENTED);
+            header.buffer(headerBuffer);
+        }
+
+        FakePoller add(final long... timestamps)
+        {
+            for (final long timestamp : timestamps)
+            {
+                this.timestamps.add(timestamp);
+            }
+            return this;
+        }
+
+        void complete()
+        {
+            complete = true;
+        }
+
+        public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
+        {
+            int read = 0;
+            while (read < fragmentLimit && !timestamps.isEmpty())
+            {
+                final int length = encode(buffer, timestamps.poll());
+                fragmentAssembler.onFragment(buffer, 0, length, header);
+                read++;
+            }
+            return read;
+        }
+
+        public int streamId()
+        {
+            return streamId;
+        }
+
+        public void close()
+        {
+        }
+
+        public boolean isComplete()
+        {
+            return complete && timestamps.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import io.aeron.logbuffer.Header;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReservedValueTest
+{
+    private static final int LIBRARY_ID = -3;
+    private static final int OTHER_LIBRARY_ID = 7;
+
+    private final Header header = mock(Header.class);
+
+    @Test
+    public void shouldRoundTripNegativeLibraryIds()
+    {
+        tagWith(ReservedValue.ofLibraryId(LIBRARY_ID));
+
+        assertEquals(LIBRARY_ID, ReservedValue.libraryId(header));
+    }
+
+    @Test
+    public void shouldSkipFramesForAnotherLibrary()
+    {
+        tagWith(ReservedValue.ofLibraryId(OTHER_LIBRARY_ID));
+
+        assertTrue(ReservedValue.isForAnotherLibrary(header, LIBRARY_ID));
+    }
+
+    @Test
+    public void shouldNotSkipFramesForThisLibrary()
+    {
+        tagWith(ReservedValue.ofLibraryId(LIBRARY_ID));
+
+        assertFalse(ReservedValue.isForAnotherLibrary(header, LIBRARY_ID));
+    }
+
+    @Test
+    public void shouldNotSkipUntaggedFrames()
+    {
+        tagWith(ReservedValue.NO_FILTER);
+
+        assertFalse(ReservedValue.isForAnotherLibrary(header, LIBRARY_ID));
+    }
+
+    private void tagWith(final long reservedValue)
+    {
+        when(header.reservedValue()).thenReturn(reservedValue);
+    }
+}
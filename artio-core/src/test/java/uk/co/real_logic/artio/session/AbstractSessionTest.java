@@ -15,8 +15,10 @@
  */
 package uk.co.real_logic.artio.session;
 
+import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Test;
@@ -40,6 +42,7 @@ import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 import static io.aeron.Publication.BACK_PRESSURED;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -56,6 +59,7 @@ import static uk.co.real_logic.artio.fields.RejectReason.*;
 import static uk.co.real_logic.artio.messages.CancelOnDisconnectOption.DO_NOT_CANCEL_ON_DISCONNECT_OR_LOGOUT;
 import static uk.co.real_logic.artio.messages.DisconnectReason.*;
 import static uk.co.real_logic.artio.messages.SessionState.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAMED_MESSAGE_SIZE;
 import static uk.co.real_logic.artio.session.DirectSessionProxy.NO_LAST_MSG_SEQ_NUM_PROCESSED;
 import static uk.co.real_logic.artio.session.Session.TEST_REQ_ID;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
@@ -73,6 +77,8 @@ public abstract class AbstractSessionTest
     static final int SEQUENCE_INDEX = 0;
 
     private static final char[] MSG_TYPE_CHARS = "D".toCharArray();
+    private static final String CLAIMED_MESSAGE = "8=FIX.4.4\u00019=5\u000135=1\u000110=000\u0001";
+    private static final long TEST_REQUEST_MESSAGE_TYPE = SessionConstants.TEST_REQUEST_MESSAGE_TYPE;
 
     final char[] testReqId = "ABC".toCharArray();
 
@@ -1161,6 +1167,81 @@ public abstract class AbstractSessionTest
         assertForcedHeartbeatInterval();
     }
 
+    @Test
+    public void shouldSendClaimedMessageWithoutCopyingIt()
+    {
+        givenActive();
+        final UnsafeBuffer logBuffer = claimableLogBuffer();
+        final int seqNum = session().newSentSeqNum();
+        final MessageClaim claim = new MessageClaim();
+
+        assertTrue(session().tryClaim(CLAIMED_MESSAGE.length(), seqNum, TEST_REQUEST_MESSAGE_TYPE, claim) > 0);
+        claim.buffer().putAscii(0, CLAIMED_MESSAGE);
+
+        assertEquals(POSITION, claim.commit());
+        verify(mockPublication).commitMessage(claim.bufferClaim());
+        assertEquals(seqNum, session().lastSentMsgSeqNum());
+        assertEquals(CLAIMED_MESSAGE, logBuffer.getStringWithoutLengthAscii(
+            HEADER_LENGTH + FRAMED_MESSAGE_SIZE, CLAIMED_MESSAGE.length()));
+        verifyNoMessagesCopied();
+    }
+
+    @Test
+    public void shouldCopyClaimedMessageWhenTooLargeToClaim()
+    {
+        givenActive();
+        when(mockPublication.maxClaimableMessageLength()).thenReturn(CLAIMED_MESSAGE.length() - 1);
+        final int seqNum = session().newSentSeqNum();
+        final MessageClaim claim = new MessageClaim();
+
+        assertTrue(session().tryClaim(CLAIMED_MESSAGE.length(), seqNum, TEST_REQUEST_MESSAGE_TYPE, claim) > 0);
+        claim.buffer().putAscii(0, CLAIMED_MESSAGE);
+
+        assertEquals(POSITION, claim.commit());
+        assertEquals(seqNum, session().lastSentMsgSeqNum());
+        assertEquals(CLAIMED_MESSAGE, getSentMessage());
+        verify(mockPublication, never()).claimMessage(
+            anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void shouldNotSendAbortedClaim()
+    {
+        givenActive();
+        claimableLogBuffer();
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+        final MessageClaim claim = new MessageClaim();
+
+        session().tryClaim(CLAIMED_MESSAGE.length(), lastSentMsgSeqNum + 1, TEST_REQUEST_MESSAGE_TYPE, claim);
+        claim.abort();
+
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+        assertThrows(IllegalStateException.class, claim::commit);
+        verifyNoMessagesCopied();
+    }
+
+    private UnsafeBuffer claimableLogBuffer()
+    {
+        final UnsafeBuffer logBuffer = new UnsafeBuffer(new byte[1024]);
+        when(mockPublication.maxClaimableMessageLength()).thenReturn(logBuffer.capacity());
+        when(mockPublication.claimMessage(
+            anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong(), any(), anyInt(), any())).then(inv ->
+            {
+                final int length = inv.getArgument(0);
+                final BufferClaim bufferClaim = inv.getArgument(8);
+                bufferClaim.wrap(logBuffer, 0, HEADER_LENGTH + FRAMED_MESSAGE_SIZE + length);
+                return POSITION;
+            });
+        return logBuffer;
+    }
+
+    private void verifyNoMessagesCopied()
+    {
+        verify(mockPublication, never()).saveMessage(
+            any(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyLong(), any(), anyInt(), any(),
+            anyInt());
+    }
+
     void assertForcedHeartbeatInterval()
     {
         assertEquals(5_000, session().heartbeatIntervalInMs());
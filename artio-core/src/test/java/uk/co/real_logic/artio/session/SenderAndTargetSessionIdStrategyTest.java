@@ -29,6 +29,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.SENDER_COMP_ID;
@@ -67,6 +69,24 @@ public class SenderAndTargetSessionIdStrategyTest
             }));
     }
 
+    @Test
+    public void looksUpAcceptedLogonsWithoutCreatingAKey()
+    {
+        final SessionHeaderDecoder header = mock(SessionHeaderDecoder.class);
+        when(header.senderCompID()).thenReturn("ABC_DEFG04".toCharArray());
+        when(header.senderCompIDLength()).thenReturn("ABC_DEFG04".length());
+        when(header.targetCompID()).thenReturn("SIGMAXXX".toCharArray());
+        when(header.targetCompIDLength()).thenReturn("SIGMAX".length());
+
+        final CompositeKey key = strategy.onInitiateLogon("SIGMAX", null, null, "ABC_DEFG04", null, null);
+        final CompositeKey otherKey = strategy.onInitiateLogon("SIGMAX", null, null, "LEH_LZJ02", null, null);
+
+        assertTrue(strategy.supportsAcceptLogonLookup());
+        assertEquals(key.hashCode(), strategy.acceptLogonHashCode(header));
+        assertTrue(strategy.matchesAcceptLogon(key, header));
+        assertFalse(strategy.matchesAcceptLogon(otherKey, header));
+    }
+
     @Test
     public void savesAndLoadsACompositeKey()
     {
@@ -28,6 +28,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.*;
@@ -95,6 +97,50 @@ public class SenderTargetAndSubSessionIdStrategyTest
                 })));
     }
 
+    @Test
+    public void looksUpAcceptedLogonsWithoutCreatingAKey()
+    {
+        final SessionHeaderDecoder header = mock(SessionHeaderDecoder.class);
+        when(header.senderCompID()).thenReturn("ABC_DEFG04".toCharArray());
+        when(header.senderCompIDLength()).thenReturn("ABC_DEFG04".length());
+        when(header.targetCompID()).thenReturn("SIGMAXXX".toCharArray());
+        when(header.targetCompIDLength()).thenReturn("SIGMAX".length());
+        when(header.senderSubID()).thenReturn("LEH_LZJ02".toCharArray());
+        when(header.senderSubIDLength()).thenReturn("LEH_LZJ02".length());
+
+        final CompositeKey key = strategy.onInitiateLogon("SIGMAX", "LEH_LZJ02", null, "ABC_DEFG04", null, null);
+        final CompositeKey otherSubKey = strategy.onInitiateLogon(
+            "SIGMAX", "LEH_LZJ03", null, "ABC_DEFG04", null, null);
+        final CompositeKey otherCompKey = strategy.onInitiateLogon(
+            "SIGMAX", "LEH_LZJ02", null, "LEH_LZJ02", null, null);
+
+        assertTrue(strategy.supportsAcceptLogonLookup());
+        assertEquals(key.hashCode(), strategy.acceptLogonHashCode(header));
+        assertTrue(strategy.matchesAcceptLogon(key, header));
+        assertFalse(strategy.matchesAcceptLogon(otherSubKey, header));
+        assertFalse(strategy.matchesAcceptLogon(otherCompKey, header));
+    }
+
+    @Test
+    public void doesNotMatchAnAcceptedLogonWithoutASenderSubId()
+    {
+        final SessionHeaderDecoder header = mock(SessionHeaderDecoder.class);
+        when(header.senderCompID()).thenReturn("ABC_DEFG04".toCharArray());
+        when(header.senderCompIDLength()).thenReturn("ABC_DEFG04".length());
+        when(header.targetCompID()).thenReturn("SIGMAX".toCharArray());
+        when(header.targetCompIDLength()).thenReturn("SIGMAX".length());
+        when(header.senderSubID()).thenReturn(new char[0]);
+        when(header.senderSubIDLength()).thenReturn(0);
+
+        final CompositeKey key = strategy.onInitiateLogon("SIGMAX", "LEH_LZJ02", null, "ABC_DEFG04", null, null);
+        final CompositeKey emptySubKey = strategy.onInitiateLogon("SIGMAX", "", null, "ABC_DEFG04", null, null);
+
+        // Consistent with onAcceptLogon, which rejects a logon without a SenderSubID
+        assertEquals(emptySubKey.hashCode(), strategy.acceptLogonHashCode(header));
+        assertFalse(strategy.matchesAcceptLogon(key, header));
+        assertFalse(strategy.matchesAcceptLogon(emptySubKey, header));
+    }
+
     @Test
     public void savesAndLoadsACompositeKey()
     {
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.session.SessionPollScheduler.NO_DEADLINE;
+import static uk.co.real_logic.artio.session.SessionPollScheduler.NO_TIMER;
+import static uk.co.real_logic.artio.session.SessionPollScheduler.POLL_NEXT_CYCLE;
+
+public class SessionPollSchedulerTest
+{
+    private static final long START_TIME_IN_NS = 0;
+    private static final long DEADLINE_IN_NS = MILLISECONDS.toNanos(100);
+
+    private final Session session = mock(Session.class);
+    private final SessionPollScheduler scheduler = new SessionPollScheduler(START_TIME_IN_NS);
+
+    @Before
+    public void setUp()
+    {
+        // Field initialisers aren't run for mocks
+        session.pollTimerId = NO_TIMER;
+        when(session.pollDeadlineInNs()).thenReturn(DEADLINE_IN_NS);
+
+        scheduler.add(session);
+    }
+
+    @Test
+    public void shouldPollAddedSessionOnNextCycle()
+    {
+        scheduler.poll(START_TIME_IN_NS);
+
+        verify(session).poll(START_TIME_IN_NS);
+    }
+
+    @Test
+    public void shouldOnlyPollSessionAgainOnceDeadlineHasExpired()
+    {
+        scheduler.poll(START_TIME_IN_NS);
+
+        final long beforeDeadline = DEADLINE_IN_NS - MILLISECONDS.toNanos(10);
+        scheduler.poll(beforeDeadline);
+        verify(session, never()).poll(beforeDeadline);
+
+        final long afterDeadline = DEADLINE_IN_NS + MILLISECONDS.toNanos(10);
+        scheduler.poll(afterDeadline);
+        verify(session).poll(afterDeadline);
+    }
+
+    @Test
+    public void shouldPollSessionOnEveryCycleWhenRequested()
+    {
+        when(session.pollDeadlineInNs()).thenReturn(POLL_NEXT_CYCLE);
+
+        scheduler.poll(START_TIME_IN_NS);
+        scheduler.poll(START_TIME_IN_NS);
+        scheduler.poll(START_TIME_IN_NS);
+
+        verify(session, times(3)).poll(START_TIME_IN_NS);
+    }
+
+    @Test
+    public void shouldPollSessionWithoutDeadlineOnceWoken()
+    {
+        when(session.pollDeadlineInNs()).thenReturn(NO_DEADLINE);
+
+        scheduler.poll(START_TIME_IN_NS);
+        scheduler.poll(DEADLINE_IN_NS);
+        verify(session, never()).poll(DEADLINE_IN_NS);
+
+        scheduler.wake(session);
+        scheduler.poll(DEADLINE_IN_NS);
+        verify(session).poll(DEADLINE_IN_NS);
+    }
+
+    @Test
+    public void shouldNotPollRemovedSession()
+    {
+        scheduler.poll(START_TIME_IN_NS);
+        scheduler.wake(session);
+        scheduler.remove(session);
+
+        final long afterDeadline = DEADLINE_IN_NS + MILLISECONDS.toNanos(10);
+        scheduler.poll(afterDeadline);
+        scheduler.poll(afterDeadline);
+
+        verify(session, times(1)).poll(anyLong());
+    }
+}
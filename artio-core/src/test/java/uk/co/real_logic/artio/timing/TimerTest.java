@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.timing.Timer.NOT_SAMPLED;
+
+public class TimerTest
+{
+    private final AtomicCounter negativeTimestamps = mock(AtomicCounter.class);
+
+    @Test
+    public void shouldSampleEveryMessageByDefault()
+    {
+        final Timer timer = new Timer(System::nanoTime, "abc", 1, negativeTimestamps);
+
+        assertTrue(timer.sample());
+        assertTrue(timer.sample());
+    }
+
+    @Test
+    public void shouldSampleOneInEveryIntervalMessages()
+    {
+        final Timer timer = new Timer(System::nanoTime, "abc", 1, negativeTimestamps, 3);
+
+        assertTrue(timer.sample());
+        assertFalse(timer.sample());
+        assertFalse(timer.sample());
+        assertTrue(timer.sample());
+        assertFalse(timer.sample());
+    }
+
+    @Test
+    public void shouldNotTimeMessagesThatWerentSampled()
+    {
+        final Timer timer = new Timer(System::nanoTime, "abc", 1, negativeTimestamps);
+
+        assertEquals(NOT_SAMPLED, timer.recordSince(NOT_SAMPLED));
+        assertEquals(0, timer.getTimings().getTotalCount());
+    }
+
+    @Test
+    public void shouldNotGetTheCurrentTimeForMessagesThatWerentSampled()
+    {
+        final Timer timer = new Timer(System::nanoTime, "abc", 1, negativeTimestamps);
+
+        assertEquals(NOT_SAMPLED, timer.currentTime(NOT_SAMPLED));
+        assertEquals(0, timer.getTimings().getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateSampleInterval()
+    {
+        new Timer(System::nanoTime, "abc", 1, negativeTimestamps, 0);
+    }
+}
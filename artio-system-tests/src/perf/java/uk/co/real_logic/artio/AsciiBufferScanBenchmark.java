@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+
+/**
+ * Measures the delimiter scans and checksum that FixReceiverEndPoint uses to frame a message, across message sizes
+ * from a heartbeat to a large market data snapshot. The scalar benchmarks run the same code with the word at a time
+ * routines disabled by {@link MutableAsciiBuffer#SCALAR_SCAN_PROP}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiBufferScanBenchmark
+{
+    private static final String SCALAR = "-D" + MutableAsciiBuffer.SCALAR_SCAN_PROP + "=true";
+
+    @Param({ "64", "256", "1024", "4096" })
+    int messageSize;
+
+    private MutableAsciiBuffer buffer;
+    private int length;
+    private int startOfChecksumTag;
+
+    @Setup
+    public void setup()
+    {
+        final StringBuilder body = new StringBuilder("35=W\00149=SENDER\00156=TARGET\00134=12345\001");
+        for (int entry = 0; body.length() < messageSize - 40; entry++)
+        {
+            body.append("269=").append(entry & 1).append("\001270=1.2345").append(entry)
+                .append("\001271=").append(1_000_000 + entry).append('\001');
+        }
+
+        final String header = "8=FIX.4.4\0019=" + body.length() + '\001';
+        final String message = header + body + "10=000\001";
+        final byte[] bytes = message.getBytes(US_ASCII);
+        buffer = new MutableAsciiBuffer(bytes);
+        length = bytes.length;
+        startOfChecksumTag = message.lastIndexOf("\00110=");
+    }
+
+    @Benchmark
+    public int frameMessage()
+    {
+        return frame();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public int frameMessageScalar()
+    {
+        return frame();
+    }
+
+    @Benchmark
+    public int scanFields()
+    {
+        return scanAllFields();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public int scanFieldsScalar()
+    {
+        return scanAllFields();
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, startOfChecksumTag + 1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public int computeChecksumScalar()
+    {
+        return buffer.computeChecksum(0, startOfChecksumTag + 1);
+    }
+
+    // Same scans as FixReceiverEndPoint.frameMessages(): body length, end of message and checksum.
+    private int frame()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        final int endOfCommonPrefix = buffer.scan(1, length, SEPARATOR);
+        final int endOfBodyLength = buffer.scan(endOfCommonPrefix + 2, length, SEPARATOR);
+        final int startOfChecksumValue = startOfChecksumTag + 4;
+        final int endOfMessage = buffer.scan(startOfChecksumValue, length, SEPARATOR);
+        return endOfBodyLength + endOfMessage + buffer.computeChecksum(0, startOfChecksumTag + 1);
+    }
+
+    // Same scans as a decoder walking each field of the message.
+    private int scanAllFields()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        int fields = 0;
+        int position = 0;
+        while (position < length)
+        {
+            position = buffer.scan(position, length, SEPARATOR) + 1;
+            fields++;
+        }
+        return fields;
+    }
+}
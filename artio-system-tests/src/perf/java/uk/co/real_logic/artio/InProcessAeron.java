@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import io.aeron.Aeron;
+import io.aeron.CommonContext;
+import io.aeron.ExclusivePublication;
+import io.aeron.Subscription;
+import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.driver.ThreadingMode.SHARED;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_MAX_CLAIM_ATTEMPTS;
+
+/**
+ * An embedded media driver and client that lets benchmarks drive engine components in process without any TCP.
+ * Publications are over IPC and each one has a subscription that {@link #drain()} polls, standing in for the
+ * framer and archiver, so that a benchmark doesn't end up measuring back-pressure.
+ */
+public final class InProcessAeron implements AutoCloseable
+{
+    private static final FragmentHandler DISCARD_HANDLER = (buffer, offset, length, header) ->
+    {
+    };
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final MediaDriver mediaDriver;
+    private final Aeron aeron;
+    private final FixCounters fixCounters;
+
+    public InProcessAeron()
+    {
+        mediaDriver = MediaDriver.launchEmbedded(new MediaDriver.Context()
+            .threadingMode(SHARED)
+            .aeronDirectoryName(CommonContext.getAeronDirectoryName() + "-artio-benchmark")
+            .dirDeleteOnStart(true)
+            .dirDeleteOnShutdown(true));
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(mediaDriver.aeronDirectoryName()));
+        fixCounters = new FixCounters(aeron, true, 0);
+    }
+
+    /**
+     * Add an IPC publication for a stream that hasn't been used before.
+     *
+     * @param streamId the stream id to publish to.
+     * @param fails the counter of failed claims on the publication.
+     * @return the publication.
+     */
+    public GatewayPublication gatewayPublication(final int streamId, final AtomicCounter fails)
+    {
+        final ExclusivePublication publication = aeron.addExclusivePublication(IPC_CHANNEL, streamId);
+        subscriptions.add(aeron.addSubscription(IPC_CHANNEL, streamId));
+        while (!publication.isConnected())
+        {
+            Thread.yield();
+        }
+
+        return new GatewayPublication(
+            publication,
+            fails,
+            new NoOpIdleStrategy(),
+            new OffsetEpochNanoClock(),
+            DEFAULT_OUTBOUND_MAX_CLAIM_ATTEMPTS);
+    }
+
+    public int drain()
+    {
+        int work = 0;
+        final List<Subscription> subscriptions = this.subscriptions;
+        for (int i = 0, size = subscriptions.size(); i < size; i++)
+        {
+            work += subscriptions.get(i).poll(DISCARD_HANDLER, Integer.MAX_VALUE);
+        }
+        return work;
+    }
+
+    public FixCounters fixCounters()
+    {
+        return fixCounters;
+    }
+
+    public void close()
+    {
+        CloseHelper.closeAll(fixCounters, aeron, mediaDriver);
+    }
+}
@@ -25,6 +25,13 @@ import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Measures decoding with validation enabled, compare with {@link StubDecoderBenchmark} for the cost of validation.
+ *
+ * {@link #decodeAndValidateLogon()} only runs the generated decoder's decode() and validate() methods, which is where
+ * it tracks required and duplicate fields, so it can be compared across builds of the codecs to measure changes to
+ * that bookkeeping.
+ */
 @State(Scope.Benchmark)
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -64,6 +71,15 @@ public class StubValidatingDecoderBenchmark
         bh.consume(logonDecoder.validate());
     }
 
+    @Benchmark
+    public boolean decodeAndValidateLogon()
+    {
+        final LogonDecoder logonDecoder = this.logonDecoder;
+        logonDecoder.reset();
+        logonDecoder.decode(asciiBuffer, 0, asciiBuffer.capacity());
+        return logonDecoder.validate();
+    }
+
     @Benchmark
     public void resetAndDecodeLogon(final Blackhole bh)
     {
@@ -16,6 +16,10 @@
 package uk.co.real_logic.artio;
 
 import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.HeartbeatEncoder;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.nio.charset.StandardCharsets;
 
@@ -31,4 +35,23 @@ public final class TestData
         ("8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001" +
         "52=20150514-15:57:31.336\00198=0\001108=10\001383=512\001553=username" +
         "\001554=password\00110=243\001").getBytes(StandardCharsets.US_ASCII));
+
+    public static byte[] heartbeat(
+        final String senderCompId, final String targetCompId, final int sequenceNumber, final long sendingTimeInMs)
+    {
+        final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+        final HeartbeatEncoder heartbeat = new HeartbeatEncoder();
+        heartbeat
+            .header()
+            .senderCompID(senderCompId)
+            .targetCompID(targetCompId)
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(sendingTimeInMs));
+
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[1024]);
+        final long result = heartbeat.encode(buffer, 0);
+        final byte[] message = new byte[Encoder.length(result)];
+        buffer.getBytes(Encoder.offset(result), message);
+        return message;
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.InProcessAeron;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.MappedFile;
+import uk.co.real_logic.artio.fields.EpochFractionFormat;
+import uk.co.real_logic.artio.messages.ConnectionType;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.SessionCustomisationStrategy;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_INBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_RECEIVER_BUFFER_SIZE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SESSION_ID_BUFFER_SIZE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.NO_THROTTLE_WINDOW;
+import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
+
+/**
+ * Measures a duty cycle of the {@link FixReceiverEndPoint} of an established session: reading from the channel,
+ * framing and checksumming the messages and saving them to the inbound publication.
+ *
+ * The channel is stubbed out and returns the same batch of heartbeats on every read. The inbound publication is
+ * IPC, drained after each poll in place of the library and archiver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FixReceiverEndPointBenchmark
+{
+    private static final long CONNECTION_ID = 1;
+    private static final long SESSION_ID = 1;
+    private static final int SEQUENCE_INDEX = 0;
+
+    @Param({ "1", "10" })
+    public int messagesPerRead;
+
+    private InProcessAeron aeron;
+    private File directory;
+    private MappedFile sessionIdFile;
+    private FixReceiverEndPoint endPoint;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final ErrorHandler errorHandler = Throwable::printStackTrace;
+        final EpochNanoClock clock = new OffsetEpochNanoClock();
+        final SessionIdStrategy idStrategy = SessionIdStrategy.senderAndTarget();
+
+        aeron = new InProcessAeron();
+        final FixCounters counters = aeron.fixCounters();
+        final GatewayPublication inboundPublication = aeron.gatewayPublication(
+            DEFAULT_INBOUND_LIBRARY_STREAM, counters.failedInboundPublications());
+        final GatewayPublication outboundPublication = aeron.gatewayPublication(
+            DEFAULT_OUTBOUND_LIBRARY_STREAM, counters.failedOutboundPublications());
+
+        directory = new File(IoUtil.tmpDirName(), "receiver-end-point-benchmark-" + System.nanoTime());
+        IoUtil.ensureDirectoryExists(directory, directory.getAbsolutePath());
+        sessionIdFile = MappedFile.map(new File(directory, "session-id-file"), DEFAULT_SESSION_ID_BUFFER_SIZE);
+        final FixContexts fixContexts = new FixContexts(
+            sessionIdFile, idStrategy, SEQUENCE_INDEX, errorHandler, false);
+
+        final EngineConfiguration configuration = new EngineConfiguration();
+        final FixGatewaySessions gatewaySessions = new FixGatewaySessions(
+            new SystemEpochClock(),
+            inboundPublication,
+            outboundPublication,
+            idStrategy,
+            SessionCustomisationStrategy.none(),
+            counters,
+            configuration,
+            errorHandler,
+            fixContexts,
+            null,
+            null,
+            null,
+            EpochFractionFormat.MILLISECONDS);
+
+        final StubTcpChannel channel = new StubTcpChannel(heartbeats());
+        final AtomicCounter messagesRead = counters.messagesRead(CONNECTION_ID, channel.remoteAddr());
+        // Skip the handling of a first message that isn't a logon, it resets the session's sequence index
+        messagesRead.increment();
+
+        final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.findDefault());
+        endPoint = new FixReceiverEndPoint(
+            channel,
+            DEFAULT_RECEIVER_BUFFER_SIZE,
+            inboundPublication,
+            CONNECTION_ID,
+            SESSION_ID,
+            SEQUENCE_INDEX,
+            fixContexts,
+            messagesRead,
+            null,
+            errorHandler,
+            ENGINE_LIBRARY_ID,
+            gatewaySessions,
+            clock,
+            new AcceptorFixDictionaryLookup(fixDictionary, new HashMap<>()),
+            new FixReceiverEndPoint.FixReceiverEndPointFormatters(),
+            NO_THROTTLE_WINDOW,
+            NO_THROTTLE_WINDOW,
+            false,
+            gatewaySessions.logonAdmission(),
+            new Timer(clock, "Inbound", 1, counters.negativeTimestamps()));
+
+        final CompositeKey sessionKey = idStrategy.onInitiateLogon("acceptor", null, null, "initiator", null, null);
+        final SessionContext context = new SessionContext(
+            sessionKey, SESSION_ID, SEQUENCE_INDEX, 0, 0, fixContexts, 0, SEQUENCE_INDEX, fixDictionary, false);
+        endPoint.gatewaySession(new FixGatewaySession(
+            CONNECTION_ID,
+            context,
+            channel.remoteAddr(),
+            ConnectionType.ACCEPTOR,
+            sessionKey,
+            endPoint,
+            null,
+            null,
+            false,
+            0,
+            false,
+            false,
+            fixDictionary,
+            configuration));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        aeron.close();
+        sessionIdFile.close();
+        IoUtil.delete(directory, true);
+    }
+
+    @Benchmark
+    public int poll()
+    {
+        final int bytesRead = endPoint.poll();
+        aeron.drain();
+        return bytesRead;
+    }
+
+    private byte[] heartbeats()
+    {
+        final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        final long sendingTimeInMs = System.currentTimeMillis();
+        for (int i = 1; i <= messagesPerRead; i++)
+        {
+            final byte[] heartbeat = TestData.heartbeat("initiator", "acceptor", i, sendingTimeInMs);
+            batch.write(heartbeat, 0, heartbeat.length);
+        }
+        return batch.toByteArray();
+    }
+}
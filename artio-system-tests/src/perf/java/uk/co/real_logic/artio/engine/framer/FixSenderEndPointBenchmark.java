@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.InProcessAeron;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SENDER_MAX_BYTES_IN_BUFFER;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS;
+import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
+
+/**
+ * Measures a duty cycle of the {@link FixSenderEndPoint} writing a batch of outbound messages to a channel, with and
+ * without write coalescing. The channel is stubbed out and always accepts every byte that it's given.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FixSenderEndPointBenchmark
+{
+    private static final long CONNECTION_ID = 1;
+    private static final int MESSAGES_PER_DUTY_CYCLE = 10;
+
+    @Param({ "0", "4096" })
+    public int writeCoalescingBufferSize;
+
+    private final int[] messageOffsets = new int[MESSAGES_PER_DUTY_CYCLE];
+    private final int[] messageLengths = new int[MESSAGES_PER_DUTY_CYCLE];
+
+    private InProcessAeron aeron;
+    private UnsafeBuffer buffer;
+    private FixSenderEndPoint endPoint;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        aeron = new InProcessAeron();
+        final FixCounters counters = aeron.fixCounters();
+
+        // Messages are laid out as they would be in a fragment, after their body header
+        buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(64 * 1024));
+        final long sendingTimeInMs = System.currentTimeMillis();
+        int offset = FixMessageDecoder.bodyHeaderLength();
+        for (int i = 0; i < MESSAGES_PER_DUTY_CYCLE; i++)
+        {
+            final byte[] heartbeat = TestData.heartbeat("acceptor", "initiator", i + 1, sendingTimeInMs);
+            buffer.putBytes(offset, heartbeat);
+            messageOffsets[i] = offset;
+            messageLengths[i] = heartbeat.length;
+            offset += heartbeat.length + FixMessageDecoder.bodyHeaderLength();
+        }
+
+        final StubTcpChannel channel = new StubTcpChannel(new byte[0]);
+        endPoint = new FixSenderEndPoint(
+            CONNECTION_ID,
+            ENGINE_LIBRARY_ID,
+            null,
+            null,
+            channel,
+            counters.bytesInBuffer(CONNECTION_ID, channel.remoteAddr()),
+            counters.invalidLibraryAttempts(CONNECTION_ID, channel.remoteAddr()),
+            Throwable::printStackTrace,
+            null,
+            DEFAULT_SENDER_MAX_BYTES_IN_BUFFER,
+            DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+            0,
+            null,
+            null,
+            null,
+            new FixSenderEndPoint.Formatters(),
+            writeCoalescingBufferSize);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        aeron.close();
+    }
+
+    @Benchmark
+    public int onMessages()
+    {
+        final FixSenderEndPoint endPoint = this.endPoint;
+        final int[] messageOffsets = this.messageOffsets;
+        final int[] messageLengths = this.messageLengths;
+        final long timeInMs = System.currentTimeMillis();
+        for (int i = 0; i < MESSAGES_PER_DUTY_CYCLE; i++)
+        {
+            endPoint.onMessage(buffer, messageOffsets[i], messageLengths[i], 0, i + 1, timeInMs, false);
+        }
+
+        // The framer flushes any staged writes at the end of its duty cycle
+        return endPoint.flushStagedWrites();
+    }
+}
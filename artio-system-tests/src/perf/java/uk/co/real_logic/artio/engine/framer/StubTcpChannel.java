@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/**
+ * A channel without a socket: every read returns the same preloaded bytes and every write is fully consumed, so that
+ * benchmarks of the end points only measure Artio's own code.
+ */
+final class StubTcpChannel extends TcpChannel
+{
+    private final byte[] readBytes;
+
+    StubTcpChannel(final byte[] readBytes) throws IOException
+    {
+        super("127.0.0.1:9999");
+        this.readBytes = readBytes;
+    }
+
+    public SelectionKey register(final Selector sel, final int ops, final Object att)
+    {
+        return null;
+    }
+
+    public int write(final ByteBuffer src, final int seqNum, final boolean replay)
+    {
+        final int written = src.remaining();
+        src.position(src.limit());
+        return written;
+    }
+
+    public int read(final ByteBuffer dst)
+    {
+        final byte[] readBytes = this.readBytes;
+        if (dst.remaining() < readBytes.length)
+        {
+            return 0;
+        }
+
+        dst.put(readBytes);
+        return readBytes.length;
+    }
+
+    public void close()
+    {
+    }
+
+    public void onReplayComplete(final long correlationId)
+    {
+    }
+}
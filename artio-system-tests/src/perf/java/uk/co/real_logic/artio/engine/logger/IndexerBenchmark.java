@@ -0,0 +1,225 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Aeron;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.engine.MappedFile;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.FixPProtocolType;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.session.Session;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static io.aeron.protocol.DataHeaderFlyweight.*;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.HEARTBEAT_MESSAGE_TYPE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+
+/**
+ * Measures indexing a single archived message by the {@link SequenceNumberIndexWriter} and the {@link ReplayIndex},
+ * both of which run on the archiving agent for every message that the engine sends or receives.
+ *
+ * Fragments are read in turn from a term buffer of outbound heartbeats, rolling over to the next term once they've
+ * all been read so that positions keep increasing as they would on a real stream. Both indices are given the
+ * fragments as a catchup with a known recording id, so they don't need an archive to look the recording up. The
+ * sequence number index logs messages, as the engine's indices do by default, so it also updates its indexed positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IndexerBenchmark
+{
+    private static final int STREAM_ID = DEFAULT_OUTBOUND_LIBRARY_STREAM;
+    private static final int AERON_SESSION_ID = 1;
+    private static final int TERM_LENGTH = 64 * 1024;
+    private static final int INITIAL_TERM_ID = 0;
+    private static final long SESSION_ID = 1;
+    private static final long CONNECTION_ID = 1;
+    private static final int SEQUENCE_INDEX = 0;
+    private static final int LIBRARY_ID = 2;
+    private static final long RECORDING_ID = 1;
+    private static final int SEQUENCE_NUMBER_INDEX_SIZE = 16 * 1024;
+
+    private final UnsafeBuffer termBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(TERM_LENGTH));
+    private final Header header = new Header(INITIAL_TERM_ID, Integer.numberOfTrailingZeros(TERM_LENGTH));
+
+    private File logFileDir;
+    private SequenceNumberIndexWriter sequenceNumberIndexWriter;
+    private ReplayIndex replayIndex;
+    private int termLimit;
+    private int termOffset;
+    private int termId = INITIAL_TERM_ID;
+
+    @Setup
+    public void setup()
+    {
+        logFileDir = new File(IoUtil.tmpDirName(), "indexer-benchmark-" + System.nanoTime());
+        IoUtil.ensureDirectoryExists(logFileDir, logFileDir.getAbsolutePath());
+
+        termLimit = writeTerm();
+        header.buffer(termBuffer);
+
+        final ErrorHandler errorHandler = Throwable::printStackTrace;
+        final RecordingIdLookup recordingIdLookup = new RecordingIdLookup(
+            Aeron.NULL_VALUE, new NoOpIdleStrategy(), null);
+
+        sequenceNumberIndexWriter = new SequenceNumberIndexWriter(
+            new SequenceNumberExtractor(),
+            new UnsafeBuffer(new byte[SEQUENCE_NUMBER_INDEX_SIZE]),
+            MappedFile.map(new File(logFileDir, "sequence-number-index"), SEQUENCE_NUMBER_INDEX_SIZE),
+            errorHandler,
+            STREAM_ID,
+            recordingIdLookup,
+            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS,
+            new SystemEpochClock(),
+            null,
+            new Long2LongHashMap(UNK_SESSION),
+            FixPProtocolType.ILINK_3,
+            DEFAULT_INDEX_CHECKSUM_ENABLED,
+            true);
+
+        replayIndex = new ReplayIndex(
+            new SequenceNumberExtractor(),
+            logFileDir.getAbsolutePath(),
+            STREAM_ID,
+            DEFAULT_REPLAY_INDEX_RECORD_CAPACITY,
+            DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY,
+            LoggerUtil::map,
+            new UnsafeBuffer(new byte[DEFAULT_REPLAY_POSITION_BUFFER_SIZE]),
+            errorHandler,
+            recordingIdLookup,
+            new Long2LongHashMap(Session.UNKNOWN),
+            FixPProtocolType.ILINK_3,
+            sequenceNumberIndexWriter.reader(),
+            DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
+            DEFAULT_INDEX_CHECKSUM_ENABLED,
+            new ReplayEvictionHandler(errorHandler));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        replayIndex.close();
+        sequenceNumberIndexWriter.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public void sequenceNumberIndexOnFragment()
+    {
+        final int frameOffset = nextFrame();
+        sequenceNumberIndexWriter.onCatchup(
+            termBuffer, frameOffset + HEADER_LENGTH, fragmentLength(frameOffset), header, RECORDING_ID);
+    }
+
+    @Benchmark
+    public void replayIndexOnFragment()
+    {
+        final int frameOffset = nextFrame();
+        replayIndex.onCatchup(
+            termBuffer, frameOffset + HEADER_LENGTH, fragmentLength(frameOffset), header, RECORDING_ID);
+    }
+
+    private int nextFrame()
+    {
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        int frameOffset = termOffset;
+        if (frameOffset >= termLimit)
+        {
+            frameOffset = 0;
+            termId++;
+        }
+
+        termBuffer.putInt(frameOffset + TERM_ID_FIELD_OFFSET, termId, LITTLE_ENDIAN);
+        termOffset = frameOffset + BitUtil.align(termBuffer.getInt(frameOffset, LITTLE_ENDIAN), FRAME_ALIGNMENT);
+        header.offset(frameOffset);
+
+        return frameOffset;
+    }
+
+    private int fragmentLength(final int frameOffset)
+    {
+        return termBuffer.getInt(frameOffset, LITTLE_ENDIAN) - HEADER_LENGTH;
+    }
+
+    // Returns the offset after the last frame in the term
+    private int writeTerm()
+    {
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+        final FixMessageEncoder fixMessage = new FixMessageEncoder();
+        final long sendingTimeInMs = System.currentTimeMillis();
+
+        int frameOffset = 0;
+        int sequenceNumber = 1;
+        while (true)
+        {
+            final byte[] body = TestData.heartbeat("acceptor", "initiator", sequenceNumber, sendingTimeInMs);
+            final int fragmentLength = MessageHeaderEncoder.ENCODED_LENGTH + FixMessageEncoder.BLOCK_LENGTH +
+                FixMessageEncoder.metaDataHeaderLength() + FixMessageEncoder.bodyHeaderLength() + body.length;
+            final int frameLength = HEADER_LENGTH + fragmentLength;
+            if (frameOffset + BitUtil.align(frameLength, FRAME_ALIGNMENT) > TERM_LENGTH)
+            {
+                return frameOffset;
+            }
+
+            fixMessage
+                .wrapAndApplyHeader(termBuffer, frameOffset + HEADER_LENGTH, messageHeader)
+                .libraryId(LIBRARY_ID)
+                .messageType(HEARTBEAT_MESSAGE_TYPE)
+                .session(SESSION_ID)
+                .sequenceIndex(SEQUENCE_INDEX)
+                .connection(CONNECTION_ID)
+                .timestamp(sendingTimeInMs)
+                .status(MessageStatus.OK)
+                .putMetaData(new byte[0], 0, 0)
+                .putBody(body, 0, body.length);
+
+            termBuffer.putInt(frameOffset + FRAME_LENGTH_FIELD_OFFSET, frameLength, LITTLE_ENDIAN);
+            termBuffer.putByte(frameOffset + VERSION_FIELD_OFFSET, CURRENT_VERSION);
+            termBuffer.putByte(frameOffset + FLAGS_FIELD_OFFSET, UNFRAGMENTED);
+            termBuffer.putShort(frameOffset + TYPE_FIELD_OFFSET, (short)HDR_TYPE_DATA, LITTLE_ENDIAN);
+            termBuffer.putInt(frameOffset + TERM_OFFSET_FIELD_OFFSET, frameOffset, LITTLE_ENDIAN);
+            termBuffer.putInt(frameOffset + SESSION_ID_FIELD_OFFSET, AERON_SESSION_ID, LITTLE_ENDIAN);
+            termBuffer.putInt(frameOffset + STREAM_ID_FIELD_OFFSET, STREAM_ID, LITTLE_ENDIAN);
+
+            frameOffset += BitUtil.align(frameLength, FRAME_ALIGNMENT);
+            sequenceNumber++;
+        }
+    }
+}
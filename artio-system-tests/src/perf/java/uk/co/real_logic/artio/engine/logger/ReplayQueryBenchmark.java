@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Compares the cost of looking up a resend request for the most recent messages in a replay index with and without
+ * the {@link ReplayIndexSummary}.
+ *
+ * The first half of the index holds messages from a previous sequence index, as it would for a session that resets
+ * its sequence numbers daily. Without the summary the query has to scan over every one of those records as it can't
+ * estimate how far to jump over them.
+ *
+ * NB: the largest index size writes about 512MB of index files into a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayQueryBenchmark
+{
+    private static final long SESSION_ID = 1;
+    private static final int STREAM_ID = 2;
+    private static final int PREVIOUS_SEQUENCE_INDEX = 0;
+    private static final int SEQUENCE_INDEX = 1;
+    private static final int RESEND_RANGE = 5;
+    private static final int MAX_SEGMENT_CAPACITY = 1024 * 1024;
+    private static final int MESSAGE_LENGTH = 256;
+    private static final long RECORDING_ID = 1;
+
+    @Param({ "10000", "100000", "1000000", "10000000" })
+    public int recordCount;
+
+    @Param({ "true", "false" })
+    public boolean summary;
+
+    private File logFileDir;
+    private ReplayQuery replayQuery;
+
+    @Setup
+    public void setup()
+    {
+        logFileDir = new File(IoUtil.tmpDirName(), "replay-query-benchmark-" + System.nanoTime());
+        IoUtil.ensureDirectoryExists(logFileDir, logFileDir.getAbsolutePath());
+
+        final int indexFileCapacity = BitUtil.findNextPositivePowerOfTwo(recordCount);
+        final int indexSegmentCapacity = Math.min(indexFileCapacity, MAX_SEGMENT_CAPACITY);
+        writeIndex(indexFileCapacity, indexSegmentCapacity);
+
+        replayQuery = new ReplayQuery(
+            logFileDir.getAbsolutePath(),
+            1,
+            1,
+            LoggerUtil::mapExistingFile,
+            STREAM_ID,
+            new NoOpIdleStrategy(),
+            null,
+            Throwable::printStackTrace,
+            NoOpReplayQueryListener.INSTANCE,
+            -1,
+            indexFileCapacity,
+            indexSegmentCapacity);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        replayQuery.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryMostRecentMessages()
+    {
+        final int lastSequenceNumber = recordCount - recordCount / 2;
+        return replayQuery.queryRecordingRanges(
+            SESSION_ID, lastSequenceNumber - RESEND_RANGE + 1, SEQUENCE_INDEX, lastSequenceNumber, SEQUENCE_INDEX);
+    }
+
+    private void writeIndex(final int indexFileCapacity, final int indexSegmentCapacity)
+    {
+        final String logFileDir = this.logFileDir.getAbsolutePath();
+        final long indexFileSize = capacityToBytes(indexFileCapacity);
+        final int segmentSize = capacityToBytesInt(indexSegmentCapacity);
+        final int segmentSizeBitShift = Integer.numberOfTrailingZeros(segmentSize);
+        final UnsafeBuffer[] segmentBuffers = new UnsafeBuffer[segmentCount(indexFileCapacity, indexSegmentCapacity)];
+
+        final UnsafeBuffer summaryBuffer = summary ? new UnsafeBuffer(LoggerUtil.map(
+            ReplayIndexSummary.replayIndexSummaryFile(logFileDir, SESSION_ID, STREAM_ID),
+            ReplayIndexSummary.summaryFileSize(indexFileCapacity))) : null;
+        final int summaryEntryMask = ReplayIndexSummary.entryCount(indexFileCapacity) - 1;
+
+        final ReplayIndexRecordEncoder indexRecord = new ReplayIndexRecordEncoder();
+        final int previousSequenceIndexCount = recordCount / 2;
+        long position = 0;
+        for (int i = 0; i < recordCount; i++)
+        {
+            final boolean previous = i < previousSequenceIndexCount;
+            final int sequenceIndex = previous ? PREVIOUS_SEQUENCE_INDEX : SEQUENCE_INDEX;
+            final int sequenceNumber = previous ? i + 1 : i - previousSequenceIndexCount + 1;
+
+            final int segmentIndex = segmentIndex(position, segmentSizeBitShift, indexFileSize);
+            UnsafeBuffer segmentBuffer = segmentBuffers[segmentIndex];
+            if (segmentBuffer == null)
+            {
+                segmentBuffer = new UnsafeBuffer(LoggerUtil.map(
+                    replayIndexSegmentFile(logFileDir, SESSION_ID, STREAM_ID, segmentIndex), segmentSize));
+                segmentBuffers[segmentIndex] = segmentBuffer;
+            }
+
+            indexRecord
+                .wrap(segmentBuffer, offsetInSegment(position, segmentSize))
+                .position((i + 1L) * MESSAGE_LENGTH)
+                .sequenceNumber(sequenceNumber)
+                .sequenceIndex(sequenceIndex)
+                .recordingId(RECORDING_ID)
+                .length(MESSAGE_LENGTH);
+
+            if (summaryBuffer != null && ReplayIndexSummary.isBlockStart(position))
+            {
+                ReplayIndexSummary.onBlockStart(
+                    summaryBuffer, summaryEntryMask, position, sequenceIndex, sequenceNumber);
+            }
+
+            position += RECORD_LENGTH;
+        }
+
+        final UnsafeBuffer headerBuffer = new UnsafeBuffer(
+            LoggerUtil.map(replayIndexHeaderFile(logFileDir, SESSION_ID, STREAM_ID), HEADER_FILE_SIZE));
+        new MessageHeaderEncoder()
+            .wrap(headerBuffer, 0)
+            .blockLength(indexRecord.sbeBlockLength())
+            .templateId(indexRecord.sbeTemplateId())
+            .schemaId(indexRecord.sbeSchemaId())
+            .version(indexRecord.sbeSchemaVersion());
+        beginChangeOrdered(headerBuffer, position);
+        endChangeOrdered(headerBuffer, position);
+
+        unmapBuffers(headerBuffer, segmentBuffers);
+        if (summaryBuffer != null)
+        {
+            IoUtil.unmap(summaryBuffer.byteBuffer());
+        }
+    }
+}
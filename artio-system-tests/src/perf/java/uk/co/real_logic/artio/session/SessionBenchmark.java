@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.InProcessAeron;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.TestRequestEncoder;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.fields.EpochFractionFormat;
+import uk.co.real_logic.artio.library.OnMessageInfo;
+import uk.co.real_logic.artio.messages.ConnectionType;
+import uk.co.real_logic.artio.messages.SessionState;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.util.EpochFractionClocks;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+import uk.co.real_logic.artio.validation.MessageValidationStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.CommonConfiguration.*;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.HEARTBEAT_MESSAGE_TYPE;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.TEST_REQUEST_MESSAGE_TYPE;
+
+/**
+ * Measures the session layer of an active acceptor session: validating and processing a received heartbeat through
+ * the {@link SessionParser} and encoding and sending a test request through the {@link Session}.
+ *
+ * A pre-rendered test request is also sent both by copying it in with
+ * {@link Session#trySend(org.agrona.DirectBuffer, int, int, int, long)} and by writing it straight into the
+ * publication with {@link Session#tryClaim(int, int, long, MessageClaim)}, to compare the two paths. Its sequence
+ * number isn't updated as nothing reads the outbound stream to check it.
+ *
+ * The publications are IPC, with the outbound one drained after each send in place of the engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SessionBenchmark
+{
+    private static final long CONNECTION_ID = 1;
+    private static final long SESSION_ID = 1;
+    private static final int LIBRARY_ID = 2;
+    private static final int SEQUENCE_INDEX = 0;
+
+    private final UnsafeBuffer heartbeatBuffer = new UnsafeBuffer(new byte[0]);
+    private final TestRequestEncoder testRequest = new TestRequestEncoder().testReqID("TEST");
+    private final MutableAsciiBuffer renderedTestRequest =
+        new MutableAsciiBuffer(new byte[DEFAULT_SESSION_BUFFER_SIZE]);
+    private final MessageClaim claim = new MessageClaim();
+
+    private InProcessAeron aeron;
+    private InternalSession session;
+    private SessionParser parser;
+    private int heartbeatLength;
+    private int renderedTestRequestOffset;
+    private int renderedTestRequestLength;
+
+    @Setup
+    public void setup()
+    {
+        final ErrorHandler errorHandler = Throwable::printStackTrace;
+        final EpochNanoClock clock = new OffsetEpochNanoClock();
+        final SessionIdStrategy idStrategy = SessionIdStrategy.senderAndTarget();
+        final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.findDefault());
+        final OnMessageInfo messageInfo = new OnMessageInfo();
+
+        aeron = new InProcessAeron();
+        final FixCounters counters = aeron.fixCounters();
+        final GatewayPublication inboundPublication = aeron.gatewayPublication(
+            DEFAULT_INBOUND_LIBRARY_STREAM, counters.failedInboundPublications());
+        final GatewayPublication outboundPublication = aeron.gatewayPublication(
+            DEFAULT_OUTBOUND_LIBRARY_STREAM, counters.failedOutboundPublications());
+
+        final DirectSessionProxy proxy = new DirectSessionProxy(
+            DEFAULT_SESSION_BUFFER_SIZE,
+            outboundPublication,
+            idStrategy,
+            SessionCustomisationStrategy.none(),
+            clock,
+            CONNECTION_ID,
+            LIBRARY_ID,
+            errorHandler,
+            EpochFractionFormat.MILLISECONDS);
+
+        session = new InternalSession(
+            DEFAULT_HEARTBEAT_INTERVAL_IN_S,
+            CONNECTION_ID,
+            clock,
+            SessionState.ACTIVE,
+            false,
+            proxy,
+            inboundPublication,
+            outboundPublication,
+            idStrategy,
+            DEFAULT_SENDING_TIME_WINDOW,
+            counters.receivedMsgSeqNo(CONNECTION_ID, SESSION_ID),
+            counters.sentMsgSeqNo(CONNECTION_ID, SESSION_ID),
+            LIBRARY_ID,
+            1,
+            SEQUENCE_INDEX,
+            DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_MS,
+            new MutableAsciiBuffer(new byte[DEFAULT_SESSION_BUFFER_SIZE]),
+            false,
+            SessionCustomisationStrategy.none(),
+            messageInfo,
+            EpochFractionClocks.create(new SystemEpochClock(), clock, EpochFractionFormat.MILLISECONDS),
+            ConnectionType.ACCEPTOR,
+            DEFAULT_RESEND_REQUEST_CONTROLLER,
+            NO_FORCED_HEARTBEAT_INTERVAL,
+            false,
+            false,
+            new InternalSession.Formatters());
+        session.setupSession(
+            SESSION_ID, idStrategy.onInitiateLogon("acceptor", null, null, "initiator", null, null), null);
+        session.fixDictionary(fixDictionary);
+
+        parser = new SessionParser(
+            session, MessageValidationStrategy.none(), errorHandler, true, true, messageInfo, idStrategy);
+        parser.fixDictionary(fixDictionary);
+
+        session.prepare(testRequest.header());
+        final long result = testRequest.encode(renderedTestRequest, 0);
+        renderedTestRequestOffset = Encoder.offset(result);
+        renderedTestRequestLength = Encoder.length(result);
+    }
+
+    @Setup(Level.Iteration)
+    public void encodeHeartbeat()
+    {
+        // Keep the sending time within the sending time window however long the benchmark runs for
+        final byte[] heartbeat = TestData.heartbeat("initiator", "acceptor", 1, System.currentTimeMillis());
+        heartbeatBuffer.wrap(heartbeat);
+        heartbeatLength = heartbeat.length;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        aeron.close();
+    }
+
+    @Benchmark
+    public Action parseHeartbeat()
+    {
+        // Every heartbeat has the same sequence number, so the session has to expect it each time
+        session.lastReceivedMsgSeqNumOnly(0);
+        return parser.onMessage(heartbeatBuffer, 0, heartbeatLength, HEARTBEAT_MESSAGE_TYPE, 0);
+    }
+
+    @Benchmark
+    public long trySendTestRequest()
+    {
+        final long position = session.trySend(testRequest);
+        aeron.drain();
+        return position;
+    }
+
+    @Benchmark
+    public long trySendRenderedTestRequest()
+    {
+        final long position = session.trySend(
+            renderedTestRequest,
+            renderedTestRequestOffset,
+            renderedTestRequestLength,
+            session.lastSentMsgSeqNum() + 1,
+            TEST_REQUEST_MESSAGE_TYPE);
+        aeron.drain();
+        return position;
+    }
+
+    @Benchmark
+    public long tryClaimRenderedTestRequest()
+    {
+        final MessageClaim claim = this.claim;
+        final int length = renderedTestRequestLength;
+        long position = session.tryClaim(length, session.lastSentMsgSeqNum() + 1, TEST_REQUEST_MESSAGE_TYPE, claim);
+        if (position > 0)
+        {
+            claim.buffer().putBytes(0, renderedTestRequest, renderedTestRequestOffset, length);
+            position = claim.commit();
+        }
+        aeron.drain();
+        return position;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.FixEngine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.messages.SessionReplyStatus.OK;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+
+public class DedicatedSequenceNumberIndexersSystemTest extends AbstractGatewayToGatewaySystemTest
+{
+    @Before
+    public void launch()
+    {
+        mediaDriver = launchMediaDriver();
+
+        acceptingEngine = FixEngine.launch(acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, nanoClock)
+            .dedicatedSequenceNumberIndexers(true)
+            .deleteLogFileDirOnStart(true));
+
+        initiatingEngine = FixEngine.launch(initiatingConfig(libraryAeronPort, nanoClock)
+            .dedicatedSequenceNumberIndexers(true)
+            .deleteLogFileDirOnStart(true));
+
+        acceptingLibrary = connect(acceptingLibraryConfig(acceptingHandler, nanoClock));
+        initiatingLibrary = newInitiatingLibrary(libraryAeronPort, initiatingHandler, nanoClock);
+        testSystem = new TestSystem(acceptingLibrary, initiatingLibrary);
+
+        connectSessions();
+    }
+
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void messagesCanBeSentFromInitiatorToAcceptingLibrary()
+    {
+        acquireAcceptingSession();
+
+        messagesCanBeExchanged();
+
+        assertSequenceIndicesAre(0);
+    }
+
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void librariesShouldBeAbleToAcquireReleasedSessions()
+    {
+        acquireAcceptingSession();
+        messagesCanBeExchanged();
+
+        final long sessionId = acceptingSession.id();
+        assertEquals(OK, releaseToEngine(acceptingLibrary, acceptingSession, testSystem));
+        acceptingHandler.resetSession();
+
+        assertEquals(OK, requestSession(acceptingLibrary, sessionId, testSystem));
+        assertSame(acceptingSession, acceptingHandler.lastSession());
+
+        messagesCanBeExchanged();
+        assertSequenceIndicesAre(0);
+    }
+}